@@ -0,0 +1,251 @@
+package bricker.benchmark;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.EntityKind;
+import bricker.gameobjects.Heart;
+import bricker.gameobjects.Paddle;
+import bricker.input.FrameInput;
+import bricker.main.BrickerEnvironment;
+import bricker.main.BrickerGameManager;
+import bricker.main.HeadlessSimulation;
+import bricker.main.SnapshotRing;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.lang.management.ManagementFactory;
+
+import static bricker.main.Constants.*;
+
+/**
+ * AllocationRegressionCheck runs the steady-state update paths of Paddle, Ball and Heart for a number
+ * of frames and checks, with the per-thread allocation counter of ThreadMXBean, that they allocate
+ * nothing of their own.
+ * GameObject.update of the engine may allocate while moving an object, so every path is compared
+ * against a plain GameObject moved with the same velocities for the same frames; only bytes beyond
+ * that baseline count as a regression.
+ * The counter sees everything the thread allocates, including the JIT's own work while it compiles
+ * and deoptimizes the code under test, so a single run is noisy. Every path and its baseline are
+ * therefore warmed up over WARMUP_RUNS runs, measured over MEASURED_RUNS runs and compared by their
+ * quietest run, and a path may allocate up to TOLERANCE_BYTES per frame beyond its baseline: far less
+ * than a single object per frame, which is what a regression in an update path costs. The process
+ * exits with a non-zero status if any path regresses, so a build can run it as a check.
+ */
+public class AllocationRegressionCheck {
+    private static final int DEFAULT_FRAMES = 10_000;
+    private static final int FRAMES_PER_KEY = 120;
+    private static final int FRAMES_PER_HEART_FALL = 60;
+    private static final int SNAPSHOT_RING_CAPACITY = 64;
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 5;
+    private static final double TOLERANCE_BYTES = 1;
+    private static final int OBSERVED_PUCKS = 16;
+    private static final long SEED = 42;
+    private static final String ROW_FORMAT = "%-40s %14.2f %14.2f %8s%n";
+
+    private final int numFrames;
+    private final com.sun.management.ThreadMXBean threadBean;
+    private boolean passed;
+
+    /**
+     * Constructs a new AllocationRegressionCheck.
+     *
+     * @param numFrames The number of frames every path is run for.
+     */
+    public AllocationRegressionCheck(int numFrames) {
+        this.numFrames = numFrames;
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.threadBean.setThreadAllocatedMemoryEnabled(true);
+        this.passed = true;
+    }
+
+    /**
+     * Runs all the checks and prints the bytes allocated per frame by every path and its baseline.
+     *
+     * @return true if no path allocated beyond its baseline, false otherwise.
+     */
+    public boolean runAll() {
+        System.out.printf("%-40s %14s %14s %8s%n", "Path", "B/frame", "baseline", "result");
+        checkPaddle();
+        checkBallCollision();
+        checkBallUpdate();
+        checkFallingHeart();
+        checkSnapshotCapture();
+        checkRestart();
+        checkObservation();
+        return passed;
+    }
+
+    private void checkPaddle() {
+        FrameInput frameInput = new FrameInput();
+        Vector2 windowDimensions = new Vector2(SCREEN_WIDTH, SCREEN_HEIGHT);
+        Vector2 start = new Vector2(SCREEN_WIDTH / 2f, SCREEN_HEIGHT - PADDLE_MARGIN_FROM_SCREEN_BOTTOM);
+        Paddle paddle = new Paddle(start, new Vector2(PADDLE_WIDTH, PADDLE_HEIGHT), null, frameInput,
+                windowDimensions, BORDER_WIDTH);
+        paddle.setKind(EntityKind.USER_PADDLE);
+        //holds left, then right, then nothing, long enough to reach and push against both borders
+        int[] keys = {FrameInput.LEFT, FrameInput.RIGHT, 0};
+        Vector2[] velocities = new Vector2[numFrames];
+        Runnable path = () -> {
+            paddle.setTopLeftCorner(start);
+            for (int i = 0; i < numFrames; i++) {
+                frameInput.set(keys[(i / FRAMES_PER_KEY) % keys.length]);
+                paddle.update(FIXED_DELTA_TIME);
+                velocities[i] = paddle.getVelocity();
+            }
+        };
+        check("Paddle.update", path, baseline(start, velocities));
+    }
+
+    private void checkBallCollision() {
+        Ball ball = new Ball(Vector2.ZERO, new Vector2(BALL_RADIUS, BALL_RADIUS), null, null,
+                (o1, o2) -> { });
+        Vector2 launchVelocity = new Vector2(BALL_SPEED, -BALL_SPEED);
+        GameObject wall = new GameObject(Vector2.ZERO, Vector2.ONES, null);
+        Vector2[] normals = {Vector2.UP, Vector2.LEFT, Vector2.DOWN, Vector2.RIGHT};
+        Runnable path = () -> {
+            ball.setVelocity(launchVelocity);
+            for (int i = 0; i < numFrames; i++) {
+                ball.handleCollision(wall, normals[i % normals.length]);
+            }
+        };
+        check("Ball.handleCollision", path, () -> { });
+    }
+
+    private void checkBallUpdate() {
+        Vector2 start = new Vector2(SCREEN_WIDTH / 2f, SCREEN_HEIGHT / 2f);
+        Vector2 velocity = new Vector2(BALL_SPEED, BALL_SPEED);
+        Ball ball = new Ball(start, new Vector2(BALL_RADIUS, BALL_RADIUS), null, null, (o1, o2) -> { });
+        Vector2[] velocities = new Vector2[numFrames];
+        Runnable path = () -> {
+            ball.setTopLeftCorner(start);
+            ball.setVelocity(velocity);
+            for (int i = 0; i < numFrames; i++) {
+                ball.update(FIXED_DELTA_TIME);
+                velocities[i] = ball.getVelocity();
+            }
+        };
+        check("Ball.update", path, baseline(start, velocities));
+    }
+
+    private void checkFallingHeart() {
+        BrickerGameManager game = new HeadlessSimulation(DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW, SEED)
+                .getGame();
+        //a pooled heart carries the game's own out of screen strategy
+        Heart heart = game.getFallingHeartPool().acquire();
+        Vector2 start = new Vector2(SCREEN_WIDTH / 2f, 0);
+        Vector2 velocity = new Vector2(0, (float) FALLING_HEART_SPEED);
+        Vector2[] velocities = new Vector2[numFrames];
+        Runnable path = () -> {
+            heart.setVelocity(velocity);
+            for (int i = 0; i < numFrames; i++) {
+                if (i % FRAMES_PER_HEART_FALL == 0) {
+                    heart.setTopLeftCorner(start);
+                }
+                heart.update(FIXED_DELTA_TIME);
+                velocities[i] = heart.getVelocity();
+            }
+        };
+        check("Heart.update (falling)", path, baseline(start, velocities, FRAMES_PER_HEART_FALL));
+    }
+
+    private void checkSnapshotCapture() {
+        BrickerGameManager game = new HeadlessSimulation(DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW, SEED)
+                .getGame();
+        SnapshotRing ring = new SnapshotRing(SNAPSHOT_RING_CAPACITY);
+        Runnable path = () -> {
+            for (int i = 0; i < numFrames; i++) {
+                ring.capture(game);
+            }
+        };
+        check("SnapshotRing.capture", path, () -> { });
+    }
+
+    private void checkRestart() {
+        BrickerGameManager game = new HeadlessSimulation(DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW, SEED)
+                .getGame();
+        int numCells = game.getBrickField().getNumCells();
+        Runnable path = () -> {
+            for (int i = 0; i < numFrames; i++) {
+                game.getBrickField().destroy(i % numCells);
+                game.getPuckSystem().spawn(SCREEN_WIDTH / 2f, SCREEN_HEIGHT / 2f, BALL_SPEED, BALL_SPEED);
+                game.restart();
+            }
+        };
+        check("BrickerGameManager.restart", path, () -> { });
+    }
+
+    private void checkObservation() {
+        BrickerEnvironment environment = new BrickerEnvironment(DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW,
+                SEED, OBSERVED_PUCKS);
+        BrickerGameManager game = environment.getGame();
+        for (int i = 0; i < OBSERVED_PUCKS; i++) {
+            game.getPuckSystem().spawn(SCREEN_WIDTH / 2f, SCREEN_HEIGHT / 2f, BALL_SPEED, BALL_SPEED);
+        }
+        for (int cell = 0; cell < game.getBrickField().getNumCells(); cell += 2) {
+            game.getBrickField().destroy(cell);
+        }
+        Runnable path = () -> {
+            for (int i = 0; i < numFrames; i++) {
+                environment.writeObservation();
+            }
+        };
+        check("BrickerEnvironment.writeObservation", path, () -> { });
+    }
+
+    private Runnable baseline(Vector2 start, Vector2[] velocities) {
+        return baseline(start, velocities, Integer.MAX_VALUE);
+    }
+
+    private Runnable baseline(Vector2 start, Vector2[] velocities, int framesPerReset) {
+        GameObject shadow = new GameObject(start, Vector2.ONES, null);
+        return () -> {
+            for (int i = 0; i < numFrames; i++) {
+                if (i % framesPerReset == 0) {
+                    shadow.setTopLeftCorner(start);
+                }
+                shadow.setVelocity(velocities[i]);
+                shadow.update(FIXED_DELTA_TIME);
+            }
+        };
+    }
+
+    private void check(String name, Runnable path, Runnable baseline) {
+        //the first runs warm up the code, and record the velocities the baseline replays
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            path.run();
+            baseline.run();
+        }
+        long pathMinBytes = Long.MAX_VALUE;
+        long baselineMinBytes = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            pathMinBytes = Math.min(pathMinBytes, allocatedBytes(path));
+            baselineMinBytes = Math.min(baselineMinBytes, allocatedBytes(baseline));
+        }
+        double pathBytes = (double) pathMinBytes / numFrames;
+        double baselineBytes = (double) baselineMinBytes / numFrames;
+        boolean ok = pathBytes <= baselineBytes + TOLERANCE_BYTES;
+        passed &= ok;
+        System.out.printf(ROW_FORMAT, name, pathBytes, baselineBytes, ok ? "ok" : "FAILED");
+    }
+
+    private long allocatedBytes(Runnable frames) {
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        frames.run();
+        return threadBean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    /**
+     * Runs the allocation regression check.
+     *
+     * @param args Optionally, the number of frames every path is run for.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int numFrames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+        if (!new AllocationRegressionCheck(numFrames).runAll()) {
+            System.err.println("allocation regression: a steady-state update path allocates");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package bricker.benchmark;
+
+import bricker.audio.AudioMixer;
+import bricker.audio.PcmClip;
+import bricker.audio.SoundEffect;
+
+import java.util.concurrent.locks.LockSupport;
+
+import static bricker.main.Constants.*;
+
+/**
+ * AudioMixerBenchmark measures what playing a sound costs the game thread once playback moved to the
+ * mixer thread, and floods a silent mixer with contacts at the frame rate of the game to show how many
+ * requests are played, coalesced and dropped.
+ */
+public class AudioMixerBenchmark {
+    private static final int PLAYS_PER_ITERATION = 10_000;
+    private static final int[] PLAYS_PER_FRAME = {1, 100, 1_000};
+    private static final int FLOOD_FRAMES = 2 * FIXED_FRAME_RATE;
+    private static final int NUM_CLIPS = 2;
+    private static final double CLIP_SECONDS = 0.25;
+    private static final double TONE_HZ = 440;
+    private static final double AMPLITUDE = Short.MAX_VALUE / 4.0;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Runs all audio mixer benchmarks.
+     *
+     * @param harness The harness used to measure the benchmarks.
+     */
+    public void runAll(BenchmarkHarness harness) {
+        benchmarkPlay(harness);
+        for (int playsPerFrame : PLAYS_PER_FRAME) {
+            flood(playsPerFrame);
+        }
+    }
+
+    private void benchmarkPlay(BenchmarkHarness harness) {
+        try (AudioMixer mixer = createMixer()) {
+            SoundEffect effect = mixer.add("tone", tone());
+            harness.measure("SoundEffect.play (mixer enqueue)", PLAYS_PER_ITERATION, () -> { },
+                    numOps -> {
+                        for (int i = 0; i < numOps; i++) {
+                            effect.play();
+                        }
+                    });
+            System.out.println("  " + mixer);
+        }
+    }
+
+    private void flood(int playsPerFrame) {
+        try (AudioMixer mixer = createMixer()) {
+            SoundEffect[] effects = new SoundEffect[NUM_CLIPS];
+            for (int i = 0; i < NUM_CLIPS; i++) {
+                effects[i] = mixer.add("tone" + i, tone());
+            }
+            long frameNanos = NANOS_PER_SECOND / FIXED_FRAME_RATE;
+            long playNanos = 0;
+            long deadline = System.nanoTime();
+            for (int frame = 0; frame < FLOOD_FRAMES; frame++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < playsPerFrame; i++) {
+                    effects[i % NUM_CLIPS].play();
+                }
+                playNanos += System.nanoTime() - start;
+                deadline += frameNanos;
+                LockSupport.parkNanos(deadline - System.nanoTime());
+            }
+            System.out.printf("Audio flood (%d plays per frame, %d frames): %.1f us per frame on the game "
+                            + "thread%n  %s%n", playsPerFrame, FLOOD_FRAMES, playNanos / 1e3 / FLOOD_FRAMES,
+                    mixer);
+        }
+    }
+
+    private static AudioMixer createMixer() {
+        return new AudioMixer(AUDIO_SAMPLE_RATE, FIXED_FRAME_RATE, AUDIO_MAX_VOICES, AUDIO_QUEUE_CAPACITY,
+                null);
+    }
+
+    private static PcmClip tone() {
+        short[] samples = new short[(int) (CLIP_SECONDS * AUDIO_SAMPLE_RATE)];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) (AMPLITUDE * Math.sin(2 * Math.PI * TONE_HZ * i / AUDIO_SAMPLE_RATE));
+        }
+        return new PcmClip(samples);
+    }
+
+    /**
+     * Runs the audio mixer benchmarks on their own.
+     *
+     * @param args Ignored.
+     */
+    public static void main(String[] args) {
+        new AudioMixerBenchmark().runAll(new BenchmarkHarness());
+    }
+}
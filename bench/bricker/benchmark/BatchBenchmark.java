@@ -0,0 +1,53 @@
+package bricker.benchmark;
+
+import bricker.headless.BatchJob;
+import bricker.main.BatchRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static bricker.main.Constants.*;
+
+/**
+ * BatchBenchmark measures the time per game of a batch of short headless games played by
+ * BatchRunner, on one worker and on one worker per core. The games are cut at a fixed number of
+ * frames so every game costs about the same, and the ratio of the two rows is the speedup of running
+ * the games side by side in one JVM.
+ */
+public class BatchBenchmark {
+    private static final int GAMES_PER_ITERATION = 32;
+    private static final int MAX_FRAMES = FIXED_FRAME_RATE * 60;
+
+    /**
+     * Runs all batch benchmarks.
+     *
+     * @param harness The harness used to measure the benchmarks.
+     */
+    public void runAll(BenchmarkHarness harness) {
+        List<BatchJob> jobs = new ArrayList<>();
+        for (int seed = 0; seed < GAMES_PER_ITERATION; seed++) {
+            jobs.add(new BatchJob("benchmark", DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW, seed, MAX_FRAMES));
+        }
+        int numCores = Runtime.getRuntime().availableProcessors();
+        for (int parallelism : new int[]{1, numCores}) {
+            harness.measure("BatchRunner.run (" + parallelism + " workers, per game)", GAMES_PER_ITERATION,
+                    () -> { }, numOps -> {
+                        try (BatchRunner runner = new BatchRunner(parallelism)) {
+                            runner.run(jobs);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Runs the batch benchmarks on their own.
+     *
+     * @param args Ignored.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        new BatchBenchmark().runAll(new BenchmarkHarness());
+    }
+}
@@ -0,0 +1,89 @@
+package bricker.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntConsumer;
+
+/**
+ * BenchmarkHarness is a small, dependency free microbenchmark runner.
+ * Each benchmark is run for a number of warmup iterations followed by measured iterations. Every
+ * iteration gets an untimed set up step and then executes a batch of operations, so benchmarks that
+ * consume state (e.g. destroy bricks) can rebuild it between iterations.
+ * For every benchmark the harness reports the average time per operation and the number of bytes
+ * allocated per operation by the benchmarking thread, together with the resulting allocation rate.
+ */
+public class BenchmarkHarness {
+    private static final int DEFAULT_WARMUP_ITERATIONS = 5;
+    private static final int DEFAULT_MEASURED_ITERATIONS = 10;
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final String HEADER_FORMAT = "%-55s %14s %12s %12s%n";
+    private static final String ROW_FORMAT = "%-55s %14.1f %12.1f %12.1f%n";
+
+    private final int warmupIterations;
+    private final int measuredIterations;
+    private final com.sun.management.ThreadMXBean threadBean;
+    private boolean printedHeader;
+
+    /**
+     * Constructs a new BenchmarkHarness with the default number of iterations.
+     */
+    public BenchmarkHarness() {
+        this(DEFAULT_WARMUP_ITERATIONS, DEFAULT_MEASURED_ITERATIONS);
+    }
+
+    /**
+     * Constructs a new BenchmarkHarness.
+     *
+     * @param warmupIterations   The number of untimed iterations run before measuring.
+     * @param measuredIterations The number of measured iterations.
+     */
+    public BenchmarkHarness(int warmupIterations, int measuredIterations) {
+        this.warmupIterations = warmupIterations;
+        this.measuredIterations = measuredIterations;
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.threadBean.setThreadAllocatedMemoryEnabled(true);
+        this.printedHeader = false;
+    }
+
+    /**
+     * Measures a benchmark and prints one result row.
+     *
+     * @param name               The name of the benchmark.
+     * @param opsPerIteration    The number of operations executed by a single call to body.
+     * @param setUp              Untimed preparation run before every iteration.
+     * @param body               The measured code. It receives the number of operations to execute.
+     * @return The average time of a single operation, in nanoseconds.
+     */
+    public double measure(String name, int opsPerIteration, Runnable setUp, IntConsumer body) {
+        for (int i = 0; i < warmupIterations; i++) {
+            setUp.run();
+            body.accept(opsPerIteration);
+        }
+        long totalNanos = 0;
+        long totalBytes = 0;
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < measuredIterations; i++) {
+            setUp.run();
+            long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            body.accept(opsPerIteration);
+            totalNanos += System.nanoTime() - start;
+            totalBytes += threadBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+        }
+        long totalOps = (long) opsPerIteration * measuredIterations;
+        double nanosPerOp = (double) totalNanos / totalOps;
+        double bytesPerOp = (double) totalBytes / totalOps;
+        double allocationRate = totalNanos == 0 ? 0 :
+                totalBytes / BYTES_PER_MEGABYTE / (totalNanos / NANOS_PER_SECOND);
+        printRow(name, nanosPerOp, bytesPerOp, allocationRate);
+        return nanosPerOp;
+    }
+
+    private void printRow(String name, double nanosPerOp, double bytesPerOp, double allocationRate) {
+        if (!printedHeader) {
+            System.out.printf(HEADER_FORMAT, "Benchmark", "ns/op", "B/op", "MB/s");
+            printedHeader = true;
+        }
+        System.out.printf(ROW_FORMAT, name, nanosPerOp, bytesPerOp, allocationRate);
+    }
+}
@@ -0,0 +1,31 @@
+package bricker.benchmark;
+
+/**
+ * BenchmarkSuite is the entry point of the benchmark source set. It runs every benchmark headlessly
+ * and prints ns/op, allocated bytes per op and the allocation rate of each one.
+ * Compile the bench directory together with src against the DanoGameLab jar, and run this class with
+ * a fixed heap (e.g. -Xms2g -Xmx2g) so results stay comparable between releases.
+ */
+public class BenchmarkSuite {
+
+    /**
+     * Runs all the benchmarks.
+     *
+     * @param args Ignored.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        BenchmarkHarness harness = new BenchmarkHarness();
+        new CollisionBenchmark().runAll(harness);
+        new SpawnBenchmark().runAll(harness);
+        new PuckBenchmark().runAll(harness);
+        new ParallelCollisionBenchmark().runAll(harness);
+        new AudioMixerBenchmark().runAll(harness);
+        new LevelLoadBenchmark().runAll(harness);
+        new StaticBodiesBenchmark().runAll(harness);
+        new SnapshotBenchmark().runAll(harness);
+        new ResetBenchmark().runAll(harness);
+        new BatchBenchmark().runAll(harness);
+        new EnvironmentBenchmark().runAll(harness);
+    }
+}
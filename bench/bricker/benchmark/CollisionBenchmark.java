@@ -0,0 +1,105 @@
+package bricker.benchmark;
+
+import bricker.brick_strategies.BasicCollisionStrategy;
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.brick_strategies.DoubleBehaviorStrategy;
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.Brick;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.EntityKind;
+import bricker.main.BrickerGameManager;
+import bricker.main.HeadlessSimulation;
+import bricker.util.RandomSource;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import static bricker.main.Constants.*;
+
+/**
+ * CollisionBenchmark measures the collision hot paths: the ball bounce, the basic brick collision
+ * strategy (brick removal plus the random special behavior) and the double behavior strategy.
+ */
+public class CollisionBenchmark {
+    private static final int BOUNCES_PER_ITERATION = 1_000_000;
+    private static final int STRATEGY_ROWS = 100;
+    private static final int STRATEGY_BRICKS_PER_ROW = 100;
+    private static final int DOUBLE_BEHAVIOR_CALLS = 2_000;
+    private static final long SEED = 42;
+
+    private BrickerGameManager game;
+    private Brick[] bricks;
+    private Ball ball;
+
+    /**
+     * Runs all collision benchmarks.
+     *
+     * @param harness The harness used to measure the benchmarks.
+     */
+    public void runAll(BenchmarkHarness harness) {
+        benchmarkBallCollision(harness);
+        benchmarkBasicCollisionStrategy(harness);
+        benchmarkDoubleBehaviorStrategy(harness);
+    }
+
+    private void benchmarkBallCollision(BenchmarkHarness harness) {
+        CollisionStrategy noOpStrategy = (o1, o2) -> { };
+        Ball bouncingBall = new Ball(Vector2.ZERO, new Vector2(BALL_RADIUS, BALL_RADIUS), null, null,
+                noOpStrategy);
+        bouncingBall.setVelocity(new Vector2(BALL_SPEED, BALL_SPEED));
+        GameObject wall = new GameObject(Vector2.ZERO, Vector2.ONES, null);
+        harness.measure("Ball.onCollisionEnter", BOUNCES_PER_ITERATION, () -> { }, numOps -> {
+            for (int i = 0; i < numOps; i++) {
+                bouncingBall.handleCollision(wall, (i & 1) == 0 ? Vector2.UP : Vector2.DOWN);
+            }
+        });
+    }
+
+    private void benchmarkBasicCollisionStrategy(BenchmarkHarness harness) {
+        int numBricks = STRATEGY_ROWS * STRATEGY_BRICKS_PER_ROW;
+        harness.measure("BasicCollisionStrategy.onCollision (" + numBricks + " bricks)", numBricks,
+                this::setUpGame, numOps -> {
+                    BasicCollisionStrategy strategy = new BasicCollisionStrategy(game, game.getPowerUps(),
+                            new RandomSource(SEED));
+                    for (int i = 0; i < numOps; i++) {
+                        strategy.onCollision(bricks[i], ball);
+                    }
+                    game.flushCommands();
+                });
+    }
+
+    private void benchmarkDoubleBehaviorStrategy(BenchmarkHarness harness) {
+        harness.measure("DoubleBehaviorStrategy.onCollision", DOUBLE_BEHAVIOR_CALLS,
+                this::setUpGame, numOps -> {
+                    DoubleBehaviorStrategy strategy = new DoubleBehaviorStrategy(game.getPowerUps(),
+                            new RandomSource(SEED));
+                    for (int i = 0; i < numOps; i++) {
+                        strategy.onCollision(bricks[i], ball);
+                    }
+                    game.flushCommands();
+                });
+    }
+
+    private void setUpGame() {
+        this.game = new HeadlessSimulation(STRATEGY_ROWS, STRATEGY_BRICKS_PER_ROW, SEED).getGame();
+        this.bricks = collectBricks(game);
+        this.ball = new Ball(Vector2.ZERO, new Vector2(BALL_RADIUS, BALL_RADIUS), null, null,
+                (o1, o2) -> { });
+        this.ball.setKind(EntityKind.MAIN_BALL);
+    }
+
+    /**
+     * Collects all the bricks of a game, as the brick objects handed to the collision strategy when
+     * they are hit.
+     *
+     * @param game The game to collect the bricks from.
+     * @return The bricks of the game, in cell order.
+     */
+    static Brick[] collectBricks(BrickerGameManager game) {
+        BrickField brickField = game.getBrickField();
+        Brick[] bricks = new Brick[brickField.getNumCells()];
+        for (int i = 0; i < bricks.length; i++) {
+            bricks[i] = brickField.createBrick(i);
+        }
+        return bricks;
+    }
+}
@@ -0,0 +1,87 @@
+package bricker.benchmark;
+
+import bricker.input.ActionInputSource;
+import bricker.main.BrickerEnvironment;
+import bricker.main.HeadlessSimulation;
+import bricker.main.VectorEnvironment;
+import bricker.util.RandomSource;
+
+import static bricker.main.Constants.*;
+
+/**
+ * EnvironmentBenchmark measures the step API: writing an observation on a small wall and on a wall
+ * of a million cells, stepping one environment with random actions, and stepping a vector of
+ * environments into their shared buffer. A plain HeadlessSimulation.step on the same wall is the
+ * baseline, so the difference is the cost of the observation.
+ */
+public class EnvironmentBenchmark {
+    private static final int STEPS_PER_ITERATION = 1000;
+    private static final int NUM_ENVIRONMENTS = 16;
+    private static final int MAX_PUCKS = 32;
+    private static final int LARGE_GRID = 1000;
+    private static final long SEED = 42;
+
+    private final RandomSource random = new RandomSource(SEED);
+    private final int[] actions = new int[NUM_ENVIRONMENTS];
+
+    /**
+     * Runs all environment benchmarks.
+     *
+     * @param harness The harness used to measure the benchmarks.
+     */
+    public void runAll(BenchmarkHarness harness) {
+        String size = DEFAULT_NUM_ROWS + "x" + DEFAULT_BRICKS_PER_ROW;
+        BrickerEnvironment small = new BrickerEnvironment(DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW, SEED,
+                MAX_PUCKS);
+        harness.measure("BrickerEnvironment.writeObservation " + size, STEPS_PER_ITERATION, () -> { },
+                numOps -> writeObservations(small, numOps));
+        BrickerEnvironment large = new BrickerEnvironment(LARGE_GRID, LARGE_GRID, SEED, MAX_PUCKS);
+        harness.measure("BrickerEnvironment.writeObservation " + LARGE_GRID + "x" + LARGE_GRID, 1, () -> { },
+                numOps -> writeObservations(large, numOps));
+        HeadlessSimulation simulation = new HeadlessSimulation(DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW, SEED);
+        harness.measure("HeadlessSimulation.step (baseline) " + size, STEPS_PER_ITERATION, () -> { },
+                numOps -> {
+                    for (int i = 0; i < numOps; i++) {
+                        if (!simulation.step()) {
+                            simulation.getGame().restart();
+                            simulation.getWindow().reopen();
+                        }
+                    }
+                });
+        harness.measure("BrickerEnvironment.step " + size, STEPS_PER_ITERATION, () -> { },
+                numOps -> {
+                    for (int i = 0; i < numOps; i++) {
+                        if (small.step(random.nextInt(ActionInputSource.NUM_ACTIONS))) {
+                            small.reset();
+                        }
+                    }
+                });
+        VectorEnvironment vector = new VectorEnvironment(NUM_ENVIRONMENTS, DEFAULT_NUM_ROWS,
+                DEFAULT_BRICKS_PER_ROW, SEED, MAX_PUCKS);
+        harness.measure("VectorEnvironment.step " + NUM_ENVIRONMENTS + " x " + size + " (per env)",
+                STEPS_PER_ITERATION * NUM_ENVIRONMENTS, () -> { }, numOps -> {
+                    for (int i = 0; i < STEPS_PER_ITERATION; i++) {
+                        for (int env = 0; env < NUM_ENVIRONMENTS; env++) {
+                            actions[env] = random.nextInt(ActionInputSource.NUM_ACTIONS);
+                        }
+                        vector.step(actions);
+                    }
+                });
+    }
+
+    private static void writeObservations(BrickerEnvironment environment, int numOps) {
+        for (int i = 0; i < numOps; i++) {
+            environment.writeObservation();
+        }
+    }
+
+    /**
+     * Runs the environment benchmarks on their own.
+     *
+     * @param args Ignored.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        new EnvironmentBenchmark().runAll(new BenchmarkHarness());
+    }
+}
@@ -0,0 +1,121 @@
+package bricker.benchmark;
+
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.gameobjects.BrickField;
+import bricker.level.LevelConverter;
+import bricker.level.LevelFile;
+import bricker.main.HeadlessSimulation;
+import bricker.util.RandomSource;
+import danogl.util.Vector2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+
+/**
+ * LevelLoadBenchmark measures loading levels of a million cells: mapping the level file, building the
+ * brick field from the mapping and starting a headless game on it. As a baseline, the same file is
+ * read and parsed into a bitset of standing bricks the way a level without a mapping would be loaded.
+ * Two levels are loaded: a converted full grid, and a level with empty cells and power-up bricks.
+ */
+public class LevelLoadBenchmark {
+    private static final int NUM_ROWS = 1000;
+    private static final int BRICKS_PER_ROW = 1000;
+    private static final double EMPTY_CELL_CHANCE = 0.3;
+    private static final double POWER_UP_CHANCE = 0.05;
+    private static final int NUM_POWER_UP_STRATEGIES = 5;
+    private static final long SEED = 42;
+    //the layout of the level file, for the parsing baseline
+    private static final int HEADER_SIZE = 16;
+    private static final int TYPE_MASK = 0xf;
+
+    private static final CollisionStrategy[] NO_STRATEGIES = {(o1, o2) -> { }};
+
+    private LevelFile level;
+
+    /**
+     * Runs all level load benchmarks.
+     *
+     * @param harness The harness used to measure the benchmarks.
+     */
+    public void runAll(BenchmarkHarness harness) {
+        try {
+            Path grid = Files.createTempFile("bricker-grid", ".level");
+            Path mixed = Files.createTempFile("bricker-mixed", ".level");
+            try {
+                LevelConverter.convertGrid(NUM_ROWS, BRICKS_PER_ROW, grid);
+                writeMixedLevel(mixed);
+                benchmarkLevel(harness, "grid", grid);
+                benchmarkLevel(harness, "mixed", mixed);
+            } finally {
+                Files.deleteIfExists(grid);
+                Files.deleteIfExists(mixed);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void benchmarkLevel(BenchmarkHarness harness, String name, Path path) throws IOException {
+        String size = NUM_ROWS + "x" + BRICKS_PER_ROW + " " + name;
+        harness.measure("LevelFile.open " + size, 1, () -> { }, numOps -> this.level = open(path));
+        harness.measure("BrickField from LevelFile " + size, 1, () -> this.level = open(path),
+                numOps -> new BrickField(Vector2.ZERO, Vector2.ONES, 1, 1, level, NO_STRATEGIES));
+        harness.measure("HeadlessSimulation on LevelFile " + size, 1, () -> this.level = open(path),
+                numOps -> new HeadlessSimulation(level, SEED));
+        harness.measure("readAllBytes and parse (baseline) " + size, 1, () -> { },
+                numOps -> parse(path));
+    }
+
+    private static LevelFile open(Path path) {
+        try {
+            return LevelFile.open(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BitSet parse(Path path) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        BitSet standing = new BitSet(bytes.length - HEADER_SIZE);
+        for (int i = HEADER_SIZE; i < bytes.length; i++) {
+            if ((bytes[i] & TYPE_MASK) != LevelFile.EMPTY) {
+                standing.set(i - HEADER_SIZE);
+            }
+        }
+        return standing;
+    }
+
+    private static void writeMixedLevel(Path path) throws IOException {
+        RandomSource random = new RandomSource(SEED);
+        byte[] cells = new byte[NUM_ROWS * BRICKS_PER_ROW];
+        for (int i = 0; i < cells.length; i++) {
+            double draw = random.nextDouble();
+            if (draw < EMPTY_CELL_CHANCE) {
+                cells[i] = LevelFile.packCell(LevelFile.EMPTY, LevelFile.DEFAULT_STRATEGY);
+            } else if (draw < EMPTY_CELL_CHANCE + POWER_UP_CHANCE) {
+                cells[i] = LevelFile.packCell(LevelFile.BRICK, 1 + random.nextInt(NUM_POWER_UP_STRATEGIES));
+            } else {
+                cells[i] = LevelFile.packCell(LevelFile.BRICK, LevelFile.DEFAULT_STRATEGY);
+            }
+        }
+        LevelFile.write(path, NUM_ROWS, BRICKS_PER_ROW, cells);
+    }
+
+    /**
+     * Runs the level load benchmarks on their own.
+     *
+     * @param args Ignored.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        new LevelLoadBenchmark().runAll(new BenchmarkHarness());
+    }
+}
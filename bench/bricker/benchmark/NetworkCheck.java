@@ -0,0 +1,162 @@
+package bricker.benchmark;
+
+import bricker.gameobjects.PuckSystem;
+import bricker.input.BallFollowingInputSource;
+import bricker.main.BrickerGameManager;
+import bricker.net.GameClient;
+import bricker.net.GameServer;
+import bricker.net.NetworkState;
+import bricker.util.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import static bricker.main.Constants.*;
+
+/**
+ * NetworkCheck plays two-player games over loopback, with the server and the client in this process,
+ * and measures the bytes the server sends per tick and the latency of a frame: from the moment the
+ * server hands a frame to its socket to the moment the client applied it, and the round trip the
+ * server measures from the client's acknowledgements.
+ * Every tick, the client's state is compared with the server's game: the bricks, lives and number of
+ * pucks must be equal and every predicted body must be within the prediction tolerance and a
+ * quantization step of the real one. Besides a plain game, games are played with a few hundred pucks
+ * kept flying. The process exits with a non-zero status if the states differ or a scenario goes over
+ * BUDGET_BYTES per tick on average, so a build can run it as a check.
+ */
+public class NetworkCheck {
+    private static final int DEFAULT_TICKS = FIXED_FRAME_RATE * 60;
+    private static final int[] PUCK_COUNTS = {0, 100, 300};
+    private static final double BUDGET_BYTES = 300;
+    private static final float MAX_POSITION_ERROR = 0.5f + 1f / 16;
+    private static final long TIMEOUT_MILLIS = 5000;
+    private static final double NANOS_PER_MICRO = 1e3;
+    private static final long SEED = 42;
+    private static final String ROW_FORMAT = "%-12s %8d %10.1f %10d %10d %10.1f %10.1f %10.1f %8.3f %8s%n";
+
+    private final int numTicks;
+    private final PuckSpray puckSpray;
+    private boolean passed;
+
+    /**
+     * Constructs a new NetworkCheck.
+     *
+     * @param numTicks The number of ticks every scenario is played for.
+     */
+    public NetworkCheck(int numTicks) {
+        this.numTicks = numTicks;
+        this.puckSpray = new PuckSpray(SEED, SCREEN_HEIGHT / 4f, SCREEN_HEIGHT / 2f, PuckSpray.UPWARDS);
+        this.passed = true;
+    }
+
+    /**
+     * Plays every scenario and prints its traffic and latency.
+     *
+     * @return true if the client always agreed with the server and no scenario went over the budget,
+     * false otherwise.
+     */
+    public boolean runAll() {
+        System.out.printf("%-12s %8s %10s %10s %10s %10s %10s %10s %8s %8s%n", "Scenario", "ticks", "B/tick",
+                "max B", "keyframe", "p50 us", "p99 us", "rtt p50", "max err", "result");
+        try {
+            for (int numPucks : PUCK_COUNTS) {
+                play(numPucks);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return passed;
+    }
+
+    private void play(int numPucks) throws IOException {
+        InetSocketAddress loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (GameServer server = new GameServer(DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW, SEED, loopback);
+             GameClient client = new GameClient(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                     server.getLocalAddress().getPort()))) {
+            BrickerGameManager game = server.getGame();
+            puckSpray.refill(game.getPuckSystem(), numPucks);
+            while (!server.isClientConnected()) {
+                client.poll(1);
+                server.tick();
+            }
+            if (!client.awaitTick(server.getTick(), TIMEOUT_MILLIS)) {
+                throw new IOException("no keyframe");
+            }
+            int keyframeBytes = server.getLastFrameBytes();
+            LatencyHistogram latencies = new LatencyHistogram();
+            long deltaBytes = 0;
+            int maxDeltaBytes = 0;
+            float maxError = 0;
+            boolean agreed = true;
+            for (int i = 0; i < numTicks; i++) {
+                //pucks keep falling out and bouncing throughout the scenario
+                puckSpray.refill(game.getPuckSystem(), numPucks);
+                server.tick();
+                if (!client.awaitTick(server.getTick(), TIMEOUT_MILLIS)) {
+                    throw new IOException("no frame for tick " + server.getTick());
+                }
+                long appliedNanos = System.nanoTime();
+                latencies.record(appliedNanos - server.getLastSendNanos());
+                deltaBytes += server.getLastFrameBytes();
+                maxDeltaBytes = Math.max(maxDeltaBytes, server.getLastFrameBytes());
+                float error = compare(game, client.getState());
+                agreed &= error <= MAX_POSITION_ERROR;
+                maxError = Math.max(maxError, Float.isNaN(error) ? Float.POSITIVE_INFINITY : error);
+                client.sendInput(followBall(client.getState()));
+            }
+            double bytesPerTick = (double) deltaBytes / numTicks;
+            boolean ok = agreed && bytesPerTick <= BUDGET_BYTES;
+            passed &= ok;
+            System.out.printf(ROW_FORMAT, numPucks + " pucks", numTicks, bytesPerTick, maxDeltaBytes,
+                    keyframeBytes, latencies.getPercentileNanos(50) / NANOS_PER_MICRO,
+                    latencies.getPercentileNanos(99) / NANOS_PER_MICRO,
+                    server.getRoundTrips().getPercentileNanos(50) / NANOS_PER_MICRO, maxError, ok ? "ok" : "FAILED");
+        }
+    }
+
+    /**
+     * Compares the client's state with the game.
+     *
+     * @return The largest distance of a predicted body from the real one, or NaN if the bricks, lives
+     * or number of pucks differ.
+     */
+    private static float compare(BrickerGameManager game, NetworkState state) {
+        if (!game.getBrickField().getStanding().equals(state.getBricks())
+                || game.getNumLives() != state.getLives()
+                || game.getPuckSystem().getNumPucks() != state.getNumPucks()) {
+            return Float.NaN;
+        }
+        float ballX = game.getBall().getTopLeftCorner().x() + game.getBall().getDimensions().x() / 2;
+        float ballY = game.getBall().getTopLeftCorner().y() + game.getBall().getDimensions().y() / 2;
+        float error = Math.max(Math.abs(ballX - state.getBallX()), Math.abs(ballY - state.getBallY()));
+        PuckSystem puckSystem = game.getPuckSystem();
+        for (int i = 0; i < puckSystem.getNumPucks(); i++) {
+            error = Math.max(error, Math.abs(puckSystem.getCenterX(i) - state.getPuckX(i)));
+            error = Math.max(error, Math.abs(puckSystem.getCenterY(i) - state.getPuckY(i)));
+        }
+        return error;
+    }
+
+    private static int followBall(NetworkState state) {
+        if (!state.hasSecondaryPaddle()) {
+            return 0;
+        }
+        return BallFollowingInputSource.keysToward(state.getSecondaryPaddleX(), state.getBallX());
+    }
+
+    /**
+     * Runs the network check.
+     *
+     * @param args Optionally, the number of ticks every scenario is played for.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int numTicks = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TICKS;
+        if (!new NetworkCheck(numTicks).runAll()) {
+            System.err.println("network: the client disagreed with the server or a tick went over budget");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package bricker.benchmark;
+
+import bricker.gameobjects.PuckSystem;
+import bricker.main.BrickerGameManager;
+import bricker.main.HeadlessSimulation;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static bricker.main.Constants.*;
+
+/**
+ * ParallelCollisionBenchmark measures how a crowded frame scales with the number of cores used for
+ * the puck-brick contact search. The same frames, with a large brick field and tens of thousands of
+ * pucks, are simulated on the game thread alone and then on ForkJoinPools of growing parallelism, and
+ * the speedup over the game thread alone is printed for every pool.
+ */
+public class ParallelCollisionBenchmark {
+    private static final int NUM_ROWS = 200;
+    private static final int BRICKS_PER_ROW = 200;
+    private static final int NUM_PUCKS = 50_000;
+    private static final int FRAMES_PER_ITERATION = 30;
+    private static final long SEED = 42;
+
+    private BrickerGameManager game;
+    private PuckSystem puckSystem;
+
+    /**
+     * Runs the scaling benchmark, from a single thread up to all available processors.
+     *
+     * @param harness The harness used to measure the benchmarks.
+     */
+    public void runAll(BenchmarkHarness harness) {
+        double serialNanos = benchmarkFrame(harness, "game thread only", ForkJoinPool.commonPool(),
+                Integer.MAX_VALUE);
+        int maxParallelism = Runtime.getRuntime().availableProcessors();
+        for (int parallelism = 1; parallelism <= maxParallelism; parallelism *= 2) {
+            measureSpeedup(harness, parallelism, serialNanos);
+        }
+        if (Integer.bitCount(maxParallelism) != 1) {
+            measureSpeedup(harness, maxParallelism, serialNanos);
+        }
+    }
+
+    private void measureSpeedup(BenchmarkHarness harness, int parallelism, double serialNanos) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            double nanos = benchmarkFrame(harness, parallelism + " cores", pool,
+                    PARALLEL_COLLISION_THRESHOLD);
+            System.out.printf("  %d cores: %.2fx speedup%n", parallelism, serialNanos / nanos);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private double benchmarkFrame(BenchmarkHarness harness, String name, ForkJoinPool pool,
+                                  int parallelThreshold) {
+        return harness.measure("Crowded frame, " + NUM_PUCKS + " pucks (" + name + ")",
+                FRAMES_PER_ITERATION, () -> setUpPucks(pool, parallelThreshold), numOps -> {
+                    for (int i = 0; i < numOps; i++) {
+                        puckSystem.update(FIXED_DELTA_TIME);
+                        game.flushCommands();
+                    }
+                });
+    }
+
+    private void setUpPucks(ForkJoinPool pool, int parallelThreshold) {
+        this.game = new HeadlessSimulation(NUM_ROWS, BRICKS_PER_ROW, SEED).getGame();
+        this.puckSystem = game.getPuckSystem();
+        puckSystem.setCollisionParallelism(pool, parallelThreshold);
+        new PuckSpray(SEED, 0, SCREEN_HEIGHT, PuckSpray.ANY_DIRECTION).spawn(puckSystem, NUM_PUCKS);
+    }
+}
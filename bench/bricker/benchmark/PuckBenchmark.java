@@ -0,0 +1,52 @@
+package bricker.benchmark;
+
+import bricker.gameobjects.PuckSystem;
+import bricker.main.BrickerGameManager;
+import bricker.main.HeadlessSimulation;
+
+import static bricker.main.Constants.*;
+
+/**
+ * PuckBenchmark measures a frame of the puck simulation with tens of thousands of pucks in play:
+ * integration, the batched contacts with the borders, paddles, main ball, other pucks and bricks,
+ * and the removal of pucks leaving the window. The result is compared against the frame budget of FIXED_FRAME_RATE.
+ */
+public class PuckBenchmark {
+    private static final int[] PUCK_COUNTS = {1_000, 10_000, 50_000};
+    private static final int FRAMES_PER_ITERATION = 60;
+    private static final long SEED = 42;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private BrickerGameManager game;
+    private PuckSystem puckSystem;
+
+    /**
+     * Runs all puck benchmarks.
+     *
+     * @param harness The harness used to measure the benchmarks.
+     */
+    public void runAll(BenchmarkHarness harness) {
+        for (int numPucks : PUCK_COUNTS) {
+            benchmarkPuckFrame(harness, numPucks);
+        }
+    }
+
+    private void benchmarkPuckFrame(BenchmarkHarness harness, int numPucks) {
+        double nanosPerFrame = harness.measure("PuckSystem.update (" + numPucks + " pucks, per frame)",
+                FRAMES_PER_ITERATION, () -> setUpPucks(numPucks), numOps -> {
+                    for (int i = 0; i < numOps; i++) {
+                        puckSystem.update(FIXED_DELTA_TIME);
+                        game.flushCommands();
+                    }
+                });
+        System.out.printf("  %d pucks: %.2f ms per frame, %.0f%% of the %d FPS frame budget%n", numPucks,
+                nanosPerFrame / NANOS_PER_MILLI, 100 * nanosPerFrame * FIXED_FRAME_RATE / 1e9,
+                FIXED_FRAME_RATE);
+    }
+
+    private void setUpPucks(int numPucks) {
+        this.game = new HeadlessSimulation(DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW, SEED).getGame();
+        this.puckSystem = game.getPuckSystem();
+        new PuckSpray(SEED, 0, SCREEN_HEIGHT / 2f, PuckSpray.ANY_DIRECTION).spawn(puckSystem, numPucks);
+    }
+}
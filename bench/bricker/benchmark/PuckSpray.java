@@ -0,0 +1,71 @@
+package bricker.benchmark;
+
+import bricker.gameobjects.PuckSystem;
+import bricker.util.RandomSource;
+
+import static bricker.main.Constants.*;
+
+/**
+ * PuckSpray fills a puck system with pucks for the benchmarks and checks that need a crowd of them.
+ * Every puck is spawned at a random place between the side borders and within a band of heights, and
+ * moves at BALL_SPEED in a random direction within a range of angles, measured from the right and
+ * turning upwards. The places and directions come from a seeded RandomSource, so a spray with the same
+ * seed always spawns the same pucks.
+ */
+public class PuckSpray {
+    /**
+     * The range of angles of pucks that may move in any direction.
+     */
+    public static final double ANY_DIRECTION = 2 * Math.PI;
+
+    /**
+     * The range of angles of pucks that move upwards.
+     */
+    public static final double UPWARDS = Math.PI;
+
+    private final RandomSource random;
+    private final float minY;
+    private final float maxY;
+    private final double angleRange;
+
+    /**
+     * Constructs a new PuckSpray.
+     *
+     * @param seed       The seed of the places and directions.
+     * @param minY       The lowest vertical position of a spawned puck's center.
+     * @param maxY       The highest vertical position of a spawned puck's center.
+     * @param angleRange The range of directions, ANY_DIRECTION or UPWARDS.
+     */
+    public PuckSpray(long seed, float minY, float maxY, double angleRange) {
+        this.random = new RandomSource(seed);
+        this.minY = minY;
+        this.maxY = maxY;
+        this.angleRange = angleRange;
+    }
+
+    /**
+     * Spawns a number of pucks.
+     *
+     * @param puckSystem The system the pucks are spawned in.
+     * @param numPucks   The number of pucks to spawn.
+     */
+    public void spawn(PuckSystem puckSystem, int numPucks) {
+        for (int i = 0; i < numPucks; i++) {
+            double angle = random.nextDouble() * angleRange;
+            puckSystem.spawn(BORDER_WIDTH + random.nextFloat() * (SCREEN_WIDTH - 2 * BORDER_WIDTH),
+                    minY + random.nextFloat() * (maxY - minY), (float) Math.cos(angle) * BALL_SPEED,
+                    (float) -Math.sin(angle) * BALL_SPEED);
+        }
+    }
+
+    /**
+     * Spawns pucks until the system has a given number of them, e.g. to replace the pucks that left
+     * the window in the last frame.
+     *
+     * @param puckSystem The system the pucks are spawned in.
+     * @param numPucks   The number of pucks the system should have.
+     */
+    public void refill(PuckSystem puckSystem, int numPucks) {
+        spawn(puckSystem, numPucks - puckSystem.getNumPucks());
+    }
+}
@@ -0,0 +1,70 @@
+package bricker.benchmark;
+
+import bricker.gameobjects.BrickField;
+import bricker.headless.HeadlessImageReader;
+import bricker.headless.HeadlessSoundReader;
+import bricker.headless.HeadlessWindow;
+import bricker.main.BrickerGameManager;
+import bricker.main.HeadlessSimulation;
+import bricker.util.RandomSource;
+
+import static bricker.main.Constants.*;
+
+/**
+ * ResetBenchmark measures the play-again path on small and large walls. The cold reset reruns
+ * initializeGame, as WindowController.resetGame does, which rebuilds every object and reloads the
+ * assets; the headless readers decode no images or sounds, so it is a lower bound of the windowed
+ * cost. The warm restart puts the objects of a played game back in place. Before every reset, a
+ * share of the bricks is destroyed and a few pucks are spawned, as at the end of a game.
+ */
+public class ResetBenchmark {
+    private static final int[][] GRIDS = {{DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW}, {316, 316},
+            {1000, 1000}};
+    private static final double DESTROYED_CHANCE = 0.7;
+    private static final int NUM_PUCKS = 100;
+    private static final long SEED = 42;
+
+    private final RandomSource random = new RandomSource(SEED);
+
+    /**
+     * Runs all reset benchmarks.
+     *
+     * @param harness The harness used to measure the benchmarks.
+     */
+    public void runAll(BenchmarkHarness harness) {
+        for (int[] grid : GRIDS) {
+            HeadlessSimulation simulation = new HeadlessSimulation(grid[0], grid[1], SEED);
+            BrickerGameManager game = simulation.getGame();
+            HeadlessWindow window = simulation.getWindow();
+            String size = grid[0] + "x" + grid[1];
+            harness.measure("cold reset (initializeGame) " + size, 1, () -> playOut(game),
+                    numOps -> game.initializeGame(new HeadlessImageReader(window.getWindowController()),
+                            new HeadlessSoundReader(window.getWindowController()), window.getInputListener(),
+                            window.getWindowController()));
+            harness.measure("warm restart " + size, 1, () -> playOut(game), numOps -> game.restart());
+        }
+    }
+
+    private void playOut(BrickerGameManager game) {
+        BrickField brickField = game.getBrickField();
+        for (int cell = 0; cell < brickField.getNumCells(); cell++) {
+            if (random.nextDouble() < DESTROYED_CHANCE) {
+                brickField.destroy(cell);
+            }
+        }
+        for (int i = 0; i < NUM_PUCKS; i++) {
+            game.getPuckSystem().spawn(random.nextFloat() * SCREEN_WIDTH, random.nextFloat() * SCREEN_HEIGHT,
+                    BALL_SPEED, BALL_SPEED);
+        }
+    }
+
+    /**
+     * Runs the reset benchmarks on their own.
+     *
+     * @param args Ignored.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        new ResetBenchmark().runAll(new BenchmarkHarness());
+    }
+}
@@ -0,0 +1,102 @@
+package bricker.benchmark;
+
+import bricker.gameobjects.BrickField;
+import bricker.main.BrickerGameManager;
+import bricker.main.HeadlessSimulation;
+import bricker.main.SnapshotRing;
+import bricker.util.RandomSource;
+
+import java.nio.ByteBuffer;
+
+import static bricker.main.Constants.*;
+
+/**
+ * SnapshotBenchmark measures writing and restoring snapshots of a game with 100k bricks, and capturing
+ * and rewinding frames through the rewind ring buffer. The wall is measured intact, which is written as
+ * a few runs of standing bricks, and with random holes, which is written as the plain bitset, both
+ * times with a thousand pucks in play. The size of every snapshot is printed after its timings.
+ */
+public class SnapshotBenchmark {
+    private static final int NUM_ROWS = 316;
+    private static final int BRICKS_PER_ROW = 316;
+    private static final int NUM_PUCKS = 1000;
+    private static final double HOLE_CHANCE = 0.3;
+    private static final int SNAPSHOTS_PER_ITERATION = 1000;
+    private static final int RING_CAPACITY = 300;
+    private static final int REWIND_FRAMES = 60;
+    private static final int MAX_SNAPSHOT_BYTES = 1 << 20;
+    private static final long SEED = 42;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(MAX_SNAPSHOT_BYTES);
+
+    /**
+     * Runs all snapshot benchmarks.
+     *
+     * @param harness The harness used to measure the benchmarks.
+     */
+    public void runAll(BenchmarkHarness harness) {
+        BrickerGameManager game = new HeadlessSimulation(NUM_ROWS, BRICKS_PER_ROW, SEED).getGame();
+        RandomSource random = new RandomSource(SEED);
+        for (int i = 0; i < NUM_PUCKS; i++) {
+            game.getPuckSystem().spawn(random.nextFloat() * SCREEN_WIDTH, random.nextFloat() * SCREEN_HEIGHT,
+                    BALL_SPEED, -BALL_SPEED);
+        }
+        benchmarkWall(harness, game, "intact wall");
+        BrickField brickField = game.getBrickField();
+        for (int cell = 0; cell < brickField.getNumCells(); cell++) {
+            if (random.nextDouble() < HOLE_CHANCE) {
+                brickField.destroy(cell);
+            }
+        }
+        benchmarkWall(harness, game, "wall with holes");
+        benchmarkRing(harness, game);
+    }
+
+    private void benchmarkWall(BenchmarkHarness harness, BrickerGameManager game, String wall) {
+        String size = NUM_ROWS + "x" + BRICKS_PER_ROW + " " + wall;
+        harness.measure("writeSnapshot " + size, SNAPSHOTS_PER_ITERATION, () -> { }, numOps -> {
+            for (int i = 0; i < numOps; i++) {
+                buffer.clear();
+                game.writeSnapshot(buffer);
+            }
+        });
+        buffer.flip();
+        int snapshotBytes = buffer.limit();
+        harness.measure("readSnapshot " + size, SNAPSHOTS_PER_ITERATION, () -> { }, numOps -> {
+            for (int i = 0; i < numOps; i++) {
+                buffer.rewind();
+                game.readSnapshot(buffer);
+            }
+        });
+        System.out.printf("  snapshot: %d B for %d standing bricks and %d pucks%n", snapshotBytes,
+                game.getBrickField().getNumStanding(), game.getPuckSystem().getNumPucks());
+    }
+
+    private void benchmarkRing(BenchmarkHarness harness, BrickerGameManager game) {
+        SnapshotRing ring = new SnapshotRing(RING_CAPACITY);
+        String size = NUM_ROWS + "x" + BRICKS_PER_ROW;
+        harness.measure("SnapshotRing.capture " + size, SNAPSHOTS_PER_ITERATION, () -> { }, numOps -> {
+            for (int i = 0; i < numOps; i++) {
+                ring.capture(game);
+            }
+        });
+        harness.measure("SnapshotRing.rewind " + REWIND_FRAMES + " frames " + size, 1,
+                () -> {
+                    for (int i = 0; i <= REWIND_FRAMES; i++) {
+                        ring.capture(game);
+                    }
+                },
+                numOps -> ring.rewind(game, REWIND_FRAMES));
+        System.out.println("  " + ring);
+    }
+
+    /**
+     * Runs the snapshot benchmarks on their own.
+     *
+     * @param args Ignored.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        new SnapshotBenchmark().runAll(new BenchmarkHarness());
+    }
+}
@@ -0,0 +1,60 @@
+package bricker.benchmark;
+
+import bricker.gameobjects.Brick;
+import bricker.main.BrickerGameManager;
+import bricker.main.HeadlessSimulation;
+
+import static bricker.main.Constants.*;
+
+/**
+ * SpawnBenchmark measures building and tearing down the brick wall: removing bricks through
+ * BrickerGameManager.removeObject (queued, then applied in one flush), and creating the whole wall (createAllBricks, measured through a
+ * headless initializeGame) at grid sizes from the default one up to 2000x2000.
+ */
+public class SpawnBenchmark {
+    private static final int REMOVE_ROWS = 100;
+    private static final int REMOVE_BRICKS_PER_ROW = 100;
+    private static final int[][] GRID_SIZES = {
+            {DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW}, {50, 50}, {200, 200}, {500, 500}, {2000, 2000}};
+    private static final int MAX_BRICKS_PER_ITERATION = 250_000;
+
+    private BrickerGameManager game;
+    private Brick[] bricks;
+
+    /**
+     * Runs all spawn benchmarks.
+     *
+     * @param harness The harness used to measure the benchmarks.
+     */
+    public void runAll(BenchmarkHarness harness) {
+        benchmarkRemoveObject(harness);
+        for (int[] gridSize : GRID_SIZES) {
+            benchmarkCreateAllBricks(harness, gridSize[0], gridSize[1]);
+        }
+    }
+
+    private void benchmarkRemoveObject(BenchmarkHarness harness) {
+        harness.measure("BrickerGameManager.removeObject", REMOVE_ROWS * REMOVE_BRICKS_PER_ROW,
+                () -> {
+                    this.game = new HeadlessSimulation(REMOVE_ROWS, REMOVE_BRICKS_PER_ROW).getGame();
+                    this.bricks = CollisionBenchmark.collectBricks(game);
+                },
+                numOps -> {
+                    for (int i = 0; i < numOps; i++) {
+                        game.removeObject(bricks[i]);
+                    }
+                    game.flushCommands();
+                });
+    }
+
+    private void benchmarkCreateAllBricks(BenchmarkHarness harness, int numRows, int bricksPerRow) {
+        int numBricks = numRows * bricksPerRow;
+        int gamesPerIteration = Math.max(1, MAX_BRICKS_PER_ITERATION / numBricks);
+        harness.measure("createAllBricks " + numRows + "x" + bricksPerRow + " (per brick)",
+                gamesPerIteration * numBricks, () -> { }, numOps -> {
+                    for (int i = 0; i < gamesPerIteration; i++) {
+                        new HeadlessSimulation(numRows, bricksPerRow);
+                    }
+                });
+    }
+}
@@ -0,0 +1,54 @@
+package bricker.benchmark;
+
+import bricker.main.BrickerGameManager;
+import bricker.main.HeadlessSimulation;
+import danogl.GameObject;
+
+import static bricker.main.Constants.*;
+
+/**
+ * StaticBodiesBenchmark measures a whole headless frame of the default game and reports how many
+ * objects the engine still updates and pairs for collisions every frame, next to the number of bodies
+ * sleeping in the static tiers. Comparing the frame time of releases before and after a body moves to
+ * a tier shows what the generic update and collision bookkeeping cost for it.
+ */
+public class StaticBodiesBenchmark {
+    private static final int FRAMES_PER_ITERATION = 300;
+    private static final long SEED = 42;
+
+    private HeadlessSimulation simulation;
+
+    /**
+     * Runs all static bodies benchmarks.
+     *
+     * @param harness The harness used to measure the benchmarks.
+     */
+    public void runAll(BenchmarkHarness harness) {
+        harness.measure("HeadlessSimulation.step (default game, per frame)", FRAMES_PER_ITERATION,
+                () -> this.simulation = new HeadlessSimulation(DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW,
+                        SEED),
+                numOps -> {
+                    for (int i = 0; i < numOps; i++) {
+                        simulation.step();
+                    }
+                });
+        BrickerGameManager game = new HeadlessSimulation(DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW, SEED)
+                .getGame();
+        int numObjects = 0;
+        for (GameObject ignored : game.gameObjects()) {
+            numObjects++;
+        }
+        System.out.printf("  engine objects: %d, sleeping borders: %d%n", numObjects,
+                game.getStaticBodies().getNumSleeping());
+    }
+
+    /**
+     * Runs the static bodies benchmarks on their own.
+     *
+     * @param args Ignored.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        new StaticBodiesBenchmark().runAll(new BenchmarkHarness());
+    }
+}
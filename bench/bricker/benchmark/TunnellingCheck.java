@@ -0,0 +1,221 @@
+package bricker.benchmark;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.Paddle;
+import bricker.gameobjects.PuckSystem;
+import bricker.headless.SimulationResult;
+import bricker.main.BrickerGameManager;
+import bricker.main.HeadlessSimulation;
+import bricker.util.RandomSource;
+import danogl.util.Vector2;
+
+import static bricker.main.Constants.*;
+
+/**
+ * TunnellingCheck measures how often a ball or a puck passes through a brick, the upper border or the
+ * user paddle without bouncing, at timesteps from the fixed frame rate up to a fraction of a second, once with
+ * continuous collisions and once with the plain per-frame discrete checks.
+ * Every trial puts a body a random distance short of its target, moving into it at the game's
+ * BALL_SPEED, and advances a single step: the ball by a whole game step, the pucks by an update of the
+ * puck system. The body tunnelled if it ends the step entirely beyond the target, which it can only
+ * reach by passing through it.
+ * The check then times whole headless games at the same timesteps, to show what the larger steps
+ * save. The process exits with a non-zero status if any body tunnels with continuous collisions on,
+ * so a build can run it as a check.
+ */
+public class TunnellingCheck {
+    private static final int DEFAULT_TRIALS = 2000;
+    private static final float[] STEP_DISTANCES = {BALL_SPEED * FIXED_DELTA_TIME, 5, 10, 20, 40, 80};
+    private static final int NUM_GAMES = 5;
+    private static final int MAX_GAME_FRAMES = FIXED_FRAME_RATE * 60 * 10;
+    private static final long SEED = 42;
+    private static final double NANOS_PER_MICRO = 1e3;
+    private static final String ROW_FORMAT = "%-22s %8.2f %8.4f %-6s %10d %10d %9.2f%% %8s%n";
+
+    private final int numTrials;
+    private final RandomSource random;
+    private BrickerGameManager game;
+    private boolean continuous;
+    private boolean passed;
+
+    /**
+     * Constructs a new TunnellingCheck.
+     *
+     * @param numTrials The number of trials of every scenario, timestep and mode.
+     */
+    public TunnellingCheck(int numTrials) {
+        this.numTrials = numTrials;
+        this.random = new RandomSource(SEED);
+        this.passed = true;
+    }
+
+    /**
+     * Runs all the trials and prints the tunnelling rate of every scenario, followed by the cost of a
+     * game second at every timestep.
+     *
+     * @return true if nothing tunnelled with continuous collisions on, false otherwise.
+     */
+    public boolean runAll() {
+        System.out.printf("%-22s %8s %8s %-6s %10s %10s %10s %8s%n", "Scenario", "px/step", "dt",
+                "mode", "trials", "tunnelled", "rate", "result");
+        for (float stepDistance : STEP_DISTANCES) {
+            for (boolean sweep : new boolean[]{false, true}) {
+                this.continuous = sweep;
+                startGame();
+                report("ball through bricks", stepDistance, ballThroughBricks(stepDistance));
+                report("ball through border", stepDistance, ballThroughBorder(stepDistance));
+                report("ball through paddle", stepDistance, ballThroughPaddle(stepDistance));
+                report("puck through bricks", stepDistance, puckThroughBricks(stepDistance));
+            }
+        }
+        System.out.printf("%n%-22s %8s %8s %14s %14s%n", "Headless games", "px/step", "dt", "game seconds",
+                "us/game second");
+        for (float stepDistance : STEP_DISTANCES) {
+            timeGames(stepDistance);
+        }
+        return passed;
+    }
+
+    /**
+     * Starts a new game in the current mode. Every trial restarts it in place, so a ball that left the
+     * window is reused like any other.
+     */
+    private void startGame() {
+        this.game = new HeadlessSimulation(DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW, SEED).getGame();
+        game.setContinuousCollisions(continuous);
+    }
+
+    private int ballThroughBricks(float stepDistance) {
+        BrickField brickField = game.getBrickField();
+        float wallBottom = brickField.cellY(brickField.getNumRows() - 1) + BRICK_HEIGHT;
+        float lowestRowTop = wallBottom - BRICK_HEIGHT;
+        int tunnelled = 0;
+        for (int trial = 0; trial < numTrials; trial++) {
+            game.restart();
+            Ball ball = launchBall(wallBottom, stepDistance);
+            game.update(stepDistance / BALL_SPEED);
+            if (ball.getTopLeftCorner().y() + ball.getDimensions().y() <= lowestRowTop) {
+                tunnelled++;
+            }
+        }
+        return tunnelled;
+    }
+
+    private int ballThroughBorder(float stepDistance) {
+        int tunnelled = 0;
+        for (int trial = 0; trial < numTrials; trial++) {
+            game.restart();
+            BrickField brickField = game.getBrickField();
+            for (int cell = 0; cell < brickField.getNumCells(); cell++) {
+                brickField.destroy(cell);
+            }
+            Ball ball = launchBall(UPPER_BORDER_HEIGHT, stepDistance);
+            game.update(stepDistance / BALL_SPEED);
+            if (ball.getTopLeftCorner().y() + ball.getDimensions().y() <= 0) {
+                tunnelled++;
+            }
+        }
+        return tunnelled;
+    }
+
+    /**
+     * Drops the ball straight onto the user paddle from at most one step above it. The ball tunnelled if
+     * it ends the step below the paddle, or fell out of the window and cost a life.
+     */
+    private int ballThroughPaddle(float stepDistance) {
+        int tunnelled = 0;
+        for (int trial = 0; trial < numTrials; trial++) {
+            game.restart();
+            Paddle paddle = game.getUserPaddle();
+            float paddleTop = paddle.getTopLeftCorner().y();
+            float paddleBottom = paddleTop + paddle.getDimensions().y();
+            Ball ball = game.getBall();
+            float radius = ball.getDimensions().y() / 2;
+            int livesLost = game.getNumLivesLost();
+            ball.setCenter(new Vector2(paddle.getTopLeftCorner().x() + random.nextFloat()
+                    * paddle.getDimensions().x(), paddleTop - radius - random.nextFloat() * stepDistance));
+            ball.setVelocity(new Vector2(0, BALL_SPEED));
+            game.update(stepDistance / BALL_SPEED);
+            if (ball.getTopLeftCorner().y() >= paddleBottom || game.getNumLivesLost() > livesLost) {
+                tunnelled++;
+            }
+        }
+        return tunnelled;
+    }
+
+    /**
+     * Puts the ball under a horizontal edge, at most one step away from it, moving up at 45 degrees.
+     */
+    private Ball launchBall(float edgeY, float stepDistance) {
+        Ball ball = game.getBall();
+        float width = game.getWindowDimensions().x();
+        float radius = ball.getDimensions().y() / 2;
+        float x = 2 * BORDER_WIDTH + stepDistance + random.nextFloat()
+                * (width - 4 * BORDER_WIDTH - 2 * stepDistance);
+        ball.setCenter(new Vector2(x, edgeY + radius + random.nextFloat() * stepDistance));
+        ball.setVelocity(new Vector2(random.nextBoolean() ? BALL_SPEED : -BALL_SPEED, -BALL_SPEED));
+        return ball;
+    }
+
+    private int puckThroughBricks(float stepDistance) {
+        BrickField brickField = game.getBrickField();
+        PuckSystem puckSystem = game.getPuckSystem();
+        float wallBottom = brickField.cellY(brickField.getNumRows() - 1) + BRICK_HEIGHT;
+        float lowestRowTop = wallBottom - BRICK_HEIGHT;
+        float halfPuckSize = puckSystem.getPuckSize() / 2;
+        float width = game.getWindowDimensions().x();
+        int tunnelled = 0;
+        for (int trial = 0; trial < numTrials; trial++) {
+            //one puck at a time, since the bricks a puck destroys would let the next ones through
+            game.restart();
+            float x = BORDER_WIDTH + stepDistance + random.nextFloat() * (width - 2 * BORDER_WIDTH
+                    - 2 * stepDistance);
+            puckSystem.spawn(x, wallBottom + halfPuckSize + random.nextFloat() * stepDistance,
+                    random.nextBoolean() ? BALL_SPEED : -BALL_SPEED, -BALL_SPEED);
+            puckSystem.update(stepDistance / BALL_SPEED);
+            if (puckSystem.getNumPucks() > 0 && puckSystem.getCenterY(0) + halfPuckSize <= lowestRowTop) {
+                tunnelled++;
+            }
+        }
+        return tunnelled;
+    }
+
+    private void report(String scenario, float stepDistance, int tunnelled) {
+        boolean ok = !continuous || tunnelled == 0;
+        passed &= ok;
+        System.out.printf(ROW_FORMAT, scenario, stepDistance, stepDistance / BALL_SPEED,
+                continuous ? "swept" : "plain", numTrials, tunnelled, 100.0 * tunnelled / numTrials,
+                ok ? "ok" : "FAILED");
+    }
+
+    private void timeGames(float stepDistance) {
+        float deltaTime = stepDistance / BALL_SPEED;
+        double simulatedSeconds = 0;
+        long wallNanos = 0;
+        for (int seed = 0; seed < NUM_GAMES; seed++) {
+            HeadlessSimulation simulation = new HeadlessSimulation(DEFAULT_NUM_ROWS, DEFAULT_BRICKS_PER_ROW,
+                    seed);
+            simulation.setDeltaTime(deltaTime);
+            SimulationResult result = simulation.run((int) (MAX_GAME_FRAMES * FIXED_DELTA_TIME / deltaTime));
+            simulatedSeconds += result.getSimulatedSeconds();
+            wallNanos += result.getWallNanos();
+        }
+        System.out.printf("%-22s %8.2f %8.4f %14.1f %14.1f%n", "swept", stepDistance, deltaTime,
+                simulatedSeconds, wallNanos / NANOS_PER_MICRO / simulatedSeconds);
+    }
+
+    /**
+     * Runs the tunnelling check.
+     *
+     * @param args Optionally, the number of trials of every scenario.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int numTrials = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TRIALS;
+        if (!new TunnellingCheck(numTrials).runAll()) {
+            System.err.println("tunnelling: a swept body passed through a brick, the border or the paddle");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package bricker.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AudioMixer plays pre-decoded clips on a thread of its own, so playing a sound costs the game thread
+ * a single lock-free enqueue no matter how many balls and pucks bounce.
+ * The mixer works in periods as long as a frame of the game. A clip that is already waiting in the
+ * queue is not queued again, so the requests of one frame for the same clip are coalesced on the
+ * calling thread and the queue cannot be flooded. At the start of every period the mixer drains the
+ * queue: a clip requested again in the same period is coalesced into the voice already started, and a
+ * request beyond the voice cap is dropped. It then adds the samples of all active
+ * voices, clamps them and writes the period to the audio line, whose blocking write paces the thread.
+ * Without an audio line the mixer runs silently, paced by the clock, so its metrics stay meaningful
+ * on machines without a sound device.
+ */
+public class AudioMixer implements AutoCloseable {
+    private static final int BITS_PER_SAMPLE = 16;
+    private static final int BYTES_PER_SAMPLE = BITS_PER_SAMPLE / Byte.SIZE;
+    private static final int LINE_BUFFER_PERIODS = 4;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final AudioFormat format;
+    private final SourceDataLine line;
+    private final int maxVoices;
+    private final int periodSamples;
+    private final long periodNanos;
+    private final PlayRequestQueue requests;
+    private final Map<String, SoundEffect> effects;
+    private volatile QueuedClip[] clips;
+    private final int[] voiceClips;
+    private final int[] voicePositions;
+    private int numVoices;
+    private boolean[] startedThisPeriod;
+    private final int[] mixBuffer;
+    private final byte[] outputBuffer;
+    private final AtomicLong numRequested;
+    private final AtomicLong numPlayed;
+    private final AtomicLong numCoalesced;
+    private final AtomicLong numDropped;
+    private volatile int numActiveVoices;
+    private volatile boolean running;
+    private final Thread thread;
+
+    /**
+     * Constructs a new AudioMixer and starts its thread.
+     *
+     * @param sampleRate       The sample rate of the mix, in Hz.
+     * @param periodsPerSecond The number of mixing periods per second, usually the game's frame rate.
+     * @param maxVoices        The maximal number of clips playing at once.
+     * @param queueCapacity    The number of play requests that can wait for the mixer. Must be a power
+     *                         of two.
+     * @param line             The line the mix is written to, opened in the mixer's format, or null to
+     *                         mix silently.
+     */
+    public AudioMixer(float sampleRate, int periodsPerSecond, int maxVoices, int queueCapacity,
+                      SourceDataLine line) {
+        this.format = format(sampleRate);
+        this.line = line;
+        this.maxVoices = maxVoices;
+        this.periodSamples = Math.round(sampleRate / periodsPerSecond);
+        this.periodNanos = NANOS_PER_SECOND / periodsPerSecond;
+        this.requests = new PlayRequestQueue(queueCapacity);
+        this.effects = new HashMap<>();
+        this.clips = new QueuedClip[0];
+        this.voiceClips = new int[maxVoices];
+        this.voicePositions = new int[maxVoices];
+        this.numVoices = 0;
+        this.startedThisPeriod = new boolean[0];
+        this.mixBuffer = new int[periodSamples];
+        this.outputBuffer = new byte[periodSamples * BYTES_PER_SAMPLE];
+        this.numRequested = new AtomicLong();
+        this.numPlayed = new AtomicLong();
+        this.numCoalesced = new AtomicLong();
+        this.numDropped = new AtomicLong();
+        this.running = true;
+        this.thread = new Thread(this::run, "bricker-audio-mixer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Opens the default audio line of the system and starts a mixer writing to it. Falls back to a
+     * silent mixer if no line is available, e.g. on a machine without a sound device.
+     *
+     * @param sampleRate       The sample rate of the mix, in Hz.
+     * @param periodsPerSecond The number of mixing periods per second, usually the game's frame rate.
+     * @param maxVoices        The maximal number of clips playing at once.
+     * @param queueCapacity    The number of play requests that can wait for the mixer. Must be a power
+     *                         of two.
+     * @return The started mixer.
+     */
+    public static AudioMixer openDefault(float sampleRate, int periodsPerSecond, int maxVoices,
+                                         int queueCapacity) {
+        AudioFormat format = format(sampleRate);
+        int periodBytes = Math.round(sampleRate / periodsPerSecond) * BYTES_PER_SAMPLE;
+        SourceDataLine line;
+        try {
+            line = AudioSystem.getSourceDataLine(format);
+            line.open(format, LINE_BUFFER_PERIODS * periodBytes);
+            line.start();
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            line = null;
+        }
+        return new AudioMixer(sampleRate, periodsPerSecond, maxVoices, queueCapacity, line);
+    }
+
+    private static AudioFormat format(float sampleRate) {
+        return new AudioFormat(sampleRate, BITS_PER_SAMPLE, 1, true, false);
+    }
+
+    /**
+     * Gets the sound effect of a sound file, decoding the file into PCM the first time it is asked
+     * for. Later calls for the same path return the same effect.
+     *
+     * @param path The path of the sound file.
+     * @return The sound effect, whose play method queues the clip on this mixer.
+     * @throws IOException If the file is missing or cannot be decoded.
+     */
+    public synchronized SoundEffect load(String path) throws IOException {
+        SoundEffect effect = effects.get(path);
+        if (effect == null) {
+            effect = add(path, PcmClip.read(path, format.getSampleRate()));
+        }
+        return effect;
+    }
+
+    /**
+     * Adds a decoded clip to the mixer.
+     *
+     * @param name The name the clip is later loaded by. Replaces the effect of an earlier clip of the
+     *             same name.
+     * @param clip The clip, at the sample rate of the mixer.
+     * @return The sound effect, whose play method queues the clip on this mixer.
+     */
+    public synchronized SoundEffect add(String name, PcmClip clip) {
+        int clipId = clips.length;
+        QueuedClip queuedClip = new QueuedClip(clipId, clip.getSamples());
+        QueuedClip[] grown = Arrays.copyOf(clips, clipId + 1);
+        grown[clipId] = queuedClip;
+        this.clips = grown;
+        effects.put(name, queuedClip);
+        return queuedClip;
+    }
+
+    private void run() {
+        long deadline = System.nanoTime();
+        while (running) {
+            startRequestedVoices();
+            mixPeriod();
+            if (line != null) {
+                line.write(outputBuffer, 0, outputBuffer.length);
+            } else {
+                deadline += periodNanos;
+                long wait = deadline - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else {
+                    //fell behind, e.g. after a pause of the process; do not try to catch up
+                    deadline = System.nanoTime();
+                }
+            }
+        }
+        if (line != null) {
+            line.drain();
+            line.close();
+        }
+    }
+
+    private void startRequestedVoices() {
+        Arrays.fill(startedThisPeriod, false);
+        for (int clipId = requests.poll(); clipId != PlayRequestQueue.EMPTY; clipId = requests.poll()) {
+            clips[clipId].pending.set(false);
+            if (clipId >= startedThisPeriod.length) {
+                //a clip was loaded since the last period
+                startedThisPeriod = Arrays.copyOf(startedThisPeriod, clips.length);
+            }
+            if (startedThisPeriod[clipId]) {
+                numCoalesced.incrementAndGet();
+            } else if (numVoices == maxVoices) {
+                numDropped.incrementAndGet();
+            } else {
+                startedThisPeriod[clipId] = true;
+                voiceClips[numVoices] = clipId;
+                voicePositions[numVoices] = 0;
+                numVoices++;
+                numPlayed.incrementAndGet();
+            }
+        }
+        numActiveVoices = numVoices;
+    }
+
+    private void mixPeriod() {
+        Arrays.fill(mixBuffer, 0);
+        QueuedClip[] loaded = clips;
+        int voice = 0;
+        while (voice < numVoices) {
+            short[] samples = loaded[voiceClips[voice]].samples;
+            int position = voicePositions[voice];
+            int count = Math.min(periodSamples, samples.length - position);
+            for (int i = 0; i < count; i++) {
+                mixBuffer[i] += samples[position + i];
+            }
+            position += count;
+            if (position < samples.length) {
+                voicePositions[voice] = position;
+                voice++;
+            } else {
+                //the voice ended; the last voice takes its place
+                numVoices--;
+                voiceClips[voice] = voiceClips[numVoices];
+                voicePositions[voice] = voicePositions[numVoices];
+            }
+        }
+        for (int i = 0; i < periodSamples; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mixBuffer[i]));
+            outputBuffer[BYTES_PER_SAMPLE * i] = (byte) sample;
+            outputBuffer[BYTES_PER_SAMPLE * i + 1] = (byte) (sample >> Byte.SIZE);
+        }
+    }
+
+    /**
+     * QueuedClip is the sound effect of a clip of the mixer. Its pending flag is set while a request
+     * for the clip waits in the queue, and cleared by the mixer thread when it takes the request.
+     */
+    private final class QueuedClip implements SoundEffect {
+        private final int clipId;
+        private final short[] samples;
+        private final AtomicBoolean pending;
+
+        private QueuedClip(int clipId, short[] samples) {
+            this.clipId = clipId;
+            this.samples = samples;
+            this.pending = new AtomicBoolean();
+        }
+
+        @Override
+        public void play() {
+            numRequested.incrementAndGet();
+            if (!pending.compareAndSet(false, true)) {
+                numCoalesced.incrementAndGet();
+            } else if (!requests.offer(clipId)) {
+                pending.set(false);
+                numDropped.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the mix is written to an audio line.
+     *
+     * @return true if the mixer is audible, false if it mixes silently.
+     */
+    public boolean isAudible() {
+        return line != null;
+    }
+
+    /**
+     * Gets the number of play requests made so far.
+     *
+     * @return The number of requests.
+     */
+    public long getNumRequested() {
+        return numRequested.get();
+    }
+
+    /**
+     * Gets the number of requests that started a voice.
+     *
+     * @return The number of played requests.
+     */
+    public long getNumPlayed() {
+        return numPlayed.get();
+    }
+
+    /**
+     * Gets the number of requests merged into a voice of the same clip started in the same period.
+     *
+     * @return The number of coalesced requests.
+     */
+    public long getNumCoalesced() {
+        return numCoalesced.get();
+    }
+
+    /**
+     * Gets the number of requests dropped because the queue was full or all voices were busy.
+     *
+     * @return The number of dropped requests.
+     */
+    public long getNumDropped() {
+        return numDropped.get();
+    }
+
+    /**
+     * Gets the number of voices that were playing after the last period started.
+     *
+     * @return The number of active voices.
+     */
+    public int getNumActiveVoices() {
+        return numActiveVoices;
+    }
+
+    /**
+     * Stops the mixer thread once it finished its current period, and closes the audio line.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Formats the metrics of the mixer as a one line report.
+     *
+     * @return A human readable summary of the play requests.
+     */
+    @Override
+    public String toString() {
+        return String.format("audio: requested=%d played=%d coalesced=%d dropped=%d voices=%d audible=%b",
+                getNumRequested(), getNumPlayed(), getNumCoalesced(), getNumDropped(),
+                getNumActiveVoices(), isAudible());
+    }
+}
@@ -0,0 +1,127 @@
+package bricker.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * PcmClip holds a sound decoded once into 16 bit mono PCM samples at the sample rate of the mixer,
+ * so playing it only copies samples and never touches the disk or a decoder.
+ */
+public class PcmClip {
+    private static final int BITS_PER_SAMPLE = 16;
+    private static final int BYTES_PER_SAMPLE = BITS_PER_SAMPLE / Byte.SIZE;
+    private static final int BYTE_MASK = 0xff;
+
+    private final short[] samples;
+
+    /**
+     * Constructs a new PcmClip.
+     *
+     * @param samples The 16 bit mono samples of the clip.
+     */
+    public PcmClip(short[] samples) {
+        this.samples = samples;
+    }
+
+    /**
+     * Reads and decodes a sound file, looking it up on the disk first and on the class path second.
+     *
+     * @param path       The path of the sound file.
+     * @param sampleRate The sample rate the clip is converted to.
+     * @return The decoded clip.
+     * @throws IOException If the file is missing or its format cannot be decoded.
+     */
+    public static PcmClip read(String path, float sampleRate) throws IOException {
+        try (AudioInputStream stream = open(path)) {
+            return decode(stream, sampleRate);
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException("unsupported sound format: " + path, e);
+        }
+    }
+
+    private static AudioInputStream open(String path) throws IOException, UnsupportedAudioFileException {
+        File file = new File(path);
+        if (file.isFile()) {
+            return AudioSystem.getAudioInputStream(file);
+        }
+        InputStream resource = PcmClip.class.getResourceAsStream("/" + path);
+        if (resource == null) {
+            throw new IOException("sound not found: " + path);
+        }
+        return AudioSystem.getAudioInputStream(new BufferedInputStream(resource));
+    }
+
+    /**
+     * Decodes an audio stream into a clip: converts it to signed 16 bit samples, averages its channels
+     * and resamples it linearly to the given sample rate.
+     *
+     * @param stream     The audio stream.
+     * @param sampleRate The sample rate the clip is converted to.
+     * @return The decoded clip.
+     * @throws IOException If the stream cannot be read or converted.
+     */
+    public static PcmClip decode(AudioInputStream stream, float sampleRate) throws IOException {
+        AudioFormat source = stream.getFormat();
+        int channels = source.getChannels();
+        AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, source.getSampleRate(),
+                BITS_PER_SAMPLE, channels, channels * BYTES_PER_SAMPLE, source.getSampleRate(), false);
+        byte[] bytes;
+        try (AudioInputStream converted = AudioSystem.getAudioInputStream(pcm, stream)) {
+            bytes = converted.readAllBytes();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("cannot convert " + source + " to PCM", e);
+        }
+        int numFrames = bytes.length / (channels * BYTES_PER_SAMPLE);
+        float[] mono = new float[numFrames];
+        for (int frame = 0; frame < numFrames; frame++) {
+            int sum = 0;
+            for (int channel = 0; channel < channels; channel++) {
+                int offset = (frame * channels + channel) * BYTES_PER_SAMPLE;
+                sum += (short) ((bytes[offset] & BYTE_MASK) | (bytes[offset + 1] << Byte.SIZE));
+            }
+            mono[frame] = (float) sum / channels;
+        }
+        return new PcmClip(resample(mono, source.getSampleRate(), sampleRate));
+    }
+
+    private static short[] resample(float[] mono, float sourceRate, float targetRate) {
+        if (mono.length == 0) {
+            return new short[0];
+        }
+        double step = sourceRate / targetRate;
+        int length = (int) Math.floor((mono.length - 1) / step) + 1;
+        short[] resampled = new short[length];
+        for (int i = 0; i < length; i++) {
+            double position = i * step;
+            int index = (int) position;
+            float next = index + 1 < mono.length ? mono[index + 1] : mono[index];
+            double value = mono[index] + (next - mono[index]) * (position - index);
+            resampled[i] = (short) Math.round(value);
+        }
+        return resampled;
+    }
+
+    /**
+     * Gets the samples of the clip. The array is shared and must not be modified.
+     *
+     * @return The 16 bit mono samples.
+     */
+    public short[] getSamples() {
+        return samples;
+    }
+
+    /**
+     * Gets the length of the clip.
+     *
+     * @return The number of samples.
+     */
+    public int getLength() {
+        return samples.length;
+    }
+}
@@ -0,0 +1,85 @@
+package bricker.audio;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * PlayRequestQueue is a bounded, lock-free queue of clip ids between any number of threads playing
+ * sounds and the single mixer thread.
+ * Every slot carries a sequence number telling whether it is free for the producer of a position or
+ * filled for the consumer of that position, so a producer claims a slot with one compare-and-set
+ * and neither side ever blocks or allocates. A full queue rejects the request instead of waiting.
+ */
+class PlayRequestQueue {
+    /**
+     * Returned by poll when the queue is empty.
+     */
+    static final int EMPTY = -1;
+
+    private final int[] clipIds;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail;
+    private long head;
+
+    /**
+     * Constructs a new, empty PlayRequestQueue.
+     *
+     * @param capacity The number of requests the queue can hold. Must be a power of two.
+     */
+    PlayRequestQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.clipIds = new int[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.tail = new AtomicLong();
+        this.head = 0;
+    }
+
+    /**
+     * Adds a request to the queue. Safe to call from any thread.
+     *
+     * @param clipId The id of the clip to play.
+     * @return true if the request was queued, false if the queue is full.
+     */
+    boolean offer(int clipId) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) (position & mask);
+            long available = sequences.get(slot) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    clipIds[slot] = clipId;
+                    sequences.lazySet(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest request from the queue. Must only be called from the mixer thread.
+     *
+     * @return The id of the clip to play, or EMPTY if there is no request.
+     */
+    int poll() {
+        int slot = (int) (head & mask);
+        if (sequences.get(slot) != head + 1) {
+            return EMPTY;
+        }
+        int clipId = clipIds[slot];
+        sequences.lazySet(slot, head + mask + 1);
+        head++;
+        return clipId;
+    }
+}
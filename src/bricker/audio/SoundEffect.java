@@ -0,0 +1,14 @@
+package bricker.audio;
+
+/**
+ * SoundEffect is a sound a game object can play, e.g. when a ball bounces.
+ * Playing must be cheap enough to call from the game thread for every contact; implementations
+ * either hand the request to a mixer thread or play a danogl Sound directly.
+ */
+public interface SoundEffect {
+
+    /**
+     * Plays the sound from its start.
+     */
+    void play();
+}
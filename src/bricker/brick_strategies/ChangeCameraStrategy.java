@@ -1,11 +1,10 @@
 package bricker.brick_strategies;
 
 import bricker.gameobjects.Ball;
+import bricker.gameobjects.EntityKind;
 import bricker.main.BrickerGameManager;
 import danogl.GameObject;
 
-import static bricker.main.Constants.MAIN_BALL_TAG;
-
 /**
  * The ChangeCameraStrategy class implements the CollisionStrategy interface.
  * When a collision occurs with the main ball, it triggers a camera change in the game.
@@ -23,14 +22,14 @@ public class ChangeCameraStrategy implements CollisionStrategy{
     }
     /**
      * Handles the collision event between two game objects. When a collision occurs and the second
-     * game object has the tag MAIN_BALL_TAG, this method triggers a camera change to follow the ball.
+     * game object is the main ball, this method triggers a camera change to follow the ball.
      *
      * @param o1 the first game object involved in the collision.
      * @param o2 the second game object involved in the collision.
      */
     @Override
     public void onCollision(GameObject o1, GameObject o2) {
-        if (o2.getTag().equals(MAIN_BALL_TAG)) {
+        if (EntityKind.of(o2) == EntityKind.MAIN_BALL) {
             brickerGameManager.changeCamera((Ball) o2);
         }
     }
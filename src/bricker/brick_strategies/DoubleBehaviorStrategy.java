@@ -1,10 +1,7 @@
 package bricker.brick_strategies;
 
-import bricker.main.BrickerGameManager;
+import bricker.util.RandomSource;
 import danogl.GameObject;
-import danogl.util.Vector2;
-
-import java.util.Random;
 
 /**
  * DoubleBehaviorStrategy class defines a collision strategy that can apply two or more behaviors when a
@@ -13,53 +10,41 @@ import java.util.Random;
  * It implements the CollisionStrategy interface.
  */
 public class DoubleBehaviorStrategy implements CollisionStrategy{
-    private static final int SPECIAL_BEHAVIOR_UPPER_BOUND = 5;
-    private static final int SINGLE_SPECIAL_BEHAVIOR_UPPER_BOUND = 4;
-    private static final int DOUBLE_SPECIAL_BEHAVIOR = 4;
-
+    private static final int NUM_ESCALATED_BEHAVIORS = 3;
 
-    CollisionStrategy[] strategies;
+    private final PowerUpRegistry powerUps;
+    private final RandomSource random;
 
     /**
      * Constructor for DoubleBehaviorStrategy.
-     * Initializes the strategy with different behaviors for collision events.
      *
-     * @param brickerGameManager Instance of BrickerGameManager to interact with game objects and game state.
+     * @param powerUps The power-ups this strategy combines.
+     * @param random   The random source used to pick the behaviors.
      */
-    public DoubleBehaviorStrategy(BrickerGameManager brickerGameManager){
-        FallingHeartsStrategy fallingHeartsStrategy = new FallingHeartsStrategy(brickerGameManager);
-        AdditionalPucksStrategy additionalPucksStrategy = new AdditionalPucksStrategy(brickerGameManager);
-        ChangeCameraStrategy changeCameraStrategy = new ChangeCameraStrategy(brickerGameManager);
-        CreateSecondaryPaddleStrategy createSecondaryPaddleStrategy =
-                new CreateSecondaryPaddleStrategy(brickerGameManager);
-        this.strategies =
-                new CollisionStrategy[]{fallingHeartsStrategy,
-                        additionalPucksStrategy, changeCameraStrategy, createSecondaryPaddleStrategy};
+    public DoubleBehaviorStrategy(PowerUpRegistry powerUps, RandomSource random){
+        this.powerUps = powerUps;
+        this.random = random;
     }
     /**
      * Handles the collision between two game objects.
-     * This method randomly selects and applies one or more special behaviors based on predefined
-     * probabilities.
+     * This method draws two power-ups by their combo weights and applies both. If either draw is a combo
+     * power-up, it instead applies three power-ups drawn among the non-combo ones.
      *
      * @param o1 The first game object involved in the collision.
      * @param o2 The second game object involved in the collision.
      */
     @Override
     public void onCollision(GameObject o1, GameObject o2) {
-        Random random = new Random();
-        int strategy1Index = random.nextInt(SPECIAL_BEHAVIOR_UPPER_BOUND);
-        int strategy2Index = random.nextInt(SPECIAL_BEHAVIOR_UPPER_BOUND);
-        if(strategy1Index == DOUBLE_SPECIAL_BEHAVIOR || strategy2Index == DOUBLE_SPECIAL_BEHAVIOR){
-            strategy1Index = random.nextInt(SINGLE_SPECIAL_BEHAVIOR_UPPER_BOUND);
-            strategy2Index = random.nextInt(SINGLE_SPECIAL_BEHAVIOR_UPPER_BOUND);
-            int strategy3Index = random.nextInt(SINGLE_SPECIAL_BEHAVIOR_UPPER_BOUND);
-            this.strategies[strategy1Index].onCollision(o1, o2);
-            this.strategies[strategy2Index].onCollision(o1, o2);
-            this.strategies[strategy3Index].onCollision(o1, o2);
+        int strategy1Id = powerUps.sampleCombo(random);
+        int strategy2Id = powerUps.sampleCombo(random);
+        if(powerUps.isCombo(strategy1Id) || powerUps.isCombo(strategy2Id)){
+            for (int i = 0; i < NUM_ESCALATED_BEHAVIORS; i++) {
+                powerUps.get(powerUps.sampleSingle(random)).onCollision(o1, o2);
+            }
         }
         else{
-            this.strategies[strategy1Index].onCollision(o1, o2);
-            this.strategies[strategy2Index].onCollision(o1, o2);
+            powerUps.get(strategy1Id).onCollision(o1, o2);
+            powerUps.get(strategy2Id).onCollision(o1, o2);
         }
 
     }
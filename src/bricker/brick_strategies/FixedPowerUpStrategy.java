@@ -0,0 +1,42 @@
+package bricker.brick_strategies;
+
+import bricker.gameobjects.EntityKind;
+import bricker.main.BrickerGameManager;
+import danogl.GameObject;
+
+/**
+ * FixedPowerUpStrategy removes a hit brick and always triggers the same power-up, instead of drawing
+ * one at random like BasicCollisionStrategy. Level files use it for bricks placed with a power-up.
+ */
+public class FixedPowerUpStrategy implements CollisionStrategy {
+    private final BrickerGameManager brickerGameManager;
+    private final PowerUpRegistry powerUps;
+    private final int powerUp;
+
+    /**
+     * Constructor for FixedPowerUpStrategy.
+     *
+     * @param gameManager Instance of BrickerGameManager to interact with game objects and game state.
+     * @param powerUps    The registry holding the power-up.
+     * @param powerUp     The id of the power-up in the registry.
+     */
+    public FixedPowerUpStrategy(BrickerGameManager gameManager, PowerUpRegistry powerUps, int powerUp) {
+        this.brickerGameManager = gameManager;
+        this.powerUps = powerUps;
+        this.powerUp = powerUp;
+    }
+
+    /**
+     * Removes the brick involved in the collision and triggers the power-up.
+     *
+     * @param o1 The first game object involved in the collision.
+     * @param o2 The second game object involved in the collision.
+     */
+    @Override
+    public void onCollision(GameObject o1, GameObject o2) {
+        if (EntityKind.of(o1) == EntityKind.BRICK && brickerGameManager.removeObject(o1)) {
+            brickerGameManager.getEvents().powerUp(powerUps.getName(powerUp), o2);
+            powerUps.get(powerUp).onCollision(o1, o2);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package bricker.brick_strategies;
+
+import bricker.main.BrickerGameManager;
+import bricker.util.AliasSampler;
+import bricker.util.RandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PowerUpRegistry owns a single instance of every power-up strategy and picks power-ups at random
+ * from configurable weight tables.
+ * Every power-up has two weights: its brick weight is used when a brick is destroyed, where it competes
+ * with the weight of getting no power-up at all, and its combo weight is used when a combo power-up
+ * (such as DoubleBehaviorStrategy) picks the power-ups it combines. The tables are turned into alias
+ * samplers, so drawing a power-up takes constant time and allocates nothing however many power-ups are
+ * registered.
+ */
+public class PowerUpRegistry {
+    /**
+     * Id returned when no power-up was drawn.
+     */
+    public static final int NO_POWER_UP = -1;
+
+    private static final double DEFAULT_NO_POWER_UP_WEIGHT = 5;
+    private static final double DEFAULT_WEIGHT = 1;
+
+    private final List<CollisionStrategy> strategies;
+    private final List<String> names;
+    private final List<Boolean> combos;
+    private final List<Double> brickWeights;
+    private final List<Double> comboWeights;
+    private double noPowerUpWeight;
+    private boolean samplersUpToDate;
+    private AliasSampler brickSampler;
+    private AliasSampler comboSampler;
+    private AliasSampler singleSampler;
+
+    /**
+     * Constructs a new, empty PowerUpRegistry.
+     *
+     * @param noPowerUpWeight The weight of destroying a brick without any power-up.
+     */
+    public PowerUpRegistry(double noPowerUpWeight) {
+        this.strategies = new ArrayList<>();
+        this.names = new ArrayList<>();
+        this.combos = new ArrayList<>();
+        this.brickWeights = new ArrayList<>();
+        this.comboWeights = new ArrayList<>();
+        this.noPowerUpWeight = noPowerUpWeight;
+        this.samplersUpToDate = false;
+    }
+
+    /**
+     * Creates a registry with the game's standard power-ups and their standard odds: a destroyed brick
+     * has a 1 in 10 chance for each of the five power-ups and is otherwise plain, and the double
+     * behavior combines the four single power-ups, escalating to three of them with its own weight.
+     *
+     * @param brickerGameManager The game manager the power-ups act on.
+     * @param random             The random source of the combo power-ups.
+     * @return The standard registry.
+     */
+    public static PowerUpRegistry createDefault(BrickerGameManager brickerGameManager, RandomSource random) {
+        PowerUpRegistry registry = new PowerUpRegistry(DEFAULT_NO_POWER_UP_WEIGHT);
+        registry.register("fallingHeart", new FallingHeartsStrategy(brickerGameManager), false,
+                DEFAULT_WEIGHT, DEFAULT_WEIGHT);
+        registry.register("additionalPucks", new AdditionalPucksStrategy(brickerGameManager), false,
+                DEFAULT_WEIGHT, DEFAULT_WEIGHT);
+        registry.register("changeCamera", new ChangeCameraStrategy(brickerGameManager), false,
+                DEFAULT_WEIGHT, DEFAULT_WEIGHT);
+        registry.register("secondaryPaddle", new CreateSecondaryPaddleStrategy(brickerGameManager), false,
+                DEFAULT_WEIGHT, DEFAULT_WEIGHT);
+        registry.register("doubleBehavior", new DoubleBehaviorStrategy(registry, random), true,
+                DEFAULT_WEIGHT, DEFAULT_WEIGHT);
+        return registry;
+    }
+
+    /**
+     * Registers a power-up.
+     *
+     * @param name        The name of the power-up, used in reports.
+     * @param strategy    The strategy applied when the power-up is drawn.
+     * @param isCombo     Whether the power-up combines other power-ups. Combo power-ups are never drawn
+     *                    by sampleSingle.
+     * @param brickWeight The weight of the power-up when a brick is destroyed.
+     * @param comboWeight The weight of the power-up when a combo picks power-ups.
+     * @return The id of the power-up.
+     */
+    public int register(String name, CollisionStrategy strategy, boolean isCombo, double brickWeight,
+                        double comboWeight) {
+        strategies.add(strategy);
+        names.add(name);
+        combos.add(isCombo);
+        brickWeights.add(brickWeight);
+        comboWeights.add(comboWeight);
+        invalidateSamplers();
+        return strategies.size() - 1;
+    }
+
+    /**
+     * Sets the weight of a power-up when a brick is destroyed.
+     *
+     * @param id     The id of the power-up.
+     * @param weight The new weight.
+     */
+    public void setBrickWeight(int id, double weight) {
+        brickWeights.set(id, weight);
+        invalidateSamplers();
+    }
+
+    /**
+     * Sets the weight of a power-up when a combo picks power-ups.
+     *
+     * @param id     The id of the power-up.
+     * @param weight The new weight.
+     */
+    public void setComboWeight(int id, double weight) {
+        comboWeights.set(id, weight);
+        invalidateSamplers();
+    }
+
+    /**
+     * Sets the weight of destroying a brick without any power-up.
+     *
+     * @param weight The new weight.
+     */
+    public void setNoPowerUpWeight(double weight) {
+        this.noPowerUpWeight = weight;
+        invalidateSamplers();
+    }
+
+    /**
+     * Gets the weight of destroying a brick without any power-up.
+     *
+     * @return The weight.
+     */
+    public double getNoPowerUpWeight() {
+        return noPowerUpWeight;
+    }
+
+    /**
+     * Gets the strategy of a power-up.
+     *
+     * @param id The id of the power-up.
+     * @return The strategy of the power-up.
+     */
+    public CollisionStrategy get(int id) {
+        return strategies.get(id);
+    }
+
+    /**
+     * Gets the name of a power-up.
+     *
+     * @param id The id of the power-up.
+     * @return The name the power-up was registered with.
+     */
+    public String getName(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Checks whether a power-up combines other power-ups.
+     *
+     * @param id The id of the power-up.
+     * @return true if the power-up is a combo, false otherwise.
+     */
+    public boolean isCombo(int id) {
+        return combos.get(id);
+    }
+
+    /**
+     * Finds a power-up by its strategy.
+     *
+     * @param strategy The strategy of the power-up.
+     * @return The id of the power-up, or NO_POWER_UP if the strategy is not registered.
+     */
+    public int idOf(CollisionStrategy strategy) {
+        int id = strategies.indexOf(strategy);
+        return id < 0 ? NO_POWER_UP : id;
+    }
+
+    /**
+     * Gets the number of registered power-ups.
+     *
+     * @return The number of power-ups.
+     */
+    public int size() {
+        return strategies.size();
+    }
+
+    /**
+     * Draws the power-up of a destroyed brick.
+     *
+     * @param random The source of randomness.
+     * @return The id of the drawn power-up, or NO_POWER_UP.
+     */
+    public int sampleBrick(RandomSource random) {
+        if (!samplersUpToDate) {
+            buildSamplers();
+        }
+        int index = brickSampler.sample(random);
+        return index == strategies.size() ? NO_POWER_UP : index;
+    }
+
+    /**
+     * Draws one of the power-ups a combo combines, possibly a combo itself.
+     *
+     * @param random The source of randomness.
+     * @return The id of the drawn power-up.
+     */
+    public int sampleCombo(RandomSource random) {
+        if (!samplersUpToDate) {
+            buildSamplers();
+        }
+        return sample(comboSampler, random);
+    }
+
+    /**
+     * Draws one of the power-ups a combo combines, never a combo itself.
+     *
+     * @param random The source of randomness.
+     * @return The id of the drawn power-up.
+     */
+    public int sampleSingle(RandomSource random) {
+        if (!samplersUpToDate) {
+            buildSamplers();
+        }
+        return sample(singleSampler, random);
+    }
+
+    private static int sample(AliasSampler sampler, RandomSource random) {
+        if (sampler == null) {
+            throw new IllegalStateException("no power-up has a positive combo weight");
+        }
+        return sampler.sample(random);
+    }
+
+    private void invalidateSamplers() {
+        this.samplersUpToDate = false;
+    }
+
+    private void buildSamplers() {
+        int numPowerUps = strategies.size();
+        double[] brickTable = new double[numPowerUps + 1];
+        double[] comboTable = new double[numPowerUps];
+        double[] singleTable = new double[numPowerUps];
+        for (int i = 0; i < numPowerUps; i++) {
+            brickTable[i] = brickWeights.get(i);
+            comboTable[i] = comboWeights.get(i);
+            singleTable[i] = combos.get(i) ? 0 : comboWeights.get(i);
+        }
+        brickTable[numPowerUps] = noPowerUpWeight;
+        this.brickSampler = new AliasSampler(brickTable);
+        this.comboSampler = hasPositiveWeight(comboTable) ? new AliasSampler(comboTable) : null;
+        this.singleSampler = hasPositiveWeight(singleTable) ? new AliasSampler(singleTable) : null;
+        this.samplersUpToDate = true;
+    }
+
+    private static boolean hasPositiveWeight(double[] table) {
+        for (double weight : table) {
+            if (weight > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
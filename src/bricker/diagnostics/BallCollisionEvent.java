@@ -0,0 +1,23 @@
+package bricker.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * BallCollisionEvent is committed when a ball or a puck bounces off another object.
+ */
+@Name("bricker.BallCollision")
+@Label("Ball Collision")
+@Description("A ball or a puck bounced off another object")
+class BallCollisionEvent extends GameEvent {
+    @Label("Ball Kind")
+    String ball;
+
+    @Label("Other Kind")
+    String other;
+
+    @Label("Ball Collisions")
+    @Description("Number of collisions of the ball so far, or of all the pucks for a puck")
+    int ballCollisions;
+}
@@ -0,0 +1,14 @@
+package bricker.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * CameraChangeEvent is committed when the camera starts following the main ball.
+ */
+@Name("bricker.CameraChange")
+@Label("Camera Change")
+@Description("The camera started following the main ball")
+class CameraChangeEvent extends GameEvent {
+}
@@ -0,0 +1,24 @@
+package bricker.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * GameEvent is the base of all the Flight Recorder events of the game. Every event carries the entity
+ * counts of the game at the moment it was committed.
+ */
+@Category("Bricker")
+abstract class GameEvent extends Event {
+    @Label("Pucks")
+    int pucks;
+
+    @Label("Bricks")
+    int bricks;
+
+    @Label("Lives")
+    int lives;
+
+    @Label("Game Objects Pending Removal")
+    int pendingRemovals;
+}
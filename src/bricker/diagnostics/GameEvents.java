@@ -0,0 +1,128 @@
+package bricker.diagnostics;
+
+import bricker.gameobjects.EntityKind;
+import bricker.main.BrickerGameManager;
+import danogl.GameObject;
+import jdk.jfr.EventType;
+
+/**
+ * GameEvents emits the Flight Recorder events of a game.
+ * Every method first checks whether its event type is enabled in a running recording, and only then
+ * creates the event, fills in the game's entity counts and commits it. Without a recording the
+ * methods return right away, without allocating.
+ */
+public class GameEvents {
+    private static final EventType BALL_COLLISION = EventType.getEventType(BallCollisionEvent.class);
+    private static final EventType POWER_UP = EventType.getEventType(PowerUpEvent.class);
+    private static final EventType SPAWN = EventType.getEventType(SpawnEvent.class);
+    private static final EventType CAMERA_CHANGE = EventType.getEventType(CameraChangeEvent.class);
+    private static final EventType REMOVAL = EventType.getEventType(RemovalEvent.class);
+    private static final EventType SLOW_FRAME = EventType.getEventType(SlowFrameEvent.class);
+
+    private final BrickerGameManager game;
+
+    /**
+     * Constructs a new GameEvents.
+     *
+     * @param game The game whose entity counts are attached to every event.
+     */
+    public GameEvents(BrickerGameManager game) {
+        this.game = game;
+    }
+
+    /**
+     * Emits a ball collision event.
+     *
+     * @param ball           The kind of the ball that bounced.
+     * @param other          The object the ball bounced off.
+     * @param ballCollisions The number of collisions of the ball so far.
+     */
+    public void ballCollision(EntityKind ball, GameObject other, int ballCollisions) {
+        if (!BALL_COLLISION.isEnabled()) {
+            return;
+        }
+        BallCollisionEvent event = new BallCollisionEvent();
+        event.ball = ball.name();
+        event.other = EntityKind.of(other).name();
+        event.ballCollisions = ballCollisions;
+        commit(event);
+    }
+
+    /**
+     * Emits a power-up event.
+     *
+     * @param strategy The name of the strategy that fired.
+     * @param hitBy    The object that hit the brick.
+     */
+    public void powerUp(String strategy, GameObject hitBy) {
+        if (!POWER_UP.isEnabled()) {
+            return;
+        }
+        PowerUpEvent event = new PowerUpEvent();
+        event.strategy = strategy;
+        event.hitBy = EntityKind.of(hitBy).name();
+        commit(event);
+    }
+
+    /**
+     * Emits a spawn event.
+     *
+     * @param kind The kind of the object that entered the game.
+     */
+    public void spawn(EntityKind kind) {
+        if (!SPAWN.isEnabled()) {
+            return;
+        }
+        SpawnEvent event = new SpawnEvent();
+        event.kind = kind.name();
+        commit(event);
+    }
+
+    /**
+     * Emits a camera change event.
+     */
+    public void cameraChange() {
+        if (!CAMERA_CHANGE.isEnabled()) {
+            return;
+        }
+        commit(new CameraChangeEvent());
+    }
+
+    /**
+     * Emits a removal event.
+     *
+     * @param object The object whose removal was queued.
+     */
+    public void removal(GameObject object) {
+        if (!REMOVAL.isEnabled()) {
+            return;
+        }
+        RemovalEvent event = new RemovalEvent();
+        event.kind = EntityKind.of(object).name();
+        commit(event);
+    }
+
+    /**
+     * Emits a slow frame event.
+     *
+     * @param frameNanos  The time the frame took, in nanoseconds.
+     * @param budgetNanos The frame budget, in nanoseconds.
+     */
+    public void slowFrame(long frameNanos, long budgetNanos) {
+        if (!SLOW_FRAME.isEnabled()) {
+            return;
+        }
+        SlowFrameEvent event = new SlowFrameEvent();
+        event.frameTime = frameNanos;
+        event.budget = budgetNanos;
+        commit(event);
+    }
+
+    private void commit(GameEvent event) {
+        event.pucks = game.getPuckSystem() == null ? 0 : game.getPuckSystem().getNumPucks();
+        event.bricks = game.getNumBricks();
+        event.lives = game.getNumLives();
+        event.pendingRemovals = game.getCommands().getRemovals().size();
+        event.commit();
+    }
+}
@@ -0,0 +1,19 @@
+package bricker.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * PowerUpEvent is committed when a destroyed brick fires a power-up strategy.
+ */
+@Name("bricker.PowerUp")
+@Label("Power-Up")
+@Description("A destroyed brick fired a power-up strategy")
+class PowerUpEvent extends GameEvent {
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Hit By")
+    String hitBy;
+}
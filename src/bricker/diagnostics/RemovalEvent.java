@@ -0,0 +1,16 @@
+package bricker.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * RemovalEvent is committed when the removal of a game object is queued.
+ */
+@Name("bricker.Removal")
+@Label("Removal")
+@Description("The removal of a game object was queued")
+class RemovalEvent extends GameEvent {
+    @Label("Kind")
+    String kind;
+}
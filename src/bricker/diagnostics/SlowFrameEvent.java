@@ -0,0 +1,22 @@
+package bricker.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * SlowFrameEvent is committed when a game step takes longer than the frame budget.
+ */
+@Name("bricker.SlowFrame")
+@Label("Slow Frame")
+@Description("A game step took longer than the frame budget")
+class SlowFrameEvent extends GameEvent {
+    @Label("Frame Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long frameTime;
+
+    @Label("Budget")
+    @Timespan(Timespan.NANOSECONDS)
+    long budget;
+}
@@ -0,0 +1,127 @@
+package bricker.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * SlowFrameRecorder keeps a Flight Recorder recording of the last few seconds of the game running, and
+ * writes it to disk whenever a frame takes longer than a budget.
+ * The recording uses the JDK's default settings, which are cheap enough to leave on, plus all the
+ * game's own events. Dumps are written on a background thread, so the frame that was already slow is
+ * not delayed further, and at most one dump is written per minimal interval.
+ */
+public class SlowFrameRecorder implements AutoCloseable {
+    private static final String DEFAULT_CONFIGURATION = "default";
+    private static final String DUMP_PREFIX = "slow-frame-";
+    private static final String DUMP_SUFFIX = ".jfr";
+
+    private final Path directory;
+    private final long budgetNanos;
+    private final long minDumpIntervalNanos;
+    private final GameEvents events;
+    private final Recording recording;
+    private final ExecutorService dumper;
+    private long lastDumpNanos;
+    private int numSlowFrames;
+    private int numDumps;
+
+    /**
+     * Constructs a new SlowFrameRecorder and starts its recording.
+     *
+     * @param directory       The directory the recordings are dumped to. Created if missing.
+     * @param budgetNanos     The frame time above which a frame is slow, in nanoseconds.
+     * @param maxAge          How far back a dump reaches.
+     * @param minDumpInterval The minimal time between two dumps.
+     * @param events          The events of the game, used to mark the slow frames in the recording.
+     * @throws IOException If the directory cannot be created or the recording settings cannot be read.
+     */
+    public SlowFrameRecorder(Path directory, long budgetNanos, Duration maxAge, Duration minDumpInterval,
+                             GameEvents events) throws IOException {
+        this.directory = directory;
+        this.budgetNanos = budgetNanos;
+        this.minDumpIntervalNanos = minDumpInterval.toNanos();
+        this.events = events;
+        Files.createDirectories(directory);
+        try {
+            this.recording = new Recording(Configuration.getConfiguration(DEFAULT_CONFIGURATION));
+        } catch (ParseException e) {
+            throw new IOException("cannot read the " + DEFAULT_CONFIGURATION + " recording settings", e);
+        }
+        recording.setName("bricker-slow-frames");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        this.dumper = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "bricker-slow-frame-dumper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lastDumpNanos = System.nanoTime() - minDumpIntervalNanos;
+        recording.start();
+    }
+
+    /**
+     * Checks the time of a frame, and dumps the recording if the frame was slow.
+     *
+     * @param frameNanos The time the frame took, in nanoseconds.
+     * @return true if a dump was started, false otherwise.
+     */
+    public boolean onFrame(long frameNanos) {
+        if (frameNanos <= budgetNanos) {
+            return false;
+        }
+        numSlowFrames++;
+        events.slowFrame(frameNanos, budgetNanos);
+        long now = System.nanoTime();
+        if (now - lastDumpNanos < minDumpIntervalNanos) {
+            return false;
+        }
+        lastDumpNanos = now;
+        Path file = directory.resolve(DUMP_PREFIX + System.currentTimeMillis() + DUMP_SUFFIX);
+        numDumps++;
+        dumper.execute(() -> dump(file));
+        return true;
+    }
+
+    private void dump(Path file) {
+        try {
+            recording.dump(file);
+        } catch (IOException e) {
+            System.err.println("could not dump the slow frame recording to " + file + ": " + e);
+        }
+    }
+
+    /**
+     * Gets the number of slow frames seen so far.
+     *
+     * @return The number of slow frames.
+     */
+    public int getNumSlowFrames() {
+        return numSlowFrames;
+    }
+
+    /**
+     * Gets the number of dumps started so far.
+     *
+     * @return The number of dumps.
+     */
+    public int getNumDumps() {
+        return numDumps;
+    }
+
+    /**
+     * Stops the recording once the pending dumps are written.
+     */
+    @Override
+    public void close() {
+        dumper.execute(recording::close);
+        dumper.shutdown();
+    }
+}
@@ -0,0 +1,16 @@
+package bricker.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * SpawnEvent is committed when a puck, a falling heart or the secondary paddle enters the game.
+ */
+@Name("bricker.Spawn")
+@Label("Spawn")
+@Description("A puck, a falling heart or the secondary paddle entered the game")
+class SpawnEvent extends GameEvent {
+    @Label("Kind")
+    String kind;
+}
@@ -1,10 +1,11 @@
 package bricker.gameobjects;
 
+import bricker.audio.SoundEffect;
 import bricker.brick_strategies.CollisionStrategy;
+import bricker.diagnostics.GameEvents;
 import bricker.outOfScreenStrategies.OutOfScreenStrategy;
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.gui.Sound;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -13,11 +14,18 @@ import danogl.util.Vector2;
  * It handles collisions with other game objects, plays a sound on collision,
  * and applies specified strategies for collisions and out-of-screen events.
  */
-public class Ball extends GameObject {
-    private final Sound collisionSound;
+public class Ball extends KindedGameObject {
+    private static final int FLIP_X = 1;
+    private static final int FLIP_Y = 2;
+    private static final int NUM_FLIPS = 4;
+
+    private final SoundEffect collisionSound;
     private int collisionCounter;
     private final CollisionStrategy collisionStrategy;
     private final OutOfScreenStrategy outOfScreenStrategy;
+    private final Vector2[] flippedVelocities;
+    private GameEvents gameEvents;
+    private float advancedTime;
 
     /**
      * Construct a new Ball instance.
@@ -30,12 +38,14 @@ public class Ball extends GameObject {
      * @param collisionStrategy The strategy to apply on collision.
      */
     public Ball(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-                    Sound collisionSound, CollisionStrategy collisionStrategy) {
+                    SoundEffect collisionSound, CollisionStrategy collisionStrategy) {
         super(topLeftCorner, dimensions, renderable);
         this.collisionSound = collisionSound;
         this.collisionCounter = 0;
         this.collisionStrategy = collisionStrategy;
         this.outOfScreenStrategy = null;
+        this.flippedVelocities = new Vector2[NUM_FLIPS];
+        this.advancedTime = 0;
     }
 
     /**
@@ -50,12 +60,15 @@ public class Ball extends GameObject {
      * @param strategy The strategy to apply when the ball is out of the screen.
      */
     public Ball(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-                Sound collisionSound, CollisionStrategy collisionStrategy, OutOfScreenStrategy strategy) {
+                SoundEffect collisionSound, CollisionStrategy collisionStrategy,
+                OutOfScreenStrategy strategy) {
         super(topLeftCorner, dimensions, renderable);
         this.collisionSound = collisionSound;
         this.collisionCounter = 0;
         this.collisionStrategy = collisionStrategy;
         this.outOfScreenStrategy = strategy;
+        this.flippedVelocities = new Vector2[NUM_FLIPS];
+        this.advancedTime = 0;
     }
 
     /**
@@ -67,6 +80,24 @@ public class Ball extends GameObject {
         return collisionCounter;
     }
 
+    /**
+     * Set the emitter the ball reports its collisions to.
+     *
+     * @param gameEvents The game events, or null to report nothing.
+     */
+    public void setGameEvents(GameEvents gameEvents) {
+        this.gameEvents = gameEvents;
+    }
+
+    /**
+     * Set the collision counter, e.g. when a snapshot of the game is restored.
+     *
+     * @param collisionCounter The number of collisions.
+     */
+    public void setCollisionCounter(int collisionCounter) {
+        this.collisionCounter = collisionCounter;
+    }
+
     /**
      * Reset the collision counter to zero.
      */
@@ -74,6 +105,18 @@ public class Ball extends GameObject {
         this.collisionCounter = 0;
     }
 
+    /**
+     * Determine whether this object should collide with another object.
+     *
+     * @param other The other GameObject.
+     * @return true if the collision matrix lets this ball's kind collide with the other object's kind,
+     * false otherwise.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return getKind().collidesWith(EntityKind.of(other));
+    }
+
     /**
      * Called when this object starts colliding with another object.
      *
@@ -83,13 +126,72 @@ public class Ball extends GameObject {
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
-        Vector2 newVel = getVelocity().flipped(collision.getNormal());
-        setVelocity(newVel);
-        collisionSound.play();
+        handleCollision(other, collision.getNormal());
+    }
+
+    /**
+     * Bounce the ball off another object: flip its velocity around the collision normal, play the
+     * collision sound, count the collision and apply the collision strategy.
+     *
+     * @param other  The other GameObject this is colliding with.
+     * @param normal The normal of the collision.
+     */
+    public void handleCollision(GameObject other, Vector2 normal) {
+        setVelocity(flippedVelocity(getVelocity(), normal));
+        if (collisionSound != null) {
+            collisionSound.play();
+        }
         this.collisionCounter++;
+        if (gameEvents != null) {
+            gameEvents.ballCollision(getKind(), other, collisionCounter);
+        }
         this.collisionStrategy.onCollision(this, other);
     }
 
+    /**
+     * Flips a velocity around a collision normal without allocating in the steady state.
+     * Bouncing off axis aligned normals only ever negates the components of the velocity, so the ball
+     * keeps the four sign variants of its velocity and switches between them. The variants are rebuilt
+     * only when the velocity was set from outside, e.g. when the ball is launched.
+     *
+     * @param velocity The velocity to flip.
+     * @param normal   The normal of the collision.
+     * @return The flipped velocity.
+     */
+    private Vector2 flippedVelocity(Vector2 velocity, Vector2 normal) {
+        boolean alongX = normal.y() == 0 && Math.abs(normal.x()) == 1;
+        boolean alongY = normal.x() == 0 && Math.abs(normal.y()) == 1;
+        if (!alongX && !alongY) {
+            return velocity.flipped(normal);
+        }
+        int flip = -1;
+        for (int i = 0; i < NUM_FLIPS; i++) {
+            if (flippedVelocities[i] == velocity) {
+                flip = i;
+                break;
+            }
+        }
+        if (flip < 0) {
+            flippedVelocities[0] = velocity;
+            flippedVelocities[FLIP_X] = new Vector2(-velocity.x(), velocity.y());
+            flippedVelocities[FLIP_Y] = new Vector2(velocity.x(), -velocity.y());
+            flippedVelocities[FLIP_X | FLIP_Y] = new Vector2(-velocity.x(), -velocity.y());
+            flip = 0;
+        }
+        return flippedVelocities[flip ^ (alongX ? FLIP_X : FLIP_Y)];
+    }
+
+    /**
+     * Moves the ball ahead of the rest of the game, e.g. to sub-step it within a frame. The next update
+     * only advances the ball by the part of its time that was not advanced yet.
+     *
+     * @param deltaTime The time to advance the ball by.
+     */
+    public void advance(float deltaTime) {
+        super.update(deltaTime);
+        this.advancedTime += deltaTime;
+    }
+
     /**
      * Update the state of the ball.
      *
@@ -97,7 +199,8 @@ public class Ball extends GameObject {
      */
     @Override
     public void update(float deltaTime) {
-        super.update(deltaTime);
+        super.update(deltaTime - advancedTime);
+        this.advancedTime = 0;
         if (this.outOfScreenStrategy != null){
             this.outOfScreenStrategy.outOfScreen(this);
         }
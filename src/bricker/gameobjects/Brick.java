@@ -1,6 +1,5 @@
 package bricker.gameobjects;
 
-import static bricker.main.Constants.*;
 import bricker.brick_strategies.CollisionStrategy;
 import danogl.GameObject;
 import danogl.collisions.Collision;
@@ -11,9 +10,15 @@ import danogl.util.Vector2;
  * The Brick class represents a brick object in the game.
  * It handles collisions with other game objects and applies the specified collision strategy.
  */
-public class Brick extends GameObject{
+public class Brick extends KindedGameObject{
+
+    /**
+     * The cell index of a brick that is not part of a BrickField.
+     */
+    public static final int NO_CELL = -1;
 
     private final CollisionStrategy collisionStrategy;
+    private final int cellIndex;
 
     /**
      * Construct a new Brick instance.
@@ -27,10 +32,36 @@ public class Brick extends GameObject{
      */
     public Brick(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
                  CollisionStrategy collisionStrategy){
+        this(topLeftCorner, dimensions, renderable, collisionStrategy, NO_CELL);
+    }
+
+    /**
+     * Construct a new Brick instance describing a cell of a BrickField.
+     *
+     * @param topLeftCorner Position of the object, in window coordinates (pixels).
+     *                      Note that (0,0) is the top-left corner of the window.
+     * @param dimensions    Width and height in window coordinates.
+     * @param renderable    The renderable representing the object. Can be null, in which case
+     *                      the GameObject will not be rendered.
+     * @param collisionStrategy The strategy to apply on collision.
+     * @param cellIndex     The row major index of the brick's cell in its field, or NO_CELL.
+     */
+    public Brick(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
+                 CollisionStrategy collisionStrategy, int cellIndex){
 
         super(topLeftCorner, dimensions, renderable);
         this.collisionStrategy = collisionStrategy;
-        this.setTag(BRICK_TAG);
+        this.cellIndex = cellIndex;
+        this.setKind(EntityKind.BRICK);
+    }
+
+    /**
+     * Gets the index of the brick's cell in its BrickField.
+     *
+     * @return The row major index of the cell, or NO_CELL if the brick is not part of a field.
+     */
+    public int getCellIndex() {
+        return cellIndex;
     }
 
     /**
@@ -42,6 +73,15 @@ public class Brick extends GameObject{
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
+        handleCollision(other);
+    }
+
+    /**
+     * Apply the brick's collision strategy for a collision with another object.
+     *
+     * @param other The other GameObject this is colliding with.
+     */
+    public void handleCollision(GameObject other) {
         collisionStrategy.onCollision(this, other);
     }
 }
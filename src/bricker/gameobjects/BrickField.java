@@ -0,0 +1,549 @@
+package bricker.gameobjects;
+
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.level.LevelFile;
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * BrickField is a single game object holding the whole brick wall.
+ * Instead of one GameObject per brick, the field stores which bricks are still standing in a bitset,
+ * together with the geometry of the regular brick lattice shared by all of them. A ball is checked only
+ * against the few cells its bounding box overlaps, and the wall is drawn by a single renderable. This
+ * keeps levels with millions of bricks within a small heap.
+ * When a ball hits a brick, a lightweight Brick object describing that cell is handed to the collision
+ * strategy, so strategies keep working with bricks as game objects.
+ * A field built from a LevelFile takes its empty cells and the strategy of every brick from the
+ * mapped level; the strategy of a cell is only looked up when its brick is hit.
+ */
+public class BrickField extends GameObject {
+    /**
+     * The packed contact returned by findPackedContact when there is no contact.
+     */
+    public static final long NO_CONTACT = -1;
+
+    private static final int NORMAL_LEFT = 0;
+    private static final int NORMAL_RIGHT = 1;
+    private static final int NORMAL_UP = 2;
+    private static final int NORMAL_DOWN = 3;
+    private static final Vector2[] NORMALS = {Vector2.LEFT, Vector2.RIGHT, Vector2.UP, Vector2.DOWN};
+    private static final int NORMAL_BITS = 2;
+    private static final long NORMAL_MASK = (1 << NORMAL_BITS) - 1;
+    //the encodings of the standing bricks in a snapshot
+    private static final byte STATE_RUNS = 0;
+    private static final byte STATE_WORDS = 1;
+
+    private final float originX;
+    private final float originY;
+    private final float brickWidth;
+    private final float brickHeight;
+    private final float columnPitch;
+    private final float rowPitch;
+    private final int numRows;
+    private final int bricksPerRow;
+    private final Vector2 brickSize;
+    private final BitSet standing;
+    private final CollisionStrategy[] strategies;
+    private final LevelFile level;
+    private final BitSet levelBricks;
+    private BrickFieldRenderable fieldRenderable;
+    private Vector2 contactNormal;
+
+    /**
+     * Constructs a new BrickField in which every brick is standing.
+     *
+     * @param origin            The top-left corner of the brick in the first row and column.
+     * @param brickSize         The dimensions of a single brick.
+     * @param columnPitch       The horizontal distance between the left edges of neighbouring bricks.
+     * @param rowPitch          The vertical distance between the top edges of neighbouring rows.
+     * @param numRows           The number of rows in the field.
+     * @param bricksPerRow      The number of bricks in every row.
+     * @param collisionStrategy The strategy applied when a brick is hit.
+     */
+    public BrickField(Vector2 origin, Vector2 brickSize, float columnPitch, float rowPitch, int numRows,
+                      int bricksPerRow, CollisionStrategy collisionStrategy) {
+        this(origin, brickSize, columnPitch, rowPitch, numRows, bricksPerRow,
+                new CollisionStrategy[]{collisionStrategy}, null);
+    }
+
+    /**
+     * Constructs a new BrickField from a level file, in which the bricks of the level are standing.
+     *
+     * @param origin      The top-left corner of the brick in the first row and column.
+     * @param brickSize   The dimensions of a single brick.
+     * @param columnPitch The horizontal distance between the left edges of neighbouring bricks.
+     * @param rowPitch    The vertical distance between the top edges of neighbouring rows.
+     * @param level       The level giving the size of the field, its bricks and their strategy ids.
+     * @param strategies  The strategies applied when a brick is hit, indexed by strategy id. Bricks whose
+     *                    id has no strategy apply the first one.
+     */
+    public BrickField(Vector2 origin, Vector2 brickSize, float columnPitch, float rowPitch, LevelFile level,
+                      CollisionStrategy[] strategies) {
+        this(origin, brickSize, columnPitch, rowPitch, level.getNumRows(), level.getBricksPerRow(),
+                strategies, level);
+    }
+
+    private BrickField(Vector2 origin, Vector2 brickSize, float columnPitch, float rowPitch, int numRows,
+                       int bricksPerRow, CollisionStrategy[] strategies, LevelFile level) {
+        super(origin, new Vector2((bricksPerRow - 1) * columnPitch + brickSize.x(),
+                (numRows - 1) * rowPitch + brickSize.y()), null);
+        this.originX = origin.x();
+        this.originY = origin.y();
+        this.brickWidth = brickSize.x();
+        this.brickHeight = brickSize.y();
+        this.brickSize = brickSize;
+        this.columnPitch = columnPitch;
+        this.rowPitch = rowPitch;
+        this.numRows = numRows;
+        this.bricksPerRow = bricksPerRow;
+        this.strategies = strategies;
+        this.level = level;
+        //the bricks of the level are read from the mapping once, and kept for reviving them
+        this.levelBricks = level == null ? null : level.readBricks();
+        this.standing = new BitSet(numRows * bricksPerRow);
+        standUp();
+        this.fieldRenderable = null;
+        this.contactNormal = Vector2.ZERO;
+    }
+
+    /**
+     * Sets the image every standing brick is drawn with.
+     *
+     * @param brickImage       The brick renderable, or null if the field should not be rendered.
+     * @param windowDimensions The dimensions of the window the field is drawn in; only the rows it shows
+     *                         are rasterized.
+     */
+    public void setBrickImage(Renderable brickImage, Vector2 windowDimensions) {
+        this.fieldRenderable = brickImage == null ? null :
+                new BrickFieldRenderable(this, brickImage, windowDimensions);
+        renderer().setRenderable(fieldRenderable);
+    }
+
+    /**
+     * Gets the number of rows in the field.
+     *
+     * @return The number of rows.
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Gets the number of bricks in every row.
+     *
+     * @return The number of bricks per row.
+     */
+    public int getBricksPerRow() {
+        return bricksPerRow;
+    }
+
+    /**
+     * Gets the number of cells in the field.
+     *
+     * @return The number of rows times the number of bricks per row.
+     */
+    public int getNumCells() {
+        return numRows * bricksPerRow;
+    }
+
+    /**
+     * Gets the number of bricks still standing.
+     *
+     * @return The number of standing bricks.
+     */
+    public int getNumStanding() {
+        return standing.cardinality();
+    }
+
+    /**
+     * Gets the set of standing bricks. Bit i is set if the brick in cell i (row major) is standing.
+     *
+     * @return The live bitset of the field. Callers must not modify it.
+     */
+    public BitSet getStanding() {
+        return standing;
+    }
+
+    /**
+     * Checks whether the brick in a cell is standing.
+     *
+     * @param cellIndex The row major index of the cell.
+     * @return true if the brick is standing, false if it was destroyed.
+     */
+    public boolean isStanding(int cellIndex) {
+        return standing.get(cellIndex);
+    }
+
+    /**
+     * Destroys the brick in a cell.
+     *
+     * @param cellIndex The row major index of the cell.
+     * @return true if the brick was standing, false if it was already destroyed.
+     */
+    public boolean destroy(int cellIndex) {
+        if (!standing.get(cellIndex)) {
+            return false;
+        }
+        standing.clear(cellIndex);
+        if (fieldRenderable != null) {
+            fieldRenderable.cellChanged(cellIndex);
+        }
+        return true;
+    }
+
+    /**
+     * Stands every brick of the field, or of its level, up again. Reviving does not allocate.
+     */
+    public void reviveAll() {
+        standUp();
+        if (fieldRenderable != null) {
+            fieldRenderable.invalidate();
+        }
+    }
+
+    /**
+     * Writes the set of standing bricks to a snapshot.
+     * A wall with few holes is written as the runs of standing cells, two ints per run. Once the runs
+     * would take more room than the plain bitset, e.g. for a checkerboard, the writer goes back and
+     * writes the bitset as longs instead, so the state never takes more than a bit per cell plus a
+     * small header. Neither form allocates.
+     *
+     * @param buffer The buffer the state is written to, at its position.
+     * @throws java.nio.BufferOverflowException If the buffer is too small.
+     */
+    public void writeState(ByteBuffer buffer) {
+        int numCells = getNumCells();
+        int numWords = (numCells + Long.SIZE - 1) / Long.SIZE;
+        int start = buffer.position();
+        buffer.put(STATE_RUNS);
+        int countPosition = buffer.position();
+        buffer.putInt(0);
+        int numRuns = 0;
+        int maxRuns = numWords;
+        for (int from = standing.nextSetBit(0); from >= 0; from = standing.nextSetBit(from)) {
+            if (numRuns == maxRuns) {
+                buffer.position(start);
+                writeWords(buffer, numWords);
+                return;
+            }
+            int to = standing.nextClearBit(from);
+            buffer.putInt(from);
+            buffer.putInt(to - from);
+            numRuns++;
+            from = to;
+        }
+        buffer.putInt(countPosition, numRuns);
+    }
+
+    private void writeWords(ByteBuffer buffer, int numWords) {
+        buffer.put(STATE_WORDS);
+        buffer.putInt(numWords);
+        writeBitmap(buffer);
+    }
+
+    /**
+     * Writes the set of standing bricks as a plain bitmap: ceil(numCells / 64) longs in the buffer's
+     * byte order, bit i of word w standing for cell 64 * w + i. Unlike writeState, the size depends only
+     * on the number of cells, so the bitmap can be written to the same place every frame. Writing does
+     * not allocate.
+     *
+     * @param buffer The buffer the bitmap is written to, at its position.
+     * @throws java.nio.BufferOverflowException If the buffer is too small.
+     */
+    public void writeBitmap(ByteBuffer buffer) {
+        int numWords = (getNumCells() + Long.SIZE - 1) / Long.SIZE;
+        //the words are assembled from the runs of standing cells, masking in a word at a time
+        int wordIndex = 0;
+        long word = 0;
+        for (int from = standing.nextSetBit(0); from >= 0; from = standing.nextSetBit(from)) {
+            int to = standing.nextClearBit(from);
+            while (from < to) {
+                int fromWord = from / Long.SIZE;
+                for (; wordIndex < fromWord; wordIndex++) {
+                    buffer.putLong(word);
+                    word = 0;
+                }
+                int end = Math.min(to, (fromWord + 1) * Long.SIZE);
+                word |= (-1L << from) & (-1L >>> -end);
+                from = end;
+            }
+        }
+        for (; wordIndex < numWords; wordIndex++) {
+            buffer.putLong(word);
+            word = 0;
+        }
+    }
+
+    /**
+     * Replaces the set of standing bricks with one written by writeState.
+     *
+     * @param buffer The buffer the state is read from, at its position.
+     * @throws IllegalArgumentException If the buffer does not hold a brick field state.
+     */
+    public void readState(ByteBuffer buffer) {
+        byte encoding = buffer.get();
+        int count = buffer.getInt();
+        standing.clear();
+        if (encoding == STATE_RUNS) {
+            for (int i = 0; i < count; i++) {
+                int from = buffer.getInt();
+                standing.set(from, from + buffer.getInt());
+            }
+        } else if (encoding == STATE_WORDS) {
+            for (int i = 0; i < count; i++) {
+                long word = buffer.getLong();
+                //every run of set bits in the word is set in one call
+                while (word != 0) {
+                    int from = Long.numberOfTrailingZeros(word);
+                    int length = Long.numberOfTrailingZeros(~(word >>> from));
+                    standing.set(i * Long.SIZE + from, i * Long.SIZE + from + length);
+                    word &= length == Long.SIZE ? 0 : ~(((1L << length) - 1) << from);
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("unknown brick field state encoding " + encoding);
+        }
+        if (fieldRenderable != null) {
+            fieldRenderable.invalidate();
+        }
+    }
+
+    private void standUp() {
+        if (level == null) {
+            standing.set(0, getNumCells());
+        } else {
+            standing.clear();
+            standing.or(levelBricks);
+        }
+    }
+
+    /**
+     * Gets the left edge of a column.
+     *
+     * @param column The column.
+     * @return The x coordinate of the left edge of the bricks in that column.
+     */
+    public float cellX(int column) {
+        return originX + column * columnPitch;
+    }
+
+    /**
+     * Gets the top edge of a row.
+     *
+     * @param row The row.
+     * @return The y coordinate of the top edge of the bricks in that row.
+     */
+    public float cellY(int row) {
+        return originY + row * rowPitch;
+    }
+
+    /**
+     * Gets the dimensions of a single brick.
+     *
+     * @return The brick dimensions.
+     */
+    public Vector2 getBrickSize() {
+        return brickSize;
+    }
+
+    /**
+     * Creates the Brick object describing a cell, as handed to the collision strategy when it is hit.
+     *
+     * @param cellIndex The row major index of the cell.
+     * @return A brick at the cell's position that is not part of the game objects.
+     */
+    public Brick createBrick(int cellIndex) {
+        int row = cellIndex / bricksPerRow;
+        int column = cellIndex % bricksPerRow;
+        return new Brick(new Vector2(cellX(column), cellY(row)), brickSize, null, strategyOf(cellIndex),
+                cellIndex);
+    }
+
+    private CollisionStrategy strategyOf(int cellIndex) {
+        if (level == null) {
+            return strategies[0];
+        }
+        int strategyId = level.getStrategyId(cellIndex);
+        return strategyId < strategies.length ? strategies[strategyId] : strategies[0];
+    }
+
+    /**
+     * Checks a ball against the standing bricks in the cells its bounding box overlaps, and bounces it
+     * off the first brick it is moving into. Both the ball's and the brick's collision behavior are
+     * applied.
+     *
+     * @param ball The ball to check.
+     * @return true if the ball hit a brick, false otherwise.
+     */
+    public boolean collide(Ball ball) {
+        Vector2 topLeftCorner = ball.getTopLeftCorner();
+        Vector2 dimensions = ball.getDimensions();
+        Vector2 velocity = ball.getVelocity();
+        int cellIndex = findContact(topLeftCorner.x(), topLeftCorner.y(),
+                topLeftCorner.x() + dimensions.x(), topLeftCorner.y() + dimensions.y(),
+                velocity.x(), velocity.y());
+        if (cellIndex < 0) {
+            return false;
+        }
+        Brick brick = createBrick(cellIndex);
+        ball.handleCollision(brick, contactNormal);
+        brick.handleCollision(ball);
+        return true;
+    }
+
+    /**
+     * Finds the first standing brick that a moving box overlaps and is moving into.
+     * The normal of the contact is available through getContactNormal until the next call.
+     *
+     * @param minX The left edge of the box.
+     * @param minY The top edge of the box.
+     * @param maxX The right edge of the box.
+     * @param maxY The bottom edge of the box.
+     * @param velocityX The horizontal velocity of the box.
+     * @param velocityY The vertical velocity of the box.
+     * @return The row major index of the brick's cell, or -1 if there is no contact.
+     */
+    public int findContact(float minX, float minY, float maxX, float maxY, float velocityX,
+                           float velocityY) {
+        long contact = findPackedContact(minX, minY, maxX, maxY, velocityX, velocityY);
+        if (contact == NO_CONTACT) {
+            return -1;
+        }
+        this.contactNormal = contactNormal(contact);
+        return contactCell(contact);
+    }
+
+    /**
+     * Finds the first standing brick that a moving box overlaps and is moving into, and returns the
+     * contact packed into a single value. Unlike findContact this method keeps no state, so it may be
+     * called from several threads at once as long as no brick is destroyed meanwhile.
+     *
+     * @param minX The left edge of the box.
+     * @param minY The top edge of the box.
+     * @param maxX The right edge of the box.
+     * @param maxY The bottom edge of the box.
+     * @param velocityX The horizontal velocity of the box.
+     * @param velocityY The vertical velocity of the box.
+     * @return The packed contact, to be read with contactCell and contactNormal, or NO_CONTACT.
+     */
+    public long findPackedContact(float minX, float minY, float maxX, float maxY, float velocityX,
+                                  float velocityY) {
+        int firstColumn = Math.max(0, (int) Math.floor((minX - originX) / columnPitch));
+        int lastColumn = Math.min(bricksPerRow - 1, (int) Math.floor((maxX - originX) / columnPitch));
+        int firstRow = Math.max(0, (int) Math.floor((minY - originY) / rowPitch));
+        int lastRow = Math.min(numRows - 1, (int) Math.floor((maxY - originY) / rowPitch));
+        for (int row = firstRow; row <= lastRow; row++) {
+            float brickMinY = cellY(row);
+            float overlapY = Math.min(maxY, brickMinY + brickHeight) - Math.max(minY, brickMinY);
+            if (overlapY <= 0) {
+                continue;
+            }
+            int rowStart = row * bricksPerRow;
+            for (int column = standing.nextSetBit(rowStart + firstColumn) - rowStart;
+                 column >= 0 && column <= lastColumn;
+                 column = standing.nextSetBit(rowStart + column + 1) - rowStart) {
+                float brickMinX = cellX(column);
+                float overlapX = Math.min(maxX, brickMinX + brickWidth) - Math.max(minX, brickMinX);
+                if (overlapX <= 0) {
+                    continue;
+                }
+                int normal = collisionNormal(overlapX, overlapY, minX + maxX, minY + maxY,
+                        2 * brickMinX + brickWidth, 2 * brickMinY + brickHeight);
+                if (velocityX * NORMALS[normal].x() + velocityY * NORMALS[normal].y() >= 0) {
+                    continue;
+                }
+                return ((long) (rowStart + column) << NORMAL_BITS) | normal;
+            }
+        }
+        return NO_CONTACT;
+    }
+
+    /**
+     * Sweeps a moving circle against the standing bricks along its path and keeps the earliest impact
+     * in the sweep. The rows are visited in the direction of motion, and the search stops at the first
+     * row the circle cannot reach before an impact that was already found.
+     *
+     * @param sweep A sweep that was started with the circle's motion.
+     * @return The row major index of the cell of the earliest brick hit, or -1 if no brick is hit
+     *         earlier than the impacts the sweep already held.
+     */
+    public int sweep(SweptCircle sweep) {
+        float radius = sweep.getRadius();
+        float startX = sweep.getCenterX();
+        float startY = sweep.getCenterY();
+        float deltaX = sweep.getDeltaX();
+        float deltaY = sweep.getDeltaY();
+        float minX = Math.min(startX, startX + deltaX) - radius;
+        float maxX = Math.max(startX, startX + deltaX) + radius;
+        float minY = Math.min(startY, startY + deltaY) - radius;
+        float maxY = Math.max(startY, startY + deltaY) + radius;
+        int firstColumn = Math.max(0, (int) Math.floor((minX - originX) / columnPitch));
+        int lastColumn = Math.min(bricksPerRow - 1, (int) Math.floor((maxX - originX) / columnPitch));
+        int firstRow = Math.max(0, (int) Math.floor((minY - originY) / rowPitch));
+        int lastRow = Math.min(numRows - 1, (int) Math.floor((maxY - originY) / rowPitch));
+        if (firstColumn > lastColumn || firstRow > lastRow) {
+            return -1;
+        }
+        int rowStep = deltaY < 0 ? -1 : 1;
+        int row = deltaY < 0 ? lastRow : firstRow;
+        int hit = -1;
+        for (int i = firstRow; i <= lastRow; i++, row += rowStep) {
+            float brickMinY = cellY(row);
+            float reachY = deltaY < 0 ? brickMinY + brickHeight + radius : brickMinY - radius;
+            if (deltaY != 0 && (reachY - startY) / deltaY > sweep.getTime()) {
+                break;
+            }
+            int rowStart = row * bricksPerRow;
+            for (int column = standing.nextSetBit(rowStart + firstColumn) - rowStart;
+                 column >= 0 && column <= lastColumn;
+                 column = standing.nextSetBit(rowStart + column + 1) - rowStart) {
+                float brickMinX = cellX(column);
+                if (sweep.testBox(brickMinX, brickMinY, brickMinX + brickWidth, brickMinY + brickHeight)) {
+                    hit = rowStart + column;
+                }
+            }
+        }
+        return hit;
+    }
+
+    /**
+     * Gets the cell of a packed contact.
+     *
+     * @param contact A contact returned by findPackedContact.
+     * @return The row major index of the brick's cell.
+     */
+    public static int contactCell(long contact) {
+        return (int) (contact >>> NORMAL_BITS);
+    }
+
+    /**
+     * Gets the normal of a packed contact.
+     *
+     * @param contact A contact returned by findPackedContact.
+     * @return The normal of the contact, pointing from the brick towards the box.
+     */
+    public static Vector2 contactNormal(long contact) {
+        return NORMALS[(int) (contact & NORMAL_MASK)];
+    }
+
+    /**
+     * Gets the normal of the contact found by the last call to findContact.
+     *
+     * @return The normal of the contact, pointing from the brick towards the box.
+     */
+    public Vector2 getContactNormal() {
+        return contactNormal;
+    }
+
+    private static int collisionNormal(float overlapX, float overlapY, float doubleBallX,
+                                       float doubleBallY, float doubleBrickX, float doubleBrickY) {
+        if (overlapX < overlapY) {
+            return doubleBallX < doubleBrickX ? NORMAL_LEFT : NORMAL_RIGHT;
+        }
+        return doubleBallY < doubleBrickY ? NORMAL_UP : NORMAL_DOWN;
+    }
+}
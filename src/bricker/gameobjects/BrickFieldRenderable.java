@@ -0,0 +1,191 @@
+package bricker.gameobjects;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+
+/**
+ * BrickFieldRenderable draws all the standing bricks of a BrickField as a few images.
+ * The field is cut into bands of BAND_ROWS rows, and only the bands the window shows are rasterized,
+ * by stamping a pre-rendered brick tile into every standing cell of the band; each of them is then
+ * drawn in a single call per frame. A destroyed brick only clears its own cell in its band, so the cost
+ * of a frame does not grow with the size of the field.
+ * A band that scrolls out of the window is given back to a pool and reused for the next band that
+ * scrolls in, so the memory held by the raster is bounded by the window, not by the number of rows.
+ */
+class BrickFieldRenderable implements Renderable {
+    private static final int BAND_ROWS = 16;
+    private static final int NO_BAND = -1;
+
+    private final BrickField brickField;
+    private final Renderable brickImage;
+    private final Rectangle window;
+    private final BufferedImage[] bands;
+    private final ArrayDeque<BufferedImage> freeBands;
+    private BufferedImage tile;
+    private int bandWidth;
+    private int firstShownBand;
+    private int lastShownBand;
+
+    /**
+     * Constructs a new BrickFieldRenderable.
+     *
+     * @param brickField       The field to draw.
+     * @param brickImage       The image every standing brick is drawn with.
+     * @param windowDimensions The dimensions of the window the field is drawn in.
+     */
+    BrickFieldRenderable(BrickField brickField, Renderable brickImage, Vector2 windowDimensions) {
+        this.brickField = brickField;
+        this.brickImage = brickImage;
+        this.window = new Rectangle((int) Math.ceil(windowDimensions.x()),
+                (int) Math.ceil(windowDimensions.y()));
+        this.bands = new BufferedImage[(brickField.getNumRows() + BAND_ROWS - 1) / BAND_ROWS];
+        this.freeBands = new ArrayDeque<>();
+        this.tile = null;
+        this.bandWidth = 0;
+        this.firstShownBand = NO_BAND;
+        this.lastShownBand = NO_BAND;
+    }
+
+    /**
+     * Marks the whole raster as outdated, so that every band is rebuilt the next time it is drawn.
+     */
+    void invalidate() {
+        releaseBands(firstShownBand, lastShownBand);
+        this.firstShownBand = NO_BAND;
+        this.lastShownBand = NO_BAND;
+    }
+
+    /**
+     * Updates the raster after the brick in a cell was destroyed.
+     *
+     * @param cellIndex The row major index of the cell.
+     */
+    void cellChanged(int cellIndex) {
+        int row = cellIndex / brickField.getBricksPerRow();
+        BufferedImage band = bands[row / BAND_ROWS];
+        if (band == null) {
+            return;
+        }
+        int column = cellIndex % brickField.getBricksPerRow();
+        Vector2 brickSize = brickField.getBrickSize();
+        Graphics2D graphics = band.createGraphics();
+        graphics.setComposite(AlphaComposite.Clear);
+        graphics.fillRect(rasterX(column), rasterY(row) - bandTop(row / BAND_ROWS),
+                (int) Math.ceil(brickSize.x()), (int) Math.ceil(brickSize.y()));
+        graphics.dispose();
+    }
+
+    @Override
+    public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+                       double degreesCounterClockwise, boolean isFlippedHorizontally,
+                       boolean isFlippedVertically, double opaqueness) {
+        int width = Math.max(1, (int) Math.ceil(dimensions.x()));
+        if (width != bandWidth) {
+            //bands of another width cannot be reused
+            invalidate();
+            freeBands.clear();
+            this.bandWidth = width;
+        }
+        Rectangle shown = shownArea(g);
+        float bandHeight = brickField.cellY(BAND_ROWS) - brickField.cellY(0);
+        int firstBand = Math.max(0, (int) Math.floor((shown.y - topLeftCorner.y()) / bandHeight));
+        int lastBand = Math.min(bands.length - 1,
+                (int) Math.floor((shown.y + shown.height - topLeftCorner.y()) / bandHeight));
+        if (firstShownBand != NO_BAND) {
+            releaseBands(firstShownBand, Math.min(lastShownBand, firstBand - 1));
+            releaseBands(Math.max(firstShownBand, lastBand + 1), lastShownBand);
+        }
+        int x = Math.round(topLeftCorner.x());
+        int y = Math.round(topLeftCorner.y());
+        for (int band = firstBand; band <= lastBand; band++) {
+            if (bands[band] == null) {
+                bands[band] = rasterizeBand(band);
+            }
+            g.drawImage(bands[band], x, y + bandTop(band), null);
+        }
+        this.firstShownBand = firstBand <= lastBand ? firstBand : NO_BAND;
+        this.lastShownBand = firstBand <= lastBand ? lastBand : NO_BAND;
+    }
+
+    /**
+     * Finds the area of the field's coordinates that the graphics draw to: the window mapped back
+     * through the current transform, e.g. a camera's, and cut down to the clip if there is one.
+     */
+    private Rectangle shownArea(Graphics2D g) {
+        Rectangle shown;
+        try {
+            Shape windowShape = g.getTransform().createInverse().createTransformedShape(window);
+            shown = windowShape.getBounds();
+        } catch (NoninvertibleTransformException e) {
+            shown = window;
+        }
+        Rectangle clip = g.getClipBounds();
+        return clip == null ? shown : shown.intersection(clip);
+    }
+
+    private BufferedImage rasterizeBand(int band) {
+        if (tile == null) {
+            this.tile = renderTile();
+        }
+        int bricksPerRow = brickField.getBricksPerRow();
+        int firstRow = band * BAND_ROWS;
+        int endCell = Math.min(firstRow + BAND_ROWS, brickField.getNumRows()) * bricksPerRow;
+        int top = bandTop(band);
+        BufferedImage raster = freeBands.poll();
+        if (raster == null) {
+            int height = Math.max(1, (int) Math.ceil(brickField.cellY(BAND_ROWS) - brickField.cellY(0)) + 1);
+            raster = new BufferedImage(bandWidth, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        Graphics2D graphics = raster.createGraphics();
+        graphics.setComposite(AlphaComposite.Clear);
+        graphics.fillRect(0, 0, raster.getWidth(), raster.getHeight());
+        graphics.setComposite(AlphaComposite.SrcOver);
+        BitSet standing = brickField.getStanding();
+        for (int cell = standing.nextSetBit(firstRow * bricksPerRow); cell >= 0 && cell < endCell;
+             cell = standing.nextSetBit(cell + 1)) {
+            graphics.drawImage(tile, rasterX(cell % bricksPerRow), rasterY(cell / bricksPerRow) - top, null);
+        }
+        graphics.dispose();
+        return raster;
+    }
+
+    private void releaseBands(int firstBand, int lastBand) {
+        for (int band = Math.max(firstBand, 0); band <= lastBand; band++) {
+            if (bands[band] != null) {
+                freeBands.push(bands[band]);
+                bands[band] = null;
+            }
+        }
+    }
+
+    private BufferedImage renderTile() {
+        Vector2 brickSize = brickField.getBrickSize();
+        BufferedImage tile = new BufferedImage(Math.max(1, (int) Math.ceil(brickSize.x())),
+                Math.max(1, (int) Math.ceil(brickSize.y())), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = tile.createGraphics();
+        brickImage.render(graphics, Vector2.ZERO, brickSize, 0, false, false, 1);
+        graphics.dispose();
+        return tile;
+    }
+
+    private int bandTop(int band) {
+        return rasterY(band * BAND_ROWS);
+    }
+
+    private int rasterX(int column) {
+        return Math.round(brickField.cellX(column) - brickField.cellX(0));
+    }
+
+    private int rasterY(int row) {
+        return Math.round(brickField.cellY(row) - brickField.cellY(0));
+    }
+}
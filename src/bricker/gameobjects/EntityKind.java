@@ -0,0 +1,148 @@
+package bricker.gameobjects;
+
+import danogl.GameObject;
+
+import static bricker.main.Constants.*;
+
+/**
+ * EntityKind identifies what a game object is, so that collision code can compare kinds as integers
+ * instead of comparing String tags.
+ * Every kind owns a single bit, which allows sets of kinds to be stored as int masks. Which kinds may
+ * collide with each other is kept in a bitmask matrix, so a collision filter is a single table lookup.
+ * Each kind still maps to its String tag, which remains available through GameObject.getTag.
+ */
+public enum EntityKind {
+    /**
+     * Any object that is not one of the game's own kinds, e.g. borders and the background.
+     */
+    NONE(""),
+    /**
+     * The paddle controlled by the user.
+     */
+    USER_PADDLE(USER_PADDLE_TAG),
+    /**
+     * The temporary secondary paddle.
+     */
+    SECONDARY_PADDLE(SECONDARY_PADDLE_TAG),
+    /**
+     * The main ball.
+     */
+    MAIN_BALL(MAIN_BALL_TAG),
+    /**
+     * An additional puck ball.
+     */
+    PUCK_BALL(PUCK_BALL_TAG),
+    /**
+     * A heart falling towards the user paddle.
+     */
+    FALLING_HEART(FALLING_HEART_TAG),
+    /**
+     * A heart shown in the health bar.
+     */
+    HEALTH_BAR_HEART(HEALTH_BAR_HEART_TAG),
+    /**
+     * A brick of the wall.
+     */
+    BRICK(BRICK_TAG);
+
+    /**
+     * Mask of all the ball kinds.
+     */
+    public static final int BALLS = MAIN_BALL.mask | PUCK_BALL.mask;
+
+    /**
+     * Mask of all the paddle kinds.
+     */
+    public static final int PADDLES = USER_PADDLE.mask | SECONDARY_PADDLE.mask;
+
+    private static final int ALL = ~0;
+    private static final EntityKind[] KINDS = values();
+    private static final int[] COLLISION_MATRIX = new int[KINDS.length];
+
+    static {
+        for (EntityKind kind : KINDS) {
+            COLLISION_MATRIX[kind.ordinal()] = ALL;
+        }
+        COLLISION_MATRIX[FALLING_HEART.ordinal()] = USER_PADDLE.mask;
+        COLLISION_MATRIX[HEALTH_BAR_HEART.ordinal()] = USER_PADDLE.mask;
+        //the game bounces the main ball off the paddles itself, within its sub-steps
+        COLLISION_MATRIX[MAIN_BALL.ordinal()] = ALL & ~PADDLES;
+        COLLISION_MATRIX[USER_PADDLE.ordinal()] = ALL & ~MAIN_BALL.mask;
+        COLLISION_MATRIX[SECONDARY_PADDLE.ordinal()] = ALL & ~MAIN_BALL.mask;
+    }
+
+    private final String tag;
+    private final int mask;
+
+    EntityKind(String tag) {
+        this.tag = tag;
+        this.mask = 1 << ordinal();
+    }
+
+    /**
+     * Gets the String tag of this kind.
+     *
+     * @return The tag game objects of this kind carry.
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Gets the bit of this kind.
+     *
+     * @return A mask with only this kind's bit set.
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * Checks whether this kind belongs to a set of kinds.
+     *
+     * @param kinds A mask of kinds.
+     * @return true if this kind's bit is set in the mask, false otherwise.
+     */
+    public boolean isIn(int kinds) {
+        return (kinds & mask) != 0;
+    }
+
+    /**
+     * Checks, using the collision matrix, whether objects of this kind collide with objects of another
+     * kind.
+     *
+     * @param other The kind of the other object.
+     * @return true if the kinds should collide, false otherwise.
+     */
+    public boolean collidesWith(EntityKind other) {
+        return (COLLISION_MATRIX[ordinal()] & other.mask) != 0;
+    }
+
+    /**
+     * Gets the kind of a game object.
+     *
+     * @param gameObject The game object.
+     * @return The kind of the object, or NONE if it is not one of the game's own kinds.
+     */
+    public static EntityKind of(GameObject gameObject) {
+        if (gameObject instanceof KindedGameObject) {
+            return ((KindedGameObject) gameObject).getKind();
+        }
+        return NONE;
+    }
+
+    /**
+     * Gets the kind matching a String tag.
+     *
+     * @param tag The tag.
+     * @return The kind with this tag, or NONE if no kind uses it.
+     */
+    public static EntityKind fromTag(String tag) {
+        for (EntityKind kind : KINDS) {
+            if (kind.tag.equals(tag)) {
+                return kind;
+            }
+        }
+        return NONE;
+    }
+}
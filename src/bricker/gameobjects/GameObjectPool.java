@@ -0,0 +1,110 @@
+package bricker.gameobjects;
+
+import danogl.GameObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * GameObjectPool keeps game objects that were removed from the game so they can be reused instead of
+ * reallocated.
+ * Objects released during a frame are only handed out again after recycle is called, at the start of
+ * the next frame, so an object is never removed from and re-added to the game in the same frame.
+ *
+ * @param <T> The type of the pooled game objects.
+ */
+public class GameObjectPool<T extends GameObject> {
+    private final Supplier<T> factory;
+    private final ArrayDeque<T> available;
+    private final List<T> released;
+    private int hits;
+    private int misses;
+
+    /**
+     * Constructs a new, empty GameObjectPool.
+     *
+     * @param factory Creates a new object when the pool has none available.
+     */
+    public GameObjectPool(Supplier<T> factory) {
+        this.factory = factory;
+        this.available = new ArrayDeque<>();
+        this.released = new ArrayList<>();
+        this.hits = 0;
+        this.misses = 0;
+    }
+
+    /**
+     * Takes an object from the pool, or creates one if the pool is empty.
+     *
+     * @return An object that is not part of the game.
+     */
+    public T acquire() {
+        T object = available.pollFirst();
+        if (object != null) {
+            hits++;
+            return object;
+        }
+        misses++;
+        return factory.get();
+    }
+
+    /**
+     * Returns an object that was removed from the game to the pool.
+     *
+     * @param object The removed object.
+     */
+    public void release(T object) {
+        released.add(object);
+    }
+
+    /**
+     * Makes the objects released since the last call available for reuse.
+     * Should be called once at the start of every frame.
+     */
+    public void recycle() {
+        if (released.isEmpty()) {
+            return;
+        }
+        available.addAll(released);
+        released.clear();
+    }
+
+    /**
+     * Gets the number of acquisitions that were served by a pooled object.
+     *
+     * @return The number of pool hits.
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of acquisitions that had to create a new object.
+     *
+     * @return The number of pool misses.
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of objects waiting in the pool.
+     *
+     * @return The number of pooled objects, including ones released this frame.
+     */
+    public int size() {
+        return available.size() + released.size();
+    }
+
+    /**
+     * Formats the pool counters as a short report.
+     *
+     * @return The hits, misses and size of the pool.
+     */
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d pooled=%d", hits, misses, size());
+    }
+}
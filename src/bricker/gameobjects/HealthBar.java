@@ -2,7 +2,6 @@ package bricker.gameobjects;
 
 import bricker.brick_strategies.CollisionStrategy;
 import danogl.GameObject;
-import danogl.gui.ImageReader;
 import danogl.gui.rendering.Renderable;
 import danogl.gui.rendering.TextRenderable;
 import danogl.util.Vector2;
@@ -19,7 +18,7 @@ public class HealthBar extends GameObject {
     private int curLives;
     private final Vector2 barObjectSize;
     private NumericLives numericLives;
-    private final ImageReader imageReader;
+    private final Renderable heartImage;
     private final int maxLives;
     private final int startingLives;
 
@@ -31,17 +30,17 @@ public class HealthBar extends GameObject {
      * @param dimensions    Width and height in window coordinates.
      * @param renderable    The renderable representing the object. Can be null, in which case
      *                      the GameObject will not be rendered.
-     * @param imageReader   An ImageReader instance for loading images.
+     * @param heartImage    The renderable shared by all the hearts of the bar.
      * @param startingLives The initial number of lives.
      * @param maxLives      The maximum number of lives.
      */
-    public HealthBar(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,ImageReader imageReader,
+    public HealthBar(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable, Renderable heartImage,
                      int startingLives, int maxLives) {
         super(topLeftCorner, dimensions, renderable);
 
         this.startingLives = startingLives;
         this.maxLives = maxLives;
-        this.imageReader = imageReader;
+        this.heartImage = heartImage;
         curLives = 0;
         this.barObjectSize = new Vector2(dimensions.y(), dimensions.y());
         this.hearts = new Heart[maxLives];
@@ -77,17 +76,18 @@ public class HealthBar extends GameObject {
 
 
     /**
-     * Add a heart to the health bar if there is room.
+     * Add a heart to the health bar if there is room. The heart of a slot is created the first time
+     * the slot is filled, and reused whenever the slot is filled again.
      *
      * @return true if a heart was added, false if the health bar is full.
      */
     public boolean addHeart() {
         if (curLives < this.maxLives) {
-            Renderable heartImage =
-                    imageReader.readImage(ASSETS_HEART_PNG, true);
-            this.hearts[curLives] = new Heart(new Vector2((curLives + 2) * (barObjectSize.x() + 5),
-                    super.getTopLeftCorner().y()), barObjectSize, heartImage);
-            this.hearts[curLives].setTag(HEALTH_BAR_HEART_TAG);
+            if (this.hearts[curLives] == null) {
+                this.hearts[curLives] = new Heart(new Vector2((curLives + 2) * (barObjectSize.x() + 5),
+                        super.getTopLeftCorner().y()), barObjectSize, heartImage);
+                this.hearts[curLives].setKind(EntityKind.HEALTH_BAR_HEART);
+            }
             curLives++;
             numericLives.setNumLives(curLives);
             return true;
@@ -11,8 +11,7 @@ import danogl.util.Vector2;
  * It handles collisions with the user paddle and applies specified strategies for collisions and
  * out-of-screen events.
  */
-public class Heart extends GameObject {
-    private static final String USER_PADDLE_TAG = "userPaddle";
+public class Heart extends KindedGameObject {
     private OutOfScreenStrategy outOfScreenStrategy;
 
 
@@ -50,11 +49,12 @@ public class Heart extends GameObject {
      * Determine whether this object should collide with another object.
      *
      * @param other The other GameObject.
-     * @return true if the other GameObject has the user paddle tag, false otherwise.
+     * @return true if the collision matrix lets this heart's kind collide with the other object's kind
+     * (i.e. the other object is the user paddle), false otherwise.
      */
     @Override
     public boolean shouldCollideWith(GameObject other) {
-        return other.getTag().equals(USER_PADDLE_TAG);
+        return getKind().collidesWith(EntityKind.of(other));
     }
 
     /**
@@ -1,21 +1,20 @@
 package bricker.gameobjects;
 
-import danogl.gui.UserInputListener;
+import bricker.input.FrameInput;
 
 /**
  * KeyboardInput class handles keyboard input for the game.
- * It listens for specific key presses and provides methods to check if those keys are pressed.
+ * It reads the keys of the current frame and provides methods to check if specific keys are pressed.
  */
 public class KeyboardInput {
-    private final UserInputListener inputListener;
-    private static final char WIN_KEY = 'W';
+    private final FrameInput frameInput;
 
     /**
      * Constructor for KeyboardInput.
-     * @param inputListener An instance of UserInputListener to listen for keyboard inputs.
+     * @param frameInput The keys pressed in the current frame.
      */
-    public KeyboardInput(UserInputListener inputListener){
-        this.inputListener = inputListener;
+    public KeyboardInput(FrameInput frameInput){
+        this.frameInput = frameInput;
     }
 
     /**
@@ -23,7 +22,7 @@ public class KeyboardInput {
      * @return true if the win key is pressed, false otherwise.
      */
     public boolean isWinKeyPressed(){
-        return inputListener.isKeyPressed(WIN_KEY);
+        return frameInput.isWinPressed();
     }
 
 }
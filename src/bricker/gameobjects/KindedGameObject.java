@@ -0,0 +1,58 @@
+package bricker.gameobjects;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+/**
+ * KindedGameObject is a GameObject that knows its EntityKind.
+ * The kind and the String tag are kept in sync: setting either one updates the other, so code that
+ * still works with tags keeps working while collision code compares kinds.
+ */
+public class KindedGameObject extends GameObject {
+    private EntityKind kind;
+
+    /**
+     * Construct a new KindedGameObject instance of kind NONE.
+     *
+     * @param topLeftCorner Position of the object, in window coordinates (pixels).
+     *                      Note that (0,0) is the top-left corner of the window.
+     * @param dimensions    Width and height in window coordinates.
+     * @param renderable    The renderable representing the object. Can be null, in which case
+     *                      the GameObject will not be rendered.
+     */
+    public KindedGameObject(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+        super(topLeftCorner, dimensions, renderable);
+        this.kind = EntityKind.NONE;
+    }
+
+    /**
+     * Gets the kind of this object.
+     *
+     * @return The kind of this object.
+     */
+    public EntityKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Sets the kind of this object, together with the matching tag.
+     *
+     * @param kind The new kind of this object.
+     */
+    public void setKind(EntityKind kind) {
+        this.kind = kind;
+        super.setTag(kind.getTag());
+    }
+
+    /**
+     * Sets the tag of this object, together with the matching kind.
+     *
+     * @param tag The new tag of this object.
+     */
+    @Override
+    public void setTag(String tag) {
+        super.setTag(tag);
+        this.kind = EntityKind.fromTag(tag);
+    }
+}
@@ -13,6 +13,7 @@ import java.awt.*;
 public class NumericLives extends GameObject {
 
     TextRenderable numLives;
+    private final String[] labels;
 
     /**
      * Construct a new NumericLives instance.
@@ -28,6 +29,12 @@ public class NumericLives extends GameObject {
 
         super(topLeftCorner, dimensions, textRenderable);
         numLives = textRenderable;
+        //the labels of all the reachable counts are built once, so losing or gaining a life allocates
+        //no string
+        this.labels = new String[maxLives + 1];
+        for (int i = 0; i <= maxLives; i++) {
+            labels[i] = String.valueOf(i);
+        }
         this.setColor(maxLives);
     }
 
@@ -47,6 +54,7 @@ public class NumericLives extends GameObject {
      * @param curLives The current number of lives.
      */
     public void setNumLives(int curLives) {
-        this.numLives.setString(String.valueOf(curLives));
+        this.numLives.setString(curLives >= 0 && curLives < labels.length ? labels[curLives] :
+                String.valueOf(curLives));
     }
 }
@@ -1,10 +1,9 @@
 package bricker.gameobjects;
+import bricker.input.FrameInput;
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.gui.UserInputListener;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import java.awt.event.KeyEvent;
 
 import static bricker.main.Constants.*;
 
@@ -13,13 +12,17 @@ import static bricker.main.Constants.*;
  * It handles user input for movement, checks for border crossing, and applies a collision strategy
  * on collisions.
  */
-public class Paddle extends GameObject {
+public class Paddle extends KindedGameObject {
     private static final float MOVEMENT_SPEED = 400;
-    private final UserInputListener inputListener;
+    private static final Vector2 LEFT_VELOCITY = Vector2.LEFT.mult(MOVEMENT_SPEED);
+    private static final Vector2 RIGHT_VELOCITY = Vector2.RIGHT.mult(MOVEMENT_SPEED);
+    private final FrameInput frameInput;
     private final Vector2 windowDim;
     private final int borderSize;
     private int numCollisionsSecondaryPaddle;
     private GameObject CollidedGameObject;
+    private Vector2 leftmostCorner;
+    private Vector2 rightmostCorner;
 
     /**
      * Construct a new Paddle instance.
@@ -28,14 +31,14 @@ public class Paddle extends GameObject {
      *                      Note that (0,0) is the top-left corner of the window.
      * @param dimensions    Width and height in window coordinates.
      * @param renderable    The renderable representing the object. Can be null.
-     * @param inputListener The UserInputListener for detecting user input.
+     * @param frameInput    The keys pressed in the current frame.
      * @param windowDim     The dimensions of the game window.
      * @param borderSize    The size of the border within which the paddle can move.
      */
     public Paddle(Vector2 topLeftCorner, Vector2 dimensions,
-                  Renderable renderable, UserInputListener inputListener, Vector2 windowDim, int borderSize) {
+                  Renderable renderable, FrameInput frameInput, Vector2 windowDim, int borderSize) {
         super(topLeftCorner, dimensions, renderable);
-        this.inputListener = inputListener;
+        this.frameInput = frameInput;
         this.windowDim = windowDim;
         this.borderSize = borderSize;
         this.numCollisionsSecondaryPaddle = 0;
@@ -50,16 +53,23 @@ public class Paddle extends GameObject {
     @Override
     public void update(float deltaTime) {
         super.update(deltaTime);
-        Vector2 movementDir = Vector2.ZERO;
-        if(inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
-            movementDir = movementDir.add(Vector2.LEFT);
+        int movementDir = 0;
+        if(frameInput.isLeftPressed()) {
+            movementDir--;
         }
-        if(inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
-            movementDir = movementDir.add(Vector2.RIGHT);
+        if(frameInput.isRightPressed()) {
+            movementDir++;
         }
 
         movementDir = isCrossedBoarder(movementDir);
-        setVelocity(movementDir.mult(MOVEMENT_SPEED));
+        //the velocities are constants, so a steady frame allocates no vectors
+        if (movementDir < 0) {
+            setVelocity(LEFT_VELOCITY);
+        } else if (movementDir > 0) {
+            setVelocity(RIGHT_VELOCITY);
+        } else {
+            setVelocity(Vector2.ZERO);
+        }
     }
     /**
      * Called when this object starts colliding with another object.
@@ -70,6 +80,15 @@ public class Paddle extends GameObject {
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
+        handleCollision(other);
+    }
+
+    /**
+     * Apply the paddle's collision behavior for a collision with another object.
+     *
+     * @param other The other GameObject this is colliding with.
+     */
+    public void handleCollision(GameObject other) {
         secondaryPaddleCollisionBehavior(other);
         UserPaddleHeartCollisionBehavior(other);
     }
@@ -97,40 +116,61 @@ public class Paddle extends GameObject {
     public int getNumCollisionsSecondaryPaddle() {
         return this.numCollisionsSecondaryPaddle;
     }
+
+    /**
+     * Sets the number of collisions with a secondary paddle, e.g. when a snapshot of the game is
+     * restored.
+     *
+     * @param numCollisionsSecondaryPaddle The number of collisions.
+     */
+    public void setNumCollisionsSecondaryPaddle(int numCollisionsSecondaryPaddle) {
+        this.numCollisionsSecondaryPaddle = numCollisionsSecondaryPaddle;
+    }
+
     /**
      * Handles the collision behavior when the paddle collides with a heart object.
      *
      * @param other The other GameObject involved in the collision.
      */
     private void UserPaddleHeartCollisionBehavior(GameObject other) {
-        if(other.getTag().equals(FALLING_HEART_TAG) && this.getTag().equals(USER_PADDLE_TAG))
+        if(EntityKind.of(other) == EntityKind.FALLING_HEART && this.getKind() == EntityKind.USER_PADDLE)
         {
             this.CollidedGameObject = other;
         }
     }
 
     private void secondaryPaddleCollisionBehavior(GameObject o2){
-        if(o2.getTag().equals(MAIN_BALL_TAG) || o2.getTag().equals(PUCK_BALL_TAG)){
+        if(EntityKind.of(o2).isIn(EntityKind.BALLS)){
             if(numCollisionsSecondaryPaddle <= MAX_COLLISIONS_WITH_SECONDARY_PADDLE){
                 numCollisionsSecondaryPaddle++;
             }
         }
 
     }
-    private Vector2 isCrossedBoarder(Vector2 movementDir) {
+    private int isCrossedBoarder(int movementDir) {
         if (super.getTopLeftCorner().x() < borderSize) {
-            movementDir = Vector2.ZERO;
-            super.setTopLeftCorner(new Vector2(borderSize,
-                    super.getTopLeftCorner().y()));
+            movementDir = 0;
+            updateExtremeCorners();
+            super.setTopLeftCorner(leftmostCorner);
 
         }
         else if(super.getTopLeftCorner().x() + super.getDimensions().x() > windowDim.x() - borderSize) {
 
-            movementDir = Vector2.ZERO;
-            super.setTopLeftCorner(new Vector2(windowDim.x() - borderSize - super.getDimensions().x(),
-                    super.getTopLeftCorner().y()));
+            movementDir = 0;
+            updateExtremeCorners();
+            super.setTopLeftCorner(rightmostCorner);
         }
         return movementDir;
     }
 
+    private void updateExtremeCorners() {
+        //the paddle only moves horizontally, so the clamped corners are rebuilt only if it is moved
+        //to another height
+        float y = super.getTopLeftCorner().y();
+        if (leftmostCorner == null || leftmostCorner.y() != y) {
+            this.leftmostCorner = new Vector2(borderSize, y);
+            this.rightmostCorner = new Vector2(windowDim.x() - borderSize - super.getDimensions().x(), y);
+        }
+    }
+
 }
@@ -0,0 +1,78 @@
+package bricker.gameobjects;
+
+import bricker.main.BrickerGameManager;
+import bricker.main.FrameProfiler;
+import bricker.util.LatencyHistogram;
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+
+import static bricker.main.Constants.PROFILER_HUD_REFRESH_FRAMES;
+
+/**
+ * ProfilerHud is an overlay showing the p50, p99 and max time of the recent frames, together with the
+ * number of game objects, pucks and standing bricks.
+ * The text is rebuilt only once every PROFILER_HUD_REFRESH_FRAMES frames, from the frames profiled
+ * since the previous refresh, so the overlay itself barely affects the frame times it shows.
+ */
+public class ProfilerHud extends GameObject {
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final TextRenderable text;
+    private final BrickerGameManager game;
+    private final FrameProfiler profiler;
+    private int framesSinceRefresh;
+
+    /**
+     * Constructs a new ProfilerHud.
+     *
+     * @param topLeftCorner Position of the overlay, in camera coordinates.
+     * @param dimensions    Width and height of the overlay.
+     * @param game          The game whose frames and objects are shown.
+     */
+    public ProfilerHud(Vector2 topLeftCorner, Vector2 dimensions, BrickerGameManager game) {
+        super(topLeftCorner, dimensions, null);
+        this.text = new TextRenderable("");
+        this.text.setColor(Color.white);
+        this.game = game;
+        this.profiler = game.getProfiler();
+        this.framesSinceRefresh = 0;
+        renderer().setRenderable(text);
+        setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+    }
+
+    /**
+     * Refreshes the shown statistics once every PROFILER_HUD_REFRESH_FRAMES frames.
+     *
+     * @param deltaTime The time that has passed since the last update.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        if (++framesSinceRefresh < PROFILER_HUD_REFRESH_FRAMES) {
+            return;
+        }
+        framesSinceRefresh = 0;
+        refresh();
+    }
+
+    /**
+     * Rebuilds the shown text from the frames profiled since the previous refresh.
+     */
+    public void refresh() {
+        LatencyHistogram frames = profiler.getRecentFrameTimes();
+        int numObjects = 0;
+        for (GameObject ignored : game.gameObjects()) {
+            numObjects++;
+        }
+        text.setString(String.format("frame p50 %.2fms p99 %.2fms max %.2fms | objects %d pucks %d bricks %d",
+                frames.getPercentileNanos(50) / NANOS_PER_MILLI,
+                frames.getPercentileNanos(99) / NANOS_PER_MILLI,
+                frames.getMaxNanos() / NANOS_PER_MILLI, numObjects,
+                game.getPuckSystem().getNumPucks(), game.getBrickField().getNumStanding()));
+        profiler.resetRecentFrames();
+    }
+}
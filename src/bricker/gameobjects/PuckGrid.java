@@ -0,0 +1,115 @@
+package bricker.gameobjects;
+
+import java.util.Arrays;
+
+/**
+ * PuckGrid bounces touching pucks off each other, for pucks kept as arrays of centers and velocities.
+ * Two touching pucks bounce along the axis they overlap least on, and only if they move towards each
+ * other along it, so a pair met twice in a pass bounces once.
+ * The pucks find each other through a grid of puck-sized cells that remembers the first puck of every
+ * cell, and every puck is checked against the first pucks of the nine cells around it. Two pucks in
+ * one cell always touch, so while the pucks are spread out every contact is found; in a crowd only the
+ * bounces are thinned out, and a pass stays at nine lookups per puck however many pucks there are.
+ * The grid has an empty ring of cells around the area it covers, so the cells around every cell
+ * exist; pucks outside the area fall into the cells along its edges. An instance reuses its cells
+ * between passes, so a pass allocates only when there are more pucks than ever before.
+ */
+public class PuckGrid {
+    private static final int NO_PUCK = -1;
+
+    private final float puckSize;
+    private final float inverseCellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] neighborOffsets;
+    private final int[] cellPucks;
+    private int[] puckCells;
+
+    /**
+     * Constructs a new PuckGrid.
+     *
+     * @param width    The width of the area the pucks move in.
+     * @param height   The height of the area the pucks move in.
+     * @param puckSize The width and height of a single puck.
+     */
+    public PuckGrid(float width, float height, float puckSize) {
+        this.puckSize = puckSize;
+        this.inverseCellSize = 1 / puckSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / puckSize)) + 2;
+        this.rows = Math.max(1, (int) Math.ceil(height / puckSize)) + 2;
+        this.neighborOffsets = new int[]{-columns - 1, -columns, -columns + 1, -1, 0, 1, columns - 1,
+                columns, columns + 1};
+        this.cellPucks = new int[columns * rows];
+        this.puckCells = new int[0];
+    }
+
+    /**
+     * Bounces the touching pucks off each other. Only velocities change; the pucks are checked in
+     * index order, so the same pucks always bounce the same way.
+     *
+     * @param centerX   The horizontal centers of the pucks.
+     * @param centerY   The vertical centers of the pucks.
+     * @param velocityX The horizontal velocities of the pucks.
+     * @param velocityY The vertical velocities of the pucks.
+     * @param numPucks  The number of pucks, from the start of the arrays.
+     * @return The number of pairs that bounced.
+     */
+    public int collide(float[] centerX, float[] centerY, float[] velocityX, float[] velocityY, int numPucks) {
+        if (numPucks < 2) {
+            return 0;
+        }
+        if (puckCells.length < numPucks) {
+            this.puckCells = new int[centerX.length];
+        }
+        Arrays.fill(cellPucks, NO_PUCK);
+        for (int i = 0; i < numPucks; i++) {
+            int cell = cellOf(centerX[i], centerY[i]);
+            puckCells[i] = cell;
+            if (cellPucks[cell] == NO_PUCK) {
+                cellPucks[cell] = i;
+            }
+        }
+        int contacts = 0;
+        for (int i = 0; i < numPucks; i++) {
+            int cell = puckCells[i];
+            for (int offset : neighborOffsets) {
+                int j = cellPucks[cell + offset];
+                if (j != NO_PUCK && j != i && bounce(centerX, centerY, velocityX, velocityY, i, j)) {
+                    contacts++;
+                }
+            }
+        }
+        return contacts;
+    }
+
+    private boolean bounce(float[] centerX, float[] centerY, float[] velocityX, float[] velocityY, int i,
+                           int j) {
+        float deltaX = centerX[j] - centerX[i];
+        float deltaY = centerY[j] - centerY[i];
+        float overlapX = puckSize - Math.abs(deltaX);
+        float overlapY = puckSize - Math.abs(deltaY);
+        if (Math.min(overlapX, overlapY) <= 0) {
+            return false;
+        }
+        if (overlapX < overlapY) {
+            if ((velocityX[j] - velocityX[i]) * deltaX >= 0) {
+                return false;
+            }
+            velocityX[i] = -velocityX[i];
+            velocityX[j] = -velocityX[j];
+        } else {
+            if ((velocityY[j] - velocityY[i]) * deltaY >= 0) {
+                return false;
+            }
+            velocityY[i] = -velocityY[i];
+            velocityY[j] = -velocityY[j];
+        }
+        return true;
+    }
+
+    private int cellOf(float x, float y) {
+        int column = Math.min(Math.max((int) (x * inverseCellSize), 0), columns - 3) + 1;
+        int row = Math.min(Math.max((int) (y * inverseCellSize), 0), rows - 3) + 1;
+        return row * columns + column;
+    }
+}
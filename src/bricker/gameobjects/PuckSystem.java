@@ -0,0 +1,577 @@
+package bricker.gameobjects;
+
+import bricker.audio.SoundEffect;
+import bricker.diagnostics.GameEvents;
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static bricker.main.Constants.MAX_STEP_DISTANCE;
+import static bricker.main.Constants.MAX_SUB_STEPS;
+import static bricker.main.Constants.PARALLEL_COLLISION_THRESHOLD;
+
+/**
+ * PuckSystem simulates all the pucks of the game as a single game object.
+ * Instead of one Ball per puck, the centers and velocities of the pucks are kept in primitive float
+ * arrays (a structure of arrays) and integrated in tight loops, without virtual calls or Vector2
+ * allocations per puck. Contacts with the world - the borders, the paddles, the main ball, the other
+ * pucks and the brick field - are resolved in one batch per frame, and pucks that leave the bottom of
+ * the window are removed by moving the last puck into their slot.
+ * Towards the rest of the game the system behaves like a PUCK_BALL ball: it is the other object handed
+ * to paddles, bricks and the main ball when a puck hits them, so the secondary paddle, the brick
+ * strategies and the ball's collision counter react to pucks exactly as they did to puck balls. Two
+ * touching pucks, or a puck and the main ball, bounce off each other along the axis they overlap least
+ * on; the pucks find each other through a PuckGrid.
+ * The system is kept out of the engine's collision pass, which would see a single body spanning the
+ * window, and does all its collisions itself.
+ * Once there are enough pucks, the search for brick contacts is split across a ForkJoinPool. The
+ * workers only read the field; the contacts they find are then resolved on the game thread in puck
+ * order, and a puck whose brick was destroyed earlier in the same pass is searched again. The outcome,
+ * including the order in which the brick strategies fire, is therefore the same as without the pool.
+ * When the fastest puck would move more than MAX_STEP_DISTANCE in a frame, the frame is split into
+ * equal sub-steps that each move and collide all the pucks, so that a large timestep cannot carry a
+ * puck through a brick or a paddle between two checks.
+ */
+public class PuckSystem extends KindedGameObject {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int CONTACT_SEARCH_GRAIN = 1024;
+
+    private final float puckSize;
+    private final float halfPuckSize;
+    private final float minX;
+    private final float maxX;
+    private final float minY;
+    private final float removalY;
+    private final BrickField brickField;
+    private final SoundEffect collisionSound;
+    private Paddle[] paddles;
+    private int numPaddles;
+    private Ball ball;
+    private final PuckGrid puckGrid;
+    private float[] centerX;
+    private float[] centerY;
+    private float[] velocityX;
+    private float[] velocityY;
+    private long[] contacts;
+    private ForkJoinPool collisionPool;
+    private int parallelThreshold;
+    private boolean subStepping;
+    private GameEvents gameEvents;
+    private int numPucks;
+    private int peakPucks;
+    private long numSpawned;
+    private long numRemoved;
+    private long numContacts;
+
+    /**
+     * Constructs a new, empty PuckSystem.
+     *
+     * @param windowDimensions The dimensions of the window, which the system covers.
+     * @param puckSize         The width and height of a single puck.
+     * @param borderWidth      The width of the left and right borders.
+     * @param upperBorder      The height of the upper border.
+     * @param brickField       The field the pucks bounce off and destroy bricks of.
+     * @param puckImage        The image every puck is drawn with. Can be null, in which case the
+     *                         pucks are not rendered.
+     * @param collisionSound   The sound to play when a puck bounces. Can be null.
+     */
+    public PuckSystem(Vector2 windowDimensions, float puckSize, float borderWidth, float upperBorder,
+                      BrickField brickField, Renderable puckImage, SoundEffect collisionSound) {
+        super(Vector2.ZERO, windowDimensions, null);
+        this.puckSize = puckSize;
+        this.halfPuckSize = puckSize / 2;
+        this.minX = borderWidth;
+        this.maxX = windowDimensions.x() - borderWidth;
+        this.minY = upperBorder;
+        this.removalY = windowDimensions.y();
+        this.brickField = brickField;
+        this.collisionSound = collisionSound;
+        this.paddles = new Paddle[2];
+        this.numPaddles = 0;
+        this.puckGrid = new PuckGrid(windowDimensions.x(), windowDimensions.y(), puckSize);
+        this.centerX = new float[INITIAL_CAPACITY];
+        this.centerY = new float[INITIAL_CAPACITY];
+        this.velocityX = new float[INITIAL_CAPACITY];
+        this.velocityY = new float[INITIAL_CAPACITY];
+        this.contacts = new long[INITIAL_CAPACITY];
+        this.collisionPool = ForkJoinPool.commonPool();
+        this.parallelThreshold = PARALLEL_COLLISION_THRESHOLD;
+        this.subStepping = true;
+        this.numPucks = 0;
+        setKind(EntityKind.PUCK_BALL);
+        if (puckImage != null) {
+            renderer().setRenderable(new PuckSystemRenderable(this, puckImage, windowDimensions));
+        }
+    }
+
+    /**
+     * Adds a paddle the pucks bounce off.
+     *
+     * @param paddle The paddle.
+     */
+    public void addPaddle(Paddle paddle) {
+        if (numPaddles == paddles.length) {
+            paddles = Arrays.copyOf(paddles, 2 * numPaddles);
+        }
+        paddles[numPaddles++] = paddle;
+    }
+
+    /**
+     * Removes a paddle the pucks bounce off.
+     *
+     * @param paddle The paddle.
+     */
+    public void removePaddle(Paddle paddle) {
+        for (int i = 0; i < numPaddles; i++) {
+            if (paddles[i] == paddle) {
+                paddles[i] = paddles[--numPaddles];
+                paddles[numPaddles] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sets the main ball the pucks bounce off.
+     *
+     * @param ball The main ball, or null if the pucks should not collide with a ball.
+     */
+    public void setBall(Ball ball) {
+        this.ball = ball;
+    }
+
+    /**
+     * Sets how the search for brick contacts is parallelized.
+     *
+     * @param collisionPool     The pool the search is split across.
+     * @param parallelThreshold The number of pucks from which the pool is used. Below it, or if it
+     *                          is Integer.MAX_VALUE, contacts are searched on the game thread only.
+     */
+    public void setCollisionParallelism(ForkJoinPool collisionPool, int parallelThreshold) {
+        this.collisionPool = collisionPool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Sets the emitter the pucks report their paddle and brick collisions to.
+     *
+     * @param gameEvents The game events, or null to report nothing.
+     */
+    public void setGameEvents(GameEvents gameEvents) {
+        this.gameEvents = gameEvents;
+    }
+
+    /**
+     * Spawns a new puck.
+     *
+     * @param x         The horizontal position of the puck's center.
+     * @param y         The vertical position of the puck's center.
+     * @param velocityX The horizontal velocity of the puck.
+     * @param velocityY The vertical velocity of the puck.
+     */
+    public void spawn(float x, float y, float velocityX, float velocityY) {
+        if (numPucks == centerX.length) {
+            int capacity = 2 * numPucks;
+            this.centerX = Arrays.copyOf(centerX, capacity);
+            this.centerY = Arrays.copyOf(centerY, capacity);
+            this.velocityX = Arrays.copyOf(this.velocityX, capacity);
+            this.velocityY = Arrays.copyOf(this.velocityY, capacity);
+            this.contacts = Arrays.copyOf(contacts, capacity);
+        }
+        centerX[numPucks] = x;
+        centerY[numPucks] = y;
+        this.velocityX[numPucks] = velocityX;
+        this.velocityY[numPucks] = velocityY;
+        numPucks++;
+        peakPucks = Math.max(peakPucks, numPucks);
+        numSpawned++;
+    }
+
+    /**
+     * Removes all the pucks.
+     */
+    public void clear() {
+        numRemoved += numPucks;
+        numPucks = 0;
+    }
+
+    /**
+     * Writes the centers and velocities of the pucks to a snapshot, four floats per puck.
+     *
+     * @param buffer The buffer the state is written to, at its position.
+     * @throws java.nio.BufferOverflowException If the buffer is too small.
+     */
+    public void writeState(ByteBuffer buffer) {
+        buffer.putInt(numPucks);
+        for (int i = 0; i < numPucks; i++) {
+            buffer.putFloat(centerX[i]);
+            buffer.putFloat(centerY[i]);
+            buffer.putFloat(velocityX[i]);
+            buffer.putFloat(velocityY[i]);
+        }
+    }
+
+    /**
+     * Replaces the pucks with the ones written by writeState. The spawn and removal counts are
+     * statistics of the session and are kept.
+     *
+     * @param buffer The buffer the state is read from, at its position.
+     */
+    public void readState(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count > centerX.length) {
+            this.centerX = new float[count];
+            this.centerY = new float[count];
+            this.velocityX = new float[count];
+            this.velocityY = new float[count];
+            this.contacts = new long[count];
+        }
+        for (int i = 0; i < count; i++) {
+            centerX[i] = buffer.getFloat();
+            centerY[i] = buffer.getFloat();
+            velocityX[i] = buffer.getFloat();
+            velocityY[i] = buffer.getFloat();
+        }
+        this.numPucks = count;
+        peakPucks = Math.max(peakPucks, numPucks);
+    }
+
+    /**
+     * Moves all the pucks, bounces them off the world and removes the ones below the window.
+     *
+     * @param deltaTime The time that has passed since the last update.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        int numSubSteps = numSubSteps(deltaTime);
+        float subStepTime = deltaTime / numSubSteps;
+        for (int subStep = 0; subStep < numSubSteps; subStep++) {
+            integrate(subStepTime);
+            collideWithBorders();
+            for (int i = 0; i < numPaddles; i++) {
+                collideWithPaddle(paddles[i]);
+            }
+            if (ball != null) {
+                collideWithBall();
+            }
+            collideWithPucks();
+            collideWithBricks();
+        }
+        removeOutOfScreen();
+    }
+
+    private int numSubSteps(float deltaTime) {
+        if (!subStepping) {
+            return 1;
+        }
+        float maxSpeed = 0;
+        for (int i = 0; i < numPucks; i++) {
+            maxSpeed = Math.max(maxSpeed, Math.max(Math.abs(velocityX[i]), Math.abs(velocityY[i])));
+        }
+        int numSubSteps = (int) Math.ceil(maxSpeed * deltaTime / MAX_STEP_DISTANCE);
+        return Math.max(1, Math.min(numSubSteps, MAX_SUB_STEPS));
+    }
+
+    /**
+     * Sets whether a frame in which the pucks move too far is split into sub-steps. Without
+     * sub-stepping every frame moves the pucks once and checks them once, however long it is.
+     *
+     * @param subStepping true to sub-step long frames, false otherwise.
+     */
+    public void setSubStepping(boolean subStepping) {
+        this.subStepping = subStepping;
+    }
+
+    private void integrate(float deltaTime) {
+        float[] x = centerX;
+        float[] y = centerY;
+        float[] vx = velocityX;
+        float[] vy = velocityY;
+        for (int i = 0; i < numPucks; i++) {
+            x[i] += vx[i] * deltaTime;
+            y[i] += vy[i] * deltaTime;
+        }
+    }
+
+    private void collideWithBorders() {
+        float left = minX + halfPuckSize;
+        float right = maxX - halfPuckSize;
+        float top = minY + halfPuckSize;
+        int contacts = 0;
+        for (int i = 0; i < numPucks; i++) {
+            if ((centerX[i] < left && velocityX[i] < 0) || (centerX[i] > right && velocityX[i] > 0)) {
+                velocityX[i] = -velocityX[i];
+                contacts++;
+            }
+            if (centerY[i] < top && velocityY[i] < 0) {
+                velocityY[i] = -velocityY[i];
+                contacts++;
+            }
+        }
+        onContacts(contacts);
+    }
+
+    private void collideWithPaddle(Paddle paddle) {
+        Vector2 topLeftCorner = paddle.getTopLeftCorner();
+        Vector2 dimensions = paddle.getDimensions();
+        float paddleMinX = topLeftCorner.x() - halfPuckSize;
+        float paddleMinY = topLeftCorner.y() - halfPuckSize;
+        float paddleMaxX = topLeftCorner.x() + dimensions.x() + halfPuckSize;
+        float paddleMaxY = topLeftCorner.y() + dimensions.y() + halfPuckSize;
+        float paddleCenterX = (paddleMinX + paddleMaxX) / 2;
+        float paddleCenterY = (paddleMinY + paddleMaxY) / 2;
+        int contacts = 0;
+        for (int i = 0; i < numPucks; i++) {
+            float x = centerX[i];
+            float y = centerY[i];
+            if (x <= paddleMinX || x >= paddleMaxX || y <= paddleMinY || y >= paddleMaxY) {
+                continue;
+            }
+            float overlapX = Math.min(x - paddleMinX, paddleMaxX - x);
+            float overlapY = Math.min(y - paddleMinY, paddleMaxY - y);
+            if (overlapX < overlapY) {
+                float normalX = x < paddleCenterX ? -1 : 1;
+                if (velocityX[i] * normalX >= 0) {
+                    continue;
+                }
+                velocityX[i] = -velocityX[i];
+            } else {
+                float normalY = y < paddleCenterY ? -1 : 1;
+                if (velocityY[i] * normalY >= 0) {
+                    continue;
+                }
+                velocityY[i] = -velocityY[i];
+            }
+            contacts++;
+            reportCollision(paddle, contacts);
+            paddle.handleCollision(this);
+        }
+        onContacts(contacts);
+    }
+
+    private void collideWithBall() {
+        Vector2 topLeftCorner = ball.getTopLeftCorner();
+        Vector2 dimensions = ball.getDimensions();
+        float ballMinX = topLeftCorner.x() - halfPuckSize;
+        float ballMinY = topLeftCorner.y() - halfPuckSize;
+        float ballMaxX = topLeftCorner.x() + dimensions.x() + halfPuckSize;
+        float ballMaxY = topLeftCorner.y() + dimensions.y() + halfPuckSize;
+        float ballCenterX = (ballMinX + ballMaxX) / 2;
+        float ballCenterY = (ballMinY + ballMaxY) / 2;
+        int contacts = 0;
+        for (int i = 0; i < numPucks; i++) {
+            float x = centerX[i];
+            float y = centerY[i];
+            if (x <= ballMinX || x >= ballMaxX || y <= ballMinY || y >= ballMaxY) {
+                continue;
+            }
+            //the ball is bounced by earlier pucks of the pass, so its velocity is read for every contact
+            Vector2 ballVelocity = ball.getVelocity();
+            float overlapX = Math.min(x - ballMinX, ballMaxX - x);
+            float overlapY = Math.min(y - ballMinY, ballMaxY - y);
+            Vector2 normal;
+            if (overlapX < overlapY) {
+                float normalX = x < ballCenterX ? -1 : 1;
+                if ((velocityX[i] - ballVelocity.x()) * normalX >= 0) {
+                    continue;
+                }
+                velocityX[i] = -velocityX[i];
+                normal = Vector2.RIGHT;
+            } else {
+                float normalY = y < ballCenterY ? -1 : 1;
+                if ((velocityY[i] - ballVelocity.y()) * normalY >= 0) {
+                    continue;
+                }
+                velocityY[i] = -velocityY[i];
+                normal = Vector2.DOWN;
+            }
+            contacts++;
+            reportCollision(ball, contacts);
+            ball.handleCollision(this, normal);
+        }
+        onContacts(contacts);
+    }
+
+    private void collideWithPucks() {
+        int contacts = puckGrid.collide(centerX, centerY, velocityX, velocityY, numPucks);
+        for (int i = 1; i <= contacts; i++) {
+            reportCollision(this, i);
+        }
+        onContacts(contacts);
+    }
+
+    private void collideWithBricks() {
+        int contactCount = 0;
+        //pucks may be spawned by the brick strategies during the pass, and are checked next frame
+        int numChecked = numPucks;
+        boolean searchedInParallel = numChecked >= parallelThreshold;
+        if (searchedInParallel) {
+            collisionPool.invoke(new ContactSearch(0, numChecked));
+        }
+        for (int i = 0; i < numChecked; i++) {
+            long contact = searchedInParallel ? contacts[i] : findBrickContact(i);
+            if (contact != BrickField.NO_CONTACT
+                    && !brickField.isStanding(BrickField.contactCell(contact))) {
+                //destroyed by an earlier puck of this pass, after the parallel search saw it
+                contact = findBrickContact(i);
+            }
+            if (contact == BrickField.NO_CONTACT) {
+                continue;
+            }
+            if (BrickField.contactNormal(contact).x() != 0) {
+                velocityX[i] = -velocityX[i];
+            } else {
+                velocityY[i] = -velocityY[i];
+            }
+            contactCount++;
+            Brick brick = brickField.createBrick(BrickField.contactCell(contact));
+            reportCollision(brick, contactCount);
+            brick.handleCollision(this);
+        }
+        onContacts(contactCount);
+    }
+
+    private long findBrickContact(int index) {
+        float x = centerX[index];
+        float y = centerY[index];
+        return brickField.findPackedContact(x - halfPuckSize, y - halfPuckSize, x + halfPuckSize,
+                y + halfPuckSize, velocityX[index], velocityY[index]);
+    }
+
+    private void reportCollision(GameObject other, int batchContacts) {
+        if (gameEvents != null) {
+            gameEvents.ballCollision(EntityKind.PUCK_BALL, other, (int) (numContacts + batchContacts));
+        }
+    }
+
+    private void removeOutOfScreen() {
+        int i = 0;
+        while (i < numPucks) {
+            if (centerY[i] > removalY) {
+                numPucks--;
+                centerX[i] = centerX[numPucks];
+                centerY[i] = centerY[numPucks];
+                velocityX[i] = velocityX[numPucks];
+                velocityY[i] = velocityY[numPucks];
+                numRemoved++;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private void onContacts(int contacts) {
+        //one sound per batch, since the contacts of a batch happen at the same moment
+        numContacts += contacts;
+        if (contacts > 0 && collisionSound != null) {
+            collisionSound.play();
+        }
+    }
+
+    /**
+     * Gets the number of pucks in play.
+     *
+     * @return The number of pucks.
+     */
+    public int getNumPucks() {
+        return numPucks;
+    }
+
+    /**
+     * Gets the width and height of a single puck.
+     *
+     * @return The puck size.
+     */
+    public float getPuckSize() {
+        return puckSize;
+    }
+
+    /**
+     * Gets the horizontal center of a puck.
+     *
+     * @param index The index of the puck, between 0 and getNumPucks.
+     * @return The horizontal position of the puck's center.
+     */
+    public float getCenterX(int index) {
+        return centerX[index];
+    }
+
+    /**
+     * Gets the vertical center of a puck.
+     *
+     * @param index The index of the puck, between 0 and getNumPucks.
+     * @return The vertical position of the puck's center.
+     */
+    public float getCenterY(int index) {
+        return centerY[index];
+    }
+
+    /**
+     * Gets the horizontal velocity of a puck.
+     *
+     * @param index The index of the puck, between 0 and getNumPucks.
+     * @return The horizontal velocity of the puck.
+     */
+    public float getVelocityX(int index) {
+        return velocityX[index];
+    }
+
+    /**
+     * Gets the vertical velocity of a puck.
+     *
+     * @param index The index of the puck, between 0 and getNumPucks.
+     * @return The vertical velocity of the puck.
+     */
+    public float getVelocityY(int index) {
+        return velocityY[index];
+    }
+
+    /**
+     * Gets the total number of pucks spawned.
+     *
+     * @return The number of spawned pucks.
+     */
+    public long getNumSpawned() {
+        return numSpawned;
+    }
+
+    /**
+     * ContactSearch finds the brick contacts of a range of pucks, splitting the range in halves until
+     * it is small enough to search directly.
+     */
+    private final class ContactSearch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        ContactSearch(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CONTACT_SEARCH_GRAIN) {
+                for (int i = from; i < to; i++) {
+                    contacts[i] = findBrickContact(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ContactSearch(from, middle), new ContactSearch(middle, to));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "pucks=" + numPucks + " peak=" + peakPucks + " spawned=" + numSpawned + " removed="
+                + numRemoved + " contacts=" + numContacts;
+    }
+}
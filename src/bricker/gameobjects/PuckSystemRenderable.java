@@ -0,0 +1,63 @@
+package bricker.gameobjects;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * PuckSystemRenderable draws all the pucks of a PuckSystem.
+ * The puck image is rendered once into a tile, which is then stamped at every puck's position. The
+ * position the system is drawn at already accounts for the camera, so puck positions are mapped from
+ * window coordinates into it.
+ */
+class PuckSystemRenderable implements Renderable {
+    private final PuckSystem puckSystem;
+    private final Renderable puckImage;
+    private final float windowWidth;
+    private BufferedImage tile;
+    private int tileSize;
+
+    /**
+     * Constructs a new PuckSystemRenderable.
+     *
+     * @param puckSystem       The pucks to draw.
+     * @param puckImage        The image every puck is drawn with.
+     * @param windowDimensions The dimensions of the window the system covers.
+     */
+    PuckSystemRenderable(PuckSystem puckSystem, Renderable puckImage, Vector2 windowDimensions) {
+        this.puckSystem = puckSystem;
+        this.puckImage = puckImage;
+        this.windowWidth = windowDimensions.x();
+        this.tile = null;
+        this.tileSize = 0;
+    }
+
+    @Override
+    public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+                       double degreesCounterClockwise, boolean isFlippedHorizontally,
+                       boolean isFlippedVertically, double opaqueness) {
+        float scale = dimensions.x() / windowWidth;
+        float size = puckSystem.getPuckSize() * scale;
+        int pixelSize = Math.max(1, Math.round(size));
+        if (tile == null || tileSize != pixelSize) {
+            renderTile(pixelSize);
+        }
+        float originX = topLeftCorner.x() - size / 2;
+        float originY = topLeftCorner.y() - size / 2;
+        int numPucks = puckSystem.getNumPucks();
+        for (int i = 0; i < numPucks; i++) {
+            g.drawImage(tile, Math.round(originX + puckSystem.getCenterX(i) * scale),
+                    Math.round(originY + puckSystem.getCenterY(i) * scale), null);
+        }
+    }
+
+    private void renderTile(int pixelSize) {
+        this.tile = new BufferedImage(pixelSize, pixelSize, BufferedImage.TYPE_INT_ARGB);
+        this.tileSize = pixelSize;
+        Graphics2D graphics = tile.createGraphics();
+        puckImage.render(graphics, Vector2.ZERO, new Vector2(pixelSize, pixelSize), 0, false, false, 1);
+        graphics.dispose();
+    }
+}
@@ -0,0 +1,209 @@
+package bricker.gameobjects;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.util.Vector2;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * StaticBodies is a single game object holding game objects that do not move, such as the borders,
+ * the background and the hearts of the health bar.
+ * Sleeping bodies are not part of the game objects, so the engine neither updates them nor pairs them
+ * with every other object when looking for collisions; the tier draws them all with one renderable and
+ * checks a ball against them only when the ball's bounding box enters one of them. A body that is
+ * given a velocity wakes up: at the next update it leaves the tier and is added to the game objects in
+ * the tier's layer, where the engine moves it as usual.
+ * Sleeping bodies are drawn in the order they were added and must share the tier's coordinate space.
+ * Their own collision behavior is not applied, so only bodies that do not react to collisions should
+ * sleep.
+ */
+public class StaticBodies extends GameObject {
+    private final GameObjectCollection gameObjects;
+    private final int layer;
+    private final List<GameObject> bodies;
+    private final Set<GameObject> touching;
+    private int numWakes;
+
+    /**
+     * Constructs a new, empty StaticBodies.
+     *
+     * @param windowDimensions The dimensions of the window the bodies are placed in.
+     * @param gameObjects      The game objects woken bodies are added to.
+     * @param layer            The layer woken bodies are added to.
+     */
+    public StaticBodies(Vector2 windowDimensions, GameObjectCollection gameObjects, int layer) {
+        super(Vector2.ZERO, windowDimensions, null);
+        this.gameObjects = gameObjects;
+        this.layer = layer;
+        this.bodies = new ArrayList<>();
+        this.touching = new HashSet<>();
+        this.numWakes = 0;
+        renderer().setRenderable(new StaticBodiesRenderable(this, windowDimensions));
+    }
+
+    /**
+     * Adds a body. A body that is already moving is added to the game objects right away.
+     *
+     * @param body The body to add.
+     */
+    public void add(GameObject body) {
+        if (isMoving(body)) {
+            gameObjects.addGameObject(body, layer);
+        } else {
+            bodies.add(body);
+        }
+    }
+
+    /**
+     * Removes a body, whether it is sleeping or was woken.
+     *
+     * @param body The body to remove.
+     * @return true if the body was removed, false if it was not in the tier or its layer.
+     */
+    public boolean remove(GameObject body) {
+        if (bodies.remove(body)) {
+            touching.remove(body);
+            return true;
+        }
+        return gameObjects.removeGameObject(body, layer);
+    }
+
+    /**
+     * Wakes every body that was given a velocity since the last update.
+     *
+     * @param deltaTime The time that has passed since the last update.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        for (int i = 0; i < bodies.size(); i++) {
+            GameObject body = bodies.get(i);
+            if (isMoving(body)) {
+                bodies.remove(i--);
+                touching.remove(body);
+                gameObjects.addGameObject(body, layer);
+                numWakes++;
+            }
+        }
+    }
+
+    private static boolean isMoving(GameObject body) {
+        Vector2 velocity = body.getVelocity();
+        return velocity.x() != 0 || velocity.y() != 0;
+    }
+
+    /**
+     * Checks a ball against the sleeping bodies, and bounces it off every body its bounding box has
+     * just entered. A body the ball keeps overlapping is not hit again until the ball leaves it.
+     *
+     * @param ball The ball to check.
+     * @return true if the ball hit a body, false otherwise.
+     */
+    public boolean collide(Ball ball) {
+        Vector2 topLeftCorner = ball.getTopLeftCorner();
+        Vector2 dimensions = ball.getDimensions();
+        float minX = topLeftCorner.x();
+        float minY = topLeftCorner.y();
+        float maxX = minX + dimensions.x();
+        float maxY = minY + dimensions.y();
+        boolean hit = false;
+        for (int i = 0; i < bodies.size(); i++) {
+            GameObject body = bodies.get(i);
+            Vector2 bodyCorner = body.getTopLeftCorner();
+            Vector2 bodyDimensions = body.getDimensions();
+            float bodyMinX = bodyCorner.x();
+            float bodyMinY = bodyCorner.y();
+            float bodyMaxX = bodyMinX + bodyDimensions.x();
+            float bodyMaxY = bodyMinY + bodyDimensions.y();
+            if (minX >= bodyMaxX || bodyMinX >= maxX || minY >= bodyMaxY || bodyMinY >= maxY) {
+                touching.remove(body);
+                continue;
+            }
+            if (!ball.shouldCollideWith(body) || !touching.add(body)) {
+                continue;
+            }
+            //the normal points out of the body along the axis of the smaller overlap
+            float overlapX = Math.min(maxX, bodyMaxX) - Math.max(minX, bodyMinX);
+            float overlapY = Math.min(maxY, bodyMaxY) - Math.max(minY, bodyMinY);
+            Vector2 normal;
+            if (overlapX < overlapY) {
+                normal = minX < bodyMinX ? Vector2.LEFT : Vector2.RIGHT;
+            } else {
+                normal = minY < bodyMinY ? Vector2.UP : Vector2.DOWN;
+            }
+            ball.handleCollision(body, normal);
+            hit = true;
+        }
+        return hit;
+    }
+
+    /**
+     * Forgets which sleeping bodies the ball is overlapping, for a ball that is put back where it
+     * overlaps none of them.
+     */
+    public void clearTouching() {
+        touching.clear();
+    }
+
+    /**
+     * Writes which sleeping bodies the ball is overlapping to a snapshot, as their indices, so a
+     * restored ball does not bounce again off a body it already hit.
+     *
+     * @param buffer The buffer the state is written to, at its position.
+     * @throws java.nio.BufferOverflowException If the buffer is too small.
+     */
+    public void writeState(ByteBuffer buffer) {
+        buffer.putInt(touching.size());
+        for (int i = 0; i < bodies.size(); i++) {
+            if (touching.contains(bodies.get(i))) {
+                buffer.putInt(i);
+            }
+        }
+    }
+
+    /**
+     * Replaces the bodies the ball is overlapping with the ones written by writeState. The tier must
+     * hold the same sleeping bodies as when the state was written.
+     *
+     * @param buffer The buffer the state is read from, at its position.
+     */
+    public void readState(ByteBuffer buffer) {
+        touching.clear();
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            touching.add(bodies.get(buffer.getInt()));
+        }
+    }
+
+    /**
+     * Gets the sleeping bodies, in drawing order.
+     *
+     * @return The live list of sleeping bodies. Callers must not modify it.
+     */
+    public List<GameObject> getBodies() {
+        return bodies;
+    }
+
+    /**
+     * Gets the number of sleeping bodies.
+     *
+     * @return The number of bodies in the tier.
+     */
+    public int getNumSleeping() {
+        return bodies.size();
+    }
+
+    /**
+     * Gets the number of bodies that woke up and left the tier.
+     *
+     * @return The number of wakes.
+     */
+    public int getNumWakes() {
+        return numWakes;
+    }
+}
@@ -0,0 +1,50 @@
+package bricker.gameobjects;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.Graphics2D;
+import java.util.List;
+
+/**
+ * StaticBodiesRenderable draws the sleeping bodies of a StaticBodies with their own renderables.
+ * The position the tier is drawn at already accounts for the camera, so body positions are mapped
+ * from window coordinates into it.
+ */
+class StaticBodiesRenderable implements Renderable {
+    private final StaticBodies staticBodies;
+    private final float windowWidth;
+
+    /**
+     * Constructs a new StaticBodiesRenderable.
+     *
+     * @param staticBodies     The bodies to draw.
+     * @param windowDimensions The dimensions of the window the tier covers.
+     */
+    StaticBodiesRenderable(StaticBodies staticBodies, Vector2 windowDimensions) {
+        this.staticBodies = staticBodies;
+        this.windowWidth = windowDimensions.x();
+    }
+
+    @Override
+    public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+                       double degreesCounterClockwise, boolean isFlippedHorizontally,
+                       boolean isFlippedVertically, double opaqueness) {
+        float scale = dimensions.x() / windowWidth;
+        List<GameObject> bodies = staticBodies.getBodies();
+        for (int i = 0; i < bodies.size(); i++) {
+            GameObject body = bodies.get(i);
+            Renderable renderable = body.renderer().getRenderable();
+            if (renderable == null) {
+                continue;
+            }
+            Vector2 bodyCorner = body.getTopLeftCorner();
+            renderable.render(g,
+                    new Vector2(topLeftCorner.x() + bodyCorner.x() * scale,
+                            topLeftCorner.y() + bodyCorner.y() * scale),
+                    body.getDimensions().mult(scale), 0, false, false,
+                    opaqueness * body.renderer().getOpaqueness());
+        }
+    }
+}
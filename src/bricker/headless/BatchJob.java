@@ -0,0 +1,146 @@
+package bricker.headless;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * BatchJob describes one game of a batch run: its grid, its seed, how long it may run and the
+ * power-up weights it is played with. Jobs with the same label are aggregated together, so a batch
+ * can compare several weight tables or grids in one run.
+ */
+public class BatchJob {
+    private final String label;
+    private final int numRows;
+    private final int bricksPerRow;
+    private final long seed;
+    private final int maxFrames;
+    private final Map<String, Double> brickWeights;
+    private Double noPowerUpWeight;
+    private boolean ballFollowing;
+
+    /**
+     * Constructs a new BatchJob played with the standard power-up weights by a paddle that follows the
+     * ball.
+     *
+     * @param label        The label the job's result is aggregated under.
+     * @param numRows      The number of rows of bricks.
+     * @param bricksPerRow The number of bricks per row.
+     * @param seed         The seed of all the game's random decisions.
+     * @param maxFrames    The maximal number of frames to simulate before giving up on the game ending.
+     */
+    public BatchJob(String label, int numRows, int bricksPerRow, long seed, int maxFrames) {
+        this.label = label;
+        this.numRows = numRows;
+        this.bricksPerRow = bricksPerRow;
+        this.seed = seed;
+        this.maxFrames = maxFrames;
+        this.brickWeights = new LinkedHashMap<>();
+        this.noPowerUpWeight = null;
+        this.ballFollowing = true;
+    }
+
+    /**
+     * Sets the weight of a power-up when a brick is destroyed, overriding the standard weight.
+     *
+     * @param name   The name the power-up is registered under.
+     * @param weight The new weight.
+     */
+    public void setBrickWeight(String name, double weight) {
+        brickWeights.put(name, weight);
+    }
+
+    /**
+     * Sets the weight of destroying a brick without any power-up, overriding the standard weight.
+     *
+     * @param weight The new weight.
+     */
+    public void setNoPowerUpWeight(double weight) {
+        this.noPowerUpWeight = weight;
+    }
+
+    /**
+     * Sets whether the user paddle follows the ball, or stays where it starts as with no user.
+     *
+     * @param ballFollowing true to move the paddle under the ball, false to press no key.
+     */
+    public void setBallFollowing(boolean ballFollowing) {
+        this.ballFollowing = ballFollowing;
+    }
+
+    /**
+     * Gets the label the job's result is aggregated under.
+     *
+     * @return The label.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gets the number of rows of bricks.
+     *
+     * @return The number of rows.
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Gets the number of bricks per row.
+     *
+     * @return The number of bricks per row.
+     */
+    public int getBricksPerRow() {
+        return bricksPerRow;
+    }
+
+    /**
+     * Gets the seed of the game.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the maximal number of frames to simulate.
+     *
+     * @return The frame limit.
+     */
+    public int getMaxFrames() {
+        return maxFrames;
+    }
+
+    /**
+     * Gets the power-up weights overridden by this job.
+     *
+     * @return The brick weights by power-up name. Callers must not modify it.
+     */
+    public Map<String, Double> getBrickWeights() {
+        return brickWeights;
+    }
+
+    /**
+     * Gets the overridden weight of destroying a brick without any power-up.
+     *
+     * @return The weight, or null to keep the standard one.
+     */
+    public Double getNoPowerUpWeight() {
+        return noPowerUpWeight;
+    }
+
+    /**
+     * Checks whether the user paddle follows the ball.
+     *
+     * @return true if the paddle follows the ball, false otherwise.
+     */
+    public boolean isBallFollowing() {
+        return ballFollowing;
+    }
+
+    @Override
+    public String toString() {
+        return label + " " + numRows + "x" + bricksPerRow + " seed=" + seed;
+    }
+}
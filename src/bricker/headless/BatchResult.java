@@ -0,0 +1,68 @@
+package bricker.headless;
+
+/**
+ * BatchResult holds the outcome of one game of a batch run, together with the counters the batch
+ * aggregates.
+ */
+public class BatchResult {
+    private final BatchJob job;
+    private final SimulationResult simulation;
+    private final long numPucksSpawned;
+    private final int numLivesLost;
+
+    /**
+     * Constructs a new BatchResult.
+     *
+     * @param job             The job that was run.
+     * @param simulation      The outcome and timing of the game.
+     * @param numPucksSpawned The number of pucks spawned during the game.
+     * @param numLivesLost    The number of lives lost during the game.
+     */
+    public BatchResult(BatchJob job, SimulationResult simulation, long numPucksSpawned, int numLivesLost) {
+        this.job = job;
+        this.simulation = simulation;
+        this.numPucksSpawned = numPucksSpawned;
+        this.numLivesLost = numLivesLost;
+    }
+
+    /**
+     * Gets the job that was run.
+     *
+     * @return The job.
+     */
+    public BatchJob getJob() {
+        return job;
+    }
+
+    /**
+     * Gets the outcome and timing of the game.
+     *
+     * @return The simulation result.
+     */
+    public SimulationResult getSimulation() {
+        return simulation;
+    }
+
+    /**
+     * Gets the number of pucks spawned during the game.
+     *
+     * @return The number of spawned pucks.
+     */
+    public long getNumPucksSpawned() {
+        return numPucksSpawned;
+    }
+
+    /**
+     * Gets the number of lives lost during the game.
+     *
+     * @return The number of lost lives.
+     */
+    public int getNumLivesLost() {
+        return numLivesLost;
+    }
+
+    @Override
+    public String toString() {
+        return job + " " + simulation + " pucks=" + numPucksSpawned + " livesLost=" + numLivesLost;
+    }
+}
@@ -0,0 +1,166 @@
+package bricker.headless;
+
+/**
+ * BatchSummary aggregates the results of the games of a batch run: how many were won, lost or hit
+ * their frame limit, how many frames the won games took to clear their wall, and how many pucks were
+ * spawned and lives lost over all the games. A summary is filled by a single thread.
+ */
+public class BatchSummary {
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private int numGames;
+    private int numWins;
+    private int numLosses;
+    private long framesToClear;
+    private int minFramesToClear;
+    private int maxFramesToClear;
+    private long numFrames;
+    private long numPucksSpawned;
+    private long numLivesLost;
+    private long gameNanos;
+
+    /**
+     * Constructs a new, empty BatchSummary.
+     */
+    public BatchSummary() {
+        this.minFramesToClear = Integer.MAX_VALUE;
+        this.maxFramesToClear = 0;
+    }
+
+    /**
+     * Adds the result of a game.
+     *
+     * @param result The result to add.
+     */
+    public void add(BatchResult result) {
+        SimulationResult simulation = result.getSimulation();
+        numGames++;
+        if (simulation.isWin()) {
+            numWins++;
+            framesToClear += simulation.getNumFrames();
+            minFramesToClear = Math.min(minFramesToClear, simulation.getNumFrames());
+            maxFramesToClear = Math.max(maxFramesToClear, simulation.getNumFrames());
+        } else if (simulation.isGameOver()) {
+            numLosses++;
+        }
+        numFrames += simulation.getNumFrames();
+        numPucksSpawned += result.getNumPucksSpawned();
+        numLivesLost += result.getNumLivesLost();
+        gameNanos += simulation.getWallNanos();
+    }
+
+    /**
+     * Gets the number of games added.
+     *
+     * @return The number of games.
+     */
+    public int getNumGames() {
+        return numGames;
+    }
+
+    /**
+     * Gets the number of games that were won.
+     *
+     * @return The number of wins.
+     */
+    public int getNumWins() {
+        return numWins;
+    }
+
+    /**
+     * Gets the number of games that were lost.
+     *
+     * @return The number of losses.
+     */
+    public int getNumLosses() {
+        return numLosses;
+    }
+
+    /**
+     * Gets the number of games that hit their frame limit before ending.
+     *
+     * @return The number of unfinished games.
+     */
+    public int getNumUnfinished() {
+        return numGames - numWins - numLosses;
+    }
+
+    /**
+     * Gets the mean number of frames the won games took to clear their wall.
+     *
+     * @return The mean frames to clear, or 0 if no game was won.
+     */
+    public double getMeanFramesToClear() {
+        return numWins == 0 ? 0 : (double) framesToClear / numWins;
+    }
+
+    /**
+     * Gets the number of frames the fastest won game took to clear its wall.
+     *
+     * @return The minimal frames to clear, or 0 if no game was won.
+     */
+    public int getMinFramesToClear() {
+        return numWins == 0 ? 0 : minFramesToClear;
+    }
+
+    /**
+     * Gets the number of frames the slowest won game took to clear its wall.
+     *
+     * @return The maximal frames to clear, or 0 if no game was won.
+     */
+    public int getMaxFramesToClear() {
+        return maxFramesToClear;
+    }
+
+    /**
+     * Gets the number of frames simulated over all the games.
+     *
+     * @return The total number of frames.
+     */
+    public long getNumFrames() {
+        return numFrames;
+    }
+
+    /**
+     * Gets the number of pucks spawned over all the games.
+     *
+     * @return The total number of spawned pucks.
+     */
+    public long getNumPucksSpawned() {
+        return numPucksSpawned;
+    }
+
+    /**
+     * Gets the number of lives lost over all the games.
+     *
+     * @return The total number of lost lives.
+     */
+    public long getNumLivesLost() {
+        return numLivesLost;
+    }
+
+    /**
+     * Gets the wall-clock time the games took, added up over the games. With games running in
+     * parallel it is longer than the time the batch took.
+     *
+     * @return The total game time, in nanoseconds.
+     */
+    public long getGameNanos() {
+        return gameNanos;
+    }
+
+    /**
+     * Formats the summary as a one line report.
+     *
+     * @return A human readable summary of the games.
+     */
+    @Override
+    public String toString() {
+        return String.format("games=%d wins=%d losses=%d unfinished=%d framesToClear=%.0f (min=%d max=%d) "
+                        + "pucks=%.2f/game livesLost=%.2f/game frames=%d gameTime=%.2fs", numGames, numWins,
+                numLosses, getNumUnfinished(), getMeanFramesToClear(), getMinFramesToClear(),
+                maxFramesToClear, numGames == 0 ? 0 : (double) numPucksSpawned / numGames,
+                numGames == 0 ? 0 : (double) numLivesLost / numGames, numFrames,
+                gameNanos / NANOS_PER_SECOND);
+    }
+}
@@ -0,0 +1,45 @@
+package bricker.headless;
+
+import danogl.gui.ImageReader;
+import danogl.gui.WindowController;
+import danogl.gui.rendering.ImageRenderable;
+
+/**
+ * HeadlessImageReader is an ImageReader that never touches the disk or AWT.
+ * Every image request returns null, which game objects treat as "not rendered".
+ */
+public class HeadlessImageReader extends ImageReader {
+    private int numReads;
+
+    /**
+     * Constructs a new HeadlessImageReader.
+     *
+     * @param windowController The (stub) window controller of the simulation.
+     */
+    public HeadlessImageReader(WindowController windowController) {
+        super(windowController);
+        this.numReads = 0;
+    }
+
+    /**
+     * Skips decoding the image and returns no renderable.
+     *
+     * @param imageFilePath The path of the image that would have been read.
+     * @param topLeftPixelIsTransparent Ignored.
+     * @return Always null.
+     */
+    @Override
+    public ImageRenderable readImage(String imageFilePath, boolean topLeftPixelIsTransparent) {
+        this.numReads++;
+        return null;
+    }
+
+    /**
+     * Gets the number of images that were requested from this reader.
+     *
+     * @return The number of readImage calls.
+     */
+    public int getNumReads() {
+        return numReads;
+    }
+}
@@ -0,0 +1,44 @@
+package bricker.headless;
+
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.WindowController;
+
+/**
+ * HeadlessSoundReader is a SoundReader that never opens an audio device.
+ * Every sound request returns null, which game objects treat as silence.
+ */
+public class HeadlessSoundReader extends SoundReader {
+    private int numReads;
+
+    /**
+     * Constructs a new HeadlessSoundReader.
+     *
+     * @param windowController The (stub) window controller of the simulation.
+     */
+    public HeadlessSoundReader(WindowController windowController) {
+        super(windowController);
+        this.numReads = 0;
+    }
+
+    /**
+     * Skips decoding the sound and returns no sound.
+     *
+     * @param soundFilePath The path of the sound that would have been read.
+     * @return Always null.
+     */
+    @Override
+    public Sound readSound(String soundFilePath) {
+        this.numReads++;
+        return null;
+    }
+
+    /**
+     * Gets the number of sounds that were requested from this reader.
+     *
+     * @return The number of readSound calls.
+     */
+    public int getNumReads() {
+        return numReads;
+    }
+}
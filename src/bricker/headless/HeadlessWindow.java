@@ -0,0 +1,170 @@
+package bricker.headless;
+
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.util.Vector2;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * HeadlessWindow stands in for the real game window when the game is simulated without a display.
+ * It hands out a WindowController and a UserInputListener that never create any AWT resources:
+ * yes/no dialogs are answered from a list of answers set in advance, e.g. the answers recorded with a
+ * replayed game, and with "no" once the list is used up; closing the window only marks the simulation
+ * as finished, and no key is ever pressed.
+ */
+public class HeadlessWindow {
+    private final Vector2 windowDimensions;
+    private final WindowController windowController;
+    private final UserInputListener inputListener;
+    private boolean closed;
+    private boolean resetRequested;
+    private String lastPrompt;
+    private boolean[] dialogAnswers;
+    private int numDialogsAnswered;
+
+    /**
+     * Constructs a new HeadlessWindow.
+     *
+     * @param windowDimensions The dimensions the simulated window reports.
+     */
+    public HeadlessWindow(Vector2 windowDimensions) {
+        this.windowDimensions = windowDimensions;
+        this.closed = false;
+        this.resetRequested = false;
+        this.lastPrompt = null;
+        this.dialogAnswers = new boolean[0];
+        this.numDialogsAnswered = 0;
+        this.windowController = (WindowController) Proxy.newProxyInstance(
+                WindowController.class.getClassLoader(),
+                new Class<?>[]{WindowController.class}, this::handleWindowCall);
+        this.inputListener = (UserInputListener) Proxy.newProxyInstance(
+                UserInputListener.class.getClassLoader(),
+                new Class<?>[]{UserInputListener.class}, HeadlessWindow::defaultValue);
+    }
+
+    /**
+     * Gets the stub window controller.
+     *
+     * @return A WindowController that does not open a window.
+     */
+    public WindowController getWindowController() {
+        return windowController;
+    }
+
+    /**
+     * Gets the stub input listener.
+     *
+     * @return A UserInputListener on which no key is ever pressed.
+     */
+    public UserInputListener getInputListener() {
+        return inputListener;
+    }
+
+    /**
+     * Checks whether the game asked to close the window.
+     *
+     * @return true if closeWindow was called, false otherwise.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Checks whether the game asked the window to restart it.
+     *
+     * @return true if resetGame was called, false otherwise.
+     */
+    public boolean isResetRequested() {
+        return resetRequested;
+    }
+
+    /**
+     * Gets the last prompt the game tried to show in a yes/no dialog.
+     *
+     * @return The last dialog prompt, or null if no dialog was opened.
+     */
+    public String getLastPrompt() {
+        return lastPrompt;
+    }
+
+    /**
+     * Sets the answers of the next yes/no dialogs, in the order they are opened. Dialogs opened after
+     * the answers are used up are answered with "no".
+     *
+     * @param answers The answers, true for "yes".
+     */
+    public void setDialogAnswers(boolean[] answers) {
+        this.dialogAnswers = answers.clone();
+        this.numDialogsAnswered = 0;
+    }
+
+    /**
+     * Opens the window again after the game closed it, and forgets the last reset request and prompt,
+     * so a game restarted in place can be simulated again.
+     */
+    public void reopen() {
+        this.closed = false;
+        this.resetRequested = false;
+        this.lastPrompt = null;
+    }
+
+    private Object handleWindowCall(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getWindowDimensions":
+                return windowDimensions;
+            case "openYesNoDialog":
+                this.lastPrompt = (String) args[0];
+                return numDialogsAnswered < dialogAnswers.length && dialogAnswers[numDialogsAnswered++];
+            case "closeWindow":
+                this.closed = true;
+                return null;
+            case "resetGame":
+                this.resetRequested = true;
+                return null;
+            default:
+                return defaultValue(proxy, method, args);
+        }
+    }
+
+    private static Object defaultValue(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return HeadlessWindow.class.getSimpleName();
+            default:
+                break;
+        }
+        Class<?> returnType = method.getReturnType();
+        if (returnType == boolean.class) {
+            return false;
+        }
+        if (returnType == int.class) {
+            return 0;
+        }
+        if (returnType == short.class) {
+            return (short) 0;
+        }
+        if (returnType == byte.class) {
+            return (byte) 0;
+        }
+        if (returnType == long.class) {
+            return 0L;
+        }
+        if (returnType == float.class) {
+            return 0f;
+        }
+        if (returnType == double.class) {
+            return 0d;
+        }
+        if (returnType == char.class) {
+            return '\0';
+        }
+        return null;
+    }
+}
@@ -0,0 +1,108 @@
+package bricker.headless;
+
+import static bricker.main.Constants.*;
+
+/**
+ * SimulationResult holds the outcome and the timing of a single headless simulation run.
+ */
+public class SimulationResult {
+    private static final double NANOS_PER_SECOND = 1e9;
+    private final int numFrames;
+    private final float deltaTime;
+    private final long wallNanos;
+    private final String finalPrompt;
+
+    /**
+     * Constructs a new SimulationResult.
+     *
+     * @param numFrames   The number of frames that were simulated.
+     * @param deltaTime   The fixed timestep of every frame, in seconds.
+     * @param wallNanos   The wall-clock time the run took, in nanoseconds.
+     * @param finalPrompt The end of game prompt, or null if the game did not end.
+     */
+    public SimulationResult(int numFrames, float deltaTime, long wallNanos, String finalPrompt) {
+        this.numFrames = numFrames;
+        this.deltaTime = deltaTime;
+        this.wallNanos = wallNanos;
+        this.finalPrompt = finalPrompt;
+    }
+
+    /**
+     * Gets the number of simulated frames.
+     *
+     * @return The number of frames.
+     */
+    public int getNumFrames() {
+        return numFrames;
+    }
+
+    /**
+     * Gets the amount of game time that was simulated.
+     *
+     * @return The simulated time, in seconds.
+     */
+    public double getSimulatedSeconds() {
+        return numFrames * (double) deltaTime;
+    }
+
+    /**
+     * Gets the wall-clock time of the run.
+     *
+     * @return The wall-clock time, in nanoseconds.
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Gets the number of frames simulated per wall-clock second.
+     *
+     * @return The simulated frames per second.
+     */
+    public double getSimulatedFramesPerSecond() {
+        if (wallNanos == 0) {
+            return 0;
+        }
+        return numFrames * NANOS_PER_SECOND / wallNanos;
+    }
+
+    /**
+     * Checks whether the game ended during the run.
+     *
+     * @return true if the game reached its end dialog, false if the frame limit was hit first.
+     */
+    public boolean isGameOver() {
+        return finalPrompt != null;
+    }
+
+    /**
+     * Checks whether the game ended with a win.
+     *
+     * @return true if the end dialog announced a win, false otherwise.
+     */
+    public boolean isWin() {
+        return finalPrompt != null && finalPrompt.startsWith(WINNING_PROMPT);
+    }
+
+    /**
+     * Gets the end of game prompt.
+     *
+     * @return The prompt of the end dialog, or null if the game did not end.
+     */
+    public String getFinalPrompt() {
+        return finalPrompt;
+    }
+
+    /**
+     * Formats the result as a one line report.
+     *
+     * @return A human readable summary of the run.
+     */
+    @Override
+    public String toString() {
+        String outcome = isGameOver() ? (isWin() ? "win" : "loss") : "unfinished";
+        return String.format("frames=%d simulated=%.1fs wall=%.3fs simulatedFps=%.0f outcome=%s",
+                numFrames, getSimulatedSeconds(), wallNanos / NANOS_PER_SECOND,
+                getSimulatedFramesPerSecond(), outcome);
+    }
+}
@@ -0,0 +1,71 @@
+package bricker.input;
+
+/**
+ * ActionInputSource lets a program move the user paddle by choosing an action before every frame,
+ * instead of pressing keys. The action is one of NONE, LEFT and RIGHT, and stays in effect until it
+ * is changed; every poll turns it into the arrow key bit the paddle reads from the frame input.
+ */
+public class ActionInputSource implements InputSource {
+    /**
+     * The action that leaves the paddle in place.
+     */
+    public static final int NONE = 0;
+
+    /**
+     * The action that moves the paddle to the left.
+     */
+    public static final int LEFT = 1;
+
+    /**
+     * The action that moves the paddle to the right.
+     */
+    public static final int RIGHT = 2;
+
+    /**
+     * The number of actions.
+     */
+    public static final int NUM_ACTIONS = 3;
+
+    private static final int[] KEYS = {0, FrameInput.LEFT, FrameInput.RIGHT};
+
+    private int action;
+
+    /**
+     * Constructs a new ActionInputSource whose action is NONE.
+     */
+    public ActionInputSource() {
+        this.action = NONE;
+    }
+
+    /**
+     * Sets the action of the next frames.
+     *
+     * @param action One of NONE, LEFT and RIGHT.
+     * @throws IllegalArgumentException If the action is not one of them.
+     */
+    public void setAction(int action) {
+        if (action < 0 || action >= NUM_ACTIONS) {
+            throw new IllegalArgumentException("no action " + action);
+        }
+        this.action = action;
+    }
+
+    /**
+     * Gets the action of the next frames.
+     *
+     * @return One of NONE, LEFT and RIGHT.
+     */
+    public int getAction() {
+        return action;
+    }
+
+    /**
+     * Presses the arrow key of the current action.
+     *
+     * @return The keys pressed in the new frame, as a bitmask of FrameInput bits.
+     */
+    @Override
+    public int poll() {
+        return KEYS[action];
+    }
+}
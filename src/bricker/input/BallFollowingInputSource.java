@@ -0,0 +1,65 @@
+package bricker.input;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.Paddle;
+import bricker.main.BrickerGameManager;
+
+/**
+ * BallFollowingInputSource plays the game without a user: every frame it holds the arrow key that
+ * moves the user paddle under the main ball, and no key once the paddle is close enough. It lets
+ * headless batch runs play games to their end instead of losing every ball.
+ * The source is created before its game, since the game takes its input source when it is built, and
+ * is pointed at the game once the game exists; until then no key is pressed.
+ */
+public class BallFollowingInputSource implements InputSource {
+    private static final float DEAD_ZONE = 15;
+
+    private BrickerGameManager game;
+
+    /**
+     * Constructs a new BallFollowingInputSource that does not follow any game yet.
+     */
+    public BallFollowingInputSource() {
+        this.game = null;
+    }
+
+    /**
+     * Sets the game whose ball is followed.
+     *
+     * @param game The game, after it was initialized.
+     */
+    public void follow(BrickerGameManager game) {
+        this.game = game;
+    }
+
+    /**
+     * Presses the arrow key towards the main ball.
+     *
+     * @return The keys pressed in the new frame, as a bitmask of FrameInput bits.
+     */
+    @Override
+    public int poll() {
+        if (game == null || game.getBall() == null) {
+            return 0;
+        }
+        Ball ball = game.getBall();
+        Paddle paddle = game.getUserPaddle();
+        return keysToward(paddle.getCenter().x(), ball.getCenter().x());
+    }
+
+    /**
+     * Gets the arrow key that moves a paddle towards a target, e.g. the ball, or no key once the
+     * paddle's center is within DEAD_ZONE of it.
+     *
+     * @param paddleX The horizontal position of the paddle's center.
+     * @param targetX The horizontal position of the target.
+     * @return The keys to press, as a bitmask of FrameInput bits.
+     */
+    public static int keysToward(float paddleX, float targetX) {
+        float offset = targetX - paddleX;
+        if (offset > DEAD_ZONE) {
+            return FrameInput.RIGHT;
+        }
+        return offset < -DEAD_ZONE ? FrameInput.LEFT : 0;
+    }
+}
@@ -0,0 +1,82 @@
+package bricker.input;
+
+/**
+ * FrameInput holds the state of the game's keys for the current frame as a small bitmask.
+ * It is sampled once per frame from an InputSource, and game objects read it instead of querying the
+ * keyboard themselves, so a frame's input can be recorded, replayed or supplied by a program.
+ */
+public class FrameInput {
+    /**
+     * Bit of the left arrow key.
+     */
+    public static final int LEFT = 1;
+
+    /**
+     * Bit of the right arrow key.
+     */
+    public static final int RIGHT = 1 << 1;
+
+    /**
+     * Bit of the win key.
+     */
+    public static final int WIN = 1 << 2;
+
+    /**
+     * Mask of all the bits used by the game.
+     */
+    public static final int ALL_KEYS = LEFT | RIGHT | WIN;
+
+    private int keys;
+
+    /**
+     * Constructs a new FrameInput with no key pressed.
+     */
+    public FrameInput() {
+        this.keys = 0;
+    }
+
+    /**
+     * Sets the keys pressed in the current frame.
+     *
+     * @param keys A bitmask of LEFT, RIGHT and WIN.
+     */
+    public void set(int keys) {
+        this.keys = keys & ALL_KEYS;
+    }
+
+    /**
+     * Gets the keys pressed in the current frame.
+     *
+     * @return A bitmask of LEFT, RIGHT and WIN.
+     */
+    public int get() {
+        return keys;
+    }
+
+    /**
+     * Checks whether the left arrow key is pressed.
+     *
+     * @return true if the key is pressed, false otherwise.
+     */
+    public boolean isLeftPressed() {
+        return (keys & LEFT) != 0;
+    }
+
+    /**
+     * Checks whether the right arrow key is pressed.
+     *
+     * @return true if the key is pressed, false otherwise.
+     */
+    public boolean isRightPressed() {
+        return (keys & RIGHT) != 0;
+    }
+
+    /**
+     * Checks whether the win key is pressed.
+     *
+     * @return true if the key is pressed, false otherwise.
+     */
+    public boolean isWinPressed() {
+        return (keys & WIN) != 0;
+    }
+}
@@ -0,0 +1,306 @@
+package bricker.input;
+
+import bricker.level.LevelFile;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * InputRecording is everything needed to reproduce a game: the grid size, the random seed, the fixed
+ * timestep, the level the game was played on, the keys pressed in every frame and the answers given to
+ * the play-again dialog, which decide whether the game went on after it ended.
+ * The level is stored as the absolute path of its file and a checksum of the file, not as its cells, so
+ * a recording stays small even on a level of millions of cells; the level file must still be there,
+ * unchanged, when the game is replayed.
+ * The keys are delta encoded: an entry is only stored when the key state changes, as the number of
+ * frames since the previous change (a variable length integer) followed by the new key bits. A game
+ * in which the keys change a few times per second therefore costs a few bytes per second.
+ * Recordings of version 1, which had no answers, are still read; their game ends at its first end.
+ * Recordings of versions 1 and 2 were always played on a full grid.
+ */
+public class InputRecording {
+    private static final int MAGIC = 0x42524b52;
+    private static final byte VERSION = 3;
+    private static final byte FIRST_VERSION_WITH_ANSWERS = 2;
+    private static final byte FIRST_VERSION_WITH_LEVEL = 3;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = 0x7f;
+    private static final int VARINT_CONTINUATION = 0x80;
+
+    private final int numRows;
+    private final int bricksPerRow;
+    private final long seed;
+    private final float deltaTime;
+    private byte[] data;
+    private int dataLength;
+    private int numFrames;
+    private int lastKeys;
+    private int lastChangeFrame;
+    private boolean[] answers;
+    private int numAnswers;
+    private String levelPath;
+    private long levelChecksum;
+
+    /**
+     * Constructs a new, empty InputRecording.
+     *
+     * @param numRows      The number of rows of bricks of the recorded game.
+     * @param bricksPerRow The number of bricks per row of the recorded game.
+     * @param seed         The random seed of the recorded game.
+     * @param deltaTime    The fixed timestep of a recorded frame, in seconds.
+     */
+    public InputRecording(int numRows, int bricksPerRow, long seed, float deltaTime) {
+        this.numRows = numRows;
+        this.bricksPerRow = bricksPerRow;
+        this.seed = seed;
+        this.deltaTime = deltaTime;
+        this.data = new byte[INITIAL_CAPACITY];
+        this.dataLength = 0;
+        this.numFrames = 0;
+        this.lastKeys = 0;
+        this.lastChangeFrame = 0;
+        this.answers = new boolean[1];
+        this.numAnswers = 0;
+        this.levelPath = null;
+        this.levelChecksum = 0;
+    }
+
+    /**
+     * Sets the level the recorded game is played on.
+     *
+     * @param level The level, or null for a full grid.
+     */
+    public void setLevel(LevelFile level) {
+        this.levelPath = level == null ? null : level.getPath().toString();
+        this.levelChecksum = level == null ? 0 : level.checksum();
+    }
+
+    /**
+     * Gets the path of the level the recorded game was played on.
+     *
+     * @return The absolute path of the level file, or null if the game was played on a full grid.
+     */
+    public String getLevelPath() {
+        return levelPath;
+    }
+
+    /**
+     * Opens the level the recorded game was played on.
+     *
+     * @return The level, or null if the game was played on a full grid.
+     * @throws IOException If the level file cannot be opened or changed since the game was recorded.
+     */
+    public LevelFile openLevel() throws IOException {
+        if (levelPath == null) {
+            return null;
+        }
+        LevelFile level = LevelFile.open(Paths.get(levelPath));
+        if (level.checksum() != levelChecksum) {
+            throw new IOException("the level changed since the game was recorded: " + levelPath);
+        }
+        return level;
+    }
+
+    /**
+     * Appends the keys of the next frame to the recording.
+     *
+     * @param keys The keys pressed in the frame, as a bitmask of FrameInput bits.
+     */
+    public void append(int keys) {
+        if (keys != lastKeys) {
+            writeVarInt(numFrames - lastChangeFrame);
+            writeByte(keys);
+            lastKeys = keys;
+            lastChangeFrame = numFrames;
+        }
+        numFrames++;
+    }
+
+    /**
+     * Appends the answer to a play-again dialog, opened when the recorded game ended.
+     *
+     * @param playAgain true if the game was played again, false if the window was closed.
+     */
+    public void appendAnswer(boolean playAgain) {
+        if (numAnswers == answers.length) {
+            answers = Arrays.copyOf(answers, answers.length * 2);
+        }
+        answers[numAnswers++] = playAgain;
+    }
+
+    /**
+     * Gets the answers to the play-again dialogs, in the order the dialogs were opened.
+     *
+     * @return A copy of the answers.
+     */
+    public boolean[] getAnswers() {
+        return Arrays.copyOf(answers, numAnswers);
+    }
+
+    /**
+     * Gets the number of rows of bricks of the recorded game.
+     *
+     * @return The number of rows.
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Gets the number of bricks per row of the recorded game.
+     *
+     * @return The number of bricks per row.
+     */
+    public int getBricksPerRow() {
+        return bricksPerRow;
+    }
+
+    /**
+     * Gets the random seed of the recorded game.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the fixed timestep of a recorded frame.
+     *
+     * @return The timestep, in seconds.
+     */
+    public float getDeltaTime() {
+        return deltaTime;
+    }
+
+    /**
+     * Gets the number of recorded frames.
+     *
+     * @return The number of frames.
+     */
+    public int getNumFrames() {
+        return numFrames;
+    }
+
+    /**
+     * Gets the size of the encoded key stream.
+     *
+     * @return The number of bytes used by the key changes.
+     */
+    public int getEncodedSize() {
+        return dataLength;
+    }
+
+    /**
+     * Creates a source that plays the recorded keys back, one frame per poll.
+     *
+     * @return A new ReplayInputSource positioned at the first frame.
+     */
+    public ReplayInputSource replay() {
+        return new ReplayInputSource(data, dataLength, numFrames);
+    }
+
+    /**
+     * Writes the recording.
+     *
+     * @param outputStream The stream to write to. It is not closed.
+     * @throws IOException If writing fails.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(numRows);
+        out.writeInt(bricksPerRow);
+        out.writeLong(seed);
+        out.writeFloat(deltaTime);
+        out.writeInt(numFrames);
+        out.writeInt(dataLength);
+        out.write(data, 0, dataLength);
+        out.writeInt(numAnswers);
+        for (int i = 0; i < numAnswers; i++) {
+            out.writeBoolean(answers[i]);
+        }
+        out.writeBoolean(levelPath != null);
+        if (levelPath != null) {
+            out.writeUTF(levelPath);
+            out.writeLong(levelChecksum);
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a recording written by writeTo.
+     *
+     * @param inputStream The stream to read from. It is not closed.
+     * @return The recording.
+     * @throws IOException If reading fails or the stream does not hold a recording.
+     */
+    public static InputRecording readFrom(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a Bricker input recording");
+        }
+        byte version = in.readByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("unsupported input recording version " + version);
+        }
+        InputRecording recording = new InputRecording(in.readInt(), in.readInt(), in.readLong(),
+                in.readFloat());
+        recording.numFrames = in.readInt();
+        recording.dataLength = in.readInt();
+        recording.data = new byte[Math.max(INITIAL_CAPACITY, recording.dataLength)];
+        in.readFully(recording.data, 0, recording.dataLength);
+        if (version >= FIRST_VERSION_WITH_ANSWERS) {
+            int numAnswers = in.readInt();
+            for (int i = 0; i < numAnswers; i++) {
+                recording.appendAnswer(in.readBoolean());
+            }
+        }
+        if (version >= FIRST_VERSION_WITH_LEVEL && in.readBoolean()) {
+            recording.levelPath = in.readUTF();
+            recording.levelChecksum = in.readLong();
+        }
+        return recording;
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~VARINT_PAYLOAD_MASK) != 0) {
+            writeByte((value & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION);
+            value >>>= VARINT_PAYLOAD_BITS;
+        }
+        writeByte(value);
+    }
+
+    private void writeByte(int value) {
+        if (dataLength == data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        data[dataLength++] = (byte) value;
+    }
+
+    /**
+     * Reads a variable length integer written by writeVarInt.
+     *
+     * @param data     The encoded data.
+     * @param position The position of the first byte of the integer.
+     * @return The decoded value in the low 32 bits and the position after it in the high 32 bits.
+     */
+    static long readVarInt(byte[] data, int position) {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = data[position++];
+            value |= (b & VARINT_PAYLOAD_MASK) << shift;
+            shift += VARINT_PAYLOAD_BITS;
+        } while ((b & VARINT_CONTINUATION) != 0);
+        return ((long) position << 32) | (value & 0xffffffffL);
+    }
+}
@@ -0,0 +1,13 @@
+package bricker.input;
+
+/**
+ * InputSource is an interface that defines where the key states of every frame come from.
+ */
+public interface InputSource {
+    /**
+     * This method is called once at the start of every frame.
+     *
+     * @return The keys pressed in the new frame, as a bitmask of FrameInput bits.
+     */
+    int poll();
+}
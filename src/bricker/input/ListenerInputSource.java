@@ -0,0 +1,42 @@
+package bricker.input;
+
+import danogl.gui.UserInputListener;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * ListenerInputSource reads the game's keys from the keyboard through a UserInputListener.
+ */
+public class ListenerInputSource implements InputSource {
+    private static final char WIN_KEY = 'W';
+    private final UserInputListener inputListener;
+
+    /**
+     * Constructs a new ListenerInputSource.
+     *
+     * @param inputListener An instance of UserInputListener to listen for keyboard inputs.
+     */
+    public ListenerInputSource(UserInputListener inputListener) {
+        this.inputListener = inputListener;
+    }
+
+    /**
+     * Reads the left arrow, right arrow and win keys.
+     *
+     * @return The keys currently pressed, as a bitmask of FrameInput bits.
+     */
+    @Override
+    public int poll() {
+        int keys = 0;
+        if (inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
+            keys |= FrameInput.LEFT;
+        }
+        if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
+            keys |= FrameInput.RIGHT;
+        }
+        if (inputListener.isKeyPressed(WIN_KEY)) {
+            keys |= FrameInput.WIN;
+        }
+        return keys;
+    }
+}
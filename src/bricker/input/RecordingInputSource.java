@@ -0,0 +1,42 @@
+package bricker.input;
+
+/**
+ * RecordingInputSource passes the keys of another InputSource through unchanged while appending them to
+ * an InputRecording.
+ */
+public class RecordingInputSource implements InputSource {
+    private final InputSource source;
+    private final InputRecording recording;
+
+    /**
+     * Constructs a new RecordingInputSource.
+     *
+     * @param source    The source whose keys are recorded.
+     * @param recording The recording the keys are appended to.
+     */
+    public RecordingInputSource(InputSource source, InputRecording recording) {
+        this.source = source;
+        this.recording = recording;
+    }
+
+    /**
+     * Polls the wrapped source and records its keys.
+     *
+     * @return The keys of the wrapped source.
+     */
+    @Override
+    public int poll() {
+        int keys = source.poll();
+        recording.append(keys);
+        return keys;
+    }
+
+    /**
+     * Gets the recording the keys are appended to.
+     *
+     * @return The recording.
+     */
+    public InputRecording getRecording() {
+        return recording;
+    }
+}
@@ -0,0 +1,72 @@
+package bricker.input;
+
+/**
+ * ReplayInputSource plays back the keys of an InputRecording, one frame per poll.
+ * After the last recorded frame no key is pressed.
+ */
+public class ReplayInputSource implements InputSource {
+    private final byte[] data;
+    private final int dataLength;
+    private final int numFrames;
+    private int position;
+    private int frame;
+    private int keys;
+    private int nextChangeFrame;
+    private int nextKeys;
+
+    /**
+     * Constructs a new ReplayInputSource over an encoded key stream.
+     *
+     * @param data       The delta encoded key changes.
+     * @param dataLength The number of valid bytes in data.
+     * @param numFrames  The number of recorded frames.
+     */
+    ReplayInputSource(byte[] data, int dataLength, int numFrames) {
+        this.data = data;
+        this.dataLength = dataLength;
+        this.numFrames = numFrames;
+        this.position = 0;
+        this.frame = 0;
+        this.keys = 0;
+        this.nextChangeFrame = 0;
+        readNextChange();
+    }
+
+    /**
+     * Plays back the keys of the next recorded frame.
+     *
+     * @return The recorded keys, as a bitmask of FrameInput bits.
+     */
+    @Override
+    public int poll() {
+        if (frame == nextChangeFrame) {
+            keys = nextKeys;
+            readNextChange();
+        }
+        if (frame >= numFrames) {
+            keys = 0;
+        }
+        frame++;
+        return keys;
+    }
+
+    /**
+     * Checks whether every recorded frame was played back.
+     *
+     * @return true if the replay is over, false otherwise.
+     */
+    public boolean isFinished() {
+        return frame >= numFrames;
+    }
+
+    private void readNextChange() {
+        if (position >= dataLength) {
+            nextChangeFrame = -1;
+            return;
+        }
+        long varInt = InputRecording.readVarInt(data, position);
+        position = (int) (varInt >>> 32);
+        nextChangeFrame += (int) varInt;
+        nextKeys = data[position++];
+    }
+}
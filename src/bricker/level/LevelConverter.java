@@ -0,0 +1,57 @@
+package bricker.level;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static bricker.main.Constants.DEFAULT_BRICKS_PER_ROW;
+import static bricker.main.Constants.DEFAULT_NUM_ROWS;
+
+/**
+ * LevelConverter writes the levels the game used to build from its grid parameters as level files:
+ * a full wall of numRows by bricksPerRow regular bricks, all applying the game's own collision
+ * strategy. Loading the converted file plays exactly like the built-in grid of the same size.
+ */
+public class LevelConverter {
+
+    private LevelConverter() {
+    }
+
+    /**
+     * Writes the level of a full grid of bricks.
+     *
+     * @param numRows      The number of rows of bricks.
+     * @param bricksPerRow The number of bricks per row.
+     * @param path         The path of the level file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void convertGrid(int numRows, int bricksPerRow, Path path) throws IOException {
+        byte[] cells = new byte[Math.multiplyExact(numRows, bricksPerRow)];
+        Arrays.fill(cells, LevelFile.packCell(LevelFile.BRICK, LevelFile.DEFAULT_STRATEGY));
+        LevelFile.write(path, numRows, bricksPerRow, cells);
+    }
+
+    /**
+     * Converts grid parameters into a level file.
+     *
+     * @param args args[0] is the path of the level file. Optionally, args[1] is the number of rows and
+     *             args[2] the number of bricks per row; the game's defaults are used otherwise.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: LevelConverter <level file> [rows bricksPerRow]");
+            return;
+        }
+        int numRows = DEFAULT_NUM_ROWS;
+        int bricksPerRow = DEFAULT_BRICKS_PER_ROW;
+        if (args.length >= 3) {
+            numRows = Integer.parseInt(args[1]);
+            bricksPerRow = Integer.parseInt(args[2]);
+        }
+        Path path = Paths.get(args[0]);
+        convertGrid(numRows, bricksPerRow, path);
+        System.out.printf("wrote %dx%d level to %s%n", numRows, bricksPerRow, path);
+    }
+}
@@ -0,0 +1,248 @@
+package bricker.level;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+/**
+ * LevelFile is a brick wall stored in a compact binary file and read through a memory mapping.
+ * The file is a fixed header (magic, version, number of rows and bricks per row) followed by one byte
+ * per cell in row major order. The low four bits of a cell hold its brick type and the high four bits
+ * the id of the strategy applied when the brick is hit.
+ * Opening a level maps the file and checks its header, without reading the cells, so even levels with
+ * millions of cells open at once; a cell is only read, and paged in by the operating system, when the
+ * game asks for it.
+ */
+public class LevelFile {
+    /**
+     * The brick type of a cell without a brick.
+     */
+    public static final int EMPTY = 0;
+
+    /**
+     * The brick type of a cell with a regular brick.
+     */
+    public static final int BRICK = 1;
+
+    /**
+     * The strategy id of a brick that applies the game's own collision strategy.
+     */
+    public static final int DEFAULT_STRATEGY = 0;
+
+    /**
+     * The largest strategy id a cell can hold.
+     */
+    public static final int MAX_STRATEGY_ID = 15;
+
+    private static final int MAGIC = 0x42524b4c;
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int NUM_ROWS_OFFSET = 8;
+    private static final int BRICKS_PER_ROW_OFFSET = 12;
+    private static final int TYPE_BITS = 4;
+    private static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+    private static final long LOW_NIBBLES = 0x0f0f0f0f0f0f0f0fL;
+    private static final long NIBBLE_CARRIES = 0x1010101010101010L;
+    private static final long GATHER_BYTE_BITS = 0x0102040810204080L;
+    private static final int GATHERED_SHIFT = Long.SIZE - Byte.SIZE;
+    private static final int BYTE_MASK = 0xff;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int numRows;
+    private final int bricksPerRow;
+
+    private LevelFile(Path path, MappedByteBuffer buffer, int numRows, int bricksPerRow) {
+        this.path = path;
+        this.buffer = buffer;
+        this.numRows = numRows;
+        this.bricksPerRow = bricksPerRow;
+    }
+
+    /**
+     * Opens a level file by mapping it into memory.
+     *
+     * @param path The path of the level file.
+     * @return The mapped level.
+     * @throws IOException If the file cannot be read or is not a valid level file.
+     */
+    public static LevelFile open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("not a level file: " + path);
+            }
+            //the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+            throw new IOException("not a level file: " + path);
+        }
+        if (buffer.get(VERSION_OFFSET) != VERSION) {
+            throw new IOException("unsupported level version " + buffer.get(VERSION_OFFSET) + ": " + path);
+        }
+        int numRows = buffer.getInt(NUM_ROWS_OFFSET);
+        int bricksPerRow = buffer.getInt(BRICKS_PER_ROW_OFFSET);
+        if (numRows <= 0 || bricksPerRow <= 0
+                || (long) numRows * bricksPerRow != buffer.capacity() - HEADER_SIZE) {
+            throw new IOException("corrupt level file: " + path);
+        }
+        return new LevelFile(path.toAbsolutePath(), buffer, numRows, bricksPerRow);
+    }
+
+    /**
+     * Writes a level file.
+     *
+     * @param path         The path of the level file. Replaced if it exists.
+     * @param numRows      The number of rows of the level.
+     * @param bricksPerRow The number of cells in every row.
+     * @param cells        The packed cells of the level, in row major order, as made by packCell.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path path, int numRows, int bricksPerRow, byte[] cells) throws IOException {
+        if ((long) numRows * bricksPerRow != cells.length) {
+            throw new IllegalArgumentException("expected " + (long) numRows * bricksPerRow + " cells, got "
+                    + cells.length);
+        }
+        try (OutputStream outputStream = Files.newOutputStream(path);
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream))) {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            output.write(new byte[NUM_ROWS_OFFSET - VERSION_OFFSET - 1]);
+            output.writeInt(numRows);
+            output.writeInt(bricksPerRow);
+            output.write(cells);
+        }
+    }
+
+    /**
+     * Packs a brick type and a strategy id into a cell.
+     *
+     * @param brickType  The brick type, EMPTY or BRICK.
+     * @param strategyId The strategy id, between DEFAULT_STRATEGY and MAX_STRATEGY_ID.
+     * @return The packed cell.
+     */
+    public static byte packCell(int brickType, int strategyId) {
+        if (brickType < 0 || brickType > TYPE_MASK || strategyId < 0 || strategyId > MAX_STRATEGY_ID) {
+            throw new IllegalArgumentException("cannot pack type " + brickType + " strategy " + strategyId);
+        }
+        return (byte) (strategyId << TYPE_BITS | brickType);
+    }
+
+    /**
+     * Gets the path the level was opened from.
+     *
+     * @return The absolute path of the level file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Computes a checksum of the whole level file, header and cells, e.g. to tell whether the file
+     * changed since a game was recorded on it. Every cell is read.
+     *
+     * @return The CRC-32 of the file.
+     */
+    public long checksum() {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().clear());
+        return crc.getValue();
+    }
+
+    /**
+     * Gets the number of rows of the level.
+     *
+     * @return The number of rows.
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Gets the number of cells in every row of the level.
+     *
+     * @return The number of bricks per row.
+     */
+    public int getBricksPerRow() {
+        return bricksPerRow;
+    }
+
+    /**
+     * Gets the number of cells of the level.
+     *
+     * @return The number of rows times the number of bricks per row.
+     */
+    public int getNumCells() {
+        return numRows * bricksPerRow;
+    }
+
+    /**
+     * Gets the brick type of a cell.
+     *
+     * @param cellIndex The row major index of the cell.
+     * @return The brick type, EMPTY or BRICK.
+     */
+    public int getBrickType(int cellIndex) {
+        return buffer.get(HEADER_SIZE + cellIndex) & TYPE_MASK;
+    }
+
+    /**
+     * Checks whether a cell holds a brick.
+     *
+     * @param cellIndex The row major index of the cell.
+     * @return true if the cell starts the game with a brick, false if it is empty.
+     */
+    public boolean isBrick(int cellIndex) {
+        return getBrickType(cellIndex) != EMPTY;
+    }
+
+    /**
+     * Reads which cells hold a brick, eight cells at a time.
+     * Every eight cells are read as one little endian long; adding 0x0f to the low nibble of every byte
+     * carries into bit 4 exactly when the brick type is not EMPTY, and a single multiplication gathers
+     * the eight carry bits into one byte of the result.
+     *
+     * @return A bitset in which bit i is set if cell i holds a brick.
+     */
+    public BitSet readBricks() {
+        int numCells = getNumCells();
+        ByteBuffer cells = buffer.slice(HEADER_SIZE, numCells).order(ByteOrder.LITTLE_ENDIAN);
+        long[] words = new long[(numCells + Long.SIZE - 1) / Long.SIZE];
+        int numFullLongs = numCells / Long.BYTES;
+        for (int i = 0; i < numFullLongs; i++) {
+            long types = cells.getLong(i * Long.BYTES) & LOW_NIBBLES;
+            long carries = ((types + LOW_NIBBLES) & NIBBLE_CARRIES) >>> TYPE_BITS;
+            long gathered = (carries * GATHER_BYTE_BITS) >>> GATHERED_SHIFT;
+            words[i / Long.BYTES] |= gathered << (i % Long.BYTES * Byte.SIZE);
+        }
+        for (int cell = numFullLongs * Long.BYTES; cell < numCells; cell++) {
+            if ((cells.get(cell) & TYPE_MASK) != EMPTY) {
+                words[cell / Long.SIZE] |= 1L << (cell % Long.SIZE);
+            }
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Gets the strategy id of a cell.
+     *
+     * @param cellIndex The row major index of the cell.
+     * @return The strategy id, between DEFAULT_STRATEGY and MAX_STRATEGY_ID.
+     */
+    public int getStrategyId(int cellIndex) {
+        return (buffer.get(HEADER_SIZE + cellIndex) & BYTE_MASK) >>> TYPE_BITS;
+    }
+}
@@ -0,0 +1,193 @@
+package bricker.main;
+
+import bricker.audio.AudioMixer;
+import bricker.audio.SoundEffect;
+import danogl.gui.ImageReader;
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.rendering.Renderable;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static bricker.main.Constants.*;
+
+/**
+ * AssetRegistry decodes every image and sound of the game once and hands out shared instances.
+ * Game objects that use the same asset share a single Renderable or Sound, so creating bricks,
+ * pucks and hearts never goes back to the disk.
+ * With an audio mixer, every sound is also decoded into PCM for the mixer, and its sound effect plays
+ * through the mixer instead of the danogl Sound.
+ * The registry keeps count of how many assets it decoded and how long decoding took.
+ */
+public class AssetRegistry {
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final String[] OPAQUE_IMAGES = {
+            ASSETS_BRICK_PNG, ASSETS_DARK_BG_2_SMALL_JPEG, ASSETS_PADDLE_PNG};
+    private static final String[] TRANSPARENT_IMAGES = {
+            ASSETS_HEART_PNG, ASSETS_BALL_PNG, ASSETS_MOCK_BALL_PNG};
+    private static final String[] SOUNDS = {ASSETS_BLOP_WAV};
+
+    private final ImageReader imageReader;
+    private final SoundReader soundReader;
+    private final Map<String, Renderable> images;
+    private final Map<String, Sound> sounds;
+    private final AudioMixer audioMixer;
+    private final Map<String, SoundEffect> soundEffects;
+    private int numImageLoads;
+    private int numSoundLoads;
+    private int numRequests;
+    private long loadNanos;
+
+    /**
+     * Constructs a new, empty AssetRegistry.
+     *
+     * @param imageReader The reader used to decode images.
+     * @param soundReader The reader used to decode sounds.
+     */
+    public AssetRegistry(ImageReader imageReader, SoundReader soundReader) {
+        this(imageReader, soundReader, null);
+    }
+
+    /**
+     * Constructs a new, empty AssetRegistry whose sound effects play through an audio mixer.
+     *
+     * @param imageReader The reader used to decode images.
+     * @param soundReader The reader used to decode sounds.
+     * @param audioMixer  The mixer sound effects are played by, or null to play the danogl Sounds.
+     */
+    public AssetRegistry(ImageReader imageReader, SoundReader soundReader, AudioMixer audioMixer) {
+        this.imageReader = imageReader;
+        this.soundReader = soundReader;
+        this.images = new HashMap<>();
+        this.sounds = new HashMap<>();
+        this.audioMixer = audioMixer;
+        this.soundEffects = new HashMap<>();
+        this.numImageLoads = 0;
+        this.numSoundLoads = 0;
+        this.numRequests = 0;
+        this.loadNanos = 0;
+    }
+
+    /**
+     * Decodes every image and sound asset of the game.
+     */
+    public void preload() {
+        for (String path : OPAQUE_IMAGES) {
+            loadImage(path, false);
+        }
+        for (String path : TRANSPARENT_IMAGES) {
+            loadImage(path, true);
+        }
+        for (String path : SOUNDS) {
+            loadSound(path);
+        }
+    }
+
+    /**
+     * Gets the shared renderable of an image asset, decoding it on first use.
+     *
+     * @param path                      The path of the image asset.
+     * @param topLeftPixelIsTransparent Whether the color of the top-left pixel is treated as transparent
+     *                                  when the image is decoded.
+     * @return The shared renderable of the image.
+     */
+    public Renderable getImage(String path, boolean topLeftPixelIsTransparent) {
+        numRequests++;
+        if (!images.containsKey(path)) {
+            loadImage(path, topLeftPixelIsTransparent);
+        }
+        return images.get(path);
+    }
+
+    /**
+     * Gets the shared instance of a sound asset, decoding it on first use.
+     *
+     * @param path The path of the sound asset.
+     * @return The shared sound.
+     */
+    public Sound getSound(String path) {
+        numRequests++;
+        if (!sounds.containsKey(path)) {
+            loadSound(path);
+        }
+        return sounds.get(path);
+    }
+
+    /**
+     * Gets the shared sound effect of a sound asset, decoding it on first use.
+     *
+     * @param path The path of the sound asset.
+     * @return The sound effect, played by the audio mixer if there is one, or null if the sound is
+     * silent.
+     */
+    public SoundEffect getSoundEffect(String path) {
+        numRequests++;
+        if (!sounds.containsKey(path)) {
+            loadSound(path);
+        }
+        return soundEffects.get(path);
+    }
+
+    /**
+     * Gets the number of assets that were decoded.
+     *
+     * @return The number of image and sound loads.
+     */
+    public int getNumLoads() {
+        return numImageLoads + numSoundLoads;
+    }
+
+    /**
+     * Gets the number of times an asset was requested from the registry.
+     *
+     * @return The number of getImage and getSound calls.
+     */
+    public int getNumRequests() {
+        return numRequests;
+    }
+
+    /**
+     * Gets the total time spent decoding assets.
+     *
+     * @return The decoding time, in nanoseconds.
+     */
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    /**
+     * Formats the load counts and timings as a one line report.
+     *
+     * @return A human readable summary of the asset loads.
+     */
+    @Override
+    public String toString() {
+        return String.format("assets: images=%d sounds=%d requests=%d loadTime=%.2fms",
+                numImageLoads, numSoundLoads, numRequests, loadNanos / NANOS_PER_MILLI);
+    }
+
+    private void loadImage(String path, boolean topLeftPixelIsTransparent) {
+        long start = System.nanoTime();
+        images.put(path, imageReader.readImage(path, topLeftPixelIsTransparent));
+        loadNanos += System.nanoTime() - start;
+        numImageLoads++;
+    }
+
+    private void loadSound(String path) {
+        long start = System.nanoTime();
+        Sound sound = soundReader.readSound(path);
+        sounds.put(path, sound);
+        soundEffects.put(path, sound == null ? null : sound::play);
+        if (audioMixer != null) {
+            try {
+                soundEffects.put(path, audioMixer.load(path));
+            } catch (IOException e) {
+                System.err.println("Playing " + path + " without the mixer: " + e.getMessage());
+            }
+        }
+        loadNanos += System.nanoTime() - start;
+        numSoundLoads++;
+    }
+}
@@ -0,0 +1,193 @@
+package bricker.main;
+
+import bricker.brick_strategies.PowerUpRegistry;
+import bricker.headless.BatchJob;
+import bricker.headless.BatchResult;
+import bricker.headless.BatchSummary;
+import bricker.headless.SimulationResult;
+import bricker.input.BallFollowingInputSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static bricker.main.Constants.*;
+
+/**
+ * BatchRunner plays many headless games in one JVM, in parallel, and aggregates their results.
+ * Every game is a HeadlessSimulation with its own game manager, window stub, random sources and
+ * objects; the games share only immutable constants and assets, so they need no locking and a game
+ * plays the same whether it runs alone or next to others.
+ * The games are scheduled on an executor: by default a work-stealing pool with one worker per core,
+ * since a game is CPU bound and never blocks. Any executor can be passed instead, e.g. one that runs
+ * every game on its own virtual thread. Either way only a bounded number of games is submitted at a
+ * time, so a batch of thousands of large grids does not hold all of them in memory at once.
+ */
+public class BatchRunner implements AutoCloseable {
+    private static final int IN_FLIGHT_PER_WORKER = 2;
+    private static final int DEFAULT_NUM_GAMES = 100;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final ExecutorService executor;
+    private final int maxInFlight;
+
+    /**
+     * Constructs a new BatchRunner on a work-stealing pool.
+     *
+     * @param parallelism The number of games played at the same time.
+     */
+    public BatchRunner(int parallelism) {
+        this(Executors.newWorkStealingPool(parallelism), parallelism * IN_FLIGHT_PER_WORKER);
+    }
+
+    /**
+     * Constructs a new BatchRunner on an executor. The runner shuts the executor down when it is
+     * closed.
+     *
+     * @param executor    The executor the games are played on.
+     * @param maxInFlight The maximal number of games submitted to the executor at a time.
+     */
+    public BatchRunner(ExecutorService executor, int maxInFlight) {
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Plays all the jobs and waits for them to end.
+     *
+     * @param jobs The jobs to play.
+     * @return The results, in the order of the jobs.
+     * @throws InterruptedException If the thread is interrupted while waiting for the games.
+     * @throws IllegalStateException If a game failed.
+     */
+    public List<BatchResult> run(List<BatchJob> jobs) throws InterruptedException {
+        BatchResult[] results = new BatchResult[jobs.size()];
+        CompletionService<Integer> completions = new ExecutorCompletionService<>(executor);
+        int numSubmitted = 0;
+        for (int numDone = 0; numDone < jobs.size(); numDone++) {
+            while (numSubmitted < jobs.size() && numSubmitted - numDone < maxInFlight) {
+                int index = numSubmitted++;
+                completions.submit(() -> {
+                    results[index] = play(jobs.get(index));
+                    return index;
+                });
+            }
+            try {
+                completions.take().get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("a batch game failed", e.getCause());
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Plays a single job on the calling thread.
+     *
+     * @param job The job to play.
+     * @return The result of the game.
+     * @throws IllegalArgumentException If the job sets the weight of a power-up that does not exist.
+     */
+    public static BatchResult play(BatchJob job) {
+        BallFollowingInputSource inputSource = job.isBallFollowing() ? new BallFollowingInputSource() : null;
+        HeadlessSimulation simulation = new HeadlessSimulation(job.getNumRows(), job.getBricksPerRow(),
+                job.getSeed(), inputSource);
+        BrickerGameManager game = simulation.getGame();
+        if (inputSource != null) {
+            inputSource.follow(game);
+        }
+        applyWeights(game.getPowerUps(), job);
+        SimulationResult result = simulation.run(job.getMaxFrames());
+        return new BatchResult(job, result, game.getPuckSystem().getNumSpawned(), game.getNumLivesLost());
+    }
+
+    private static void applyWeights(PowerUpRegistry powerUps, BatchJob job) {
+        if (job.getNoPowerUpWeight() != null) {
+            powerUps.setNoPowerUpWeight(job.getNoPowerUpWeight());
+        }
+        for (Map.Entry<String, Double> weight : job.getBrickWeights().entrySet()) {
+            int id = idOf(powerUps, weight.getKey());
+            powerUps.setBrickWeight(id, weight.getValue());
+        }
+    }
+
+    private static int idOf(PowerUpRegistry powerUps, String name) {
+        for (int id = 0; id < powerUps.size(); id++) {
+            if (powerUps.getName(id).equals(name)) {
+                return id;
+            }
+        }
+        throw new IllegalArgumentException("no power-up named " + name);
+    }
+
+    /**
+     * Aggregates results by the labels of their jobs.
+     *
+     * @param results The results to aggregate.
+     * @return A summary per label, in the order the labels first appear.
+     */
+    public static Map<String, BatchSummary> summarize(List<BatchResult> results) {
+        Map<String, BatchSummary> summaries = new LinkedHashMap<>();
+        for (BatchResult result : results) {
+            summaries.computeIfAbsent(result.getJob().getLabel(), label -> new BatchSummary()).add(result);
+        }
+        return summaries;
+    }
+
+    /**
+     * Shuts the executor down, after the games already submitted end.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Plays a batch of games and prints a summary per power-up table.
+     * Every seed is played with the standard weights and with each power-up made as likely as no
+     * power-up at all.
+     *
+     * @param args Optional command-line arguments: args[0] is the number of seeds, args[1] the number of
+     *             rows, args[2] the number of bricks per row, args[3] the maximal number of frames of a
+     *             game and args[4] the number of games played at the same time.
+     * @throws InterruptedException If the thread is interrupted while waiting for the games.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        int numSeeds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NUM_GAMES;
+        int numRows = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_NUM_ROWS;
+        int bricksPerRow = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_BRICKS_PER_ROW;
+        int maxFrames = args.length > 3 ? Integer.parseInt(args[3]) : HEADLESS_DEFAULT_MAX_FRAMES;
+        int parallelism = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        PowerUpRegistry standard = new HeadlessSimulation(1, 1, 0).getGame().getPowerUps();
+        List<BatchJob> jobs = new ArrayList<>();
+        for (int seed = 0; seed < numSeeds; seed++) {
+            jobs.add(new BatchJob("standard", numRows, bricksPerRow, seed, maxFrames));
+            for (int id = 0; id < standard.size(); id++) {
+                String name = standard.getName(id);
+                double weight = standard.getNoPowerUpWeight();
+                BatchJob job = new BatchJob(name + "=" + weight, numRows, bricksPerRow, seed, maxFrames);
+                job.setBrickWeight(name, weight);
+                jobs.add(job);
+            }
+        }
+        long start = System.nanoTime();
+        List<BatchResult> results;
+        try (BatchRunner runner = new BatchRunner(parallelism)) {
+            results = runner.run(jobs);
+        }
+        long wallNanos = System.nanoTime() - start;
+        for (Map.Entry<String, BatchSummary> summary : summarize(results).entrySet()) {
+            System.out.printf("%-22s %s%n", summary.getKey(), summary.getValue());
+        }
+        System.out.printf("%d games %dx%d on %d workers in %.2fs%n", jobs.size(), numRows, bricksPerRow,
+                parallelism, wallNanos / NANOS_PER_SECOND);
+    }
+}
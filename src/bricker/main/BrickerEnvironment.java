@@ -0,0 +1,277 @@
+package bricker.main;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.Paddle;
+import bricker.gameobjects.PuckSystem;
+import bricker.headless.HeadlessWindow;
+import bricker.input.ActionInputSource;
+import danogl.util.Vector2;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * BrickerEnvironment exposes a headless game to a program that plays it one frame at a time: every
+ * step takes a paddle action (ActionInputSource.NONE, LEFT or RIGHT), advances the game by a fixed
+ * timestep and writes the resulting observation into a direct byte buffer in native byte order.
+ * The observation has a fixed layout, reused by every step, so a caller (or a native library reading
+ * the buffer's memory) can keep views into it and stepping allocates no buffer of its own:
+ * <ul>
+ *     <li>HEADER_FLOATS floats, indexed by the constants below: the main ball's center and velocity,
+ *     the user paddle's center x, the lives from the health bar, the standing bricks, a done flag
+ *     and the number of pucks observed.</li>
+ *     <li>FLOATS_PER_PUCK floats for each of up to maxPucks pucks: center x, center y, velocity x and
+ *     velocity y. Pucks beyond maxPucks are not observed, and the slots past NUM_PUCKS are zero.</li>
+ *     <li>From bitmapOffset(maxPucks), aligned to 8 bytes, the standing bricks as a bitmap of
+ *     ceil(numCells / 64) longs, as written by BrickField.writeBitmap.</li>
+ * </ul>
+ * The paddle is driven by the action through the game's input source, the same way recorded or
+ * programmed input is, so no key press is faked.
+ */
+public class BrickerEnvironment {
+    /**
+     * Index of the float holding the horizontal position of the main ball's center.
+     */
+    public static final int BALL_X = 0;
+
+    /**
+     * Index of the float holding the vertical position of the main ball's center.
+     */
+    public static final int BALL_Y = 1;
+
+    /**
+     * Index of the float holding the horizontal velocity of the main ball.
+     */
+    public static final int BALL_VELOCITY_X = 2;
+
+    /**
+     * Index of the float holding the vertical velocity of the main ball.
+     */
+    public static final int BALL_VELOCITY_Y = 3;
+
+    /**
+     * Index of the float holding the horizontal position of the user paddle's center.
+     */
+    public static final int PADDLE_X = 4;
+
+    /**
+     * Index of the float holding the number of lives left.
+     */
+    public static final int LIVES = 5;
+
+    /**
+     * Index of the float holding the number of bricks still standing.
+     */
+    public static final int NUM_BRICKS = 6;
+
+    /**
+     * Index of the float that is 1 once the episode ended, by a win or by losing every life, and 0
+     * otherwise.
+     */
+    public static final int DONE = 7;
+
+    /**
+     * Index of the float holding the number of pucks observed.
+     */
+    public static final int NUM_PUCKS = 8;
+
+    /**
+     * The number of floats before the pucks.
+     */
+    public static final int HEADER_FLOATS = 9;
+
+    /**
+     * The number of floats of every observed puck.
+     */
+    public static final int FLOATS_PER_PUCK = 4;
+
+    private final HeadlessSimulation simulation;
+    private final BrickerGameManager game;
+    private final ActionInputSource actions;
+    private final int maxPucks;
+    private final int bitmapOffset;
+    private final ByteBuffer observation;
+    private final ByteBuffer bitmapView;
+    private final FloatBuffer floats;
+    private boolean done;
+
+    /**
+     * Constructs a new BrickerEnvironment that writes its observations to a buffer of its own.
+     *
+     * @param numRows      The number of rows of bricks.
+     * @param bricksPerRow The number of bricks per row.
+     * @param seed         The seed of all the game's random decisions.
+     * @param maxPucks     The maximal number of pucks observed.
+     */
+    public BrickerEnvironment(int numRows, int bricksPerRow, long seed, int maxPucks) {
+        this(numRows, bricksPerRow, seed, maxPucks,
+                ByteBuffer.allocateDirect(observationSize(numRows * bricksPerRow, maxPucks)));
+    }
+
+    /**
+     * Constructs a new BrickerEnvironment that writes its observations to a region of a given buffer,
+     * e.g. its slot in the buffer of a VectorEnvironment.
+     *
+     * @param numRows      The number of rows of bricks.
+     * @param bricksPerRow The number of bricks per row.
+     * @param seed         The seed of all the game's random decisions.
+     * @param maxPucks     The maximal number of pucks observed.
+     * @param observation  The buffer the observations are written to, from its position; its byte order
+     *                     is ignored and native order is used.
+     * @throws IllegalArgumentException If fewer than observationSize bytes remain in the buffer.
+     */
+    public BrickerEnvironment(int numRows, int bricksPerRow, long seed, int maxPucks, ByteBuffer observation) {
+        int size = observationSize(numRows * bricksPerRow, maxPucks);
+        if (observation.remaining() < size) {
+            throw new IllegalArgumentException("an observation needs " + size + " bytes, "
+                    + observation.remaining() + " remain");
+        }
+        this.actions = new ActionInputSource();
+        this.simulation = new HeadlessSimulation(numRows, bricksPerRow, seed, actions);
+        this.game = simulation.getGame();
+        this.maxPucks = maxPucks;
+        this.bitmapOffset = bitmapOffset(maxPucks);
+        this.observation = observation.slice().limit(size).order(ByteOrder.nativeOrder());
+        this.bitmapView = this.observation.duplicate().order(ByteOrder.nativeOrder());
+        this.floats = this.observation.duplicate().limit(bitmapOffset).order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        this.done = false;
+        writeObservation();
+    }
+
+    /**
+     * Computes the size of an observation.
+     *
+     * @param numCells The number of cells of the brick field.
+     * @param maxPucks The maximal number of pucks observed.
+     * @return The size in bytes, a multiple of 8.
+     */
+    public static int observationSize(int numCells, int maxPucks) {
+        return bitmapOffset(maxPucks) + (numCells + Long.SIZE - 1) / Long.SIZE * Long.BYTES;
+    }
+
+    /**
+     * Computes where the brick bitmap starts in an observation.
+     *
+     * @param maxPucks The maximal number of pucks observed.
+     * @return The offset of the bitmap in bytes, a multiple of 8.
+     */
+    public static int bitmapOffset(int maxPucks) {
+        int floatBytes = (HEADER_FLOATS + maxPucks * FLOATS_PER_PUCK) * Float.BYTES;
+        return (floatBytes + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+    }
+
+    /**
+     * Advances the game by one frame with the paddle doing the given action, and writes the
+     * observation of the new frame.
+     *
+     * @param action One of ActionInputSource.NONE, LEFT and RIGHT.
+     * @return true if the episode ended in this frame, false otherwise.
+     * @throws IllegalArgumentException If the action is not one of them.
+     * @throws IllegalStateException    If the episode already ended and the environment was not reset.
+     */
+    public boolean step(int action) {
+        if (done) {
+            throw new IllegalStateException("the episode ended; reset the environment first");
+        }
+        actions.setAction(action);
+        this.done = !simulation.step();
+        writeObservation();
+        return done;
+    }
+
+    /**
+     * Starts a new episode by restarting the game in place, and writes its first observation.
+     * The random sources continue, so the new episode differs from the previous one.
+     */
+    public void reset() {
+        game.restart();
+        simulation.getWindow().reopen();
+        actions.setAction(ActionInputSource.NONE);
+        this.done = false;
+        writeObservation();
+    }
+
+    /**
+     * Writes the observation of the current frame. Writing does not allocate.
+     */
+    public void writeObservation() {
+        Ball ball = game.getBall();
+        Vector2 ballCorner = ball.getTopLeftCorner();
+        Vector2 ballDimensions = ball.getDimensions();
+        Vector2 ballVelocity = ball.getVelocity();
+        floats.put(BALL_X, ballCorner.x() + ballDimensions.x() / 2);
+        floats.put(BALL_Y, ballCorner.y() + ballDimensions.y() / 2);
+        floats.put(BALL_VELOCITY_X, ballVelocity.x());
+        floats.put(BALL_VELOCITY_Y, ballVelocity.y());
+        Paddle paddle = game.getUserPaddle();
+        floats.put(PADDLE_X, paddle.getTopLeftCorner().x() + paddle.getDimensions().x() / 2);
+        floats.put(LIVES, game.getNumLives());
+        floats.put(NUM_BRICKS, game.getNumBricks());
+        floats.put(DONE, done ? 1 : 0);
+        PuckSystem puckSystem = game.getPuckSystem();
+        int numPucks = Math.min(puckSystem.getNumPucks(), maxPucks);
+        floats.put(NUM_PUCKS, numPucks);
+        for (int i = 0, index = HEADER_FLOATS; i < numPucks; i++, index += FLOATS_PER_PUCK) {
+            floats.put(index, puckSystem.getCenterX(i));
+            floats.put(index + 1, puckSystem.getCenterY(i));
+            floats.put(index + 2, puckSystem.getVelocityX(i));
+            floats.put(index + 3, puckSystem.getVelocityY(i));
+        }
+        for (int index = HEADER_FLOATS + numPucks * FLOATS_PER_PUCK;
+             index < HEADER_FLOATS + maxPucks * FLOATS_PER_PUCK; index++) {
+            floats.put(index, 0);
+        }
+        BrickField brickField = game.getBrickField();
+        bitmapView.position(bitmapOffset);
+        brickField.writeBitmap(bitmapView);
+    }
+
+    /**
+     * Gets the buffer the observations are written to. Its position and limit are never changed by
+     * the environment.
+     *
+     * @return The observation buffer, in native byte order.
+     */
+    public ByteBuffer getObservation() {
+        return observation;
+    }
+
+    /**
+     * Gets a float view of the header and the pucks of the observation.
+     *
+     * @return The float view, indexed by the constants of this class.
+     */
+    public FloatBuffer getFloats() {
+        return floats;
+    }
+
+    /**
+     * Checks whether the episode ended.
+     *
+     * @return true if the last step ended the episode and the environment was not reset since.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Gets the maximal number of pucks observed.
+     *
+     * @return The maximal number of pucks.
+     */
+    public int getMaxPucks() {
+        return maxPucks;
+    }
+
+    /**
+     * Gets the game played by the environment.
+     *
+     * @return The game manager.
+     */
+    public BrickerGameManager getGame() {
+        return game;
+    }
+}
@@ -3,8 +3,21 @@ package bricker.main;
 import bricker.outOfScreenStrategies.RemoveOutOfScreenStrategy;
 import bricker.outOfScreenStrategies.OutOfScreenStrategy;
 import bricker.gameobjects.*;
+import bricker.audio.AudioMixer;
+import bricker.audio.SoundEffect;
 import bricker.brick_strategies.BasicCollisionStrategy;
 import bricker.brick_strategies.CollisionStrategy;
+import bricker.brick_strategies.FixedPowerUpStrategy;
+import bricker.brick_strategies.PowerUpRegistry;
+import bricker.diagnostics.GameEvents;
+import bricker.diagnostics.SlowFrameRecorder;
+import bricker.input.FrameInput;
+import bricker.input.InputRecording;
+import bricker.input.InputSource;
+import bricker.input.ListenerInputSource;
+import bricker.input.RecordingInputSource;
+import bricker.level.LevelFile;
+import bricker.util.RandomSource;
 import danogl.GameManager;
 import danogl.GameObject;
 import danogl.collisions.Layer;
@@ -14,7 +27,15 @@ import danogl.gui.rendering.Camera;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
-import java.util.Random;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import static bricker.main.Constants.*;
 /**
@@ -22,23 +43,71 @@ import static bricker.main.Constants.*;
  * It initializes game objects, handles game updates, and manages user input.
  */
 public class BrickerGameManager extends GameManager {
+    private static final int FLIP_X = 1;
+    private static final int FLIP_Y = 2;
+    //the four diagonal starting velocities of the main ball, indexed by FLIP_X | FLIP_Y
+    private static final Vector2[] BALL_VELOCITIES = {
+            new Vector2(BALL_SPEED, BALL_SPEED), new Vector2(-BALL_SPEED, BALL_SPEED),
+            new Vector2(BALL_SPEED, -BALL_SPEED), new Vector2(-BALL_SPEED, -BALL_SPEED)};
+    private static final Vector2 FALLING_HEART_VELOCITY = new Vector2(0, (float) FALLING_HEART_SPEED);
+    private static final int SNAPSHOT_MAGIC = 0x42524b53;
+    private static final int SNAPSHOT_VERSION = 2;
+
     private final Vector2 userPaddleLocation;
     private final Vector2 secondaryPaddleLocation;
+    //the top-left corners of the paddles and the ball at their starting places, so that restarting and
+    //relaunching the ball do not allocate as GameObject.setCenter of the engine does
+    private final Vector2 userPaddleCorner;
+    private final Vector2 secondaryPaddleCorner;
+    private Vector2 ballCorner;
 
 
     private Ball ball;
     private Vector2 windowDimensions;
+    private Vector2 windowCenter;
     private WindowController windowController;
     private final int numRows;
     private final int bricksPerRow;
     private int numBricks;
     private KeyboardInput keyboardInput;
     private HealthBar healthBar;
-    private ImageReader imageReader;
-    private SoundReader soundReader;
+    private AssetRegistry assets;
+    private final FrameInput frameInput;
+    private final FrameInput secondaryFrameInput;
     private UserInputListener inputListener;
+    private final FrameProfiler profiler;
+    private ProfilerHud profilerHud;
+    private final GameEvents events;
+    private SlowFrameRecorder slowFrameRecorder;
+    private AudioMixer audioMixer;
+    private LevelFile level;
+    private InputSource customInputSource;
+    private InputSource inputSource;
+    private InputSource secondaryInputSource;
+    private InputRecording recording;
+    private float accumulatedTime;
+    private int numLivesLost;
     private Paddle userPaddle;
     private Paddle secondaryPaddle;
+    private boolean ballTouchingUserPaddle;
+    private boolean ballTouchingSecondaryPaddle;
+    private BrickField brickField;
+    private StaticBodies staticBodies;
+    private StaticBodies backgroundBodies;
+    private StaticBodies uiBodies;
+    private PuckSystem puckSystem;
+    private final FrameCommandBuffer commands;
+    private GameObjectPool<Heart> fallingHeartPool;
+    private final List<Heart> fallingHearts;
+    private SnapshotRing rewindBuffer;
+    private final SweptCircle ballSweep;
+    private boolean continuousCollisions;
+    private final long seed;
+    private final RandomSource ballRandom;
+    private final RandomSource puckRandom;
+    private final RandomSource powerUpRandom;
+    private final RandomSource collisionRandom;
+    private final PowerUpRegistry powerUps;
     private final CollisionStrategy collisionStrategy;
     private final OutOfScreenStrategy outOfScreenStrategy;
 
@@ -52,6 +121,20 @@ public class BrickerGameManager extends GameManager {
      * @param bricksPerRow The number of bricks per row.
      */
     public BrickerGameManager(String windowTitle, Vector2 windowDimensions, int numRows, int bricksPerRow) {
+        this(windowTitle, windowDimensions, numRows, bricksPerRow, System.nanoTime());
+    }
+
+    /**
+     * Constructs a new BrickerGameManager instance whose randomness is fully determined by a seed.
+     *
+     * @param windowTitle The title of the game window.
+     * @param windowDimensions The dimensions of the game window.
+     * @param numRows The number of rows of bricks.
+     * @param bricksPerRow The number of bricks per row.
+     * @param seed The seed of all the game's random decisions.
+     */
+    public BrickerGameManager(String windowTitle, Vector2 windowDimensions, int numRows, int bricksPerRow,
+                              long seed) {
         super(windowTitle, windowDimensions);
 
         this.numRows = numRows;
@@ -60,9 +143,35 @@ public class BrickerGameManager extends GameManager {
         this.userPaddleLocation = new Vector2(windowDimensions.x() / 2,
                 (int) windowDimensions.y() - PADDLE_MARGIN_FROM_SCREEN_BOTTOM);
         this.secondaryPaddleLocation = new Vector2(windowDimensions.x() / 2,  windowDimensions.y() / 2);
-        this.collisionStrategy = new BasicCollisionStrategy(this);
+        Vector2 paddleHalfSize = new Vector2(PADDLE_WIDTH, PADDLE_HEIGHT).mult(0.5f);
+        this.userPaddleCorner = userPaddleLocation.subtract(paddleHalfSize);
+        this.secondaryPaddleCorner = secondaryPaddleLocation.subtract(paddleHalfSize);
+        this.seed = seed;
+        RandomSource random = new RandomSource(seed);
+        this.ballRandom = random.split();
+        this.puckRandom = random.split();
+        this.powerUpRandom = random.split();
+        this.collisionRandom = random.split();
+        this.powerUps = PowerUpRegistry.createDefault(this, powerUpRandom);
+        this.collisionStrategy = new BasicCollisionStrategy(this, powerUps, collisionRandom);
         this.outOfScreenStrategy = new RemoveOutOfScreenStrategy(this);
         this.secondaryPaddle = null;
+        this.ballTouchingUserPaddle = false;
+        this.ballTouchingSecondaryPaddle = false;
+        this.commands = new FrameCommandBuffer();
+        this.frameInput = new FrameInput();
+        this.secondaryFrameInput = new FrameInput();
+        this.profiler = new FrameProfiler();
+        this.events = new GameEvents(this);
+        this.customInputSource = null;
+        this.secondaryInputSource = null;
+        this.recording = null;
+        this.audioMixer = null;
+        this.level = null;
+        this.fallingHearts = new ArrayList<>();
+        this.rewindBuffer = null;
+        this.ballSweep = new SweptCircle();
+        this.continuousCollisions = true;
 
     }
 
@@ -87,11 +196,14 @@ public class BrickerGameManager extends GameManager {
         //initialization
         super.initializeGame(imageReader, soundReader, inputListener, windowController);
         this.windowDimensions = windowController.getWindowDimensions();
-        this.keyboardInput = new KeyboardInput(inputListener);
+        this.windowCenter = windowDimensions.mult(0.5f);
+        this.keyboardInput = new KeyboardInput(frameInput);
 
         createBall();
 
-        this.userPaddle = createPaddle(USER_PADDLE_TAG);
+        this.userPaddle = createPaddle(EntityKind.USER_PADDLE);
+
+        createStaticBodies();
 
         createBorders();
 
@@ -99,8 +211,13 @@ public class BrickerGameManager extends GameManager {
 
         createAllBricks();
 
+        createPuckSystem();
+
         createHealthBar();
 
+        if (secondaryInputSource != null) {
+            createSecondaryPaddle();
+        }
     }
 
     /**
@@ -112,30 +229,204 @@ public class BrickerGameManager extends GameManager {
         return windowDimensions;
     }
 
+    /**
+     * Gets the seed of the game's random decisions.
+     *
+     * @return The seed the game was created with.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the registry of the power-ups a destroyed brick may trigger. Its weights can be changed to
+     * tune the odds of every power-up.
+     *
+     * @return The power-up registry.
+     */
+    public PowerUpRegistry getPowerUps() {
+        return powerUps;
+    }
+
+    /**
+     * Sets where the keys of every frame come from, instead of the keyboard.
+     * Must be called before the game is initialized.
+     *
+     * @param inputSource The source of the keys.
+     */
+    public void setInputSource(InputSource inputSource) {
+        this.customInputSource = inputSource;
+    }
+
+    /**
+     * Makes the game a two-player game: the secondary paddle is there from the start of every game,
+     * is no longer removed after it was hit, and moves by the keys of its own source, e.g. a player
+     * on another machine, instead of the user's. Recordings do not store the second player's keys.
+     * Must be called before the game is initialized.
+     *
+     * @param inputSource The source of the second player's keys.
+     */
+    public void setSecondaryInputSource(InputSource inputSource) {
+        this.secondaryInputSource = inputSource;
+    }
+
+    /**
+     * Gets the secondary paddle.
+     *
+     * @return The secondary paddle, or null if there is none.
+     */
+    public Paddle getSecondaryPaddle() {
+        return secondaryPaddle;
+    }
+
+    /**
+     * Builds the brick wall from a level file instead of a full grid of the constructor's size.
+     * Bricks of the level with strategy id 0 apply the game's collision strategy, and bricks with id
+     * k always trigger power-up k - 1 of the power-up registry. A recording of the game refers to the
+     * level's file, which must be left unchanged for the recording to be replayed.
+     * Must be called before the game is initialized.
+     *
+     * @param level The level, or null for a full grid.
+     */
+    public void setLevel(LevelFile level) {
+        this.level = level;
+    }
+
+    /**
+     * Starts recording the game: the seed, the level, the keys of every frame and the answers to the
+     * play-again dialog are appended to a recording that can later be replayed without a window. While
+     * recording, the game runs on the fixed timestep FIXED_DELTA_TIME so that the replay takes the exact
+     * same steps.
+     * Must be called before the game is initialized.
+     *
+     * @return The recording the game is appended to.
+     */
+    public InputRecording startRecording() {
+        this.recording = new InputRecording(numRows, bricksPerRow, seed, FIXED_DELTA_TIME);
+        return recording;
+    }
+
     private void initializeSettings(ImageReader imageReader, SoundReader soundReader,
                                     UserInputListener inputListener,
                                     WindowController windowController) {
         this.windowController = windowController;
-        this.imageReader = imageReader;
-        this.soundReader = soundReader;
         this.inputListener = inputListener;
+        this.profilerHud = null;
+        this.assets = new AssetRegistry(imageReader, soundReader, audioMixer);
+        this.assets.preload();
+        InputSource source = customInputSource != null ? customInputSource :
+                new ListenerInputSource(inputListener);
+        this.inputSource = recording != null ? new RecordingInputSource(source, recording) : source;
+        if (recording != null) {
+            recording.setLevel(level);
+        }
+        this.accumulatedTime = 0;
+        this.numLivesLost = 0;
+        this.fallingHeartPool = new GameObjectPool<>(this::newFallingHeart);
+        //a new game starts with new objects, which older snapshots cannot be restored onto
+        fallingHearts.clear();
+        if (rewindBuffer != null) {
+            rewindBuffer.clear();
+        }
+    }
+
+    /**
+     * Plays the game's sounds through an audio mixer thread instead of the danogl Sounds.
+     * Must be called before the game is initialized.
+     *
+     * @param audioMixer The mixer, or null to play the danogl Sounds.
+     */
+    public void setAudioMixer(AudioMixer audioMixer) {
+        this.audioMixer = audioMixer;
+    }
+
+    /**
+     * Gets the audio mixer playing the game's sounds.
+     *
+     * @return The audio mixer, or null if sounds are played by danogl.
+     */
+    public AudioMixer getAudioMixer() {
+        return audioMixer;
+    }
+
+    /**
+     * Gets the registry holding the decoded images and sounds of the game.
+     *
+     * @return The asset registry.
+     */
+    public AssetRegistry getAssets() {
+        return assets;
+    }
+
+    /**
+     * Gets the field holding the bricks of the wall.
+     *
+     * @return The brick field, or null before the game is initialized.
+     */
+    public BrickField getBrickField() {
+        return brickField;
+    }
+
+    /**
+     * Gets the main ball.
+     *
+     * @return The main ball, or null before the game is initialized.
+     */
+    public Ball getBall() {
+        return ball;
+    }
+
+    /**
+     * Gets the paddle the user moves.
+     *
+     * @return The user paddle, or null before the game is initialized.
+     */
+    public Paddle getUserPaddle() {
+        return userPaddle;
+    }
+
+    /**
+     * Gets the buffer collecting the spawns and removals of the current frame.
+     *
+     * @return The frame command buffer.
+     */
+    public FrameCommandBuffer getCommands() {
+        return commands;
+    }
+
+    /**
+     * Gets the system simulating the pucks.
+     *
+     * @return The puck system, or null before the game is initialized.
+     */
+    public PuckSystem getPuckSystem() {
+        return puckSystem;
+    }
+
+    /**
+     * Gets the pool the falling hearts are taken from.
+     *
+     * @return The falling heart pool.
+     */
+    public GameObjectPool<Heart> getFallingHeartPool() {
+        return fallingHeartPool;
     }
 
     private void createHealthBar() {
         this.healthBar = new HealthBar(new Vector2(BORDER_WIDTH ,
                 windowDimensions.y() - HEALTH_BAR_MARGIN_FROM_SCREEN_BOTTOM),
                 new Vector2(windowDimensions.x() - (2 * BORDER_WIDTH), HEALTH_BAR_HEIGHT),
-                null, imageReader, STARTING_LIVES, MAX_LIVES);
-        gameObjects().addGameObject(healthBar, Layer.UI);
+                null, assets.getImage(ASSETS_HEART_PNG, true), STARTING_LIVES, MAX_LIVES);
+        uiBodies.add(healthBar);
         createHearts(healthBar);
-        gameObjects().addGameObject(healthBar.getNumericLives(), Layer.UI);
+        uiBodies.add(healthBar.getNumericLives());
 
     }
 
     private void createHearts(HealthBar healthBar) {
         Heart[] hearts = healthBar.getHearts();
         for (int i = 0; i < this.healthBar.getCurLives(); i++) {
-            gameObjects().addGameObject(hearts[i], Layer.UI);
+            uiBodies.add(hearts[i]);
         }
     }
 
@@ -151,11 +442,331 @@ public class BrickerGameManager extends GameManager {
      */
     @Override
     public void update(float deltaTime) {
+        if (inputListener.wasKeyPressedThisFrame(PROFILER_HUD_TOGGLE_KEY)) {
+            setProfilerHudVisible(profilerHud == null);
+        }
+        if (recording == null && rewindBuffer != null && inputListener.isKeyPressed(REWIND_KEY)) {
+            //while the key is held the game runs backwards, one captured frame per frame
+            rewind(1);
+            return;
+        }
+        if (recording == null) {
+            step(deltaTime);
+            return;
+        }
+        accumulatedTime = Math.min(accumulatedTime + deltaTime,
+                MAX_FIXED_STEPS_PER_FRAME * FIXED_DELTA_TIME);
+        while (accumulatedTime >= FIXED_DELTA_TIME) {
+            accumulatedTime -= FIXED_DELTA_TIME;
+            step(FIXED_DELTA_TIME);
+        }
+    }
+
+    private void step(float deltaTime) {
+        profiler.startFrame();
+        frameInput.set(inputSource.poll());
+        if (secondaryInputSource != null) {
+            secondaryFrameInput.set(secondaryInputSource.poll());
+        }
+        fallingHeartPool.recycle();
+        profiler.endPhase(FrameProfiler.Phase.INPUT);
+        float remaining = deltaTime;
+        float stepTime = ballStepTime(remaining);
+        for (int subStep = 1; stepTime < remaining && subStep < MAX_SUB_STEPS; subStep++) {
+            //the ball would pass through a body: move only the ball until it is just inside the body and
+            //bounce it first; the rest of the game advances once, below
+            ball.advance(stepTime);
+            collideBall();
+            remaining -= stepTime;
+            stepTime = ballStepTime(remaining);
+        }
         super.update(deltaTime);
+        profiler.endPhase(FrameProfiler.Phase.PHYSICS);
+        collideBall();
+        profiler.endPhase(FrameProfiler.Phase.BRICK_COLLISIONS);
+        flushCommands();
+        profiler.endPhase(FrameProfiler.Phase.COMMANDS);
         checkForGameEnd();
+        profiler.endPhase(FrameProfiler.Phase.GAME_END);
         secondaryPaddleRemoval();
+        profiler.endPhase(FrameProfiler.Phase.SECONDARY_PADDLE);
         catchFallingHeart();
+        profiler.endPhase(FrameProfiler.Phase.FALLING_HEART);
         mainBallCameraBehavior();
+        profiler.endPhase(FrameProfiler.Phase.CAMERA);
+        if (rewindBuffer != null) {
+            rewindBuffer.capture(this);
+        }
+        profiler.endPhase(FrameProfiler.Phase.SNAPSHOT);
+        profiler.endFrame();
+        if (slowFrameRecorder != null) {
+            slowFrameRecorder.onFrame(profiler.getLastFrameNanos());
+        }
+    }
+
+    /**
+     * Gets the emitter of the game's Flight Recorder events.
+     *
+     * @return The game events.
+     */
+    public GameEvents getEvents() {
+        return events;
+    }
+
+    /**
+     * Starts keeping a Flight Recorder recording of the last SLOW_FRAME_RECORDING_SECONDS of the game,
+     * which is dumped to a directory whenever a step takes longer than SLOW_FRAME_BUDGET_NANOS.
+     * Relies on the frame profiler being enabled.
+     *
+     * @param directory The directory the recordings are dumped to.
+     * @throws IOException If the directory cannot be created or the recording cannot be started.
+     */
+    public void enableSlowFrameCapture(Path directory) throws IOException {
+        if (slowFrameRecorder != null) {
+            slowFrameRecorder.close();
+        }
+        this.slowFrameRecorder = new SlowFrameRecorder(directory, SLOW_FRAME_BUDGET_NANOS,
+                Duration.ofSeconds(SLOW_FRAME_RECORDING_SECONDS),
+                Duration.ofSeconds(SLOW_FRAME_MIN_DUMP_INTERVAL_SECONDS), events);
+    }
+
+    /**
+     * Gets the number of bricks still standing.
+     *
+     * @return The number of bricks.
+     */
+    public int getNumBricks() {
+        return numBricks;
+    }
+
+    /**
+     * Gets the number of lives the user has left.
+     *
+     * @return The number of lives, or 0 before the game is initialized.
+     */
+    public int getNumLives() {
+        return healthBar == null ? 0 : healthBar.getCurLives();
+    }
+
+    /**
+     * Gets the number of lives lost to the ball falling out of the window since the game started.
+     * Hearts caught later do not lower it.
+     *
+     * @return The number of lives lost.
+     */
+    public int getNumLivesLost() {
+        return numLivesLost;
+    }
+
+    /**
+     * Gets the profiler measuring the phases of every game step.
+     *
+     * @return The frame profiler.
+     */
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Shows or hides the overlay with the recent frame times and entity counts. The overlay can also be
+     * toggled with PROFILER_HUD_TOGGLE_KEY.
+     *
+     * @param visible Whether the overlay should be shown.
+     */
+    public void setProfilerHudVisible(boolean visible) {
+        if (visible && profilerHud == null) {
+            this.profilerHud = new ProfilerHud(new Vector2(BORDER_WIDTH, 0),
+                    new Vector2(windowDimensions.x() - 2 * BORDER_WIDTH, PROFILER_HUD_HEIGHT), this);
+            profiler.resetRecentFrames();
+            gameObjects().addGameObject(profilerHud, Layer.UI);
+        } else if (!visible && profilerHud != null) {
+            gameObjects().removeGameObject(profilerHud, Layer.UI);
+            this.profilerHud = null;
+        }
+    }
+
+    /**
+     * Checks whether the profiler overlay is shown.
+     *
+     * @return true if the overlay is shown, false otherwise.
+     */
+    public boolean isProfilerHudVisible() {
+        return profilerHud != null;
+    }
+
+    /**
+     * Writes the state of the simulation to a compact binary snapshot: the main ball, the paddles, the
+     * paddles the ball is touching and the secondary paddle's hit count, the lives, the camera, the random sources, the falling hearts,
+     * the brick count and standing bricks, and the pucks. Statistics, such as the profiler and the
+     * pools' counters, are not part of the state.
+     * Must be called between frames. Writing a snapshot does not allocate.
+     *
+     * @param buffer The buffer the snapshot is written to, at its position.
+     * @throws java.nio.BufferOverflowException If the buffer is too small; its position is then
+     *                                          undefined.
+     */
+    public void writeSnapshot(ByteBuffer buffer) {
+        buffer.putInt(SNAPSHOT_MAGIC);
+        buffer.putInt(SNAPSHOT_VERSION);
+        buffer.putInt(brickField.getNumCells());
+        writeBody(buffer, ball);
+        buffer.putInt(ball.getCollisionCounter());
+        staticBodies.writeState(buffer);
+        buffer.put((byte) (ballTouchingUserPaddle ? 1 : 0));
+        buffer.put((byte) (ballTouchingSecondaryPaddle ? 1 : 0));
+        writeBody(buffer, userPaddle);
+        buffer.putInt(userPaddle.getNumCollisionsSecondaryPaddle());
+        buffer.put((byte) (secondaryPaddle != null ? 1 : 0));
+        if (secondaryPaddle != null) {
+            writeBody(buffer, secondaryPaddle);
+            buffer.putInt(secondaryPaddle.getNumCollisionsSecondaryPaddle());
+        }
+        buffer.putInt(healthBar.getCurLives());
+        buffer.put((byte) (camera() != null ? 1 : 0));
+        buffer.putLong(ballRandom.getState());
+        buffer.putLong(puckRandom.getState());
+        buffer.putLong(powerUpRandom.getState());
+        buffer.putLong(collisionRandom.getState());
+        buffer.putInt(fallingHearts.size());
+        for (int i = 0; i < fallingHearts.size(); i++) {
+            writeBody(buffer, fallingHearts.get(i));
+        }
+        buffer.putInt(numBricks);
+        brickField.writeState(buffer);
+        puckSystem.writeState(buffer);
+    }
+
+    /**
+     * Restores the state of the simulation from a snapshot written by writeSnapshot, of a game with the
+     * same brick field. Objects that appeared or disappeared since the snapshot, such as the secondary
+     * paddle, hearts and falling hearts, are added or removed, and the game continues exactly as it did
+     * after the snapshot was written. Only the contacts the engine tracks between its own objects are
+     * not restored: an object put back into an overlap it was in when the snapshot was written, such as
+     * a falling heart resting on the paddle, is reported to the objects as a new collision.
+     * Must be called between frames.
+     *
+     * @param buffer The buffer the snapshot is read from, at its position.
+     * @throws IllegalArgumentException If the buffer does not hold a snapshot of this game.
+     */
+    public void readSnapshot(ByteBuffer buffer) {
+        if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+            throw new IllegalArgumentException("not a Bricker snapshot of version " + SNAPSHOT_VERSION);
+        }
+        int numCells = buffer.getInt();
+        if (numCells != brickField.getNumCells()) {
+            throw new IllegalArgumentException("the snapshot has " + numCells + " cells, the game has "
+                    + brickField.getNumCells());
+        }
+        readBody(buffer, ball);
+        ball.setCollisionCounter(buffer.getInt());
+        staticBodies.readState(buffer);
+        this.ballTouchingUserPaddle = buffer.get() != 0;
+        this.ballTouchingSecondaryPaddle = buffer.get() != 0;
+        readBody(buffer, userPaddle);
+        userPaddle.setNumCollisionsSecondaryPaddle(buffer.getInt());
+        userPaddle.resetCollidedGameObject();
+        restoreSecondaryPaddle(buffer);
+        restoreLives(buffer.getInt());
+        boolean followsBall = buffer.get() != 0;
+        if (followsBall && camera() == null) {
+            followWithCamera(ball);
+        } else if (!followsBall && camera() != null) {
+            setCamera(null);
+        }
+        ballRandom.setState(buffer.getLong());
+        puckRandom.setState(buffer.getLong());
+        powerUpRandom.setState(buffer.getLong());
+        collisionRandom.setState(buffer.getLong());
+        restoreFallingHearts(buffer);
+        this.numBricks = buffer.getInt();
+        brickField.readState(buffer);
+        puckSystem.readState(buffer);
+        commands.discard();
+    }
+
+    private static void writeBody(ByteBuffer buffer, GameObject body) {
+        Vector2 topLeftCorner = body.getTopLeftCorner();
+        Vector2 velocity = body.getVelocity();
+        buffer.putFloat(topLeftCorner.x());
+        buffer.putFloat(topLeftCorner.y());
+        buffer.putFloat(velocity.x());
+        buffer.putFloat(velocity.y());
+    }
+
+    private static void readBody(ByteBuffer buffer, GameObject body) {
+        body.setTopLeftCorner(new Vector2(buffer.getFloat(), buffer.getFloat()));
+        body.setVelocity(new Vector2(buffer.getFloat(), buffer.getFloat()));
+    }
+
+    private void restoreSecondaryPaddle(ByteBuffer buffer) {
+        boolean exists = buffer.get() != 0;
+        if (exists && secondaryPaddle == null) {
+            this.secondaryPaddle = createPaddle(EntityKind.SECONDARY_PADDLE);
+            puckSystem.addPaddle(secondaryPaddle);
+        } else if (!exists && secondaryPaddle != null) {
+            destroyObject(secondaryPaddle);
+            puckSystem.removePaddle(secondaryPaddle);
+            this.secondaryPaddle = null;
+        }
+        if (exists) {
+            readBody(buffer, secondaryPaddle);
+            secondaryPaddle.setNumCollisionsSecondaryPaddle(buffer.getInt());
+        }
+    }
+
+    private void restoreLives(int lives) {
+        while (healthBar.getCurLives() > lives) {
+            healthBar.decreaseCurLives();
+            destroyObject(healthBar.getHearts()[healthBar.getCurLives()]);
+        }
+        while (healthBar.getCurLives() < lives) {
+            addHeartToHealthBar();
+        }
+    }
+
+    private void restoreFallingHearts(ByteBuffer buffer) {
+        for (int i = fallingHearts.size() - 1; i >= 0; i--) {
+            destroyObject(fallingHearts.get(i));
+        }
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            Heart fallingHeart = fallingHeartPool.acquire();
+            gameObjects().addGameObject(fallingHeart);
+            fallingHearts.add(fallingHeart);
+            readBody(buffer, fallingHeart);
+        }
+    }
+
+    /**
+     * Starts capturing a snapshot of the game at the end of every frame into a ring buffer, so the game
+     * can be rewound by up to the given number of frames. While the game is not recorded, holding
+     * REWIND_KEY rewinds it one frame per frame.
+     *
+     * @param numFrames The number of frames kept, or 0 to stop capturing.
+     */
+    public void enableRewind(int numFrames) {
+        this.rewindBuffer = numFrames > 0 ? new SnapshotRing(numFrames) : null;
+    }
+
+    /**
+     * Gets the ring buffer the frames are captured into.
+     *
+     * @return The rewind buffer, or null if rewinding is not enabled.
+     */
+    public SnapshotRing getRewindBuffer() {
+        return rewindBuffer;
+    }
+
+    /**
+     * Rewinds the game to the state it had a number of frames ago. The frames captured after that state
+     * are dropped, so the game continues from there.
+     *
+     * @param numFrames The number of frames to go back.
+     * @return true if the game was rewound, false if rewinding is not enabled or fewer frames were
+     * captured.
+     */
+    public boolean rewind(int numFrames) {
+        return rewindBuffer != null && rewindBuffer.rewind(this, numFrames);
     }
 
 
@@ -172,7 +783,11 @@ public class BrickerGameManager extends GameManager {
         if (this.healthBar.getCurLives() == 0 || prompt.equals(WINNING_PROMPT)) {
 
             prompt += PLAY_AGAIN_PROMPT;
-            if (windowController.openYesNoDialog(prompt)) {
+            boolean playAgain = windowController.openYesNoDialog(prompt);
+            if (recording != null) {
+                recording.appendAnswer(playAgain);
+            }
+            if (playAgain) {
                 this.resetGame();
             } else
                 this.windowController.closeWindow();
@@ -184,126 +799,286 @@ public class BrickerGameManager extends GameManager {
         prompt = LOSING_PROMPT;
         if (this.healthBar.getCurLives() > 0) {
             this.healthBar.decreaseCurLives();
+            numLivesLost++;
             this.setBallDirection();
             Heart[] hearts = this.healthBar.getHearts();
-            removeObject(hearts[healthBar.getCurLives()]);
+            destroyObject(hearts[healthBar.getCurLives()]);
         }
         return prompt;
     }
 
     private void resetGame() {
-        this.numBricks = numRows * bricksPerRow;
-        this.windowController.resetGame();
+        //windowController.resetGame would rerun initializeGame, reloading every asset and rebuilding
+        //every object; the objects of the finished game are put back in place instead
+        restart();
+    }
+
+    /**
+     * Starts a new game in place: the bricks are revived, the ball is launched again from the center,
+     * the paddle is centered, the secondary paddle, pucks and falling hearts are removed, the lives are
+     * back to STARTING_LIVES and the camera is reset. In a two-player game the secondary paddle is
+     * centered instead of removed. No asset is reloaded and no object is rebuilt; removed hearts go
+     * back to their pool and health bar hearts are reused, so a restart allocates nothing of its own.
+     * The random sources continue, so the new game differs from the first one.
+     * Must be called between frames.
+     */
+    public void restart() {
+        brickField.reviveAll();
+        this.numBricks = brickField.getNumStanding();
+        puckSystem.clear();
+        for (int i = fallingHearts.size() - 1; i >= 0; i--) {
+            destroyObject(fallingHearts.get(i));
+        }
+        if (secondaryPaddle != null && secondaryInputSource != null) {
+            secondaryPaddle.setTopLeftCorner(secondaryPaddleCorner);
+            secondaryPaddle.setVelocity(Vector2.ZERO);
+            secondaryPaddle.setNumCollisionsSecondaryPaddle(0);
+        } else if (secondaryPaddle != null) {
+            destroyObject(secondaryPaddle);
+            puckSystem.removePaddle(secondaryPaddle);
+            this.secondaryPaddle = null;
+        }
+        userPaddle.setTopLeftCorner(userPaddleCorner);
+        userPaddle.setVelocity(Vector2.ZERO);
+        userPaddle.setNumCollisionsSecondaryPaddle(0);
+        userPaddle.resetCollidedGameObject();
+        setBallDirection();
+        ball.resetCollisionCounter();
+        staticBodies.clearTouching();
+        this.ballTouchingUserPaddle = false;
+        this.ballTouchingSecondaryPaddle = false;
+        restoreLives(STARTING_LIVES);
+        setCamera(null);
+        commands.discard();
+        if (secondaryInputSource != null && secondaryPaddle == null) {
+            createSecondaryPaddle();
+        }
+        this.accumulatedTime = 0;
+        this.numLivesLost = 0;
+        if (rewindBuffer != null) {
+            rewindBuffer.clear();
+        }
     }
 
     private void createAllBricks() {
+        int columns = level == null ? this.bricksPerRow : level.getBricksPerRow();
         float brickLength =
                 (this.windowController.getWindowDimensions().x() - 2 * (BORDER_WIDTH
-                        + MARGIN_FROM_BORDER)) / this.bricksPerRow; //calculate
+                        + MARGIN_FROM_BORDER)) / columns; //calculate
         double margin = brickLength * 0.1;
         brickLength -= (float) margin;
 
-        for (int i = 1; i <= this.numRows; i++) {
-            float yRow = i * (BRICK_HEIGHT + ROW_MARGIN);
-            float xRow = BORDER_WIDTH + MARGIN_FROM_BORDER;
-            for (int j = 0; j < this.bricksPerRow; j++) {
-                Vector2 startBrick = new Vector2(xRow, yRow);
-                createBrick(startBrick, new Vector2(brickLength, BRICK_HEIGHT));
-                xRow += (float) (brickLength + margin);
+        //bricks never move, so the whole wall is a single field object kept out of the generic collision
+        //pass; balls are checked against the field's standing bricks instead
+        gameObjects().layers().shouldLayersCollide(Layer.DEFAULT, Layer.STATIC_OBJECTS, false);
+        gameObjects().layers().shouldLayersCollide(Layer.STATIC_OBJECTS, Layer.STATIC_OBJECTS, false);
+        Vector2 origin = new Vector2(BORDER_WIDTH + MARGIN_FROM_BORDER, BRICK_HEIGHT + ROW_MARGIN);
+        Vector2 brickSize = new Vector2(brickLength, BRICK_HEIGHT);
+        if (level == null) {
+            this.brickField = new BrickField(origin, brickSize, (float) (brickLength + margin),
+                    BRICK_HEIGHT + ROW_MARGIN, this.numRows, this.bricksPerRow, this.collisionStrategy);
+        } else {
+            this.brickField = new BrickField(origin, brickSize, (float) (brickLength + margin),
+                    BRICK_HEIGHT + ROW_MARGIN, level, levelStrategies());
+        }
+        this.numBricks = brickField.getNumStanding();
+        brickField.setBrickImage(assets.getImage(ASSETS_BRICK_PNG, false), windowDimensions);
+        gameObjects().addGameObject(brickField, Layer.STATIC_OBJECTS);
+    }
+
+    private CollisionStrategy[] levelStrategies() {
+        int numStrategies = Math.min(powerUps.size() + 1, LevelFile.MAX_STRATEGY_ID + 1);
+        CollisionStrategy[] strategies = new CollisionStrategy[numStrategies];
+        strategies[LevelFile.DEFAULT_STRATEGY] = collisionStrategy;
+        for (int i = 1; i < numStrategies; i++) {
+            strategies[i] = new FixedPowerUpStrategy(this, powerUps, i - 1);
+        }
+        return strategies;
+    }
+
+    private void collideBall() {
+        this.ballTouchingUserPaddle = collideBallWithPaddle(userPaddle, ballTouchingUserPaddle);
+        if (secondaryPaddle != null) {
+            this.ballTouchingSecondaryPaddle = collideBallWithPaddle(secondaryPaddle,
+                    ballTouchingSecondaryPaddle);
+        }
+        staticBodies.collide(ball);
+        brickField.collide(ball);
+    }
+
+    /**
+     * Bounces the ball off a paddle its bounding box has just entered. The engine does not pair the
+     * main ball with the paddles, so that a fast ball swept into a paddle bounces within the sub-step
+     * that took it there; a paddle the ball keeps overlapping is not hit again until the ball leaves it.
+     *
+     * @return true if the ball overlaps the paddle, false otherwise.
+     */
+    private boolean collideBallWithPaddle(Paddle paddle, boolean touching) {
+        Vector2 topLeftCorner = ball.getTopLeftCorner();
+        Vector2 dimensions = ball.getDimensions();
+        Vector2 paddleCorner = paddle.getTopLeftCorner();
+        Vector2 paddleDimensions = paddle.getDimensions();
+        float minX = topLeftCorner.x();
+        float minY = topLeftCorner.y();
+        float maxX = minX + dimensions.x();
+        float maxY = minY + dimensions.y();
+        float paddleMinX = paddleCorner.x();
+        float paddleMinY = paddleCorner.y();
+        float paddleMaxX = paddleMinX + paddleDimensions.x();
+        float paddleMaxY = paddleMinY + paddleDimensions.y();
+        if (minX >= paddleMaxX || paddleMinX >= maxX || minY >= paddleMaxY || paddleMinY >= maxY) {
+            return false;
+        }
+        if (touching) {
+            return true;
+        }
+        //the normal points out of the paddle along the axis of the smaller overlap
+        float overlapX = Math.min(maxX, paddleMaxX) - Math.max(minX, paddleMinX);
+        float overlapY = Math.min(maxY, paddleMaxY) - Math.max(minY, paddleMinY);
+        Vector2 normal;
+        if (overlapX < overlapY) {
+            normal = minX < paddleMinX ? Vector2.LEFT : Vector2.RIGHT;
+        } else {
+            normal = minY < paddleMinY ? Vector2.UP : Vector2.DOWN;
+        }
+        ball.handleCollision(paddle, normal);
+        paddle.handleCollision(ball);
+        return true;
+    }
+
+    /**
+     * Gets how long the ball may move before it is checked for collisions. A ball that moves at most
+     * MAX_STEP_DISTANCE is checked after the whole time, as it cannot pass through a body unnoticed.
+     * A faster ball is swept along its path against the borders, the paddles and the bricks, and is
+     * checked right after it enters the first body it runs into.
+     */
+    private float ballStepTime(float remaining) {
+        Vector2 velocity = ball.getVelocity();
+        float deltaX = velocity.x() * remaining;
+        float deltaY = velocity.y() * remaining;
+        if (!continuousCollisions || Math.max(Math.abs(deltaX), Math.abs(deltaY)) <= MAX_STEP_DISTANCE) {
+            return remaining;
+        }
+        Vector2 center = ball.getCenter();
+        ballSweep.start(center.x(), center.y(), ball.getDimensions().x() / 2, deltaX, deltaY);
+        List<GameObject> borders = staticBodies.getBodies();
+        for (int i = 0; i < borders.size(); i++) {
+            if (ball.shouldCollideWith(borders.get(i))) {
+                sweepBall(borders.get(i));
             }
         }
+        sweepBall(userPaddle);
+        if (secondaryPaddle != null) {
+            sweepBall(secondaryPaddle);
+        }
+        brickField.sweep(ballSweep);
+        float impact = ballSweep.getTime();
+        if (impact == SweptCircle.NO_IMPACT) {
+            return remaining;
+        }
+        float distance = (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+        return remaining * Math.min(1, impact + SWEPT_CONTACT_DEPTH / distance);
     }
 
-    private void createBrick(Vector2 startBrick, Vector2 brickSize) {
-        Renderable brickImage =
-                this.imageReader.readImage(ASSETS_BRICK_PNG, false);
+    private void sweepBall(GameObject body) {
+        Vector2 topLeftCorner = body.getTopLeftCorner();
+        Vector2 dimensions = body.getDimensions();
+        ballSweep.testBox(topLeftCorner.x(), topLeftCorner.y(), topLeftCorner.x() + dimensions.x(),
+                topLeftCorner.y() + dimensions.y());
+    }
 
-        GameObject brick =
-                new Brick(startBrick, brickSize, brickImage, this.collisionStrategy);
-        gameObjects().addGameObject(brick);
+    /**
+     * Sets whether fast balls and pucks are swept and sub-stepped so they cannot pass through thin
+     * bricks and borders. It is on by default; turning it off restores one discrete check per frame,
+     * to measure how often bodies tunnel without it.
+     *
+     * @param continuousCollisions true to sweep and sub-step fast bodies, false otherwise.
+     */
+    public void setContinuousCollisions(boolean continuousCollisions) {
+        this.continuousCollisions = continuousCollisions;
+        if (puckSystem != null) {
+            puckSystem.setSubStepping(continuousCollisions);
+        }
+    }
+
+    private void createPuckSystem() {
+        this.puckSystem = new PuckSystem(windowDimensions, PUCK_BALL_RATIO * BALL_RADIUS, BORDER_WIDTH,
+                UPPER_BORDER_HEIGHT, brickField, assets.getImage(ASSETS_MOCK_BALL_PNG, true),
+                assets.getSoundEffect(ASSETS_BLOP_WAV));
+        puckSystem.addPaddle(userPaddle);
+        puckSystem.setBall(ball);
+        puckSystem.setGameEvents(events);
+        puckSystem.setSubStepping(continuousCollisions);
+        //the system spans the window and collides the pucks itself, so it stays out of the generic pass
+        gameObjects().addGameObject(puckSystem, Layer.STATIC_OBJECTS);
     }
 
     private void createBall() {
-        Renderable ballImage =
-                this.imageReader.readImage(ASSETS_BALL_PNG, true);
-        Sound collisionSound = this.soundReader.readSound(ASSETS_BLOP_WAV);
+        Renderable ballImage = assets.getImage(ASSETS_BALL_PNG, true);
+        SoundEffect collisionSound = assets.getSoundEffect(ASSETS_BLOP_WAV);
         ball = new Ball(
                 Vector2.ZERO, new Vector2(BALL_RADIUS, BALL_RADIUS), ballImage, collisionSound,
                 collisionStrategy);
-        ball.setTag(MAIN_BALL_TAG);
+        ball.setKind(EntityKind.MAIN_BALL);
+        ball.setGameEvents(events);
+        this.ballCorner = windowCenter.subtract(ball.getDimensions().mult(0.5f));
         setBallDirection();
         gameObjects().addGameObject(ball);
     }
 
 
     private void setBallDirection() {
-        ball.setCenter(windowDimensions.mult(0.5f));
-        float ballVelX = BALL_SPEED;
-        float ballVelY = BALL_SPEED;
-        Random rand = new Random();
-        if (rand.nextBoolean())
-            ballVelX *= -1;
-        if (rand.nextBoolean())
-            ballVelY *= -1;
-        ball.setVelocity(new Vector2(ballVelX, ballVelY));
+        ball.setTopLeftCorner(ballCorner);
+        int direction = 0;
+        if (ballRandom.nextBoolean())
+            direction |= FLIP_X;
+        if (ballRandom.nextBoolean())
+            direction |= FLIP_Y;
+        ball.setVelocity(BALL_VELOCITIES[direction]);
     }
 
     /**
      * Adds additional pucks to the game at the specified center position.
+     * The pucks are spawned when the frame's commands are flushed.
      *
      * @param center The center position to add the pucks.
      */
     public void additionalPucks(Vector2 center) {
-        createPuck(center);
-        createPuck(center);
+        commands.spawnPuck(center);
+        commands.spawnPuck(center);
     }
 
     private void createPuck(Vector2 center) {
-        Renderable puckImage =
-                imageReader.readImage(ASSETS_MOCK_BALL_PNG, true);
-        Sound collisionSound = soundReader.readSound(ASSETS_BLOP_WAV);
-        Ball puck = new Ball(
-                Vector2.ZERO, new Vector2(PUCK_BALL_RATIO * BALL_RADIUS, PUCK_BALL_RATIO * BALL_RADIUS),
-                puckImage, collisionSound, collisionStrategy, outOfScreenStrategy);
-        puck.setTag(PUCK_BALL_TAG);
-        gameObjects().addGameObject(puck);
-        setPuckDirection(puck, center);
-    }
-
-    private void setPuckDirection(Ball puck, Vector2 center) {
-        puck.setCenter(center);
-        Random random = new Random();
-        double angle = random.nextDouble() * Math.PI;
+        double angle = puckRandom.nextDouble() * Math.PI;
         float velocityX = (float) Math.cos(angle) * BALL_SPEED;
         float velocityY = (float) Math.sin(angle) * BALL_SPEED;
-
-        puck.setVelocity(new Vector2(velocityX, velocityY));
-
+        puckSystem.spawn(center.x(), center.y(), velocityX, velocityY);
+        events.spawn(EntityKind.PUCK_BALL);
     }
 
     private void addBackground() {
         Vector2 windowDimensions = windowController.getWindowDimensions();
-        Renderable backgroundImage =
-                imageReader.readImage(ASSETS_DARK_BG_2_SMALL_JPEG, false);
+        Renderable backgroundImage = assets.getImage(ASSETS_DARK_BG_2_SMALL_JPEG, false);
         GameObject background = new GameObject(Vector2.ZERO, windowDimensions, backgroundImage);
         background.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-        gameObjects().addGameObject(background, Layer.BACKGROUND);
+        backgroundBodies.add(background);
     }
 
-    private Paddle createPaddle(String tag) {
-        Renderable paddleImage = this.imageReader.readImage(
-                ASSETS_PADDLE_PNG, false);
+    private Paddle createPaddle(EntityKind kind) {
+        Renderable paddleImage = assets.getImage(ASSETS_PADDLE_PNG, false);
         Paddle paddle = new Paddle(
                 Vector2.ZERO,
                 new Vector2(PADDLE_WIDTH, PADDLE_HEIGHT),
                 paddleImage,
-                inputListener, windowDimensions, BORDER_WIDTH);
-        paddle.setTag(tag);
-        if(tag.equals(USER_PADDLE_TAG)){
+                kind == EntityKind.SECONDARY_PADDLE && secondaryInputSource != null ? secondaryFrameInput
+                        : frameInput,
+                windowDimensions, BORDER_WIDTH);
+        paddle.setKind(kind);
+        if(kind == EntityKind.USER_PADDLE){
             paddle.setCenter(
                     userPaddleLocation);
         }
-        else if(tag.equals(SECONDARY_PADDLE_TAG)){
+        else if(kind == EntityKind.SECONDARY_PADDLE){
             paddle.setCenter(
                     secondaryPaddleLocation);
 
@@ -314,36 +1089,58 @@ public class BrickerGameManager extends GameManager {
 
     /**
      * Creates a secondary paddle if it does not already exist.
+     * The paddle is created when the frame's commands are flushed.
      */
     public void createSecondaryPaddle(){
-        if(secondaryPaddle == null){
-            this.secondaryPaddle = createPaddle(SECONDARY_PADDLE_TAG);
-        }
+        commands.requestSecondaryPaddle();
     }
 
     private void secondaryPaddleRemoval(){
-        if(this.secondaryPaddle != null){
+        if(this.secondaryPaddle != null && secondaryInputSource == null){
             if(this.secondaryPaddle.getNumCollisionsSecondaryPaddle() == 4){
-                this.removeObject(this.secondaryPaddle);
+                this.destroyObject(this.secondaryPaddle);
+                puckSystem.removePaddle(this.secondaryPaddle);
                 this.secondaryPaddle = null;
             }
         }
     }
 
+    private void createStaticBodies() {
+        //objects that never move sleep in one tier object per layer, kept out of the generic update and
+        //collision passes; the tiers are in layers that collide with nothing, and the main ball is
+        //checked against the borders explicitly
+        this.staticBodies = new StaticBodies(windowDimensions, gameObjects(), Layer.DEFAULT);
+        gameObjects().addGameObject(staticBodies, Layer.STATIC_OBJECTS);
+        this.backgroundBodies = new StaticBodies(windowDimensions, gameObjects(), Layer.BACKGROUND);
+        backgroundBodies.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+        gameObjects().addGameObject(backgroundBodies, Layer.BACKGROUND);
+        this.uiBodies = new StaticBodies(windowDimensions, gameObjects(), Layer.UI);
+        gameObjects().addGameObject(uiBodies, Layer.UI);
+    }
+
+    /**
+     * Gets the tier of the static bodies the main ball bounces off, i.e. the borders.
+     *
+     * @return The static bodies, or null before the game is initialized.
+     */
+    public StaticBodies getStaticBodies() {
+        return staticBodies;
+    }
+
     private void createBorders() {
         //left border
-        gameObjects().addGameObject(
+        staticBodies.add(
                 new GameObject(Vector2.ZERO, new Vector2(BORDER_WIDTH, this.windowDimensions.y()),
                         BORDER_RENDERABLE)
         );
         //right border
-        gameObjects().addGameObject(
+        staticBodies.add(
                 new GameObject(new Vector2(this.windowDimensions.x() - BORDER_WIDTH, 0),
                         new Vector2(BORDER_WIDTH,
                         this.windowDimensions.y()), BORDER_RENDERABLE)
         );
         //upper border
-        gameObjects().addGameObject(
+        staticBodies.add(
                 new GameObject(Vector2.ZERO, new Vector2(this.windowDimensions.x(), UPPER_BORDER_HEIGHT),
                         BORDER_RENDERABLE)
         );
@@ -352,7 +1149,7 @@ public class BrickerGameManager extends GameManager {
     private void catchFallingHeart(){
         GameObject heart= this.userPaddle.getCollidedGameObject();
         if( heart != null){
-            this.removeObject(heart);
+            this.destroyObject(heart);
             this.userPaddle.resetCollidedGameObject();
             this.addHeartToHealthBar();
         }
@@ -360,23 +1157,70 @@ public class BrickerGameManager extends GameManager {
 
     /**
      * Removes the specified game object from the game.
+     * The object is removed when the frame's commands are flushed; until then, further removals of the
+     * same object are ignored.
      *
      * @param object The game object to remove.
-     * @return True if the object was successfully removed, false otherwise.
+     * @return True if the removal was queued, false if the object is already being removed or is a brick
+     * that was already destroyed.
      */
     public boolean removeObject(GameObject object) {
-        if (object.getTag().equals(BRICK_TAG)) {
-            boolean isNotDeleted = gameObjects().removeGameObject(object);
-            if (isNotDeleted) {
-                this.numBricks--;
+        if (EntityKind.of(object) == EntityKind.BRICK) {
+            //the brick's cell is cleared right away, so no other ball can hit it later in the same frame
+            int cellIndex = ((Brick) object).getCellIndex();
+            if (cellIndex == Brick.NO_CELL || !brickField.destroy(cellIndex)) {
+                return false;
             }
-            return isNotDeleted;
         }
-        if (object.getTag().equals(HEALTH_BAR_HEART_TAG)) {
-            return gameObjects().removeGameObject(object, Layer.UI);
+        if (!commands.remove(object)) {
+            return false;
         }
+        events.removal(object);
+        return true;
+    }
 
-        return gameObjects().removeGameObject(object);
+    /**
+     * Applies the spawns and removals queued during the frame, in one batch: first all the removals (which
+     * also update the brick count), then all the spawns.
+     * Called automatically once physics and collisions of a frame are done.
+     */
+    public void flushCommands() {
+        List<GameObject> removals = commands.getRemovals();
+        for (int i = 0; i < removals.size(); i++) {
+            destroyObject(removals.get(i));
+        }
+        List<Vector2> puckSpawns = commands.getPuckSpawns();
+        for (int i = 0; i < puckSpawns.size(); i++) {
+            createPuck(puckSpawns.get(i));
+        }
+        List<Vector2> fallingHeartSpawns = commands.getFallingHeartSpawns();
+        for (int i = 0; i < fallingHeartSpawns.size(); i++) {
+            spawnFallingHeart(fallingHeartSpawns.get(i));
+        }
+        if (commands.isSecondaryPaddleRequested() && secondaryPaddle == null) {
+            this.secondaryPaddle = createPaddle(EntityKind.SECONDARY_PADDLE);
+            this.ballTouchingSecondaryPaddle = false;
+            puckSystem.addPaddle(secondaryPaddle);
+            events.spawn(EntityKind.SECONDARY_PADDLE);
+        }
+        commands.clear();
+    }
+
+    private boolean destroyObject(GameObject object) {
+        EntityKind kind = EntityKind.of(object);
+        if (kind == EntityKind.BRICK) {
+            this.numBricks--;
+            return true;
+        }
+        if (kind == EntityKind.HEALTH_BAR_HEART) {
+            return uiBodies.remove(object);
+        }
+        boolean isNotDeleted = gameObjects().removeGameObject(object);
+        if (isNotDeleted && kind == EntityKind.FALLING_HEART) {
+            fallingHearts.remove(object);
+            fallingHeartPool.release((Heart) object);
+        }
+        return isNotDeleted;
     }
 
     /**
@@ -386,41 +1230,56 @@ public class BrickerGameManager extends GameManager {
      */
     public void changeCamera(Ball ball){
         if(this.camera() == null){
-            this.setCamera(new Camera(ball, Vector2.ZERO,
-                    this.getWindowDimensions().mult(CAMERA_FACTOR),
-                    this.getWindowDimensions()));
+            followWithCamera(ball);
             ball.resetCollisionCounter();
+            events.cameraChange();
         }
     }
 
+    private void followWithCamera(Ball ball) {
+        this.setCamera(new Camera(ball, Vector2.ZERO,
+                this.getWindowDimensions().mult(CAMERA_FACTOR),
+                this.getWindowDimensions()));
+    }
+
     /**
      * Creates a falling heart at the specified center position.
+     * The heart is spawned when the frame's commands are flushed.
      *
      * @param center The center position to create the falling heart.
      */
     public void createFallingHeart(Vector2 center){
-        Renderable heartImage =
-                imageReader.readImage(ASSETS_HEART_PNG, true);
+        commands.spawnFallingHeart(center);
+    }
+
+    private void spawnFallingHeart(Vector2 center) {
+        Heart fallingHeart = fallingHeartPool.acquire();
+        gameObjects().addGameObject(fallingHeart);
+        fallingHearts.add(fallingHeart);
+        setFallingHeartDirections(fallingHeart, center);
+        events.spawn(EntityKind.FALLING_HEART);
+    }
+
+    private Heart newFallingHeart() {
+        Renderable heartImage = assets.getImage(ASSETS_HEART_PNG, true);
         Heart fallingHeart = new Heart(
                 Vector2.ZERO, new Vector2(HEALTH_BAR_HEIGHT,
                 HEALTH_BAR_HEIGHT),
                 heartImage, outOfScreenStrategy);
-        fallingHeart.setTag(FALLING_HEART_TAG);
-        gameObjects().addGameObject(fallingHeart);
-        setFallingHeartDirections(fallingHeart, center);
+        fallingHeart.setKind(EntityKind.FALLING_HEART);
+        return fallingHeart;
     }
 
     private void setFallingHeartDirections(Heart fallingHeart, Vector2 center) {
         fallingHeart.setCenter(center);
-        float velocityY = (float) FALLING_HEART_SPEED;
-        fallingHeart.setVelocity(new Vector2(0, velocityY));
+        fallingHeart.setVelocity(FALLING_HEART_VELOCITY);
     }
 
 
     private void addHeartToHealthBar(){
         boolean addHeart = this.healthBar.addHeart();
         if(addHeart){
-            gameObjects().addGameObject(healthBar.getHearts()[this.healthBar.getCurLives()-1], Layer.UI);
+            uiBodies.add(healthBar.getHearts()[this.healthBar.getCurLives()-1]);
         }
     }
 
@@ -438,20 +1297,65 @@ public class BrickerGameManager extends GameManager {
      * The main method serves as the entry point for the Bricker game application.
      * It initializes the game with the specified number of rows and bricks per row,
      * or defaults to predefined constants if no arguments are provided.
+     * To run the game without a window, use HeadlessSimulation.main instead.
      *
      * @param args Command-line arguments where the first argument (args[0]) specifies the number of rows
-     *             and the second argument (args[1]) specifies the number of bricks per row.
+     *             and the second argument (args[1]) specifies the number of bricks per row. An optional
+     *             third argument (args[2]) specifies the random seed of the game, and an optional fourth
+     *             argument (args[3]) a file the game is recorded to, for replay by ReplayRunner.
+     *             Setting the system property LEVEL_FILE_PROPERTY to a level file plays that level
+     *             instead of the grid; LevelConverter writes grids as level files.
+     *             Holding REWIND_KEY rewinds the last REWIND_SECONDS of the game.
+     *             Setting the system property SLOW_FRAME_DIRECTORY_PROPERTY to a directory dumps a
+     *             Flight Recorder recording of the last seconds into it whenever a frame is slow.
      */
     public static void main(String[] args) {
         int numRows = DEFAULT_NUM_ROWS;
         int bricksPerRow = DEFAULT_BRICKS_PER_ROW;
+        long seed = System.nanoTime();
         if (args.length >= 2) {
             numRows = Integer.parseInt(args[0]);
             bricksPerRow = Integer.parseInt(args[1]);
         }
-        new BrickerGameManager(
+        if (args.length >= 3) {
+            seed = Long.parseLong(args[2]);
+        }
+        BrickerGameManager game = new BrickerGameManager(
                 BRICKER_WINDOW_TITLE,
-                new Vector2(SCREEN_WIDTH, SCREEN_HEIGHT), numRows, bricksPerRow).run();
+                new Vector2(SCREEN_WIDTH, SCREEN_HEIGHT), numRows, bricksPerRow, seed);
+        if (args.length >= 4) {
+            InputRecording recording = game.startRecording();
+            String recordingPath = args[3];
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> saveRecording(recording, recordingPath)));
+        }
+        game.enableRewind(REWIND_SECONDS * FIXED_FRAME_RATE);
+        game.setAudioMixer(AudioMixer.openDefault(AUDIO_SAMPLE_RATE, FIXED_FRAME_RATE, AUDIO_MAX_VOICES,
+                AUDIO_QUEUE_CAPACITY));
+        String levelPath = System.getProperty(LEVEL_FILE_PROPERTY);
+        if (levelPath != null) {
+            try {
+                game.setLevel(LevelFile.open(Paths.get(levelPath)));
+            } catch (IOException e) {
+                System.err.println("Failed to open the level " + levelPath + ": " + e.getMessage());
+            }
+        }
+        String slowFrameDirectory = System.getProperty(SLOW_FRAME_DIRECTORY_PROPERTY);
+        if (slowFrameDirectory != null) {
+            try {
+                game.enableSlowFrameCapture(Paths.get(slowFrameDirectory));
+            } catch (IOException e) {
+                System.err.println("Failed to start the slow frame capture: " + e.getMessage());
+            }
+        }
+        game.run();
+    }
+
+    private static void saveRecording(InputRecording recording, String path) {
+        try (OutputStream outputStream = Files.newOutputStream(Paths.get(path))) {
+            recording.writeTo(outputStream);
+        } catch (IOException e) {
+            System.err.println("Failed to save the recording to " + path + ": " + e.getMessage());
+        }
 
     }
 }
@@ -3,6 +3,7 @@ import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 
 import java.awt.*;
+import java.awt.event.KeyEvent;
 
 /**
  * Public constants used in the Bricker game.
@@ -226,5 +227,128 @@ public class Constants {
      * Title of the game window.
      */
     public static final String BRICKER_WINDOW_TITLE = "bricker";
-}
 
+    //fixed timestep simulation
+    /**
+     * Number of simulated frames per game second when the game runs on a fixed timestep (headless,
+     * recorded and replayed games).
+     */
+    public static final int FIXED_FRAME_RATE = 60;
+
+    /**
+     * Fixed timestep of a simulated frame, in seconds.
+     */
+    public static final float FIXED_DELTA_TIME = 1f / FIXED_FRAME_RATE;
+
+    /**
+     * Default number of frames a headless run simulates before giving up on the game ending.
+     */
+    public static final int HEADLESS_DEFAULT_MAX_FRAMES = FIXED_FRAME_RATE * 60 * 10;
+
+    /**
+     * Maximal number of fixed timesteps simulated for a single rendered frame, so that a stalled frame
+     * does not make the game fall further and further behind.
+     */
+    public static final int MAX_FIXED_STEPS_PER_FRAME = 5;
+
+    /**
+     * Number of pucks from which the search for puck-brick contacts is split across a ForkJoinPool.
+     */
+    public static final int PARALLEL_COLLISION_THRESHOLD = 4096;
+
+    /**
+     * Largest distance, in pixels along either axis, that a ball or a puck moves between two collision
+     * checks. Faster bodies are swept or sub-stepped so they cannot pass through thin bricks and borders.
+     */
+    public static final float MAX_STEP_DISTANCE = 5;
+
+    /**
+     * Maximal number of sub-steps a frame is split into when its bodies move too far in one step.
+     */
+    public static final int MAX_SUB_STEPS = 64;
+
+    /**
+     * Depth, in pixels, a swept ball is moved past its time of impact, so the discrete checks see the
+     * overlap and bounce it.
+     */
+    public static final float SWEPT_CONTACT_DEPTH = 1;
+
+    /**
+     * Key that shows and hides the profiler overlay.
+     */
+    public static final int PROFILER_HUD_TOGGLE_KEY = KeyEvent.VK_F3;
+
+    /**
+     * Key that rewinds the game, one frame per frame, while it is held.
+     */
+    public static final int REWIND_KEY = KeyEvent.VK_BACK_SPACE;
+
+    /**
+     * Number of seconds of the game that can be rewound.
+     */
+    public static final int REWIND_SECONDS = 5;
+
+    /**
+     * Height of the profiler overlay.
+     */
+    public static final float PROFILER_HUD_HEIGHT = 15;
+
+    /**
+     * Number of frames between two refreshes of the profiler overlay.
+     */
+    public static final int PROFILER_HUD_REFRESH_FRAMES = 30;
+
+    /**
+     * Step time above which a frame counts as slow, in nanoseconds: the budget of a frame at
+     * FIXED_FRAME_RATE.
+     */
+    public static final long SLOW_FRAME_BUDGET_NANOS = 1_000_000_000L / FIXED_FRAME_RATE;
+
+    /**
+     * Number of seconds of the game kept in the slow frame recording.
+     */
+    public static final int SLOW_FRAME_RECORDING_SECONDS = 10;
+
+    /**
+     * Minimal number of seconds between two dumps of the slow frame recording.
+     */
+    public static final int SLOW_FRAME_MIN_DUMP_INTERVAL_SECONDS = 30;
+
+    /**
+     * System property naming the directory slow frame recordings are dumped to.
+     */
+    public static final String SLOW_FRAME_DIRECTORY_PROPERTY = "bricker.slowFrameDir";
+
+    /**
+     * System property naming the level file the game is played on.
+     */
+    public static final String LEVEL_FILE_PROPERTY = "bricker.level";
+
+    //networked two-player mode
+    /**
+     * Default TCP port of the server of a two-player game.
+     */
+    public static final int NETWORK_DEFAULT_PORT = 47474;
+
+    /**
+     * Size of the buffers holding the frames a two-player server has not sent yet; a client that falls
+     * this far behind is disconnected.
+     */
+    public static final int NETWORK_BUFFER_BYTES = 1 << 20;
+
+    //audio
+    /**
+     * Sample rate of the audio mixer, in Hz.
+     */
+    public static final float AUDIO_SAMPLE_RATE = 44_100;
+
+    /**
+     * Maximal number of sounds the audio mixer plays at once.
+     */
+    public static final int AUDIO_MAX_VOICES = 8;
+
+    /**
+     * Number of play requests that can wait for the audio mixer. A power of two.
+     */
+    public static final int AUDIO_QUEUE_CAPACITY = 256;
+}
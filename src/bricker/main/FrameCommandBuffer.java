@@ -0,0 +1,200 @@
+package bricker.main;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * FrameCommandBuffer collects the spawns and removals requested during a frame, so that they can be
+ * applied to the game in one batch once physics and collisions are done, instead of mutating the game
+ * objects one at a time in the middle of the collision pass.
+ * It also keeps statistics about the size of the batches.
+ */
+public class FrameCommandBuffer {
+    private final List<GameObject> removals;
+    private final Set<GameObject> pendingRemovals;
+    private final List<Vector2> puckSpawns;
+    private final List<Vector2> fallingHeartSpawns;
+    private boolean secondaryPaddleRequested;
+    private int lastBatchSize;
+    private int maxBatchSize;
+    private long totalCommands;
+    private long numBatches;
+
+    /**
+     * Constructs a new, empty FrameCommandBuffer.
+     */
+    public FrameCommandBuffer() {
+        this.removals = new ArrayList<>();
+        this.pendingRemovals = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.puckSpawns = new ArrayList<>();
+        this.fallingHeartSpawns = new ArrayList<>();
+        this.secondaryPaddleRequested = false;
+        this.lastBatchSize = 0;
+        this.maxBatchSize = 0;
+        this.totalCommands = 0;
+        this.numBatches = 0;
+    }
+
+    /**
+     * Queues the removal of a game object.
+     *
+     * @param object The object to remove.
+     * @return true if the removal was queued, false if the object is already waiting to be removed.
+     */
+    public boolean remove(GameObject object) {
+        if (!pendingRemovals.add(object)) {
+            return false;
+        }
+        removals.add(object);
+        return true;
+    }
+
+    /**
+     * Checks whether a game object is waiting to be removed.
+     *
+     * @param object The object to check.
+     * @return true if the removal of the object is queued, false otherwise.
+     */
+    public boolean isRemovalPending(GameObject object) {
+        return pendingRemovals.contains(object);
+    }
+
+    /**
+     * Queues the spawn of a puck.
+     *
+     * @param center The center of the new puck.
+     */
+    public void spawnPuck(Vector2 center) {
+        puckSpawns.add(center);
+    }
+
+    /**
+     * Queues the spawn of a falling heart.
+     *
+     * @param center The center of the new heart.
+     */
+    public void spawnFallingHeart(Vector2 center) {
+        fallingHeartSpawns.add(center);
+    }
+
+    /**
+     * Queues the creation of the secondary paddle.
+     */
+    public void requestSecondaryPaddle() {
+        this.secondaryPaddleRequested = true;
+    }
+
+    /**
+     * Gets the queued removals, in the order they were requested.
+     *
+     * @return The objects to remove.
+     */
+    public List<GameObject> getRemovals() {
+        return removals;
+    }
+
+    /**
+     * Gets the queued puck spawns, in the order they were requested.
+     *
+     * @return The centers of the pucks to spawn.
+     */
+    public List<Vector2> getPuckSpawns() {
+        return puckSpawns;
+    }
+
+    /**
+     * Gets the queued falling heart spawns, in the order they were requested.
+     *
+     * @return The centers of the hearts to spawn.
+     */
+    public List<Vector2> getFallingHeartSpawns() {
+        return fallingHeartSpawns;
+    }
+
+    /**
+     * Checks whether the creation of the secondary paddle was requested.
+     *
+     * @return true if the secondary paddle should be created, false otherwise.
+     */
+    public boolean isSecondaryPaddleRequested() {
+        return secondaryPaddleRequested;
+    }
+
+    /**
+     * Gets the number of queued commands.
+     *
+     * @return The size of the current batch.
+     */
+    public int size() {
+        return removals.size() + puckSpawns.size() + fallingHeartSpawns.size()
+                + (secondaryPaddleRequested ? 1 : 0);
+    }
+
+    /**
+     * Empties the buffer after its commands were applied, and records the size of the batch.
+     */
+    public void clear() {
+        int batchSize = size();
+        this.lastBatchSize = batchSize;
+        this.maxBatchSize = Math.max(maxBatchSize, batchSize);
+        this.totalCommands += batchSize;
+        this.numBatches++;
+        discard();
+    }
+
+    /**
+     * Empties the buffer without applying its commands, e.g. when the game is rewound or restarted
+     * and the queued commands belong to a frame that no longer happens. No batch is recorded.
+     */
+    public void discard() {
+        removals.clear();
+        pendingRemovals.clear();
+        puckSpawns.clear();
+        fallingHeartSpawns.clear();
+        this.secondaryPaddleRequested = false;
+    }
+
+    /**
+     * Gets the number of commands applied by the last batch.
+     *
+     * @return The size of the last batch.
+     */
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * Gets the number of commands applied by the largest batch so far.
+     *
+     * @return The size of the largest batch.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Gets the average number of commands per batch.
+     *
+     * @return The mean batch size, or 0 if no batch was applied yet.
+     */
+    public double getMeanBatchSize() {
+        return numBatches == 0 ? 0 : (double) totalCommands / numBatches;
+    }
+
+    /**
+     * Formats the batch statistics as a short report.
+     *
+     * @return The last, mean and maximal batch sizes.
+     */
+    @Override
+    public String toString() {
+        return String.format("last=%d mean=%.2f max=%d batches=%d", lastBatchSize, getMeanBatchSize(),
+                maxBatchSize, numBatches);
+    }
+}
@@ -0,0 +1,204 @@
+package bricker.main;
+
+import bricker.util.LatencyHistogram;
+
+/**
+ * FrameProfiler measures how long every phase of a game step takes.
+ * A step calls startFrame, then endPhase after each of its phases and endFrame at its end. Each call
+ * reads System.nanoTime once and records the time since the previous call into the histogram of the
+ * phase, so profiling costs one clock read per phase and no allocation. The frame times are also kept
+ * in a second histogram that can be reset, to look at the recent frames only.
+ */
+public class FrameProfiler {
+    private static final double NANOS_PER_MICRO = 1e3;
+    private static final String ROW_FORMAT = "%-18s %10d %10.1f %10.1f %10.1f %10.1f%n";
+
+    /**
+     * The phases of a game step, in the order they run.
+     */
+    public enum Phase {
+        /**
+         * Polling the input and recycling pooled objects.
+         */
+        INPUT,
+        /**
+         * The engine's update of all game objects, including physics and collisions.
+         */
+        PHYSICS,
+        /**
+         * Colliding the main ball with the static bodies and the brick field.
+         */
+        BRICK_COLLISIONS,
+        /**
+         * Applying the spawns and removals queued during the frame.
+         */
+        COMMANDS,
+        /**
+         * Checking whether the game was won or lost.
+         */
+        GAME_END,
+        /**
+         * Removing the secondary paddle once it was hit enough times.
+         */
+        SECONDARY_PADDLE,
+        /**
+         * Catching falling hearts with the user paddle.
+         */
+        FALLING_HEART,
+        /**
+         * Resetting the camera once it followed the main ball long enough.
+         */
+        CAMERA,
+        /**
+         * Capturing the frame into the rewind buffer.
+         */
+        SNAPSHOT
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final LatencyHistogram[] phaseTimes;
+    private final LatencyHistogram frameTimes;
+    private final LatencyHistogram recentFrameTimes;
+    private boolean enabled;
+    private long frameStart;
+    private long phaseStart;
+    private long lastFrameNanos;
+
+    /**
+     * Constructs a new, enabled FrameProfiler.
+     */
+    public FrameProfiler() {
+        this.phaseTimes = new LatencyHistogram[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseTimes[i] = new LatencyHistogram();
+        }
+        this.frameTimes = new LatencyHistogram();
+        this.recentFrameTimes = new LatencyHistogram();
+        this.enabled = true;
+    }
+
+    /**
+     * Turns profiling on or off. While off, the profiling calls return without reading the clock.
+     *
+     * @param enabled Whether frames should be profiled.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Checks whether frames are profiled.
+     *
+     * @return true if frames are profiled, false otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks the start of a frame.
+     */
+    public void startFrame() {
+        if (!enabled) {
+            return;
+        }
+        frameStart = System.nanoTime();
+        phaseStart = frameStart;
+    }
+
+    /**
+     * Marks the end of a phase, which started when the previous phase ended or the frame started.
+     *
+     * @param phase The phase that just ended.
+     */
+    public void endPhase(Phase phase) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        phaseTimes[phase.ordinal()].record(now - phaseStart);
+        phaseStart = now;
+    }
+
+    /**
+     * Marks the end of a frame.
+     */
+    public void endFrame() {
+        if (!enabled) {
+            return;
+        }
+        long frameNanos = System.nanoTime() - frameStart;
+        lastFrameNanos = frameNanos;
+        frameTimes.record(frameNanos);
+        recentFrameTimes.record(frameNanos);
+    }
+
+    /**
+     * Gets the time of the last profiled frame.
+     *
+     * @return The time of the last frame, in nanoseconds.
+     */
+    public long getLastFrameNanos() {
+        return lastFrameNanos;
+    }
+
+    /**
+     * Gets the times of a phase.
+     *
+     * @param phase The phase.
+     * @return The histogram of the phase's times.
+     */
+    public LatencyHistogram getPhaseTimes(Phase phase) {
+        return phaseTimes[phase.ordinal()];
+    }
+
+    /**
+     * Gets the times of all the frames profiled so far.
+     *
+     * @return The histogram of the frame times.
+     */
+    public LatencyHistogram getFrameTimes() {
+        return frameTimes;
+    }
+
+    /**
+     * Gets the times of the frames profiled since the recent frames were last reset.
+     *
+     * @return The histogram of the recent frame times.
+     */
+    public LatencyHistogram getRecentFrameTimes() {
+        return recentFrameTimes;
+    }
+
+    /**
+     * Forgets the recent frame times.
+     */
+    public void resetRecentFrames() {
+        recentFrameTimes.reset();
+    }
+
+    /**
+     * Formats a table of the p50, p99, max and mean time, in microseconds, of every phase and of the
+     * whole frame.
+     *
+     * @return The table.
+     */
+    @Override
+    public String toString() {
+        StringBuilder table = new StringBuilder(String.format("%-18s %10s %10s %10s %10s %10s%n",
+                "phase", "count", "p50 us", "p99 us", "max us", "mean us"));
+        for (Phase phase : PHASES) {
+            appendRow(table, phase.name(), phaseTimes[phase.ordinal()]);
+        }
+        appendRow(table, "FRAME", frameTimes);
+        return table.toString();
+    }
+
+    private static void appendRow(StringBuilder table, String name, LatencyHistogram histogram) {
+        table.append(String.format(ROW_FORMAT, name, histogram.getCount(),
+                histogram.getPercentileNanos(50) / NANOS_PER_MICRO,
+                histogram.getPercentileNanos(99) / NANOS_PER_MICRO,
+                histogram.getMaxNanos() / NANOS_PER_MICRO, histogram.getMeanNanos() / NANOS_PER_MICRO));
+    }
+}
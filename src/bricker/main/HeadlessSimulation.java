@@ -0,0 +1,207 @@
+package bricker.main;
+
+import bricker.headless.HeadlessImageReader;
+import bricker.headless.HeadlessSoundReader;
+import bricker.headless.HeadlessWindow;
+import bricker.headless.SimulationResult;
+import bricker.level.LevelFile;
+import bricker.input.InputSource;
+import danogl.util.Vector2;
+
+import static bricker.main.Constants.*;
+
+/**
+ * HeadlessSimulation runs the Bricker game without a window, sound device or keyboard.
+ * It drives the same BrickerGameManager.update loop on a fixed timestep of FIXED_DELTA_TIME
+ * as fast as the CPU allows, which makes it suitable for soak tests, benchmarks and batch runs on
+ * machines without a display.
+ * Assets are never decoded: images are replaced by null renderables and sounds by silence.
+ */
+public class HeadlessSimulation {
+    private final BrickerGameManager game;
+    private final HeadlessWindow window;
+    private float deltaTime;
+
+    /**
+     * Constructs and initializes a new headless game.
+     *
+     * @param numRows      The number of rows of bricks.
+     * @param bricksPerRow The number of bricks per row.
+     */
+    public HeadlessSimulation(int numRows, int bricksPerRow) {
+        this(numRows, bricksPerRow, System.nanoTime());
+    }
+
+    /**
+     * Constructs and initializes a new, reproducible headless game.
+     *
+     * @param numRows      The number of rows of bricks.
+     * @param bricksPerRow The number of bricks per row.
+     * @param seed         The seed of all the game's random decisions.
+     */
+    public HeadlessSimulation(int numRows, int bricksPerRow, long seed) {
+        this(numRows, bricksPerRow, seed, null);
+    }
+
+    /**
+     * Constructs and initializes a new, reproducible headless game whose keys come from a program
+     * or a recording.
+     *
+     * @param numRows      The number of rows of bricks.
+     * @param bricksPerRow The number of bricks per row.
+     * @param seed         The seed of all the game's random decisions.
+     * @param inputSource  The source of the keys of every frame, or null if no key is ever pressed.
+     */
+    public HeadlessSimulation(int numRows, int bricksPerRow, long seed, InputSource inputSource) {
+        this(numRows, bricksPerRow, null, seed, inputSource, null);
+    }
+
+    /**
+     * Constructs and initializes a new, reproducible two-player headless game, whose secondary paddle
+     * is moved by a second source of keys.
+     *
+     * @param numRows              The number of rows of bricks.
+     * @param bricksPerRow         The number of bricks per row.
+     * @param seed                 The seed of all the game's random decisions.
+     * @param inputSource          The source of the user's keys, or null if no key is ever pressed.
+     * @param secondaryInputSource The source of the second player's keys.
+     */
+    public HeadlessSimulation(int numRows, int bricksPerRow, long seed, InputSource inputSource,
+                              InputSource secondaryInputSource) {
+        this(numRows, bricksPerRow, null, seed, inputSource, secondaryInputSource);
+    }
+
+    /**
+     * Constructs and initializes a new, reproducible headless game played on a level file.
+     *
+     * @param level The level the game is played on.
+     * @param seed  The seed of all the game's random decisions.
+     */
+    public HeadlessSimulation(LevelFile level, long seed) {
+        this(level, seed, null);
+    }
+
+    /**
+     * Constructs and initializes a new, reproducible headless game played on a level file, whose keys
+     * come from a program or a recording.
+     *
+     * @param level       The level the game is played on.
+     * @param seed        The seed of all the game's random decisions.
+     * @param inputSource The source of the keys of every frame, or null if no key is ever pressed.
+     */
+    public HeadlessSimulation(LevelFile level, long seed, InputSource inputSource) {
+        this(level.getNumRows(), level.getBricksPerRow(), level, seed, inputSource, null);
+    }
+
+    private HeadlessSimulation(int numRows, int bricksPerRow, LevelFile level, long seed,
+                               InputSource inputSource, InputSource secondaryInputSource) {
+        Vector2 windowDimensions = new Vector2(SCREEN_WIDTH, SCREEN_HEIGHT);
+        this.window = new HeadlessWindow(windowDimensions);
+        this.game = new BrickerGameManager(BRICKER_WINDOW_TITLE, windowDimensions, numRows, bricksPerRow,
+                seed);
+        if (inputSource != null) {
+            this.game.setInputSource(inputSource);
+        }
+        if (secondaryInputSource != null) {
+            this.game.setSecondaryInputSource(secondaryInputSource);
+        }
+        this.game.setLevel(level);
+        this.deltaTime = FIXED_DELTA_TIME;
+        this.game.initializeGame(new HeadlessImageReader(window.getWindowController()),
+                new HeadlessSoundReader(window.getWindowController()),
+                window.getInputListener(), window.getWindowController());
+    }
+
+    /**
+     * Gets the simulated game.
+     *
+     * @return The game manager driven by this simulation.
+     */
+    public BrickerGameManager getGame() {
+        return game;
+    }
+
+    /**
+     * Gets the stub window of the simulation.
+     *
+     * @return The headless window.
+     */
+    public HeadlessWindow getWindow() {
+        return window;
+    }
+
+    /**
+     * Sets the fixed timestep of the simulation.
+     *
+     * @param deltaTime The game time advanced by every step, in seconds.
+     */
+    public void setDeltaTime(float deltaTime) {
+        this.deltaTime = deltaTime;
+    }
+
+    /**
+     * Advances the game by a single fixed timestep.
+     *
+     * @return true if the game is still running after the step, false if it ended.
+     */
+    public boolean step() {
+        if (window.isClosed()) {
+            return false;
+        }
+        game.update(deltaTime);
+        return !window.isClosed();
+    }
+
+    /**
+     * Steps the game until it ends or until the given number of frames was simulated.
+     *
+     * @param maxFrames The maximal number of frames to simulate.
+     * @return The outcome and timing of the run.
+     */
+    public SimulationResult run(int maxFrames) {
+        int numFrames = 0;
+        long start = System.nanoTime();
+        while (numFrames < maxFrames && !window.isClosed()) {
+            step();
+            numFrames++;
+        }
+        long wallNanos = System.nanoTime() - start;
+        String finalPrompt = window.isClosed() ? window.getLastPrompt() : null;
+        return new SimulationResult(numFrames, deltaTime, wallNanos, finalPrompt);
+    }
+
+    /**
+     * Entry point for running the game without a window.
+     * Prints the outcome of the run, the number of simulated frames per second, the asset loads, the
+     * object pool counters and the command batch sizes.
+     *
+     * @param args Optional command-line arguments: args[0] is the number of rows, args[1] the number of
+     *             bricks per row, args[2] the maximal number of frames to simulate and args[3] the
+     *             random seed.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int numRows = DEFAULT_NUM_ROWS;
+        int bricksPerRow = DEFAULT_BRICKS_PER_ROW;
+        int maxFrames = HEADLESS_DEFAULT_MAX_FRAMES;
+        long seed = System.nanoTime();
+        if (args.length >= 2) {
+            numRows = Integer.parseInt(args[0]);
+            bricksPerRow = Integer.parseInt(args[1]);
+        }
+        if (args.length >= 3) {
+            maxFrames = Integer.parseInt(args[2]);
+        }
+        if (args.length >= 4) {
+            seed = Long.parseLong(args[3]);
+        }
+        HeadlessSimulation simulation = new HeadlessSimulation(numRows, bricksPerRow, seed);
+        SimulationResult result = simulation.run(maxFrames);
+        System.out.println("seed=" + seed + " " + result);
+        System.out.println(simulation.getGame().getAssets());
+        System.out.println("pucks: " + simulation.getGame().getPuckSystem());
+        System.out.print(simulation.getGame().getProfiler());
+        System.out.println("falling heart pool: " + simulation.getGame().getFallingHeartPool());
+        System.out.println("command batches: " + simulation.getGame().getCommands());
+    }
+}
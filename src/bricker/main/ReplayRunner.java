@@ -0,0 +1,120 @@
+package bricker.main;
+
+import bricker.headless.SimulationResult;
+import bricker.input.InputRecording;
+import bricker.input.ReplayInputSource;
+import bricker.level.LevelFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * ReplayRunner replays a recorded game without a window, as fast as the CPU allows.
+ * The game is rebuilt from the recording's grid size or level and seed and is fed the recorded keys frame by
+ * frame on the recorded timestep, and its play-again dialogs get the recorded answers, so it takes the
+ * exact same steps and reaches the same outcome as the recorded game. Recordings are made by passing a
+ * file name as the fourth argument of BrickerGameManager.main.
+ * Besides the outcome, the runner reports how many times faster than realtime the replay ran and the
+ * percentiles of the time it took to simulate a frame.
+ */
+public class ReplayRunner {
+    private static final double NANOS_PER_MICRO = 1e3;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+
+    private final InputRecording recording;
+    private final LevelFile level;
+
+    /**
+     * Constructs a new ReplayRunner, opening the level the recorded game was played on, if any.
+     *
+     * @param recording The recording to replay.
+     * @throws IOException If the recording's level cannot be opened or changed since the recording.
+     */
+    public ReplayRunner(InputRecording recording) throws IOException {
+        this.recording = recording;
+        this.level = recording.openLevel();
+    }
+
+    /**
+     * Replays the recording.
+     *
+     * @param frameNanos Receives the time it took to simulate every frame, in nanoseconds. Must be
+     *                   able to hold the recording's number of frames.
+     * @return The outcome and timing of the replay.
+     */
+    public SimulationResult replay(long[] frameNanos) {
+        ReplayInputSource replayInputSource = recording.replay();
+        HeadlessSimulation simulation;
+        if (level == null) {
+            simulation = new HeadlessSimulation(recording.getNumRows(), recording.getBricksPerRow(),
+                    recording.getSeed(), replayInputSource);
+        } else {
+            simulation = new HeadlessSimulation(level, recording.getSeed(), replayInputSource);
+        }
+        simulation.setDeltaTime(recording.getDeltaTime());
+        simulation.getWindow().setDialogAnswers(recording.getAnswers());
+        int numFrames = 0;
+        boolean running = true;
+        long start = System.nanoTime();
+        while (running && numFrames < recording.getNumFrames()) {
+            long frameStart = System.nanoTime();
+            running = simulation.step();
+            frameNanos[numFrames++] = System.nanoTime() - frameStart;
+        }
+        long wallNanos = System.nanoTime() - start;
+        String finalPrompt = simulation.getWindow().isClosed() ? simulation.getWindow().getLastPrompt() : null;
+        return new SimulationResult(numFrames, recording.getDeltaTime(), wallNanos, finalPrompt);
+    }
+
+    /**
+     * Replays a recorded game and prints its outcome and frame time percentiles.
+     *
+     * @param args args[0] is the path of the recording to replay.
+     * @throws IOException If the recording cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 1) {
+            System.err.println("usage: ReplayRunner <recording>");
+            return;
+        }
+        InputRecording recording;
+        try (InputStream inputStream = Files.newInputStream(Paths.get(args[0]))) {
+            recording = InputRecording.readFrom(inputStream);
+        }
+        long[] frameNanos = new long[recording.getNumFrames()];
+        SimulationResult result = new ReplayRunner(recording).replay(frameNanos);
+        System.out.printf("recording: %dx%d seed=%d frames=%d keyStream=%dB%n", recording.getNumRows(),
+                recording.getBricksPerRow(), recording.getSeed(), recording.getNumFrames(),
+                recording.getEncodedSize());
+        if (recording.getLevelPath() != null) {
+            System.out.println("level: " + recording.getLevelPath());
+        }
+        System.out.println("replay: " + result);
+        System.out.printf("realtime factor: %.1fx%n",
+                result.getSimulatedSeconds() * 1e9 / Math.max(1, result.getWallNanos()));
+        printPercentiles(frameNanos, result.getNumFrames());
+    }
+
+    private static void printPercentiles(long[] frameNanos, int numFrames) {
+        if (numFrames == 0) {
+            return;
+        }
+        long[] sorted = Arrays.copyOf(frameNanos, numFrames);
+        Arrays.sort(sorted);
+        StringBuilder report = new StringBuilder("frame time (us):");
+        for (double percentile : PERCENTILES) {
+            int index = (int) Math.min(numFrames - 1, Math.ceil(percentile / 100 * numFrames) - 1);
+            String label = percentile == 100 ? "max" : "p" + formatPercentile(percentile);
+            report.append(String.format(" %s=%.1f", label, sorted[Math.max(0, index)] / NANOS_PER_MICRO));
+        }
+        System.out.println(report);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,143 @@
+package bricker.main;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * SnapshotRing keeps the snapshots of the last frames of a game in a bounded ring of byte buffers.
+ * Every slot is reused once the ring is full, so capturing a frame in the steady state only copies the
+ * game's state into an existing buffer and does not allocate. A snapshot that does not fit its slot
+ * grows the slot, and all the slots reused later, to twice the size, so a growing game (more pucks, a
+ * more broken wall) costs a few reallocations and not one per frame.
+ */
+public class SnapshotRing {
+    private static final int INITIAL_SLOT_BYTES = 1024;
+
+    private final ByteBuffer[] slots;
+    private int slotBytes;
+    private int newest;
+    private int size;
+    private long numCaptured;
+    private int numGrown;
+
+    /**
+     * Constructs a new, empty SnapshotRing.
+     *
+     * @param capacity The number of snapshots kept.
+     */
+    public SnapshotRing(int capacity) {
+        this.slots = new ByteBuffer[capacity];
+        this.slotBytes = INITIAL_SLOT_BYTES;
+        this.newest = capacity - 1;
+        this.size = 0;
+    }
+
+    /**
+     * Captures a snapshot of a game as the newest snapshot, replacing the oldest one if the ring is
+     * full.
+     *
+     * @param game The game, between frames.
+     */
+    public void capture(BrickerGameManager game) {
+        int slot = (newest + 1) % slots.length;
+        ByteBuffer buffer = slots[slot];
+        if (buffer == null || buffer.capacity() < slotBytes) {
+            buffer = ByteBuffer.allocate(slotBytes);
+            slots[slot] = buffer;
+        }
+        while (true) {
+            buffer.clear();
+            try {
+                game.writeSnapshot(buffer);
+                break;
+            } catch (BufferOverflowException e) {
+                slotBytes = 2 * buffer.capacity();
+                buffer = ByteBuffer.allocate(slotBytes);
+                slots[slot] = buffer;
+                numGrown++;
+            }
+        }
+        buffer.flip();
+        this.newest = slot;
+        this.size = Math.min(size + 1, slots.length);
+        numCaptured++;
+    }
+
+    /**
+     * Restores a game to one of the captured snapshots. The snapshots newer than the restored one are
+     * dropped, and the restored one becomes the newest.
+     *
+     * @param game      The game, between frames.
+     * @param numFrames The age of the snapshot: 0 restores the newest one, 1 the one before it, etc.
+     * @return true if the game was restored, false if fewer snapshots were captured.
+     */
+    public boolean rewind(BrickerGameManager game, int numFrames) {
+        if (numFrames < 0 || numFrames >= size) {
+            return false;
+        }
+        this.newest = Math.floorMod(newest - numFrames, slots.length);
+        this.size -= numFrames;
+        ByteBuffer buffer = slots[newest];
+        buffer.rewind();
+        game.readSnapshot(buffer);
+        return true;
+    }
+
+    /**
+     * Drops all the snapshots. The slots are kept for reuse.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Gets the number of snapshots kept.
+     *
+     * @return The number of snapshots, at most the capacity.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the maximal number of snapshots kept.
+     *
+     * @return The capacity of the ring.
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Gets the size of the newest snapshot.
+     *
+     * @return The size of the newest snapshot in bytes, or 0 if none was captured.
+     */
+    public int getNewestSnapshotBytes() {
+        return size == 0 ? 0 : slots[newest].limit();
+    }
+
+    /**
+     * Gets the number of snapshots captured so far.
+     *
+     * @return The number of captured snapshots.
+     */
+    public long getNumCaptured() {
+        return numCaptured;
+    }
+
+    /**
+     * Gets the number of times a slot was too small for a snapshot and was grown.
+     *
+     * @return The number of grown slots.
+     */
+    public int getNumGrown() {
+        return numGrown;
+    }
+
+    @Override
+    public String toString() {
+        return "snapshots=" + size + "/" + slots.length + " newest=" + getNewestSnapshotBytes()
+                + "B slot=" + slotBytes + "B captured=" + numCaptured + " grown=" + numGrown;
+    }
+}
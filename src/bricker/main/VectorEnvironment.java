@@ -0,0 +1,111 @@
+package bricker.main;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * VectorEnvironment steps a number of BrickerEnvironments together and keeps all their observations
+ * in one contiguous direct buffer: the observation of environment i starts at i * getStride(), with
+ * the layout of BrickerEnvironment. A caller reads the observations of every environment after a
+ * step without copying them, and a native library gets them with a single address.
+ * An environment whose episode ended keeps its final observation, with the done flag set, until the
+ * next step, which restarts it in place before applying its action; so every step takes one action
+ * per environment and the environments never wait for each other.
+ * Environment i is seeded with seed + i, so the environments play different games.
+ */
+public class VectorEnvironment {
+    private final BrickerEnvironment[] environments;
+    private final ByteBuffer observations;
+    private final int stride;
+
+    /**
+     * Constructs a new VectorEnvironment.
+     *
+     * @param numEnvironments The number of environments.
+     * @param numRows         The number of rows of bricks of every environment.
+     * @param bricksPerRow    The number of bricks per row of every environment.
+     * @param seed            The seed of the first environment.
+     * @param maxPucks        The maximal number of pucks observed in every environment.
+     */
+    public VectorEnvironment(int numEnvironments, int numRows, int bricksPerRow, long seed, int maxPucks) {
+        this.stride = BrickerEnvironment.observationSize(numRows * bricksPerRow, maxPucks);
+        this.observations = ByteBuffer.allocateDirect(numEnvironments * stride).order(ByteOrder.nativeOrder());
+        this.environments = new BrickerEnvironment[numEnvironments];
+        for (int i = 0; i < numEnvironments; i++) {
+            environments[i] = new BrickerEnvironment(numRows, bricksPerRow, seed + i, maxPucks,
+                    observations.slice(i * stride, stride));
+        }
+    }
+
+    /**
+     * Advances every environment by one frame. Environments whose episode ended in the previous step
+     * are reset first.
+     *
+     * @param actions The action of every environment, one of ActionInputSource.NONE, LEFT and RIGHT.
+     * @return The number of environments whose episode ended in this step.
+     * @throws IllegalArgumentException If there is not one valid action per environment.
+     */
+    public int step(int[] actions) {
+        if (actions.length != environments.length) {
+            throw new IllegalArgumentException("expected " + environments.length + " actions, got "
+                    + actions.length);
+        }
+        int numDone = 0;
+        for (int i = 0; i < environments.length; i++) {
+            BrickerEnvironment environment = environments[i];
+            if (environment.isDone()) {
+                environment.reset();
+            }
+            if (environment.step(actions[i])) {
+                numDone++;
+            }
+        }
+        return numDone;
+    }
+
+    /**
+     * Starts a new episode in every environment.
+     */
+    public void reset() {
+        for (BrickerEnvironment environment : environments) {
+            environment.reset();
+        }
+    }
+
+    /**
+     * Gets the buffer holding the observations of all the environments.
+     *
+     * @return The observation buffer, in native byte order.
+     */
+    public ByteBuffer getObservations() {
+        return observations;
+    }
+
+    /**
+     * Gets the distance between the observations of consecutive environments.
+     *
+     * @return The size of an observation in bytes.
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    /**
+     * Gets the number of environments.
+     *
+     * @return The number of environments.
+     */
+    public int getNumEnvironments() {
+        return environments.length;
+    }
+
+    /**
+     * Gets one of the environments.
+     *
+     * @param index The index of the environment.
+     * @return The environment.
+     */
+    public BrickerEnvironment getEnvironment(int index) {
+        return environments[index];
+    }
+}
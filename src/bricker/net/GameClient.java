@@ -0,0 +1,236 @@
+package bricker.net;
+
+import bricker.input.BallFollowingInputSource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.locks.LockSupport;
+
+import static bricker.main.Constants.*;
+
+/**
+ * GameClient is the second player's end of a two-player game. It connects to a GameServer over a
+ * non-blocking socket, applies the frames it receives to a NetworkState with a StateDecoder, and sends
+ * the keys that move the secondary paddle, together with the last tick it applied.
+ * The client never blocks unless asked to wait: poll reads whatever arrived and returns.
+ */
+public class GameClient implements AutoCloseable {
+    private static final int OUTPUT_BUFFER_BYTES = 1024;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long CONNECT_TIMEOUT_MILLIS = 5000;
+
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final SelectionKey key;
+    private final ByteBuffer incoming;
+    private final ByteBuffer outgoing;
+    private final StateDecoder decoder;
+    private long numFramesReceived;
+    private long numBytesReceived;
+    private boolean disconnected;
+
+    /**
+     * Constructs a new GameClient and starts connecting to a server.
+     *
+     * @param address The address of the server.
+     * @throws IOException If the socket cannot be opened.
+     */
+    public GameClient(InetSocketAddress address) throws IOException {
+        this.selector = Selector.open();
+        this.channel = SocketChannel.open();
+        this.channel.configureBlocking(false);
+        this.channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        boolean connected = this.channel.connect(address);
+        this.key = this.channel.register(selector, connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT);
+        this.incoming = ByteBuffer.allocateDirect(NETWORK_BUFFER_BYTES);
+        this.outgoing = ByteBuffer.allocateDirect(OUTPUT_BUFFER_BYTES);
+        this.decoder = new StateDecoder();
+        this.disconnected = false;
+    }
+
+    /**
+     * Reads and applies the frames that arrived, waiting for them at most a given time.
+     *
+     * @param timeoutMillis The longest time to wait for the socket, in milliseconds, or 0 to not wait.
+     * @return The number of frames applied.
+     * @throws IOException If the connection fails or a frame does not fit the buffer.
+     */
+    public int poll(long timeoutMillis) throws IOException {
+        if (disconnected) {
+            return 0;
+        }
+        int numReady = timeoutMillis > 0 ? selector.select(timeoutMillis) : selector.selectNow();
+        if (numReady == 0) {
+            return 0;
+        }
+        selector.selectedKeys().clear();
+        if (key.isConnectable()) {
+            channel.finishConnect();
+            key.interestOps(SelectionKey.OP_READ);
+            return 0;
+        }
+        int read = channel.read(incoming);
+        if (read < 0) {
+            this.disconnected = true;
+            return 0;
+        }
+        numBytesReceived += read;
+        return decodeFrames();
+    }
+
+    private int decodeFrames() throws IOException {
+        incoming.flip();
+        int numFrames = 0;
+        while (incoming.remaining() >= WireFormat.LENGTH_BYTES) {
+            int length = incoming.getInt(incoming.position());
+            if (length > incoming.capacity() - WireFormat.LENGTH_BYTES) {
+                throw new IOException("a frame of " + length + " bytes does not fit the buffer");
+            }
+            if (incoming.remaining() < WireFormat.LENGTH_BYTES + length) {
+                break;
+            }
+            incoming.position(incoming.position() + WireFormat.LENGTH_BYTES);
+            int end = incoming.position() + length;
+            decoder.decode(incoming);
+            if (incoming.position() != end) {
+                throw new IOException("a frame of " + length + " bytes was decoded from "
+                        + (incoming.position() - end + length) + " bytes");
+            }
+            numFrames++;
+        }
+        incoming.compact();
+        numFramesReceived += numFrames;
+        return numFrames;
+    }
+
+    /**
+     * Waits until the frame of a tick was applied.
+     *
+     * @param tick          The tick.
+     * @param timeoutMillis The longest time to wait, in milliseconds.
+     * @return true if the frame was applied, false if the wait timed out or the server disconnected.
+     * @throws IOException If the connection fails.
+     */
+    public boolean awaitTick(long tick, long timeoutMillis) throws IOException {
+        long deadline = System.nanoTime() + timeoutMillis * NANOS_PER_MILLI;
+        while (!decoder.getState().isSynced() || decoder.getState().getTick() < tick) {
+            long remainingMillis = (deadline - System.nanoTime()) / NANOS_PER_MILLI;
+            if (disconnected || remainingMillis <= 0) {
+                return false;
+            }
+            poll(remainingMillis);
+        }
+        return true;
+    }
+
+    /**
+     * Sends the keys of the secondary paddle, with the last tick applied.
+     *
+     * @param keys The keys, as a bitmask of FrameInput.LEFT and FrameInput.RIGHT.
+     * @throws IOException If the connection fails.
+     */
+    public void sendInput(int keys) throws IOException {
+        if (disconnected || !channel.isConnected()) {
+            return;
+        }
+        if (outgoing.remaining() >= WireFormat.INPUT_MESSAGE_BYTES) {
+            outgoing.put((byte) keys);
+            outgoing.putLong(decoder.getState().getTick());
+        }
+        outgoing.flip();
+        channel.write(outgoing);
+        outgoing.compact();
+    }
+
+    /**
+     * Gets the state the frames are applied to.
+     *
+     * @return The client's state of the game.
+     */
+    public NetworkState getState() {
+        return decoder.getState();
+    }
+
+    /**
+     * Checks whether the server closed the connection.
+     *
+     * @return true if the server disconnected, false otherwise.
+     */
+    public boolean isDisconnected() {
+        return disconnected;
+    }
+
+    /**
+     * Gets the number of frames applied.
+     *
+     * @return The number of frames.
+     */
+    public long getNumFramesReceived() {
+        return numFramesReceived;
+    }
+
+    /**
+     * Gets the number of bytes received.
+     *
+     * @return The number of bytes.
+     */
+    public long getNumBytesReceived() {
+        return numBytesReceived;
+    }
+
+    /**
+     * Closes the connection.
+     *
+     * @throws IOException If the socket fails to close.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        selector.close();
+    }
+
+    /**
+     * Plays the secondary paddle of a server's game from this process: the paddle follows the ball as
+     * the client sees it. Prints the traffic once a second.
+     *
+     * @param args Optional command-line arguments: args[0] is the host of the server and args[1] its
+     *             port.
+     * @throws IOException If the connection fails.
+     */
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : NETWORK_DEFAULT_PORT;
+        try (GameClient client = new GameClient(new InetSocketAddress(host, port))) {
+            long tickNanos = NANOS_PER_SECOND / FIXED_FRAME_RATE;
+            long next = System.nanoTime();
+            long bytesBefore = 0;
+            long framesBefore = 0;
+            client.poll(CONNECT_TIMEOUT_MILLIS);
+            while (!client.isDisconnected()) {
+                client.poll(0);
+                NetworkState state = client.getState();
+                int keys = 0;
+                if (state.hasSecondaryPaddle()) {
+                    keys = BallFollowingInputSource.keysToward(state.getSecondaryPaddleX(), state.getBallX());
+                }
+                client.sendInput(keys);
+                long numFrames = client.getNumFramesReceived() - framesBefore;
+                if (numFrames >= FIXED_FRAME_RATE) {
+                    System.out.printf("tick %d: %.1f B/frame, %d bricks, %d pucks, %d lives%n", state.getTick(),
+                            (client.getNumBytesReceived() - bytesBefore) / (double) numFrames,
+                            state.getNumStanding(), state.getNumPucks(), state.getLives());
+                    bytesBefore = client.getNumBytesReceived();
+                    framesBefore = client.getNumFramesReceived();
+                }
+                next += tickNanos;
+                LockSupport.parkNanos(next - System.nanoTime());
+            }
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package bricker.net;
+
+import bricker.input.BallFollowingInputSource;
+import bricker.input.FrameInput;
+import bricker.main.BrickerGameManager;
+import bricker.main.HeadlessSimulation;
+import bricker.util.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.locks.LockSupport;
+
+import static bricker.main.Constants.*;
+
+/**
+ * GameServer runs the authoritative game of a two-player match and streams it to the second player.
+ * The game is a headless two-player game: the user paddle is played on the server, and the secondary
+ * paddle moves by the keys the client sends. Every tick the server reads the client's latest keys,
+ * steps the game, and sends a frame with what changed, written by a StateEncoder.
+ * All the sockets are non-blocking and served from the ticking thread through a Selector, so a slow or
+ * silent client never stalls the game; frames the socket did not take yet wait in a bounded buffer,
+ * and a client that falls further behind than NETWORK_BUFFER_BYTES is disconnected. One client is
+ * served at a time; a second connection is closed at once. The round trip of every frame is measured
+ * from the tick the client acknowledges with its keys.
+ */
+public class GameServer implements AutoCloseable {
+    private static final int TICK_HISTORY = 256;
+    private static final int INPUT_BUFFER_BYTES = 1024;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final HeadlessSimulation simulation;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final ByteBuffer outgoing;
+    private final ByteBuffer incoming;
+    private final long[] sendNanos;
+    private final LatencyHistogram roundTrips;
+    private SocketChannel client;
+    private StateEncoder encoder;
+    private int remoteKeys;
+    private long tick;
+    private long lastAcknowledged;
+    private long numFramesSent;
+    private long numBytesSent;
+    private int lastFrameBytes;
+
+    /**
+     * Constructs a new GameServer and starts listening.
+     *
+     * @param numRows      The number of rows of bricks.
+     * @param bricksPerRow The number of bricks per row.
+     * @param seed         The seed of all the game's random decisions.
+     * @param address      The address to listen on; port 0 picks a free port.
+     * @throws IOException If the server socket cannot be opened.
+     */
+    public GameServer(int numRows, int bricksPerRow, long seed, SocketAddress address) throws IOException {
+        BallFollowingInputSource host = new BallFollowingInputSource();
+        this.simulation = new HeadlessSimulation(numRows, bricksPerRow, seed, host, () -> remoteKeys);
+        host.follow(simulation.getGame());
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(address);
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.outgoing = ByteBuffer.allocateDirect(NETWORK_BUFFER_BYTES);
+        this.incoming = ByteBuffer.allocateDirect(INPUT_BUFFER_BYTES);
+        this.sendNanos = new long[TICK_HISTORY];
+        this.roundTrips = new LatencyHistogram();
+        this.tick = 0;
+        this.lastAcknowledged = -1;
+    }
+
+    /**
+     * Serves the sockets, steps the game by one tick and sends its frame to the client, if one is
+     * connected. A game that ends is restarted at once.
+     *
+     * @throws IOException If the server socket fails.
+     */
+    public void tick() throws IOException {
+        selector.selectNow();
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (key.isValid() && key.isAcceptable()) {
+                accept();
+            } else if (key.isValid() && key.isReadable()) {
+                readInput();
+            }
+        }
+        if (!simulation.step()) {
+            simulation.getGame().restart();
+            simulation.getWindow().reopen();
+        }
+        tick++;
+        if (client != null) {
+            sendFrame();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        if (client != null) {
+            channel.close();
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        channel.register(selector, SelectionKey.OP_READ);
+        this.client = channel;
+        this.encoder = new StateEncoder(FIXED_DELTA_TIME);
+        //the first frame the client gets is the one of the next tick
+        this.lastAcknowledged = tick;
+        outgoing.clear();
+        incoming.clear();
+    }
+
+    private void readInput() throws IOException {
+        int read;
+        try {
+            read = client.read(incoming);
+        } catch (IOException e) {
+            read = -1;
+        }
+        if (read < 0) {
+            disconnect();
+            return;
+        }
+        incoming.flip();
+        while (incoming.remaining() >= WireFormat.INPUT_MESSAGE_BYTES) {
+            this.remoteKeys = incoming.get() & (FrameInput.LEFT | FrameInput.RIGHT);
+            long acknowledged = incoming.getLong();
+            if (acknowledged > lastAcknowledged && tick - acknowledged < TICK_HISTORY) {
+                roundTrips.record(System.nanoTime() - sendNanos[(int) (acknowledged % TICK_HISTORY)]);
+                this.lastAcknowledged = acknowledged;
+            }
+        }
+        incoming.compact();
+    }
+
+    private void sendFrame() throws IOException {
+        int start = outgoing.position();
+        try {
+            encoder.encode(simulation.getGame(), tick, outgoing);
+        } catch (BufferOverflowException e) {
+            disconnect();
+            return;
+        }
+        this.lastFrameBytes = outgoing.position() - start;
+        numFramesSent++;
+        numBytesSent += lastFrameBytes;
+        sendNanos[(int) (tick % TICK_HISTORY)] = System.nanoTime();
+        outgoing.flip();
+        try {
+            client.write(outgoing);
+        } catch (IOException e) {
+            disconnect();
+            return;
+        }
+        outgoing.compact();
+    }
+
+    private void disconnect() throws IOException {
+        client.close();
+        this.client = null;
+        this.encoder = null;
+        this.remoteKeys = 0;
+        outgoing.clear();
+        incoming.clear();
+    }
+
+    /**
+     * Gets the address the server listens on.
+     *
+     * @return The local address, with the actual port.
+     * @throws IOException If the address cannot be read.
+     */
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Checks whether a client is connected.
+     *
+     * @return true if a client is connected, false otherwise.
+     */
+    public boolean isClientConnected() {
+        return client != null;
+    }
+
+    /**
+     * Gets the authoritative game.
+     *
+     * @return The game manager.
+     */
+    public BrickerGameManager getGame() {
+        return simulation.getGame();
+    }
+
+    /**
+     * Gets the number of ticks played.
+     *
+     * @return The tick of the last frame.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the number of frames sent.
+     *
+     * @return The number of frames.
+     */
+    public long getNumFramesSent() {
+        return numFramesSent;
+    }
+
+    /**
+     * Gets the number of bytes sent in frames, including their length prefixes.
+     *
+     * @return The number of bytes.
+     */
+    public long getNumBytesSent() {
+        return numBytesSent;
+    }
+
+    /**
+     * Gets the size of the last frame sent.
+     *
+     * @return The size in bytes, including the length prefix.
+     */
+    public int getLastFrameBytes() {
+        return lastFrameBytes;
+    }
+
+    /**
+     * Gets the time the last frame was handed to the socket.
+     *
+     * @return The System.nanoTime of the last send.
+     */
+    public long getLastSendNanos() {
+        return sendNanos[(int) (tick % TICK_HISTORY)];
+    }
+
+    /**
+     * Gets the round trips of the frames the client acknowledged: from sending a frame to reading the
+     * keys the client sent after applying it.
+     *
+     * @return The histogram of round trips.
+     */
+    public LatencyHistogram getRoundTrips() {
+        return roundTrips;
+    }
+
+    /**
+     * Closes the client connection and stops listening.
+     *
+     * @throws IOException If a socket fails to close.
+     */
+    @Override
+    public void close() throws IOException {
+        if (client != null) {
+            client.close();
+        }
+        serverChannel.close();
+        selector.close();
+    }
+
+    /**
+     * Runs a two-player server at the game's frame rate, with the user paddle following the ball, and
+     * prints the traffic and the round trip once a second.
+     *
+     * @param args Optional command-line arguments: args[0] is the port, args[1] the number of rows,
+     *             args[2] the number of bricks per row and args[3] the random seed.
+     * @throws IOException If the server socket fails.
+     */
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : NETWORK_DEFAULT_PORT;
+        int numRows = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_NUM_ROWS;
+        int bricksPerRow = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_BRICKS_PER_ROW;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        try (GameServer server = new GameServer(numRows, bricksPerRow, seed, new InetSocketAddress(port))) {
+            System.out.println("listening on " + server.getLocalAddress());
+            long tickNanos = NANOS_PER_SECOND / FIXED_FRAME_RATE;
+            long next = System.nanoTime();
+            long bytesBefore = 0;
+            while (true) {
+                server.tick();
+                if (server.getTick() % FIXED_FRAME_RATE == 0 && server.isClientConnected()) {
+                    LatencyHistogram roundTrips = server.getRoundTrips();
+                    System.out.printf("tick %d: %.1f B/tick, round trip p50 %.2f ms p99 %.2f ms%n",
+                            server.getTick(), (server.getNumBytesSent() - bytesBefore) / (double) FIXED_FRAME_RATE,
+                            roundTrips.getPercentileNanos(50) / NANOS_PER_MILLI,
+                            roundTrips.getPercentileNanos(99) / NANOS_PER_MILLI);
+                    bytesBefore = server.getNumBytesSent();
+                    roundTrips.reset();
+                }
+                next += tickNanos;
+                LockSupport.parkNanos(next - System.nanoTime());
+            }
+        }
+    }
+}
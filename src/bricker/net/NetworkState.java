@@ -0,0 +1,343 @@
+package bricker.net;
+
+import bricker.gameobjects.PuckGrid;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static bricker.main.Constants.*;
+
+/**
+ * NetworkState is the state of a networked game as the client knows it: the standing bricks, the
+ * lives, the paddles, and the centers and velocities of the main ball and the pucks.
+ * The ball and the pucks move in straight lines between bounces, so instead of sending them every
+ * tick the server only corrects them: every tick both ends advance each body by its velocity, the
+ * same float operations on the same values giving the same result on both, and the server sends a
+ * body only when its velocity changed or the prediction drifted more than POSITION_TOLERANCE from
+ * the real position. Pucks that run into each other are bounced by a PuckGrid on both ends as well,
+ * so only the contacts that the real positions decide differently are corrected. The server keeps a
+ * NetworkState of its own, which mirrors the client's, to know what the client predicted.
+ */
+public class NetworkState {
+    private static final int INITIAL_PUCK_CAPACITY = 64;
+
+    private final BitSet bricks;
+    private boolean synced;
+    private long tick;
+    private int numRows;
+    private int bricksPerRow;
+    private float tickSeconds;
+    private int lives;
+    private short userPaddleX;
+    private short secondaryPaddleX;
+    private final float[] ball;
+    private float[] puckX;
+    private float[] puckY;
+    private float[] puckVelocityX;
+    private float[] puckVelocityY;
+    private int numPucks;
+    private final PuckGrid puckGrid;
+
+    /**
+     * Constructs a new NetworkState that knows nothing yet.
+     */
+    public NetworkState() {
+        this.bricks = new BitSet();
+        this.synced = false;
+        this.secondaryPaddleX = WireFormat.NO_PADDLE;
+        this.ball = new float[4];
+        this.puckX = new float[INITIAL_PUCK_CAPACITY];
+        this.puckY = new float[INITIAL_PUCK_CAPACITY];
+        this.puckVelocityX = new float[INITIAL_PUCK_CAPACITY];
+        this.puckVelocityY = new float[INITIAL_PUCK_CAPACITY];
+        this.numPucks = 0;
+        this.puckGrid = new PuckGrid(SCREEN_WIDTH, SCREEN_HEIGHT, PUCK_BALL_RATIO * BALL_RADIUS);
+    }
+
+    /**
+     * Moves the ball and the pucks by their velocities for one tick, and bounces the pucks that ran
+     * into each other.
+     */
+    void predict() {
+        ball[0] += ball[2] * tickSeconds;
+        ball[1] += ball[3] * tickSeconds;
+        for (int i = 0; i < numPucks; i++) {
+            puckX[i] += puckVelocityX[i] * tickSeconds;
+            puckY[i] += puckVelocityY[i] * tickSeconds;
+        }
+        puckGrid.collide(puckX, puckY, puckVelocityX, puckVelocityY, numPucks);
+    }
+
+    /**
+     * Checks whether a predicted body has to be corrected.
+     *
+     * @param x         The predicted center x.
+     * @param y         The predicted center y.
+     * @param velocityX The predicted horizontal velocity.
+     * @param velocityY The predicted vertical velocity.
+     * @param qx        The quantized real center x.
+     * @param qy        The quantized real center y.
+     * @param qvx       The quantized real horizontal velocity.
+     * @param qvy       The quantized real vertical velocity.
+     * @return true if the velocity changed or the position drifted too far, false otherwise.
+     */
+    static boolean needsCorrection(float x, float y, float velocityX, float velocityY,
+                                   short qx, short qy, short qvx, short qvy) {
+        return WireFormat.quantizeVelocity(velocityX) != qvx || WireFormat.quantizeVelocity(velocityY) != qvy
+                || Math.abs(x - qx / WireFormat.POSITION_SCALE) > WireFormat.POSITION_TOLERANCE
+                || Math.abs(y - qy / WireFormat.POSITION_SCALE) > WireFormat.POSITION_TOLERANCE;
+    }
+
+    void setSynced(boolean synced) {
+        this.synced = synced;
+    }
+
+    void setTick(long tick) {
+        this.tick = tick;
+    }
+
+    void setLayout(int numRows, int bricksPerRow, float tickSeconds) {
+        this.numRows = numRows;
+        this.bricksPerRow = bricksPerRow;
+        this.tickSeconds = tickSeconds;
+    }
+
+    void setLives(int lives) {
+        this.lives = lives;
+    }
+
+    void setUserPaddleX(short x) {
+        this.userPaddleX = x;
+    }
+
+    void setSecondaryPaddleX(short x) {
+        this.secondaryPaddleX = x;
+    }
+
+    short getQuantizedUserPaddleX() {
+        return userPaddleX;
+    }
+
+    short getQuantizedSecondaryPaddleX() {
+        return secondaryPaddleX;
+    }
+
+    void setBall(short x, short y, short velocityX, short velocityY) {
+        ball[0] = x / WireFormat.POSITION_SCALE;
+        ball[1] = y / WireFormat.POSITION_SCALE;
+        ball[2] = velocityX / WireFormat.VELOCITY_SCALE;
+        ball[3] = velocityY / WireFormat.VELOCITY_SCALE;
+    }
+
+    void setNumPucks(int numPucks) {
+        if (numPucks > puckX.length) {
+            int capacity = Math.max(numPucks, puckX.length * 2);
+            this.puckX = Arrays.copyOf(puckX, capacity);
+            this.puckY = Arrays.copyOf(puckY, capacity);
+            this.puckVelocityX = Arrays.copyOf(puckVelocityX, capacity);
+            this.puckVelocityY = Arrays.copyOf(puckVelocityY, capacity);
+        }
+        this.numPucks = numPucks;
+    }
+
+    void setPuck(int index, short x, short y, short velocityX, short velocityY) {
+        puckX[index] = x / WireFormat.POSITION_SCALE;
+        puckY[index] = y / WireFormat.POSITION_SCALE;
+        puckVelocityX[index] = velocityX / WireFormat.VELOCITY_SCALE;
+        puckVelocityY[index] = velocityY / WireFormat.VELOCITY_SCALE;
+    }
+
+    /**
+     * Checks whether the state was received in full at least once.
+     *
+     * @return true once the first frame was applied, false before.
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * Gets the tick of the last frame applied.
+     *
+     * @return The server tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the number of rows of the brick field.
+     *
+     * @return The number of rows.
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Gets the number of bricks per row of the brick field.
+     *
+     * @return The number of bricks per row.
+     */
+    public int getBricksPerRow() {
+        return bricksPerRow;
+    }
+
+    /**
+     * Gets the game time between two ticks.
+     *
+     * @return The length of a tick, in seconds.
+     */
+    public float getTickSeconds() {
+        return tickSeconds;
+    }
+
+    /**
+     * Gets the set of standing bricks. Bit i is set if the brick in cell i (row major) is standing.
+     *
+     * @return The live bitset of the state. Callers must not modify it.
+     */
+    public BitSet getBricks() {
+        return bricks;
+    }
+
+    /**
+     * Checks whether the brick in a cell is standing.
+     *
+     * @param cellIndex The row major index of the cell.
+     * @return true if the brick is standing, false otherwise.
+     */
+    public boolean isStanding(int cellIndex) {
+        return bricks.get(cellIndex);
+    }
+
+    /**
+     * Gets the number of bricks standing.
+     *
+     * @return The number of bricks.
+     */
+    public int getNumStanding() {
+        return bricks.cardinality();
+    }
+
+    /**
+     * Gets the number of lives left.
+     *
+     * @return The number of lives.
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * Gets the center x of the user paddle.
+     *
+     * @return The center x, in pixels.
+     */
+    public float getUserPaddleX() {
+        return userPaddleX / WireFormat.POSITION_SCALE;
+    }
+
+    /**
+     * Checks whether the secondary paddle exists.
+     *
+     * @return true if the secondary paddle exists, false otherwise.
+     */
+    public boolean hasSecondaryPaddle() {
+        return secondaryPaddleX != WireFormat.NO_PADDLE;
+    }
+
+    /**
+     * Gets the center x of the secondary paddle.
+     *
+     * @return The center x, in pixels, or NaN if there is no secondary paddle.
+     */
+    public float getSecondaryPaddleX() {
+        return hasSecondaryPaddle() ? secondaryPaddleX / WireFormat.POSITION_SCALE : Float.NaN;
+    }
+
+    /**
+     * Gets the center x of the main ball.
+     *
+     * @return The center x, in pixels.
+     */
+    public float getBallX() {
+        return ball[0];
+    }
+
+    /**
+     * Gets the center y of the main ball.
+     *
+     * @return The center y, in pixels.
+     */
+    public float getBallY() {
+        return ball[1];
+    }
+
+    /**
+     * Gets the horizontal velocity of the main ball.
+     *
+     * @return The horizontal velocity, in pixels per second.
+     */
+    public float getBallVelocityX() {
+        return ball[2];
+    }
+
+    /**
+     * Gets the vertical velocity of the main ball.
+     *
+     * @return The vertical velocity, in pixels per second.
+     */
+    public float getBallVelocityY() {
+        return ball[3];
+    }
+
+    /**
+     * Gets the number of pucks.
+     *
+     * @return The number of pucks.
+     */
+    public int getNumPucks() {
+        return numPucks;
+    }
+
+    /**
+     * Gets the center x of a puck.
+     *
+     * @param index The index of the puck, in the server's order.
+     * @return The center x, in pixels.
+     */
+    public float getPuckX(int index) {
+        return puckX[index];
+    }
+
+    /**
+     * Gets the center y of a puck.
+     *
+     * @param index The index of the puck, in the server's order.
+     * @return The center y, in pixels.
+     */
+    public float getPuckY(int index) {
+        return puckY[index];
+    }
+
+    /**
+     * Gets the horizontal velocity of a puck.
+     *
+     * @param index The index of the puck, in the server's order.
+     * @return The horizontal velocity, in pixels per second.
+     */
+    public float getPuckVelocityX(int index) {
+        return puckVelocityX[index];
+    }
+
+    /**
+     * Gets the vertical velocity of a puck.
+     *
+     * @param index The index of the puck, in the server's order.
+     * @return The vertical velocity, in pixels per second.
+     */
+    public float getPuckVelocityY(int index) {
+        return puckVelocityY[index];
+    }
+}
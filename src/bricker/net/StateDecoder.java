@@ -0,0 +1,96 @@
+package bricker.net;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * StateDecoder applies the frames written by a StateEncoder to the client's NetworkState, in the
+ * order they were sent. Applying a frame advances the predicted bodies first, exactly as the encoder
+ * did before it wrote the frame, so the client's state stays equal to the server's mirror of it.
+ */
+public class StateDecoder {
+    private final NetworkState state;
+
+    /**
+     * Constructs a new StateDecoder with a state that knows nothing yet.
+     */
+    public StateDecoder() {
+        this.state = new NetworkState();
+    }
+
+    /**
+     * Applies a frame.
+     *
+     * @param buffer The buffer holding the frame, without its length prefix, from its position. The
+     *               position is left after the frame.
+     * @throws java.nio.BufferUnderflowException If the buffer holds less than the frame.
+     */
+    public void decode(ByteBuffer buffer) {
+        long tick = WireFormat.getVarLong(buffer);
+        int flags = buffer.get();
+        if (state.isSynced()) {
+            state.predict();
+        }
+        if ((flags & WireFormat.LIVES) != 0) {
+            state.setLives(buffer.get());
+        }
+        if ((flags & WireFormat.USER_PADDLE) != 0) {
+            state.setUserPaddleX(buffer.getShort());
+        }
+        if ((flags & WireFormat.SECONDARY_PADDLE) != 0) {
+            state.setSecondaryPaddleX(buffer.getShort());
+        }
+        if ((flags & WireFormat.BRICKS_FULL) != 0) {
+            decodeBitmap(buffer);
+        }
+        if ((flags & WireFormat.BRICKS_DELTA) != 0) {
+            BitSet bricks = state.getBricks();
+            int numChanged = WireFormat.getVarInt(buffer);
+            int cell = -1;
+            for (int i = 0; i < numChanged; i++) {
+                cell += WireFormat.getVarInt(buffer) + 1;
+                bricks.flip(cell);
+            }
+        }
+        if ((flags & WireFormat.BALL) != 0) {
+            state.setBall(buffer.getShort(), buffer.getShort(), buffer.getShort(), buffer.getShort());
+        }
+        if ((flags & WireFormat.PUCKS) != 0) {
+            state.setNumPucks(WireFormat.getVarInt(buffer));
+            int numCorrections = WireFormat.getVarInt(buffer);
+            int index = -1;
+            for (int i = 0; i < numCorrections; i++) {
+                index += WireFormat.getVarInt(buffer) + 1;
+                state.setPuck(index, buffer.getShort(), buffer.getShort(), buffer.getShort(),
+                        buffer.getShort());
+            }
+        }
+        state.setTick(tick);
+        state.setSynced(true);
+    }
+
+    private void decodeBitmap(ByteBuffer buffer) {
+        int numRows = WireFormat.getVarInt(buffer);
+        int bricksPerRow = WireFormat.getVarInt(buffer);
+        state.setLayout(numRows, bricksPerRow, buffer.getFloat());
+        BitSet bricks = state.getBricks();
+        bricks.clear();
+        int numWords = (numRows * bricksPerRow + Long.SIZE - 1) / Long.SIZE;
+        for (int wordIndex = 0; wordIndex < numWords; wordIndex++) {
+            long word = buffer.getLong();
+            while (word != 0) {
+                bricks.set(wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Gets the state the frames are applied to.
+     *
+     * @return The client's state.
+     */
+    public NetworkState getState() {
+        return state;
+    }
+}
@@ -0,0 +1,196 @@
+package bricker.net;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.Paddle;
+import bricker.gameobjects.PuckSystem;
+import bricker.main.BrickerGameManager;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * StateEncoder writes the frames a server sends to one client: each frame holds only what changed
+ * since the previous one, measured against a NetworkState that mirrors the client's.
+ * The first frame holds the whole state. After it, a frame holds the lives and the paddles if they
+ * changed, the bricks that were destroyed or revived as a list of cells - or the whole bitmap, when
+ * the list would be longer, e.g. after a restart - and the ball and the pucks whose prediction went
+ * wrong. Pucks are sent by their index in the puck system, so a puck moved into the slot of a removed
+ * one, or a new puck, is simply corrected. A quiet tick costs a few bytes however many pucks fly.
+ * The frames go over a reliable, ordered stream, so every frame can build on the previous one.
+ */
+public class StateEncoder {
+    private static final int BYTES_PER_CHANGED_CELL = 2;
+
+    private final NetworkState mirror;
+    private final BitSet changed;
+    private final float tickSeconds;
+
+    /**
+     * Constructs a new StateEncoder for a client that knows nothing yet.
+     *
+     * @param tickSeconds The game time between two frames.
+     */
+    public StateEncoder(float tickSeconds) {
+        this.mirror = new NetworkState();
+        this.changed = new BitSet();
+        this.tickSeconds = tickSeconds;
+    }
+
+    /**
+     * Writes the frame of a tick, including its length prefix, and updates the mirror of the client.
+     *
+     * @param game   The game whose state is sent.
+     * @param tick   The tick of the frame.
+     * @param buffer The buffer the frame is written to, at its position.
+     * @throws java.nio.BufferOverflowException If the buffer is too small.
+     */
+    public void encode(BrickerGameManager game, long tick, ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putInt(0);
+        WireFormat.putVarLong(buffer, tick);
+        int flagsPosition = buffer.position();
+        buffer.put((byte) 0);
+        boolean keyframe = !mirror.isSynced();
+        if (!keyframe) {
+            mirror.predict();
+        }
+        int flags = 0;
+        if (keyframe || game.getNumLives() != mirror.getLives()) {
+            flags |= WireFormat.LIVES;
+            buffer.put((byte) game.getNumLives());
+            mirror.setLives(game.getNumLives());
+        }
+        short userPaddleX = quantizeCenterX(game.getUserPaddle());
+        if (keyframe || userPaddleX != mirror.getQuantizedUserPaddleX()) {
+            flags |= WireFormat.USER_PADDLE;
+            buffer.putShort(userPaddleX);
+            mirror.setUserPaddleX(userPaddleX);
+        }
+        Paddle secondaryPaddle = game.getSecondaryPaddle();
+        short secondaryPaddleX = secondaryPaddle == null ? WireFormat.NO_PADDLE : quantizeCenterX(secondaryPaddle);
+        if (keyframe || secondaryPaddleX != mirror.getQuantizedSecondaryPaddleX()) {
+            flags |= WireFormat.SECONDARY_PADDLE;
+            buffer.putShort(secondaryPaddleX);
+            mirror.setSecondaryPaddleX(secondaryPaddleX);
+        }
+        flags |= encodeBricks(game.getBrickField(), keyframe, buffer);
+        flags |= encodeBall(game.getBall(), keyframe, buffer);
+        flags |= encodePucks(game.getPuckSystem(), keyframe, buffer);
+        buffer.put(flagsPosition, (byte) flags);
+        buffer.putInt(start, buffer.position() - start - WireFormat.LENGTH_BYTES);
+        mirror.setTick(tick);
+        mirror.setSynced(true);
+    }
+
+    private int encodeBricks(BrickField brickField, boolean keyframe, ByteBuffer buffer) {
+        BitSet standing = brickField.getStanding();
+        BitSet known = mirror.getBricks();
+        changed.clear();
+        changed.or(known);
+        changed.xor(standing);
+        int numChanged = changed.cardinality();
+        int numWords = (brickField.getNumCells() + Long.SIZE - 1) / Long.SIZE;
+        if (keyframe || numChanged * BYTES_PER_CHANGED_CELL > numWords * Long.BYTES) {
+            WireFormat.putVarLong(buffer, brickField.getNumRows());
+            WireFormat.putVarLong(buffer, brickField.getBricksPerRow());
+            buffer.putFloat(tickSeconds);
+            brickField.writeBitmap(buffer);
+            mirror.setLayout(brickField.getNumRows(), brickField.getBricksPerRow(), tickSeconds);
+            known.clear();
+            known.or(standing);
+            return WireFormat.BRICKS_FULL;
+        }
+        if (numChanged == 0) {
+            return 0;
+        }
+        WireFormat.putVarLong(buffer, numChanged);
+        int previous = -1;
+        for (int cell = changed.nextSetBit(0); cell >= 0; cell = changed.nextSetBit(cell + 1)) {
+            WireFormat.putVarLong(buffer, cell - previous - 1);
+            previous = cell;
+        }
+        known.xor(changed);
+        return WireFormat.BRICKS_DELTA;
+    }
+
+    private int encodeBall(Ball ball, boolean keyframe, ByteBuffer buffer) {
+        Vector2 corner = ball.getTopLeftCorner();
+        Vector2 dimensions = ball.getDimensions();
+        Vector2 velocity = ball.getVelocity();
+        short x = WireFormat.quantizePosition(corner.x() + dimensions.x() / 2);
+        short y = WireFormat.quantizePosition(corner.y() + dimensions.y() / 2);
+        short velocityX = WireFormat.quantizeVelocity(velocity.x());
+        short velocityY = WireFormat.quantizeVelocity(velocity.y());
+        if (!keyframe && !NetworkState.needsCorrection(mirror.getBallX(), mirror.getBallY(),
+                mirror.getBallVelocityX(), mirror.getBallVelocityY(), x, y, velocityX, velocityY)) {
+            return 0;
+        }
+        putBody(buffer, x, y, velocityX, velocityY);
+        mirror.setBall(x, y, velocityX, velocityY);
+        return WireFormat.BALL;
+    }
+
+    private int encodePucks(PuckSystem puckSystem, boolean keyframe, ByteBuffer buffer) {
+        int numPucks = puckSystem.getNumPucks();
+        int numKnown = keyframe ? 0 : Math.min(mirror.getNumPucks(), numPucks);
+        int numCorrections = numPucks - numKnown;
+        for (int i = 0; i < numKnown; i++) {
+            if (needsCorrection(puckSystem, i)) {
+                numCorrections++;
+            }
+        }
+        if (!keyframe && numCorrections == 0 && numPucks == mirror.getNumPucks()) {
+            return 0;
+        }
+        WireFormat.putVarLong(buffer, numPucks);
+        WireFormat.putVarLong(buffer, numCorrections);
+        mirror.setNumPucks(numPucks);
+        int previous = -1;
+        for (int i = 0; i < numPucks; i++) {
+            if (i < numKnown && !needsCorrection(puckSystem, i)) {
+                continue;
+            }
+            short x = WireFormat.quantizePosition(puckSystem.getCenterX(i));
+            short y = WireFormat.quantizePosition(puckSystem.getCenterY(i));
+            short velocityX = WireFormat.quantizeVelocity(puckSystem.getVelocityX(i));
+            short velocityY = WireFormat.quantizeVelocity(puckSystem.getVelocityY(i));
+            WireFormat.putVarLong(buffer, i - previous - 1);
+            putBody(buffer, x, y, velocityX, velocityY);
+            mirror.setPuck(i, x, y, velocityX, velocityY);
+            previous = i;
+        }
+        return WireFormat.PUCKS;
+    }
+
+    private boolean needsCorrection(PuckSystem puckSystem, int index) {
+        return NetworkState.needsCorrection(mirror.getPuckX(index), mirror.getPuckY(index),
+                mirror.getPuckVelocityX(index), mirror.getPuckVelocityY(index),
+                WireFormat.quantizePosition(puckSystem.getCenterX(index)),
+                WireFormat.quantizePosition(puckSystem.getCenterY(index)),
+                WireFormat.quantizeVelocity(puckSystem.getVelocityX(index)),
+                WireFormat.quantizeVelocity(puckSystem.getVelocityY(index)));
+    }
+
+    private static void putBody(ByteBuffer buffer, short x, short y, short velocityX, short velocityY) {
+        buffer.putShort(x);
+        buffer.putShort(y);
+        buffer.putShort(velocityX);
+        buffer.putShort(velocityY);
+    }
+
+    private static short quantizeCenterX(GameObject body) {
+        return WireFormat.quantizePosition(body.getTopLeftCorner().x() + body.getDimensions().x() / 2);
+    }
+
+    /**
+     * Gets the state the client knows after the last frame.
+     *
+     * @return The mirror of the client's state.
+     */
+    public NetworkState getMirror() {
+        return mirror;
+    }
+}
@@ -0,0 +1,151 @@
+package bricker.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * WireFormat holds the constants and the primitive encodings shared by the two ends of a networked
+ * game.
+ * The server sends one frame per tick: an int with the length of the rest of the frame, the tick as a
+ * varint, a byte of section flags, and then the sections whose flags are set, in the order of the
+ * flags. Positions and velocities are quantized to shorts in 1/POSITION_SCALE pixels and
+ * 1/VELOCITY_SCALE pixels per second; counts, cells and gaps between cells are unsigned varints of
+ * 7 bits per byte.
+ * The client sends fixed INPUT_MESSAGE_BYTES messages: a byte of FrameInput keys for the secondary
+ * paddle and the last tick it applied, as a long, which the server uses to measure the round trip.
+ */
+class WireFormat {
+    /**
+     * Flag of the section holding the lives, as a byte.
+     */
+    static final int LIVES = 1;
+
+    /**
+     * Flag of the section holding the center x of the user paddle.
+     */
+    static final int USER_PADDLE = 1 << 1;
+
+    /**
+     * Flag of the section holding the center x of the secondary paddle, or NO_PADDLE.
+     */
+    static final int SECONDARY_PADDLE = 1 << 2;
+
+    /**
+     * Flag of the section holding the whole brick field: its rows, bricks per row and tick length,
+     * then the bitmap of standing bricks as longs.
+     */
+    static final int BRICKS_FULL = 1 << 3;
+
+    /**
+     * Flag of the section holding the bricks that changed: their number, then the gaps between them.
+     */
+    static final int BRICKS_DELTA = 1 << 4;
+
+    /**
+     * Flag of the section holding a correction of the main ball.
+     */
+    static final int BALL = 1 << 5;
+
+    /**
+     * Flag of the section holding the number of pucks and the corrections of the pucks.
+     */
+    static final int PUCKS = 1 << 6;
+
+    /**
+     * The quantized position of a paddle that does not exist.
+     */
+    static final short NO_PADDLE = Short.MIN_VALUE;
+
+    /**
+     * The number of position units per pixel.
+     */
+    static final float POSITION_SCALE = 16;
+
+    /**
+     * The number of velocity units per pixel per second.
+     */
+    static final float VELOCITY_SCALE = 16;
+
+    /**
+     * The distance, in pixels, a predicted body may drift from the server's before it is corrected.
+     */
+    static final float POSITION_TOLERANCE = 0.5f;
+
+    /**
+     * The size of a message from the client.
+     */
+    static final int INPUT_MESSAGE_BYTES = Byte.BYTES + Long.BYTES;
+
+    /**
+     * The size of a frame's length prefix.
+     */
+    static final int LENGTH_BYTES = Integer.BYTES;
+
+    private static final int VARINT_BITS = 7;
+    private static final int VARINT_MASK = (1 << VARINT_BITS) - 1;
+    private static final int VARINT_MORE = 1 << VARINT_BITS;
+
+    /**
+     * Quantizes a position.
+     *
+     * @param position The position, in pixels.
+     * @return The nearest position unit, clamped to the range of a short other than NO_PADDLE.
+     */
+    static short quantizePosition(float position) {
+        return clamp(Math.round(position * POSITION_SCALE));
+    }
+
+    /**
+     * Quantizes a velocity.
+     *
+     * @param velocity The velocity, in pixels per second.
+     * @return The nearest velocity unit, clamped to the range of a short other than NO_PADDLE.
+     */
+    static short quantizeVelocity(float velocity) {
+        return clamp(Math.round(velocity * VELOCITY_SCALE));
+    }
+
+    private static short clamp(int units) {
+        return (short) Math.max(Short.MIN_VALUE + 1, Math.min(Short.MAX_VALUE, units));
+    }
+
+    /**
+     * Writes an unsigned varint.
+     *
+     * @param buffer The buffer the value is written to, at its position.
+     * @param value  The value, treated as unsigned.
+     */
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~VARINT_MASK) != 0) {
+            buffer.put((byte) ((value & VARINT_MASK) | VARINT_MORE));
+            value >>>= VARINT_BITS;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint.
+     *
+     * @param buffer The buffer the value is read from, at its position.
+     * @return The value.
+     */
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += VARINT_BITS) {
+            int b = buffer.get();
+            value |= (long) (b & VARINT_MASK) << shift;
+            if ((b & VARINT_MORE) == 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Reads an unsigned varint that fits an int.
+     *
+     * @param buffer The buffer the value is read from, at its position.
+     * @return The value.
+     */
+    static int getVarInt(ByteBuffer buffer) {
+        return (int) getVarLong(buffer);
+    }
+}
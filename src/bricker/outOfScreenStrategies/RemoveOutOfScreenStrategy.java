@@ -22,7 +22,9 @@ public class RemoveOutOfScreenStrategy implements OutOfScreenStrategy {
      * @param object The game object that has moved out of the screen bounds.
      */
     public void outOfScreen(GameObject object){
-        if(object.getCenter().y() > brickerGameManager.getWindowDimensions().y()){
+        //the center is computed from the stored corner and size, since getCenter allocates a new vector
+        float centerY = object.getTopLeftCorner().y() + object.getDimensions().y() / 2;
+        if(centerY > brickerGameManager.getWindowDimensions().y()){
             brickerGameManager.removeObject(object);
         }
     }
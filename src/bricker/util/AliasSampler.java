@@ -0,0 +1,90 @@
+package bricker.util;
+
+/**
+ * AliasSampler draws indices from a discrete weighted distribution in constant time, using Vose's
+ * alias method.
+ * The weight table is preprocessed once into a probability table and an alias table. Every draw then
+ * picks a column uniformly and either keeps it or takes its alias, so sampling costs two random
+ * numbers and no allocation, no matter how many entries the table has.
+ */
+public class AliasSampler {
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    /**
+     * Constructs a new AliasSampler.
+     *
+     * @param weights The non-negative weight of every index. At least one weight must be positive.
+     */
+    public AliasSampler(double[] weights) {
+        int n = weights.length;
+        double sum = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight)) {
+                throw new IllegalArgumentException("weights must be non-negative: " + weight);
+            }
+            sum += weight;
+        }
+        if (n == 0 || sum <= 0) {
+            throw new IllegalArgumentException("at least one weight must be positive");
+        }
+        this.probabilities = new double[n];
+        this.aliases = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int numSmall = 0;
+        int numLarge = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / sum;
+            if (scaled[i] < 1) {
+                small[numSmall++] = i;
+            } else {
+                large[numLarge++] = i;
+            }
+        }
+        while (numSmall > 0 && numLarge > 0) {
+            int less = small[--numSmall];
+            int more = large[--numLarge];
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1) {
+                small[numSmall++] = more;
+            } else {
+                large[numLarge++] = more;
+            }
+        }
+        //whatever is left over is 1 up to rounding errors
+        while (numLarge > 0) {
+            int index = large[--numLarge];
+            probabilities[index] = 1;
+            aliases[index] = index;
+        }
+        while (numSmall > 0) {
+            int index = small[--numSmall];
+            probabilities[index] = 1;
+            aliases[index] = index;
+        }
+    }
+
+    /**
+     * Draws an index with probability proportional to its weight.
+     *
+     * @param random The source of randomness.
+     * @return The drawn index.
+     */
+    public int sample(RandomSource random) {
+        int column = random.nextInt(probabilities.length);
+        return random.nextDouble() < probabilities[column] ? column : aliases[column];
+    }
+
+    /**
+     * Gets the number of indices the sampler draws from.
+     *
+     * @return The size of the weight table.
+     */
+    public int size() {
+        return probabilities.length;
+    }
+}
@@ -0,0 +1,117 @@
+package bricker.util;
+
+/**
+ * RandomSource is a small, seedable pseudo random number generator (SplitMix64).
+ * Unlike java.util.Random it keeps its whole state in one plain long, so drawing numbers allocates
+ * nothing and involves no atomic operations, and the same seed always reproduces the same sequence.
+ * A source can be split into independent child sources, one per subsystem, so that a subsystem
+ * drawing more or fewer numbers does not shift the sequences seen by the others.
+ * Instances are not thread safe; every thread or subsystem should own its own split.
+ */
+public class RandomSource {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final long MIX_MULTIPLIER_1 = 0xbf58476d1ce4e5b9L;
+    private static final long MIX_MULTIPLIER_2 = 0x94d049bb133111ebL;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final float FLOAT_UNIT = 0x1.0p-24f;
+
+    private long state;
+
+    /**
+     * Constructs a new RandomSource.
+     *
+     * @param seed The seed of the generated sequence.
+     */
+    public RandomSource(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Creates an independent source whose sequence is determined by this source's current state.
+     *
+     * @return A new RandomSource.
+     */
+    public RandomSource split() {
+        return new RandomSource(mix(nextLong()));
+    }
+
+    /**
+     * Draws a uniformly distributed long.
+     *
+     * @return The next pseudo random long.
+     */
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    /**
+     * Draws a uniformly distributed int between 0 (inclusive) and bound (exclusive).
+     *
+     * @param bound The upper bound, must be positive.
+     * @return The next pseudo random int in [0, bound).
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        long threshold = (1L << 32) % bound;
+        while (true) {
+            long product = (nextLong() >>> 32) * bound;
+            if ((product & 0xffffffffL) >= threshold) {
+                return (int) (product >>> 32);
+            }
+        }
+    }
+
+    /**
+     * Draws a uniformly distributed boolean.
+     *
+     * @return The next pseudo random boolean.
+     */
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /**
+     * Draws a uniformly distributed double between 0 (inclusive) and 1 (exclusive).
+     *
+     * @return The next pseudo random double in [0, 1).
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Draws a uniformly distributed float between 0 (inclusive) and 1 (exclusive).
+     *
+     * @return The next pseudo random float in [0, 1).
+     */
+    public float nextFloat() {
+        return (nextLong() >>> 40) * FLOAT_UNIT;
+    }
+
+    /**
+     * Gets the internal state of this source, e.g. for saving it in a snapshot.
+     *
+     * @return The current state.
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Restores the internal state of this source.
+     *
+     * @param state A state previously returned by getState.
+     */
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * MIX_MULTIPLIER_1;
+        z = (z ^ (z >>> 27)) * MIX_MULTIPLIER_2;
+        return z ^ (z >>> 31);
+    }
+}